@@ -31,12 +31,12 @@ import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.SymphonyClientFactory;
 import org.symphonyoss.client.exceptions.UsersClientException;
+import org.symphonyoss.symphony.clients.UserSyncListener;
 import org.symphonyoss.symphony.clients.model.SymUser;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Set;
 
 
 /**
@@ -98,29 +98,32 @@ public class UserReport {
 
 
 
-        try {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(System.getProperty("report.file", "UsersReport.csv")))) {
 
-            final FileWriter fw = new FileWriter(System.getProperty("report.file","UsersReport.csv"));
-            final BufferedWriter bw = new BufferedWriter(fw);
+            //Users are written as their details arrive instead of after the whole pod has been retrieved
+            int users = symClient.getUsersClient().getAllUsersWithDetails(new UserSyncListener() {
+                @Override
+                public void onUser(SymUser symUser) {
+                    try {
+                        logger.debug("{}:{}:{}:{}", symUser.getUsername(), symUser.getId(), symUser.getCreatedDate(), symUser.getLastLoginDate());
 
-            Set<SymUser> allUsers = symClient.getUsersClient().getAllUsersWithDetails();
+                        bw.write(symUser.getUsername() + "," + symUser.getId() + "," + symUser.getCreatedDate() + "," + symUser.getLastLoginDate() + "\n");
 
+                    } catch (IOException e) {
+                        logger.error("Writing to file");
+                    }
+                }
 
-
-            allUsers.forEach(symUser -> {
-                try {
-                    logger.debug("{}:{}:{}:{}", symUser.getUsername(), symUser.getId(), symUser.getCreatedDate(), symUser.getLastLoginDate());
-
-                    bw.write(symUser.getUsername() + "," + symUser.getId() + "," + symUser.getCreatedDate() + "," + symUser.getLastLoginDate() + "\n");
-
-                } catch (IOException e) {
-                    logger.error("Writing to file");
+                @Override
+                public void onProgress(int completed, int total) {
+                    logger.info("Processed {} of {} users", completed, total);
                 }
             });
 
+            logger.info("Wrote {} users", users);
 
         } catch (UsersClientException e) {
-            logger.error("Failed to send message", e);
+            logger.error("Failed to retrieve users", e);
         } catch (IOException e) {
             logger.error("Writing to file");
         }
@@ -0,0 +1,82 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.ai.AiCommand;
+import org.symphonyoss.client.ai.AiLastCommand;
+import org.symphonyoss.client.ai.utils.AiSpellParser;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy command matching used to suggest commands for misspelled input.
+ *
+ * @author Frank Tarsillo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AiSpellParserBenchmark {
+
+    private static final double CLOSENESS_FACTOR = 0.7;
+
+    @Param({"5", "50"})
+    private int commandCount;
+
+    private final ArrayList<AiCommand> commands = new ArrayList<>();
+    private SymphonyClient symClient;
+    private String[] chunks;
+
+
+    @Setup
+    public void setup() throws Exception {
+
+        symClient = BenchmarkPayloads.stubClient();
+
+        for (int i = 0; i < commandCount - 1; i++)
+            commands.add(new AiCommand("/command" + i + " option" + i, 1, "/command" + i + " option" + i + " <value>"));
+
+        commands.add(new AiCommand("/report daily", 1, "/report daily <market>"));
+
+        chunks = "/reprot dialy markets".split("\\s+");
+    }
+
+
+    @Benchmark
+    public boolean canParse() {
+        return AiSpellParser.canParse(commands, chunks, CLOSENESS_FACTOR);
+    }
+
+
+    @Benchmark
+    public AiLastCommand parse() {
+        return AiSpellParser.parse(commands, chunks, symClient, CLOSENESS_FACTOR);
+    }
+
+}
@@ -0,0 +1,232 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.benchmarks;
+
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.symphony.agent.model.*;
+import org.symphonyoss.symphony.clients.DataFeedClient;
+import org.symphonyoss.symphony.clients.UsersClient;
+import org.symphonyoss.symphony.clients.model.SymAvatar;
+import org.symphonyoss.symphony.clients.model.SymDatafeed;
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Synthetic payloads and an offline {@link SymphonyClient} stub shared by the benchmarks.
+ *
+ * @author Frank Tarsillo
+ */
+public final class BenchmarkPayloads {
+
+    public static final long BOT_USER_ID = 1L;
+    public static final long SENDER_USER_ID = 2L;
+
+    public static final String SHORT_MESSAGE = "<div data-format=\"PresentationML\" data-version=\"2.0\">Hello world</div>";
+
+    public static final String RICH_MESSAGE = "<div data-format=\"PresentationML\" data-version=\"2.0\">"
+            + "<span class=\"entity\" data-entity-id=\"0\">@bot</span> /report <b>daily</b> for "
+            + "<span class=\"entity\" data-entity-id=\"1\">#markets</span> and "
+            + "<span class=\"entity\" data-entity-id=\"2\">$AAPL</span>"
+            + "<table><tr><td>EUR</td><td>1.18</td></tr><tr><td>GBP</td><td>1.31</td></tr></table>"
+            + "<ul><li>one</li><li>two</li><li>three</li></ul>"
+            + "<a href=\"https://symphony.com\">link</a></div>";
+
+
+    private BenchmarkPayloads() {
+    }
+
+
+    /**
+     * @param streamId Stream ID of the message
+     * @param userId   Sender user ID
+     * @param message  PresentationML message
+     * @return Datafeed message
+     */
+    public static V4Message v4Message(String streamId, long userId, String message) {
+
+        V4User v4User = new V4User();
+        v4User.setUserId(userId);
+        v4User.setEmail("user" + userId + "@symphony.com");
+        v4User.setDisplayName("User " + userId);
+        v4User.setFirstName("User");
+        v4User.setLastName(String.valueOf(userId));
+        v4User.setUsername("user" + userId);
+
+        V4Stream v4Stream = new V4Stream();
+        v4Stream.setStreamId(streamId);
+        v4Stream.setStreamType("ROOM");
+        v4Stream.setRoomName("Room " + streamId);
+
+        V4Message v4Message = new V4Message();
+        v4Message.setMessageId("msg-" + System.nanoTime());
+        v4Message.setTimestamp(System.currentTimeMillis());
+        v4Message.setMessage(message);
+        v4Message.setData("{}");
+        v4Message.setUser(v4User);
+        v4Message.setStream(v4Stream);
+
+        return v4Message;
+    }
+
+
+    /**
+     * @param count   Number of events
+     * @param streams Number of distinct streams the events are spread over
+     * @return MESSAGESENT datafeed events
+     */
+    public static List<V4Event> v4Events(int count, int streams) {
+
+        List<V4Event> v4Events = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+
+            V4Message v4Message = v4Message("stream" + (i % streams), SENDER_USER_ID, RICH_MESSAGE);
+
+            V4MessageSent v4MessageSent = new V4MessageSent();
+            v4MessageSent.setMessage(v4Message);
+
+            V4Payload v4Payload = new V4Payload();
+            v4Payload.setMessageSent(v4MessageSent);
+
+            V4Initiator v4Initiator = new V4Initiator();
+            v4Initiator.setUser(v4Message.getUser());
+
+            V4Event v4Event = new V4Event();
+            v4Event.setId("event-" + i);
+            v4Event.setType("MESSAGESENT");
+            v4Event.setTimestamp(v4Message.getTimestamp());
+            v4Event.setInitiator(v4Initiator);
+            v4Event.setPayload(v4Payload);
+
+            v4Events.add(v4Event);
+        }
+
+        return v4Events;
+    }
+
+
+    /**
+     * @param count   Number of events
+     * @param streams Number of distinct streams the events are spread over
+     * @return MESSAGESENT client events
+     */
+    public static List<SymEvent> symEvents(int count, int streams) {
+        return SymEvent.toSymEvent(v4Events(count, streams));
+    }
+
+
+    /**
+     * @param userId User ID
+     * @return Synthetic user
+     */
+    public static SymUser symUser(long userId) {
+
+        SymUser symUser = new SymUser();
+        symUser.setId(userId);
+        symUser.setEmailAddress("user" + userId + "@symphony.com");
+        symUser.setUsername("user" + userId);
+        symUser.setDisplayName("User " + userId);
+
+        return symUser;
+    }
+
+
+    /**
+     * Synthetic directory user with the fields returned by a pod user lookup.  Company, department, title and location
+     * repeat across users as in a real directory.
+     *
+     * @param userId User ID
+     * @return User
+     */
+    public static SymUser directoryUser(long userId) {
+
+        SymUser symUser = symUser(userId);
+        symUser.setFirstName("First" + userId);
+        symUser.setLastName("Last" + userId);
+        symUser.setCompany(new String("Symphony"));
+        symUser.setDepartment(new String("Department " + userId % 50));
+        symUser.setTitle(new String("Title " + userId % 20));
+        symUser.setLocation(new String("Location " + userId % 10));
+        symUser.setActive(true);
+        symUser.setRoles(new HashSet<>(Collections.singletonList("INDIVIDUAL")));
+
+        SymAvatar avatar = new SymAvatar();
+        avatar.setSize("original");
+        avatar.setUrl("../avatars/" + userId + "/original.png");
+        symUser.setAvatars(new ArrayList<>(Collections.singletonList(avatar)));
+
+        return symUser;
+    }
+
+
+    /**
+     * Client stub answering user lookups with synthetic users and serving an empty datafeed, so services can be
+     * constructed without a pod or agent.  Stubs do not record invocations, so they can be called indefinitely.
+     *
+     * @return Offline client
+     * @throws Exception Never in practice, declared by the stubbed APIs
+     */
+    public static SymphonyClient stubClient() throws Exception {
+
+        SymphonyClient symClient = mock(SymphonyClient.class, withSettings().stubOnly());
+        when(symClient.getName()).thenReturn("benchmark");
+        when(symClient.getLocalUser()).thenReturn(symUser(BOT_USER_ID));
+
+        UsersClient usersClient = mock(UsersClient.class, withSettings().stubOnly());
+        when(usersClient.getUserFromId(anyLong())).thenAnswer(invocation -> symUser(invocation.getArgument(0)));
+        when(usersClient.getUserFromEmail(anyString())).thenAnswer(invocation -> {
+            String email = invocation.getArgument(0);
+            return symUser(Long.parseLong(email.substring(4, email.indexOf('@'))));
+        });
+        when(symClient.getUsersClient()).thenReturn(usersClient);
+
+        DataFeedClient dataFeedClient = mock(DataFeedClient.class, withSettings().stubOnly());
+        when(dataFeedClient.createDatafeed(any())).thenReturn(new SymDatafeed());
+        when(dataFeedClient.getEventsFromDatafeed(any(SymDatafeed.class))).thenAnswer(invocation -> {
+            TimeUnit.SECONDS.sleep(1);
+            return null;
+        });
+        when(dataFeedClient.getEventsFromDatafeed(any(SymDatafeed.class), anyInt())).thenAnswer(invocation -> {
+            TimeUnit.SECONDS.sleep(1);
+            return null;
+        });
+        when(symClient.getDataFeedClient()).thenReturn(dataFeedClient);
+
+        return symClient;
+    }
+
+}
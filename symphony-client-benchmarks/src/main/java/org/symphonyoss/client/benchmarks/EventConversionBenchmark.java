@@ -0,0 +1,72 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.symphony.agent.model.V4Event;
+import org.symphonyoss.symphony.agent.model.V4Message;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of datafeed payloads into client events and messages.
+ *
+ * @author Frank Tarsillo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventConversionBenchmark {
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private List<V4Event> v4Events;
+    private V4Message v4Message;
+
+
+    @Setup
+    public void setup() {
+        v4Events = BenchmarkPayloads.v4Events(batchSize, 10);
+        v4Message = BenchmarkPayloads.v4Message("stream", BenchmarkPayloads.SENDER_USER_ID, BenchmarkPayloads.RICH_MESSAGE);
+    }
+
+
+    @Benchmark
+    public List<SymEvent> toSymEvent() {
+        return SymEvent.toSymEvent(v4Events);
+    }
+
+
+    @Benchmark
+    public SymMessage toSymMessage() {
+        return SymMessage.toSymMessage(v4Message);
+    }
+
+}
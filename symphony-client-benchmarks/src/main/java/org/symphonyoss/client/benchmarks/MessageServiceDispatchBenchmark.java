@@ -0,0 +1,93 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.client.services.MessageService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatch of datafeed events by {@link MessageService} to message listeners, inline (0 threads) and on the
+ * parallel dispatch pool.  Each invocation publishes a batch of events and waits until all were delivered.
+ *
+ * @author Frank Tarsillo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageServiceDispatchBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"0", "4"})
+    private int dispatchThreads;
+
+    private MessageService messageService;
+    private List<SymEvent> symEvents;
+    private final AtomicLong delivered = new AtomicLong();
+
+
+    @Setup
+    public void setup() throws Exception {
+
+        System.setProperty(Constants.MESSAGESERVICE_DISPATCH_THREADS, String.valueOf(dispatchThreads));
+
+        messageService = new MessageService(BenchmarkPayloads.stubClient());
+        messageService.addMessageListener(message -> delivered.incrementAndGet());
+
+        symEvents = BenchmarkPayloads.symEvents(BATCH_SIZE, 32);
+    }
+
+
+    @TearDown
+    public void tearDown() {
+
+        messageService.shutdown();
+        System.clearProperty(Constants.MESSAGESERVICE_DISPATCH_THREADS);
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long onEvent() {
+
+        long expected = delivered.get() + BATCH_SIZE;
+
+        for (SymEvent symEvent : symEvents)
+            messageService.onEvent(symEvent);
+
+        while (delivered.get() < expected)
+            Thread.yield();
+
+        return expected;
+    }
+
+}
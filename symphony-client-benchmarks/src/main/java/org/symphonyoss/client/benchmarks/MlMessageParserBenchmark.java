@@ -0,0 +1,65 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.symphonyoss.client.exceptions.SymException;
+import org.symphonyoss.client.util.MlMessageParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of PresentationML messages, run for every message handled by commands and responders.
+ *
+ * @author Frank Tarsillo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MlMessageParserBenchmark {
+
+    @Param({"short", "rich"})
+    private String payload;
+
+    private String message;
+
+
+    @Setup
+    public void setup() {
+        message = "rich".equals(payload) ? BenchmarkPayloads.RICH_MESSAGE : BenchmarkPayloads.SHORT_MESSAGE;
+    }
+
+
+    @Benchmark
+    public String parseMessage() throws SymException {
+
+        MlMessageParser mlMessageParser = new MlMessageParser();
+        mlMessageParser.parseMessage(message);
+
+        return mlMessageParser.getText();
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.symphonyoss.client.exceptions.UsersClientException;
+import org.symphonyoss.client.impl.CompactUserCache;
+import org.symphonyoss.client.impl.DefaultUserCache;
+import org.symphonyoss.client.services.SymUserCache;
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm {@link DefaultUserCache} and {@link CompactUserCache} lookups, as done for every inbound message sender.
+ *
+ * @author Frank Tarsillo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UserCacheBenchmark {
+
+    @Param({"10000"})
+    private int users;
+
+    @Param({"default", "compact"})
+    private String cache;
+
+    private SymUserCache userCache;
+
+
+    @Setup
+    public void setup() throws Exception {
+
+        userCache = "compact".equals(cache) ? new CompactUserCache(BenchmarkPayloads.stubClient())
+                : new DefaultUserCache(BenchmarkPayloads.stubClient());
+
+        for (long userId = 0; userId < users; userId++)
+            userCache.getUserById(userId);
+    }
+
+
+    @Benchmark
+    @Threads(4)
+    public SymUser getUserById() throws UsersClientException {
+        return userCache.getUserById(ThreadLocalRandom.current().nextLong(users));
+    }
+
+
+    @Benchmark
+    @Threads(4)
+    public SymUser getUserByEmail() throws UsersClientException {
+        return userCache.getUserByEmail("user" + ThreadLocalRandom.current().nextLong(users) + "@symphony.com");
+    }
+
+}
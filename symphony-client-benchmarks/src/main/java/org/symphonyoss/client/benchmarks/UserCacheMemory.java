@@ -0,0 +1,129 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.benchmarks;
+
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.impl.CompactUserCache;
+import org.symphonyoss.client.impl.DefaultUserCache;
+import org.symphonyoss.client.services.SymUserCache;
+import org.symphonyoss.symphony.clients.UsersClient;
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the retained heap per cached user for each user cache implementation.
+ * <p>
+ * Every cache is filled with {@code users} synthetic directory users (default 100000) through bulk lookups and the
+ * heap in use after a full GC is compared with the heap before.  Run with a fixed heap for stable results:
+ * <p>
+ * {@code java -Xms2g -Xmx2g -Dusers=100000 -cp benchmarks.jar org.symphonyoss.client.benchmarks.UserCacheMemory}
+ *
+ * @author Frank Tarsillo
+ */
+public final class UserCacheMemory {
+
+    private static final int BATCH_SIZE = 1000;
+
+
+    private UserCacheMemory() {
+    }
+
+
+    public static void main(String[] args) throws Exception {
+
+        int users = Integer.getInteger("users", 100000);
+
+        SymphonyClient symClient = mock(SymphonyClient.class, withSettings().stubOnly());
+        UsersClient usersClient = mock(UsersClient.class, withSettings().stubOnly());
+
+        when(usersClient.getUsersFromIdList(anyList(), eq(true))).thenAnswer(invocation -> {
+            List<Long> userIds = invocation.getArgument(0);
+            List<SymUser> symUsers = new ArrayList<>(userIds.size());
+
+            for (Long userId : userIds)
+                symUsers.add(BenchmarkPayloads.directoryUser(userId));
+
+            return symUsers;
+        });
+        when(symClient.getUsersClient()).thenReturn(usersClient);
+
+        measure("default", users, new DefaultUserCache(symClient));
+        measure("compact", users, new CompactUserCache(symClient));
+
+        System.setProperty(Constants.SYMUSERS_CACHE_COMPACT_SLIM, "true");
+        measure("compact-slim", users, new CompactUserCache(symClient));
+    }
+
+
+    private static void measure(String name, int users, SymUserCache userCache) throws Exception {
+
+        long before = usedHeap();
+
+        List<Long> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (long userId = 0; userId < users; userId++) {
+
+            batch.add(userId);
+
+            if (batch.size() == BATCH_SIZE || userId == users - 1) {
+                userCache.getUsersByIds(batch);
+                batch.clear();
+            }
+        }
+
+        long after = usedHeap();
+
+        //Keep the cache reachable until measured
+        int resolved = userCache.getUsersByIds(Collections.singletonList(0L)).size();
+
+        System.out.printf("%-14s %,d users  %,d bytes  %,d bytes/user%n", name, users, after - before,
+                (after - before) / users);
+
+        if (resolved != 1)
+            throw new IllegalStateException("Cache lost users");
+    }
+
+
+    private static long usedHeap() throws InterruptedException {
+
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
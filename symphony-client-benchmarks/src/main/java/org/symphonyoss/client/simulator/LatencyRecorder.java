@@ -0,0 +1,96 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Thread safe recorder of latency samples reporting count and percentiles.
+ *
+ * @author Frank Tarsillo
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private long[] samples = new long[1024];
+    private int count;
+
+
+    /**
+     * @param name Name used in the report
+     */
+    public LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+
+    /**
+     * @param latency Latency sample
+     */
+    public synchronized void record(long latency) {
+
+        if (count == samples.length)
+            samples = Arrays.copyOf(samples, samples.length * 2);
+
+        samples[count++] = latency;
+    }
+
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+
+    /**
+     * @param percentile Percentile (0 - 100)
+     * @return Latency at the percentile, or 0 if no samples were recorded
+     */
+    public synchronized long getPercentile(double percentile) {
+
+        if (count == 0)
+            return 0;
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile / 100d * count) - 1;
+
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+
+    /**
+     * @param elapsedMillis Time the samples were recorded over, used for throughput
+     * @param unit          Unit of the samples, used in the report
+     * @return Single line report
+     */
+    public String report(long elapsedMillis, String unit) {
+
+        int samplesCount = getCount();
+
+        return String.format("%-10s count=%d throughput=%.1f/s p50=%d%s p90=%d%s p99=%d%s max=%d%s",
+                name, samplesCount, samplesCount * 1000d / Math.max(1, elapsedMillis),
+                getPercentile(50), unit, getPercentile(90), unit, getPercentile(99), unit, getPercentile(100), unit);
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.simulator;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.SymphonyClientConfig;
+import org.symphonyoss.client.impl.SymphonyBasicClient;
+import org.symphonyoss.client.model.SymAuth;
+import org.symphonyoss.symphony.authenticator.model.Token;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymStream;
+import org.symphonyoss.symphony.pod.invoker.JSON;
+
+import javax.ws.rs.client.ClientBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load driver running a {@link SymphonyBasicClient} against the {@link SymphonySimulator}.
+ * <p>
+ * Inbound events generated by the simulator are received through the MessageService and outbound messages are
+ * sent by a number of sender threads for the configured duration.  At the end, throughput and latency percentiles
+ * are reported for both directions.  Inbound latency is measured from the event timestamp (millisecond precision).
+ * <p>
+ * Settings (system properties):
+ * <ul>
+ * <li>simulator.event.rate - Datafeed events per second (default 1000)</li>
+ * <li>simulator.latency - Latency added to every response in ms (default 0)</li>
+ * <li>simulator.error.rate - Share of requests failed (default 0)</li>
+ * <li>simulator.error.status - HTTP status of failed requests (default 503)</li>
+ * <li>simulator.streams - Number of streams (default 10)</li>
+ * <li>load.duration - Test duration in seconds (default 30)</li>
+ * <li>load.senders - Number of threads sending messages, 0 to only receive (default 4)</li>
+ * </ul>
+ * Client settings, ex. messageservice.dispatch.threads or messages.outbound.scheduler, apply as usual.
+ *
+ * @author Frank Tarsillo
+ */
+public class LoadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+
+
+    public static void main(String[] args) throws Exception {
+
+        SymphonySimulator simulator = new SymphonySimulator(0);
+        simulator.setEventRate(Double.parseDouble(System.getProperty("simulator.event.rate", "1000")));
+        simulator.setLatencyMillis(Long.parseLong(System.getProperty("simulator.latency", "0")));
+        simulator.setErrorRate(Double.parseDouble(System.getProperty("simulator.error.rate", "0")));
+        simulator.setErrorStatus(Integer.parseInt(System.getProperty("simulator.error.status", "503")));
+        simulator.setStreams(Integer.parseInt(System.getProperty("simulator.streams", "10")));
+
+        long duration = Long.parseLong(System.getProperty("load.duration", "30"));
+        int senders = Integer.parseInt(System.getProperty("load.senders", "4"));
+
+        simulator.start();
+
+        SymphonyClientConfig config = new SymphonyClientConfig();
+        simulator.configure(config);
+
+        SymAuth symAuth = new SymAuth();
+        symAuth.setSessionToken(token("simulated-session"));
+        symAuth.setKeyToken(token("simulated-key"));
+
+        SymphonyBasicClient symClient = new SymphonyBasicClient();
+        symClient.setDefaultHttpClient(ClientBuilder.newClient(new ClientConfig().register(new JSON()).register(JacksonFeature.class)));
+
+        LatencyRecorder inbound = new LatencyRecorder("inbound");
+        LatencyRecorder outbound = new LatencyRecorder("outbound");
+        AtomicLong sendErrors = new AtomicLong();
+
+        symClient.init(symAuth, config);
+
+        symClient.getMessageService().addMessageListener(message ->
+                inbound.record(System.currentTimeMillis() - Long.parseLong(message.getTimestamp())));
+
+        long start = System.currentTimeMillis();
+        long end = start + TimeUnit.SECONDS.toMillis(duration);
+
+        ExecutorService senderPool = Executors.newFixedThreadPool(Math.max(1, senders));
+        List<Runnable> tasks = new ArrayList<>();
+
+        for (int i = 0; i < senders; i++) {
+
+            SymStream symStream = new SymStream();
+            symStream.setStreamId("simstream" + i);
+
+            tasks.add(() -> {
+                while (System.currentTimeMillis() < end) {
+
+                    SymMessage symMessage = new SymMessage();
+                    symMessage.setMessageText("Load test message");
+
+                    long sendStart = System.nanoTime();
+
+                    try {
+                        symClient.getMessagesClient().sendMessage(symStream, symMessage);
+                        outbound.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sendStart));
+                    } catch (Exception e) {
+                        sendErrors.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        tasks.forEach(senderPool::execute);
+
+        logger.info("Running load for {} seconds with {} senders...", duration, senders);
+
+        senderPool.shutdown();
+        senderPool.awaitTermination(duration + 60, TimeUnit.SECONDS);
+
+        long remaining = end - System.currentTimeMillis();
+        if (remaining > 0)
+            TimeUnit.MILLISECONDS.sleep(remaining);
+
+        long elapsed = System.currentTimeMillis() - start;
+
+        symClient.shutdown();
+        simulator.stop();
+
+        System.out.println(inbound.report(elapsed, "ms"));
+        System.out.println(outbound.report(elapsed, "us"));
+        System.out.println(String.format("Send errors=%d Events served=%d Requests=%d Errors injected=%d",
+                sendErrors.get(), simulator.getEventsServed(), simulator.getRequests(), simulator.getErrorsInjected()));
+
+        System.exit(0);
+    }
+
+
+    private static Token token(String value) {
+
+        Token token = new Token();
+        token.setToken(value);
+        return token;
+    }
+
+}
@@ -0,0 +1,516 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.SymphonyClientConfig;
+import org.symphonyoss.client.SymphonyClientConfigID;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the agent and pod REST endpoints used by the client, for offline load testing.
+ * <p>
+ * Supported endpoints:
+ * <ul>
+ * <li>Agent: datafeed and firehose create/read (v4), message create (v4)</li>
+ * <li>Pod: user lookup (v2/v3), session info, IM create, room membership, presence feed create/read</li>
+ * </ul>
+ * Datafeed and firehose reads return MESSAGESENT events generated at the configured rate, spread over a set of
+ * room streams and users.  Every response can be delayed by a fixed latency and a share of requests can be failed
+ * with a configurable HTTP status.  Unknown endpoints return 404.
+ * <p>
+ * The simulated bot is user {@link #BOT_USER_ID}, event senders are users 2 and above.
+ *
+ * @author Frank Tarsillo
+ */
+public class SymphonySimulator {
+
+    public static final long BOT_USER_ID = 1L;
+    public static final String BOT_EMAIL = "user1@simulator.symphony.com";
+
+    private static final String AGENT_PATH = "/agent";
+    private static final String POD_PATH = "/pod";
+    private static final long MAX_READ_WAIT_MILLIS = 1000;
+
+    private static final Pattern FEED_CREATE = Pattern.compile("^/agent/v4/(datafeed|firehose)/create$");
+    private static final Pattern FEED_READ = Pattern.compile("^/agent/v4/(datafeed|firehose)/([^/]+)/read$");
+    private static final Pattern MESSAGE_CREATE = Pattern.compile("^/agent/v4/stream/([^/]+)/message/create$");
+    private static final Pattern ROOM_MEMBERSHIP = Pattern.compile("^/pod/v1/room/([^/]+)/membership/list$");
+    private static final Pattern PRESENCE_READ = Pattern.compile("^/pod/v1/presence/feed/([^/]+)/read$");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, EventFeed> feeds = new ConcurrentHashMap<>();
+
+    private final AtomicLong eventsServed = new AtomicLong();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errorsInjected = new AtomicLong();
+    private final AtomicInteger streamIds = new AtomicInteger();
+
+    private volatile double eventRate = 100;
+    private volatile int maxEventsPerRead = 100;
+    private volatile int streams = 10;
+    private volatile int users = 100;
+    private volatile long latencyMillis;
+    private volatile double errorRate;
+    private volatile int errorStatus = 503;
+
+    private final int port;
+    private HttpServer httpServer;
+    private ExecutorService executor;
+
+    private final Logger logger = LoggerFactory.getLogger(SymphonySimulator.class);
+
+
+    /**
+     * @param port Port to listen on, 0 for any free port
+     */
+    public SymphonySimulator(int port) {
+        this.port = port;
+    }
+
+
+    /**
+     * Start serving requests
+     *
+     * @throws IOException If the server cannot bind its port
+     */
+    public void start() throws IOException {
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "SymphonySimulator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        httpServer.createContext("/", this::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+
+        logger.info("Symphony simulator listening on port {}", getPort());
+    }
+
+
+    /**
+     * Stop serving requests
+     */
+    public void stop() {
+
+        if (httpServer != null)
+            httpServer.stop(0);
+
+        if (executor != null)
+            executor.shutdownNow();
+
+        logger.info("Symphony simulator stopped. Requests: {} Events served: {} Messages received: {} Errors injected: {}",
+                requests.get(), eventsServed.get(), messagesReceived.get(), errorsInjected.get());
+    }
+
+
+    /**
+     * Point the client configuration at the simulator
+     *
+     * @param config Client configuration to update
+     */
+    public void configure(SymphonyClientConfig config) {
+
+        config.set(SymphonyClientConfigID.AGENT_URL, getAgentUrl());
+        config.set(SymphonyClientConfigID.POD_URL, getPodUrl());
+        config.set(SymphonyClientConfigID.USER_EMAIL, BOT_EMAIL);
+        config.set(SymphonyClientConfigID.HEALTHCHECK_JMX_ENABLED, "false");
+    }
+
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    public String getAgentUrl() {
+        return "http://localhost:" + getPort() + AGENT_PATH;
+    }
+
+    public String getPodUrl() {
+        return "http://localhost:" + getPort() + POD_PATH;
+    }
+
+
+    /**
+     * @param eventRate Events generated per second on each datafeed or firehose
+     */
+    public void setEventRate(double eventRate) {
+        this.eventRate = eventRate;
+    }
+
+    /**
+     * @param maxEventsPerRead Maximum events returned by a single feed read
+     */
+    public void setMaxEventsPerRead(int maxEventsPerRead) {
+        this.maxEventsPerRead = maxEventsPerRead;
+    }
+
+    /**
+     * @param streams Number of room streams events are spread over
+     */
+    public void setStreams(int streams) {
+        this.streams = streams;
+    }
+
+    /**
+     * @param users Number of users sending events
+     */
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    /**
+     * @param latencyMillis Delay added to every response
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * @param errorRate Share of requests (0.0 - 1.0) failed with the error status
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * @param errorStatus HTTP status returned for injected errors (ex. 429 or 503)
+     */
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public long getEventsServed() {
+        return eventsServed.get();
+    }
+
+    public long getMessagesReceived() {
+        return messagesReceived.get();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getErrorsInjected() {
+        return errorsInjected.get();
+    }
+
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        requests.incrementAndGet();
+
+        try {
+
+            drain(exchange.getRequestBody());
+
+            if (latencyMillis > 0)
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                errorsInjected.incrementAndGet();
+                respond(exchange, errorStatus, Collections.singletonMap("message", "Injected error"));
+                return;
+            }
+
+            route(exchange);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, Collections.singletonMap("message", "Simulator stopping"));
+        } catch (Exception e) {
+            logger.error("Simulator failed to handle {}", exchange.getRequestURI(), e);
+            respond(exchange, 500, Collections.singletonMap("message", e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+
+    private void route(HttpExchange exchange) throws IOException, InterruptedException {
+
+        String path = exchange.getRequestURI().getPath();
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        Matcher matcher;
+
+        if (FEED_CREATE.matcher(path).matches() || "/pod/v1/presence/feed/create".equals(path)) {
+
+            String id = UUID.randomUUID().toString();
+            feeds.put(id, new EventFeed());
+            respond(exchange, 200, Collections.singletonMap("id", id));
+
+        } else if ((matcher = FEED_READ.matcher(path)).matches()) {
+
+            EventFeed eventFeed = feeds.get(matcher.group(2));
+
+            if (eventFeed == null) {
+                respond(exchange, 400, Collections.singletonMap("message", "Unknown feed " + matcher.group(2)));
+                return;
+            }
+
+            int limit = query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : maxEventsPerRead;
+
+            respond(exchange, 200, eventFeed.read(limit));
+
+        } else if ((matcher = MESSAGE_CREATE.matcher(path)).matches()) {
+
+            messagesReceived.incrementAndGet();
+            respond(exchange, 200, message(matcher.group(1), BOT_USER_ID, System.currentTimeMillis()));
+
+        } else if ("/pod/v2/user".equals(path)) {
+
+            respond(exchange, 200, user(userId(query.get("uid"), query.get("email"))));
+
+        } else if ("/pod/v3/users".equals(path)) {
+
+            List<Object> found = new ArrayList<>();
+
+            for (String key : (query.containsKey("uid") ? query.get("uid") : query.getOrDefault("email", "")).split(",")) {
+                if (!key.isEmpty())
+                    found.add(user(query.containsKey("uid") ? userId(key, null) : userId(null, key)));
+            }
+
+            respond(exchange, 200, Collections.singletonMap("users", found));
+
+        } else if ("/pod/v2/sessioninfo".equals(path)) {
+
+            respond(exchange, 200, user(BOT_USER_ID));
+
+        } else if ("/pod/v1/im/create".equals(path)) {
+
+            respond(exchange, 200, Collections.singletonMap("id", "im" + streamIds.incrementAndGet()));
+
+        } else if ((matcher = ROOM_MEMBERSHIP.matcher(path)).matches()) {
+
+            List<Object> members = new ArrayList<>();
+
+            for (long userId = BOT_USER_ID; userId <= Math.min(users, 10); userId++) {
+                Map<String, Object> member = new LinkedHashMap<>();
+                member.put("id", userId);
+                member.put("owner", userId == BOT_USER_ID);
+                members.add(member);
+            }
+
+            respond(exchange, 200, members);
+
+        } else if (PRESENCE_READ.matcher(path).matches()) {
+
+            respond(exchange, 200, Collections.emptyList());
+
+        } else {
+
+            respond(exchange, 404, Collections.singletonMap("message", "Not simulated: " + path));
+        }
+    }
+
+
+    private long userId(String uid, String email) {
+
+        if (uid != null)
+            return Long.parseLong(uid);
+
+        if (email != null && email.startsWith("user") && email.indexOf('@') > 4)
+            return Long.parseLong(email.substring(4, email.indexOf('@')));
+
+        return BOT_USER_ID;
+    }
+
+
+    private Map<String, Object> user(long userId) {
+
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", userId);
+        user.put("emailAddress", "user" + userId + "@simulator.symphony.com");
+        user.put("username", "user" + userId);
+        user.put("displayName", "User " + userId);
+        user.put("firstName", "User");
+        user.put("lastName", String.valueOf(userId));
+        user.put("avatars", Collections.emptyList());
+
+        return user;
+    }
+
+
+    private Map<String, Object> message(String streamId, long userId, long timestamp) {
+
+        Map<String, Object> v4User = new LinkedHashMap<>();
+        v4User.put("userId", userId);
+        v4User.put("email", "user" + userId + "@simulator.symphony.com");
+        v4User.put("displayName", "User " + userId);
+        v4User.put("username", "user" + userId);
+
+        Map<String, Object> stream = new LinkedHashMap<>();
+        stream.put("streamId", streamId);
+        stream.put("streamType", "ROOM");
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("messageId", UUID.randomUUID().toString());
+        message.put("timestamp", timestamp);
+        message.put("message", "<div data-format=\"PresentationML\" data-version=\"2.0\">Simulated message " + timestamp + "</div>");
+        message.put("data", "{}");
+        message.put("user", v4User);
+        message.put("stream", stream);
+
+        return message;
+    }
+
+
+    private Map<String, Object> event(long timestamp) {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Map<String, Object> message = message("simstream" + random.nextInt(Math.max(1, streams)),
+                BOT_USER_ID + 1 + random.nextInt(Math.max(1, users)), timestamp);
+
+        Map<String, Object> initiator = new HashMap<>();
+        initiator.put("user", message.get("user"));
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", UUID.randomUUID().toString());
+        event.put("timestamp", timestamp);
+        event.put("type", "MESSAGESENT");
+        event.put("initiator", initiator);
+        event.put("payload", Collections.singletonMap("messageSent", Collections.singletonMap("message", message)));
+
+        return event;
+    }
+
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+
+        if (status == 429)
+            exchange.getResponseHeaders().set("Retry-After", "1");
+
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+
+    private static void drain(InputStream inputStream) throws IOException {
+
+        byte[] buffer = new byte[4096];
+
+        //noinspection StatementWithEmptyBody
+        while (inputStream.read(buffer) != -1) ;
+    }
+
+
+    private static Map<String, String> query(String rawQuery) throws IOException {
+
+        Map<String, String> query = new HashMap<>();
+
+        if (rawQuery == null)
+            return query;
+
+        for (String pair : rawQuery.split("&")) {
+
+            int index = pair.indexOf('=');
+
+            if (index > 0)
+                query.put(URLDecoder.decode(pair.substring(0, index), StandardCharsets.UTF_8.name()),
+                        URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8.name()));
+        }
+
+        return query;
+    }
+
+
+    /**
+     * Datafeed or firehose generating events at the simulator event rate from the time it was created.
+     */
+    private class EventFeed {
+
+        private final long created = System.nanoTime();
+        private long generated;
+
+
+        synchronized List<Object> read(int limit) throws InterruptedException {
+
+            long deadline = System.currentTimeMillis() + MAX_READ_WAIT_MILLIS;
+            long due;
+
+            //Long poll until at least one event is due, like the real datafeed.
+            while ((due = due()) < 1 && System.currentTimeMillis() < deadline)
+                TimeUnit.MILLISECONDS.sleep(Math.max(1, Math.min(50, (long) (1000 / Math.max(eventRate, 1)))));
+
+            int count = (int) Math.min(Math.max(due, 0), Math.min(limit, maxEventsPerRead));
+            long timestamp = System.currentTimeMillis();
+
+            List<Object> events = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++)
+                events.add(event(timestamp));
+
+            generated += count;
+            eventsServed.addAndGet(count);
+
+            return events;
+        }
+
+
+        private long due() {
+            return (long) ((System.nanoTime() - created) / 1_000_000_000d * eventRate) - generated;
+        }
+    }
+
+}
@@ -25,13 +25,16 @@ package org.symphonyoss.client;
 import org.symphonyoss.client.exceptions.AuthenticationException;
 import org.symphonyoss.client.exceptions.InitException;
 import org.symphonyoss.client.exceptions.SymCacheException;
+import org.symphonyoss.client.metrics.MetricsRegistry;
 import org.symphonyoss.client.model.CacheType;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.client.services.*;
+import org.symphonyoss.client.util.SharedWorkerScheduler;
 import org.symphonyoss.symphony.clients.*;
 import org.symphonyoss.symphony.clients.model.SymUser;
 
 import javax.ws.rs.client.Client;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * General interface for all Symphony client implementations
@@ -272,6 +275,66 @@ public interface SymphonyClient {
     SymCache getCache(CacheType cacheType);
 
 
+    /**
+     * Set a custom metrics registry.  Must be set before the client is initialized to capture REST calls.
+     * @param metricsRegistry Registry receiving client and service metrics
+     */
+    void setMetricsRegistry(MetricsRegistry metricsRegistry);
+
+
+    /**
+     * Return the metrics registry used by the clients and services
+     * @return Metrics registry, null before the client is initialized unless one was set
+     */
+    MetricsRegistry getMetricsRegistry();
+
+
+
+    /**
+     * Set a store used to checkpoint datafeed progress and backfill missed messages.  Must be set before the client
+     * is initialized.
+     * @param datafeedCheckpointStore Checkpoint store
+     */
+    void setDatafeedCheckpointStore(DatafeedCheckpointStore datafeedCheckpointStore);
+
+
+    /**
+     * Return the datafeed checkpoint store
+     * @return Checkpoint store, null if datafeed checkpointing is disabled
+     */
+    DatafeedCheckpointStore getDatafeedCheckpointStore();
+
+
+    /**
+     * Set the thread factory used for feed workers, listener dispatch and REST call pools.  Must be set before the
+     * client is initialized.  Defaults to the mode selected by {@link org.symphonyoss.client.common.Constants#CLIENT_THREAD_MODE}.
+     * @param threadFactory Thread factory, ex. {@link org.symphonyoss.client.util.ClientThreads#virtualThreadFactory()}
+     */
+    void setThreadFactory(ThreadFactory threadFactory);
+
+
+    /**
+     * Return the thread factory used by the clients and services
+     * @return Thread factory
+     */
+    ThreadFactory getThreadFactory();
+
+
+    /**
+     * Run feed workers, connection polls and auth refreshes on a scheduler shared with other clients instead of
+     * dedicated threads.  Must be set before the client is initialized.
+     * @param workerScheduler Shared scheduler
+     */
+    void setWorkerScheduler(SharedWorkerScheduler workerScheduler);
+
+
+    /**
+     * Return the shared worker scheduler
+     * @return Shared scheduler, null if the client runs its workers on dedicated threads
+     */
+    SharedWorkerScheduler getWorkerScheduler();
+
+
     /**
      * Terminates all underlying services and threads.
      */
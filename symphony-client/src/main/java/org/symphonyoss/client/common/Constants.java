@@ -40,8 +40,62 @@ public class Constants {
     public static final String SYMAUTH_REFRESH_TIME = "symauth.refresh.time";
     public static final String DATAFEED_RECOVERY_WAIT_TIME = "datafeed.recovery.wait.time";
     public static final String PRESENCEFEED_RECOVERY_WAIT_TIME = "presencefeed.recovery.wait.time";
+    public static final String FEED_RECOVERY_MAX_WAIT_TIME = "feed.recovery.max.wait.time";
+    public static final String FEED_RECOVERY_FAILURE_THRESHOLD = "feed.recovery.failure.threshold";
+    public static final String FEED_RECOVERY_OPEN_TIME = "feed.recovery.open.time";
     public static final String USERSCLIENT_GETALLUSERS_THREADPOOL ="usersclient.getallusers.threadpool";
+    public static final String USERSCLIENT_GETALLUSERS_RETRIES = "usersclient.getallusers.retries";
+    public static final String USERSCLIENT_BATCH_SIZE = "usersclient.batch.size";
+    public static final String USERSCLIENT_LOOKUP_THREADS = "usersclient.lookup.threads";
+    public static final String STREAMSCLIENT_IMCACHE_SIZE = "streamsclient.imcache.size";
     public static final String SYMUSERS_CACHE_ACCESSEDEXPIRY = "symusers.cache.accessedexpiry";
+    public static final String SYMUSERS_CACHE_NEGATIVE_TTL = "symusers.cache.negative.ttl";
+    public static final String SYMUSERS_CACHE_LOAD_TIMEOUT = "symusers.cache.load.timeout";
+    public static final String SYMUSERS_CACHE_COMPACT_SLIM = "symusers.cache.compact.slim";
+    public static final String SYMUSERS_CACHE_SNAPSHOT_FILE = "symusers.cache.snapshot.file";
+    public static final String SYMUSERS_CACHE_SNAPSHOT_INTERVAL = "symusers.cache.snapshot.interval";
+    public static final String SYMUSERS_CACHE_SNAPSHOT_MAX_AGE = "symusers.cache.snapshot.max.age";
     public static final String DATAFEED_MAX_MESSAGES = "datafeed.max.messages";
     public static final String DATAFEED_WAIT_TIME = "datafeed.wait.time";
+    public static final String DATAFEED_ADAPTIVE_BATCH = "datafeed.adaptive.batch";
+    public static final String DATAFEED_ADAPTIVE_MIN_MESSAGES = "datafeed.adaptive.min.messages";
+    public static final String DATAFEED_ADAPTIVE_MAX_MESSAGES = "datafeed.adaptive.max.messages";
+    public static final String DATAFEED_ADAPTIVE_TARGET_LATENCY = "datafeed.adaptive.target.latency";
+    public static final String DATAFEED_DISPATCH_PIPELINED = "datafeed.dispatch.pipelined";
+    public static final String DATAFEED_DISPATCH_THREADS = "datafeed.dispatch.threads";
+    public static final String DATAFEED_DISPATCH_BUFFER_SIZE = "datafeed.dispatch.buffer.size";
+    public static final String DATAFEED_DISPATCH_POLICY = "datafeed.dispatch.policy";
+    public static final String FIREHOSE_READERS = "firehose.readers";
+    public static final String FIREHOSE_DEDUP_SIZE = "firehose.dedup.size";
+    public static final String FIREHOSE_DISPATCH_THREADS = "firehose.dispatch.threads";
+    public static final String FIREHOSE_DISPATCH_BUFFER_SIZE = "firehose.dispatch.buffer.size";
+    public static final String FEED_PUBLISHER_BUFFER_SIZE = "feed.publisher.buffer.size";
+    public static final String DATAFEED_CHECKPOINT_FILE = "datafeed.checkpoint.file";
+    public static final String DATAFEED_CHECKPOINT_INTERVAL = "datafeed.checkpoint.interval";
+    public static final String DATAFEED_CATCHUP_THREADS = "datafeed.catchup.threads";
+    public static final String DATAFEED_CATCHUP_MAX_MESSAGES = "datafeed.catchup.max.messages";
+    public static final String DATAFEED_CATCHUP_MAX_AGE = "datafeed.catchup.max.age";
+    public static final String MESSAGESERVICE_DISPATCH_THREADS = "messageservice.dispatch.threads";
+    public static final String MESSAGESERVICE_DISPATCH_LANES = "messageservice.dispatch.lanes";
+    public static final String MESSAGESERVICE_DISPATCH_BUFFER_SIZE = "messageservice.dispatch.buffer.size";
+    public static final String MESSAGESERVICE_DISPATCH_POLICY = "messageservice.dispatch.policy";
+    public static final String MESSAGESCLIENT_ASYNC_MAXINFLIGHT = "messagesclient.async.maxinflight";
+    public static final String MESSAGES_OUTBOUND_SCHEDULER = "messages.outbound.scheduler";
+    public static final String MESSAGES_OUTBOUND_RATE = "messages.outbound.rate";
+    public static final String MESSAGES_OUTBOUND_BURST = "messages.outbound.burst";
+    public static final String MESSAGES_OUTBOUND_STREAM_RATE = "messages.outbound.stream.rate";
+    public static final String MESSAGES_OUTBOUND_STREAM_BURST = "messages.outbound.stream.burst";
+    public static final String MESSAGES_OUTBOUND_THREADS = "messages.outbound.threads";
+    public static final String MESSAGES_OUTBOUND_RETRIES = "messages.outbound.retries";
+    public static final String MESSAGES_OUTBOUND_RETRY_WAIT = "messages.outbound.retry.wait";
+    public static final String CHATSERVICE_MAX_CHATS = "chatservice.max.chats";
+    public static final String CHATSERVICE_IDLE_EXPIRY = "chatservice.idle.expiry";
+    public static final String ROOMSERVICE_MAX_ROOMS = "roomservice.max.rooms";
+    public static final String ROOMSERVICE_IDLE_EXPIRY = "roomservice.idle.expiry";
+    public static final String CLIENT_THREAD_MODE = "client.thread.mode";
+    public static final String WORKER_SCHEDULER_THREADS = "worker.scheduler.threads";
+    public static final String METRICS_ENABLED = "metrics.enabled";
+    public static final String METRICS_JMX_ENABLED = "metrics.jmx.enabled";
+    public static final String METRICS_HTTP_PORT = "metrics.http.port";
+    public static final String METRICS_INFLIGHT_EXPIRY = "metrics.inflight.expiry";
 }
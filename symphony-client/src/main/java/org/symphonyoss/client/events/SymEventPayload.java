@@ -27,6 +27,7 @@ package org.symphonyoss.client.events;
 import org.symphonyoss.symphony.agent.model.V4Payload;
 import org.symphonyoss.symphony.clients.model.SymMessage;
 import org.symphonyoss.symphony.clients.model.SymSharedPost;
+import org.symphonyoss.symphony.clients.model.SymStream;
 
 /**
  * @author Frank Tarsillo on 6/26/17.
@@ -188,6 +189,56 @@ public class SymEventPayload {
         this.messageSuppressed = messageSuppressed;
     }
 
+    /**
+     * Resolve the stream ID this payload relates to, regardless of event type.
+     *
+     * @return Stream ID or null if the event is not bound to a stream (ex. connection events)
+     */
+    public String getStreamId() {
+
+        if (messageSent != null)
+            return messageSent.getStreamId() != null ? messageSent.getStreamId() : streamIdOf(messageSent.getStream());
+
+        if (sharedPost != null && sharedPost.getMessage() != null)
+            return sharedPost.getMessage().getStreamId();
+
+        if (instantMessageCreated != null)
+            return streamIdOf(instantMessageCreated.getStream());
+
+        if (roomCreated != null)
+            return streamIdOf(roomCreated.getStream());
+
+        if (roomUpdated != null)
+            return streamIdOf(roomUpdated.getStream());
+
+        if (roomDeactivated != null)
+            return streamIdOf(roomDeactivated.getStream());
+
+        if (roomReactivated != null)
+            return streamIdOf(roomReactivated.getStream());
+
+        if (userJoinedRoom != null)
+            return streamIdOf(userJoinedRoom.getStream());
+
+        if (userLeftRoom != null)
+            return streamIdOf(userLeftRoom.getStream());
+
+        if (roomMemberPromotedToOwner != null)
+            return streamIdOf(roomMemberPromotedToOwner.getStream());
+
+        if (roomMemberDemotedFromOwner != null)
+            return streamIdOf(roomMemberDemotedFromOwner.getStream());
+
+        if (messageSuppressed != null)
+            return streamIdOf(messageSuppressed.getStream());
+
+        return null;
+    }
+
+    private static String streamIdOf(SymStream symStream) {
+        return symStream != null ? symStream.getStreamId() : null;
+    }
+
     public static SymEventPayload toSymEventPayLoad(V4Payload payload) {
 
 
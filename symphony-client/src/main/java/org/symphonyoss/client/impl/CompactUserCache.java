@@ -0,0 +1,605 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.exceptions.SymException;
+import org.symphonyoss.client.exceptions.UserNotFoundException;
+import org.symphonyoss.client.exceptions.UsersClientException;
+import org.symphonyoss.client.model.CacheType;
+import org.symphonyoss.client.services.SymUserCache;
+import org.symphonyoss.client.util.LongObjectHashMap;
+import org.symphonyoss.client.util.SingleFlight;
+import org.symphonyoss.symphony.clients.model.SymUser;
+import org.symphonyoss.symphony.pod.model.MemberInfo;
+import org.symphonyoss.symphony.pod.model.MembershipList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Memory efficient user cache for large directories.
+ * <p>
+ * Users are indexed by ID in a primitive {@link LongObjectHashMap}, and by lower case email and user name in maps
+ * whose keys share the interned strings of the cached users.  Low cardinality fields (company, department, title,
+ * location) are interned as well.  If {@link Constants#SYMUSERS_CACHE_COMPACT_SLIM} is enabled only a slim
+ * projection of each user is kept, without avatars, roles, features and dates.
+ * <p>
+ * Unlike {@link DefaultUserCache} entries do not expire, stream memberships are not cached and users that cannot be
+ * found are remembered for {@link Constants#SYMUSERS_CACHE_NEGATIVE_TTL} seconds.  Concurrent lookups of the same
+ * key share one request to the pod.
+ * <p>
+ * Enable with {@code symClient.setCache(new CompactUserCache(symClient))}.
+ *
+ * @author Frank Tarsillo
+ */
+public class CompactUserCache implements SymUserCache {
+
+    private static final String ID = "id:";
+    private static final String EMAIL = "email:";
+    private static final String NAME = "name:";
+
+    private final LongObjectHashMap<SymUser> symUserById = new LongObjectHashMap<>();
+    private final Map<String, SymUser> symUserByEmail = new HashMap<>();
+    private final Map<String, SymUser> symUserByName = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Interner<String> interner = Interners.newWeakInterner();
+    private final SingleFlight<String, SymUser> userLoads = new SingleFlight<>(
+            Long.parseLong(System.getProperty(Constants.SYMUSERS_CACHE_LOAD_TIMEOUT, "120")), TimeUnit.SECONDS);
+    private final Cache<String, Boolean> notFound;
+    private final boolean slim;
+    private SymphonyClient symClient;
+    private final Logger logger = LoggerFactory.getLogger(CompactUserCache.class);
+
+
+    /**
+     * @param symClient SymphonyClient required to call underlying client implementations and retrieve data.
+     */
+    public CompactUserCache(SymphonyClient symClient) {
+
+        this.symClient = symClient;
+
+        slim = Boolean.parseBoolean(System.getProperty(Constants.SYMUSERS_CACHE_COMPACT_SLIM, "false"));
+
+        notFound = CacheBuilder.newBuilder().expireAfterWrite(new Long(System.getProperty(Constants.SYMUSERS_CACHE_NEGATIVE_TTL, "60")), TimeUnit.SECONDS)
+                .build();
+
+        logger.debug("Initialized compact SymUser cache, slim: {}", slim);
+    }
+
+
+    @Override
+    public SymUser getUserById(Long uid) throws UsersClientException {
+
+        if (uid == null)
+            throw new NullPointerException("UserId was not provided..");
+
+        lock.readLock().lock();
+        SymUser user;
+
+        try {
+            user = symUserById.get(uid);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (user == null)
+            user = loadUser(ID + uid, () -> symClient.getUsersClient().getUserFromId(uid));
+
+        if (user == null)
+            throw new UserNotFoundException("cannot find Symphony user by ID " + uid);
+
+        return user;
+    }
+
+
+    @Override
+    public SymUser getUserByEmail(String email) throws UsersClientException {
+
+        if (email == null)
+            throw new NullPointerException("Email was not provided..");
+
+        String key = email.toLowerCase();
+        SymUser user = getIndexed(symUserByEmail, key);
+
+        if (user == null)
+            user = loadUser(EMAIL + key, () -> symClient.getUsersClient().getUserFromEmail(key));
+
+        if (user == null)
+            throw new UserNotFoundException("cannot find Symphony user by email " + key);
+
+        return user;
+    }
+
+
+    @Override
+    public SymUser getUserByName(String name) throws UsersClientException {
+
+        if (name == null)
+            throw new NullPointerException("User name was not provided..");
+
+        String key = name.toLowerCase();
+        SymUser user = getIndexed(symUserByName, key);
+
+        if (user == null)
+            user = loadUser(NAME + key, () -> symClient.getUsersClient().getUserFromName(key));
+
+        if (user == null)
+            throw new UserNotFoundException("cannot find Symphony user by name " + key);
+
+        return user;
+    }
+
+
+    /**
+     * Stream memberships are retrieved on every call, members are resolved through the cache.
+     */
+    @Override
+    public Set<SymUser> getUsersByStream(String streamId) throws UsersClientException {
+
+        MembershipList membershipList;
+
+        try {
+            membershipList = symClient.getRoomMembershipClient().getRoomMembership(streamId);
+        } catch (SymException e) {
+            throw new UsersClientException("Cannot load users from cache by stream", e);
+        }
+
+        if (membershipList == null)
+            throw new UsersClientException("cannot find Symphony users by stream " + streamId);
+
+        List<Long> userIds = new ArrayList<>();
+        for (MemberInfo memberInfo : membershipList)
+            userIds.add(memberInfo.getId());
+
+        return new HashSet<>(getUsersByIds(userIds).values());
+    }
+
+
+    @Override
+    public Map<Long, SymUser> getUsersByIds(Collection<Long> uids) throws UsersClientException {
+
+        Map<Long, SymUser> symUsers = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        lock.readLock().lock();
+
+        try {
+            for (Long uid : uids) {
+
+                SymUser user = symUserById.get(uid);
+
+                if (user != null)
+                    symUsers.put(uid, user);
+                else if (notFound.getIfPresent(ID + uid) == null)
+                    misses.add(ID + uid);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (misses.isEmpty())
+            return symUsers;
+
+        Map<String, CompletableFuture<SymUser>> pending = new HashMap<>();
+        List<String> claimed = userLoads.claim(misses, pending);
+
+        List<Long> ids = new ArrayList<>();
+        claimed.forEach(key -> ids.add(Long.valueOf(key.substring(ID.length()))));
+
+        Map<Long, SymUser> found = new HashMap<>();
+        int completed = 0;
+
+        try {
+
+            for (SymUser user : symClient.getUsersClient().getUsersFromIdList(ids, true))
+                if (user.getId() != null)
+                    found.put(user.getId(), cacheUser(user));
+
+            //Search beyond the local pod for anything not found.
+            if (found.size() < ids.size()) {
+
+                List<Long> missing = new ArrayList<>(ids);
+                missing.removeAll(found.keySet());
+
+                for (SymUser user : symClient.getUsersClient().getUsersFromIdList(missing, false))
+                    if (user.getId() != null)
+                        found.put(user.getId(), cacheUser(user));
+            }
+
+            for (Long id : ids) {
+                loaded(ID + id, found.get(id));
+                completed++;
+            }
+
+        } catch (UsersClientException | RuntimeException | Error e) {
+
+            //Release every claimed key not completed, or later lookups would wait on it forever
+            userLoads.fail(claimed.subList(completed, claimed.size()), e);
+            throw e;
+        }
+
+        symUsers.putAll(found);
+
+        for (Map.Entry<String, CompletableFuture<SymUser>> entry : pending.entrySet()) {
+
+            SymUser user = await(entry.getValue());
+
+            if (user != null)
+                symUsers.put(Long.valueOf(entry.getKey().substring(ID.length())), user);
+        }
+
+        return symUsers;
+    }
+
+
+    @Override
+    public Map<String, SymUser> getUsersByEmails(Collection<String> emails) throws UsersClientException {
+
+        Map<String, SymUser> symUsers = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        lock.readLock().lock();
+
+        try {
+            for (String email : emails) {
+
+                String key = email.toLowerCase();
+                SymUser user = symUserByEmail.get(key);
+
+                if (user != null)
+                    symUsers.put(key, user);
+                else if (notFound.getIfPresent(EMAIL + key) == null)
+                    misses.add(EMAIL + key);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (misses.isEmpty())
+            return symUsers;
+
+        Map<String, CompletableFuture<SymUser>> pending = new HashMap<>();
+        List<String> claimed = userLoads.claim(misses, pending);
+
+        List<String> keys = new ArrayList<>();
+        claimed.forEach(key -> keys.add(key.substring(EMAIL.length())));
+
+        Map<String, SymUser> found = new HashMap<>();
+        int completed = 0;
+
+        try {
+
+            for (SymUser user : symClient.getUsersClient().getUsersFromEmailList(keys, true))
+                if (user.getEmailAddress() != null)
+                    found.put(user.getEmailAddress().toLowerCase(), cacheUser(user));
+
+            //Search beyond the local pod for anything not found.
+            if (found.size() < keys.size()) {
+
+                List<String> missing = new ArrayList<>(keys);
+                missing.removeAll(found.keySet());
+
+                for (SymUser user : symClient.getUsersClient().getUsersFromEmailList(missing, false))
+                    if (user.getEmailAddress() != null)
+                        found.put(user.getEmailAddress().toLowerCase(), cacheUser(user));
+            }
+
+            for (String key : keys) {
+                loaded(EMAIL + key, found.get(key));
+                completed++;
+            }
+
+        } catch (UsersClientException | RuntimeException | Error e) {
+
+            //Release every claimed key not completed, or later lookups would wait on it forever
+            userLoads.fail(claimed.subList(completed, claimed.size()), e);
+            throw e;
+        }
+
+        symUsers.putAll(found);
+
+        for (Map.Entry<String, CompletableFuture<SymUser>> entry : pending.entrySet()) {
+
+            SymUser user = await(entry.getValue());
+
+            if (user != null)
+                symUsers.put(entry.getKey().substring(EMAIL.length()), user);
+        }
+
+        return symUsers;
+    }
+
+
+    /**
+     * Remove a user from all indexes.
+     *
+     * @param uid Id of user
+     */
+    public void invalidate(Long uid) {
+
+        lock.writeLock().lock();
+
+        try {
+
+            SymUser user = symUserById.remove(uid);
+
+            if (user != null)
+                unindex(user);
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Remove all users.
+     */
+    public void clear() {
+
+        lock.writeLock().lock();
+
+        try {
+            symUserById.clear();
+            symUserByEmail.clear();
+            symUserByName.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * @return Number of cached users
+     */
+    public int size() {
+
+        lock.readLock().lock();
+
+        try {
+            return symUserById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Index a user by id, email and name, replacing any previous version of the user.
+     *
+     * @param user User retrieved from the pod
+     * @return The cached user
+     */
+    private SymUser cacheUser(SymUser user) {
+
+        SymUser cached = compact(user);
+
+        lock.writeLock().lock();
+
+        try {
+
+            SymUser previous = symUserById.put(cached.getId(), cached);
+
+            if (previous != null)
+                unindex(previous);
+
+            if (cached.getEmailAddress() != null)
+                symUserByEmail.put(key(cached.getEmailAddress()), cached);
+
+            if (cached.getUsername() != null)
+                symUserByName.put(key(cached.getUsername()), cached);
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        //The user may have been created since it was last looked up.
+        notFound.invalidate(ID + cached.getId());
+
+        if (cached.getEmailAddress() != null)
+            notFound.invalidate(EMAIL + key(cached.getEmailAddress()));
+
+        if (cached.getUsername() != null)
+            notFound.invalidate(NAME + key(cached.getUsername()));
+
+        return cached;
+    }
+
+
+    private void unindex(SymUser user) {
+
+        if (user.getEmailAddress() != null)
+            symUserByEmail.remove(key(user.getEmailAddress()), user);
+
+        if (user.getUsername() != null)
+            symUserByName.remove(key(user.getUsername()), user);
+    }
+
+
+    /**
+     * Project and intern a user before caching.  Email and user name are interned too, so when they are already
+     * lower case the index keys and user fields share one string.
+     *
+     * @param user User retrieved from the pod
+     * @return User to cache
+     */
+    private SymUser compact(SymUser user) {
+
+        SymUser cached = user;
+
+        if (slim) {
+            cached = new SymUser();
+            cached.setId(user.getId());
+            cached.setEmailAddress(user.getEmailAddress());
+            cached.setFirstName(user.getFirstName());
+            cached.setLastName(user.getLastName());
+            cached.setDisplayName(user.getDisplayName());
+            cached.setUsername(user.getUsername());
+            cached.setActive(user.isActive());
+        }
+
+        cached.setEmailAddress(intern(user.getEmailAddress()));
+        cached.setUsername(intern(user.getUsername()));
+        cached.setCompany(intern(user.getCompany()));
+        cached.setDepartment(intern(user.getDepartment()));
+        cached.setTitle(intern(user.getTitle()));
+        cached.setLocation(intern(user.getLocation()));
+
+        return cached;
+    }
+
+
+    private String intern(String value) {
+        return value != null ? interner.intern(value) : null;
+    }
+
+
+    private String key(String value) {
+        return interner.intern(value.toLowerCase());
+    }
+
+
+    private SymUser getIndexed(Map<String, SymUser> index, String key) {
+
+        lock.readLock().lock();
+
+        try {
+            return index.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Load a single user from the pod unless it is known not to exist.  Concurrent loads of the same key, including
+     * bulk loads, share one request.
+     *
+     * @param key  Prefixed lookup key
+     * @param call Call to the pod
+     * @return Cached user or null if it cannot be found
+     * @throws UsersClientException Exceptions from underlying API's
+     */
+    private SymUser loadUser(String key, Callable<SymUser> call) throws UsersClientException {
+
+        if (notFound.getIfPresent(key) != null)
+            return null;
+
+        try {
+
+            return userLoads.execute(key, () -> {
+
+                SymUser user;
+
+                try {
+                    user = call.call();
+                } catch (UserNotFoundException e) {
+                    user = null;
+                }
+
+                if (user != null)
+                    return cacheUser(user);
+
+                notFound.put(key, Boolean.TRUE);
+                return null;
+            });
+
+        } catch (UsersClientException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UsersClientException("Cannot load user from cache by " + key, e);
+        }
+    }
+
+
+    private void loaded(String key, SymUser user) {
+
+        if (user == null)
+            notFound.put(key, Boolean.TRUE);
+
+        userLoads.complete(key, user);
+    }
+
+
+    private SymUser await(CompletableFuture<SymUser> future) throws UsersClientException {
+
+        try {
+            return userLoads.join(future);
+        } catch (UsersClientException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UsersClientException("Interrupted while loading users", e);
+        } catch (Exception e) {
+            throw new UsersClientException("Cannot load users from cache", e);
+        }
+    }
+
+
+    @Override
+    public void setSymphonyClient(SymphonyClient symphonyClient) {
+        this.symClient = symphonyClient;
+    }
+
+
+    /**
+     * Return cache type. This should be CacheType.USER
+     *
+     * @return SymUserCache
+     */
+    @Override
+    public CacheType getCacheType() {
+        return CacheType.USER;
+    }
+
+
+    /**
+     * THIS IS IGNORED
+     *
+     * @param cacheType type of cache eg. USER
+     */
+    @Override
+    public void setCacheType(CacheType cacheType) {
+
+    }
+
+}
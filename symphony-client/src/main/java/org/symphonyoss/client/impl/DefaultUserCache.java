@@ -25,19 +25,35 @@
 package org.symphonyoss.client.impl;
 
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
 import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.exceptions.UserNotFoundException;
 import org.symphonyoss.client.exceptions.UsersClientException;
 import org.symphonyoss.client.model.CacheType;
 import org.symphonyoss.client.services.SymUserCache;
+import org.symphonyoss.client.util.ClientThreads;
+import org.symphonyoss.client.util.SingleFlight;
 import org.symphonyoss.symphony.clients.model.SymUser;
-
+import org.symphonyoss.symphony.pod.model.MemberInfo;
+import org.symphonyoss.symphony.pod.model.MembershipList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -50,17 +66,28 @@ import java.util.concurrent.TimeUnit;
  */
 public class DefaultUserCache implements SymUserCache {
 
+    private static final String ID = "id:";
+    private static final String EMAIL = "email:";
+    private static final String NAME = "name:";
+    private static final int REVALIDATION_BATCH_SIZE = 1000;
+
     LoadingCache<Long, SymUser> symUserById;
     LoadingCache<String, SymUser> symUserByEmail;
     LoadingCache<String, SymUser> symUserByName;
     LoadingCache<String, Set<SymUser>> symUserByStream;
+    Cache<String, Boolean> notFound;
     SymphonyClient symClient;
+    private final SingleFlight<String, SymUser> userLoads = new SingleFlight<>(
+            Long.parseLong(System.getProperty(Constants.SYMUSERS_CACHE_LOAD_TIMEOUT, "120")), TimeUnit.SECONDS);
     private final Logger logger = LoggerFactory.getLogger(DefaultUserCache.class);
 
 
     /**
      * DefaultUserCache implements symuser caches by id, email, name and streams
      * <p>
+     * Users that cannot be found are cached for {@link Constants#SYMUSERS_CACHE_NEGATIVE_TTL} seconds.  Concurrent
+     * single and bulk lookups of the same key share one request to the pod.
+     * <p>
      * This cache can be replaced with a custom cache plugin.  Please set in SymphonyClient setCache(SymCache)
      *
      * @param symClient SymphonyClient required to call underlying client implementations and retrieve data.
@@ -82,6 +109,10 @@ public class DefaultUserCache implements SymUserCache {
         symUserByStream = CacheBuilder.newBuilder().expireAfterAccess(new Long(System.getProperty(Constants.SYMUSERS_CACHE_ACCESSEDEXPIRY, "86400")), TimeUnit.SECONDS)
                 .build(new UserStreamLoader());
 
+        //Users that could not be found are remembered for a short time so repeated lookups do not hit the pod.
+        notFound = CacheBuilder.newBuilder().expireAfterWrite(new Long(System.getProperty(Constants.SYMUSERS_CACHE_NEGATIVE_TTL, "60")), TimeUnit.SECONDS)
+                .build();
+
         logger.debug("Initialized default SymUser cache");
 
     }
@@ -97,27 +128,70 @@ public class DefaultUserCache implements SymUserCache {
 
             if (key != null) key = key.toLowerCase();
 
-            SymUser user = symClient.getUsersClient().getUserFromEmail(key);
+            String email = key;
 
-            if (user != null) {
+            SymUser user = loadUser(EMAIL + email, () -> symClient.getUsersClient().getUserFromEmail(email));
 
-                if (user.getEmailAddress() != null)
-                    symUserByEmail.put(user.getEmailAddress().toLowerCase(), user);
+            if (user != null)
+                return user;
 
+            throw new UserNotFoundException("cannot find Symphony user by email " + key);
 
-                if (user.getId() != null)
-                    symUserById.put(user.getId(), user);
+        }
 
-                if (user.getUsername() != null)
-                    symUserByName.put(user.getUsername(), user);
 
+        /**
+         * Bulk load users by email with a single multi-user lookup.  Keys are expected in lower case.
+         */
+        @Override
+        public Map<String, SymUser> loadAll(Iterable<? extends String> keys) throws Exception {
 
-                return user;
+            Map<String, CompletableFuture<SymUser>> pending = new HashMap<>();
+            List<String> emails = userLoads.claim(notFoundFilter(EMAIL, keys), pending);
+
+            Map<String, SymUser> symUsers = new HashMap<>();
+            int completed = 0;
+
+            try {
+
+                for (SymUser user : symClient.getUsersClient().getUsersFromEmailList(strip(EMAIL, emails), true))
+                    if (user.getEmailAddress() != null)
+                        symUsers.put(user.getEmailAddress().toLowerCase(), user);
+
+                //Search beyond the local pod for anything not found.
+                if (symUsers.size() < emails.size()) {
+
+                    List<String> missing = strip(EMAIL, emails);
+                    missing.removeAll(symUsers.keySet());
 
+                    for (SymUser user : symClient.getUsersClient().getUsersFromEmailList(missing, false))
+                        if (user.getEmailAddress() != null)
+                            symUsers.put(user.getEmailAddress().toLowerCase(), user);
+                }
+
+                symUsers.values().forEach(DefaultUserCache.this::cacheUser);
+
+                for (String email : emails) {
+                    loaded(email, symUsers.get(email.substring(EMAIL.length())));
+                    completed++;
+                }
+
+            } catch (Exception | Error e) {
+
+                //Release every claimed key not completed, or later lookups would wait on it forever
+                userLoads.fail(emails.subList(completed, emails.size()), e);
+                throw e;
             }
 
-            throw new RuntimeException("cannot find Symphony user by email " + key);
+            for (Map.Entry<String, CompletableFuture<SymUser>> entry : pending.entrySet()) {
+
+                SymUser user = userLoads.join(entry.getValue());
+
+                if (user != null)
+                    symUsers.put(entry.getKey().substring(EMAIL.length()), user);
+            }
 
+            return symUsers;
         }
 
     }
@@ -132,27 +206,74 @@ public class DefaultUserCache implements SymUserCache {
         public SymUser load(Long key) throws Exception {
 
 
-            SymUser user = symClient.getUsersClient().getUserFromId(key);
+            SymUser user = loadUser(ID + key, () -> symClient.getUsersClient().getUserFromId(key));
+
+            if (user != null)
+                return user;
 
-            if (user != null) {
+            throw new UserNotFoundException("cannot find Symphony user by ID " + key);
 
-                if (user.getEmailAddress() != null)
-                    symUserByEmail.put(user.getEmailAddress().toLowerCase(), user);
+        }
 
 
-                if (user.getId() != null)
-                    symUserById.put(user.getId(), user);
+        /**
+         * Bulk load users by ID with a single multi-user lookup.
+         */
+        @Override
+        public Map<Long, SymUser> loadAll(Iterable<? extends Long> keys) throws Exception {
 
-                if (user.getUsername() != null)
-                    symUserByName.put(user.getUsername(), user);
+            List<String> idKeys = new ArrayList<>();
+            keys.forEach(key -> idKeys.add(String.valueOf(key)));
 
+            Map<String, CompletableFuture<SymUser>> pending = new HashMap<>();
+            List<String> claimed = userLoads.claim(notFoundFilter(ID, idKeys), pending);
 
-                return user;
+            List<Long> uids = new ArrayList<>();
+            strip(ID, claimed).forEach(uid -> uids.add(Long.valueOf(uid)));
 
-            } else
+            Map<Long, SymUser> symUsers = new HashMap<>();
+            int completed = 0;
 
-                throw new RuntimeException("cannot find Symphony user by ID " + key);
+            try {
 
+                for (SymUser user : symClient.getUsersClient().getUsersFromIdList(uids, true))
+                    if (user.getId() != null)
+                        symUsers.put(user.getId(), user);
+
+                //Search beyond the local pod for anything not found.
+                if (symUsers.size() < uids.size()) {
+
+                    List<Long> missing = new ArrayList<>(uids);
+                    missing.removeAll(symUsers.keySet());
+
+                    for (SymUser user : symClient.getUsersClient().getUsersFromIdList(missing, false))
+                        if (user.getId() != null)
+                            symUsers.put(user.getId(), user);
+                }
+
+                symUsers.values().forEach(DefaultUserCache.this::cacheUser);
+
+                for (Long uid : uids) {
+                    loaded(ID + uid, symUsers.get(uid));
+                    completed++;
+                }
+
+            } catch (Exception | Error e) {
+
+                //Release every claimed key not completed, or later lookups would wait on it forever
+                userLoads.fail(claimed.subList(completed, claimed.size()), e);
+                throw e;
+            }
+
+            for (Map.Entry<String, CompletableFuture<SymUser>> entry : pending.entrySet()) {
+
+                SymUser user = userLoads.join(entry.getValue());
+
+                if (user != null)
+                    symUsers.put(Long.valueOf(entry.getKey().substring(ID.length())), user);
+            }
+
+            return symUsers;
         }
 
     }
@@ -169,25 +290,14 @@ public class DefaultUserCache implements SymUserCache {
 
             if (key != null) key = key.toLowerCase();
 
-            SymUser user = symClient.getUsersClient().getUserFromName(key);
-
-            if (user != null) {
-
-                if (user.getEmailAddress() != null)
-                    symUserByEmail.put(user.getEmailAddress().toLowerCase(), user);
+            String name = key;
 
+            SymUser user = loadUser(NAME + name, () -> symClient.getUsersClient().getUserFromName(name));
 
-                if (user.getId() != null)
-                    symUserById.put(user.getId(), user);
-
-                if (user.getUsername() != null)
-                    symUserByName.put(user.getUsername(), user);
-
+            if (user != null)
                 return user;
 
-            } else
-
-                throw new RuntimeException("cannot find Symphony user by name " + key);
+            throw new UserNotFoundException("cannot find Symphony user by name " + key);
 
         }
 
@@ -196,7 +306,8 @@ public class DefaultUserCache implements SymUserCache {
 
 
     /**
-     * Stream CacheLoader.  Will provide a set of symusers from streamId.
+     * Stream CacheLoader.  Will provide a set of symusers from streamId.  Members are resolved through the user
+     * cache, so only members not already cached are requested (in bulk) from the pod.
      */
     private class UserStreamLoader extends CacheLoader<String, Set<SymUser>> {
 
@@ -205,9 +316,15 @@ public class DefaultUserCache implements SymUserCache {
         public Set<SymUser> load(String key) throws Exception {
 
 
-            Set<SymUser> symUsers = symClient.getUsersClient().getUsersFromStream(key);
+            MembershipList membershipList = symClient.getRoomMembershipClient().getRoomMembership(key);
 
-            if (symUsers != null) {
+            if (membershipList != null) {
+
+                List<Long> userIds = new ArrayList<>();
+                for (MemberInfo memberInfo : membershipList)
+                    userIds.add(memberInfo.getId());
+
+                Set<SymUser> symUsers = new HashSet<>(getUsersByIds(userIds).values());
 
                 symUserByStream.put(key, symUsers);
                 return symUsers;
@@ -224,6 +341,246 @@ public class DefaultUserCache implements SymUserCache {
     }
 
 
+    /**
+     * Index a user by id, email and name.
+     *
+     * @param user User to cache
+     */
+    private void cacheUser(SymUser user) {
+
+        if (user.getEmailAddress() != null)
+            symUserByEmail.put(user.getEmailAddress().toLowerCase(), user);
+
+        if (user.getId() != null)
+            symUserById.put(user.getId(), user);
+
+        if (user.getUsername() != null)
+            symUserByName.put(user.getUsername(), user);
+
+        //The user may have been created since it was last looked up.
+        notFound.invalidateAll(userKeys(user));
+
+    }
+
+
+    /**
+     * Load a single user from the pod unless it is known not to exist.  Concurrent loads of the same key, including
+     * bulk loads, share one request.  Users found are indexed, users not found are remembered.
+     *
+     * @param key  Prefixed lookup key
+     * @param call Call to the pod
+     * @return User or null if it cannot be found
+     * @throws Exception Exceptions from underlying API's
+     */
+    private SymUser loadUser(String key, Callable<SymUser> call) throws Exception {
+
+        if (notFound.getIfPresent(key) != null)
+            return null;
+
+        return userLoads.execute(key, () -> {
+
+            SymUser user;
+
+            try {
+                user = call.call();
+            } catch (UserNotFoundException e) {
+                user = null;
+            }
+
+            if (user != null)
+                cacheUser(user);
+            else
+                notFound.put(key, Boolean.TRUE);
+
+            return user;
+        });
+    }
+
+
+    /**
+     * Complete a claimed bulk lookup key, remembering it if the user was not found.
+     *
+     * @param key  Prefixed lookup key
+     * @param user User or null if it was not found
+     */
+    private void loaded(String key, SymUser user) {
+
+        if (user == null)
+            notFound.put(key, Boolean.TRUE);
+
+        userLoads.complete(key, user);
+    }
+
+
+    /**
+     * @param prefix Key prefix
+     * @param keys   Lookup keys
+     * @return Prefixed keys of users not known to be missing
+     */
+    private List<String> notFoundFilter(String prefix, Iterable<? extends String> keys) {
+
+        List<String> found = new ArrayList<>();
+
+        for (String key : keys)
+            if (notFound.getIfPresent(prefix + key) == null)
+                found.add(prefix + key);
+
+        return found;
+    }
+
+
+    private static List<String> strip(String prefix, List<String> keys) {
+
+        List<String> stripped = new ArrayList<>(keys.size());
+
+        for (String key : keys)
+            stripped.add(key.substring(prefix.length()));
+
+        return stripped;
+    }
+
+
+    private static List<String> userKeys(SymUser user) {
+
+        List<String> keys = new ArrayList<>(3);
+
+        if (user.getId() != null)
+            keys.add(ID + user.getId());
+
+        if (user.getEmailAddress() != null)
+            keys.add(EMAIL + user.getEmailAddress().toLowerCase());
+
+        if (user.getUsername() != null)
+            keys.add(NAME + user.getUsername().toLowerCase());
+
+        return keys;
+    }
+
+
+    /**
+     * @return Users currently cached by ID
+     */
+    public Collection<SymUser> getCachedUsers() {
+        return new ArrayList<>(symUserById.asMap().values());
+    }
+
+
+    /**
+     * Save the cached users to a snapshot.
+     *
+     * @param snapshot Snapshot to replace
+     */
+    public void save(UserCacheSnapshot snapshot) {
+
+        snapshot.save(getCachedUsers());
+
+    }
+
+
+    /**
+     * Warm the cache from a snapshot.  Snapshots older than {@link Constants#SYMUSERS_CACHE_SNAPSHOT_MAX_AGE} seconds
+     * are ignored.  Restored users are served immediately and revalidated against the pod in the background.
+     *
+     * @param snapshot Snapshot to load
+     * @return Number of users restored
+     */
+    public int restore(UserCacheSnapshot snapshot) {
+
+        Long savedTime = snapshot.getSavedTime();
+
+        if (savedTime == null)
+            return 0;
+
+        long maxAge = TimeUnit.SECONDS.toMillis(Long.parseLong(System.getProperty(Constants.SYMUSERS_CACHE_SNAPSHOT_MAX_AGE, "604800")));
+
+        if (System.currentTimeMillis() - savedTime > maxAge) {
+            logger.info("Ignoring user cache snapshot {} older than {} ms", snapshot.getFile(), maxAge);
+            return 0;
+        }
+
+        List<SymUser> symUsers = snapshot.load();
+
+        symUsers.forEach(this::cacheUser);
+
+        if (!symUsers.isEmpty()) {
+
+            Runnable revalidation = () -> revalidate(symUsers);
+
+            if (symClient.getWorkerScheduler() != null)
+                symClient.getWorkerScheduler().execute(symClient.getName(), revalidation);
+            else
+                ClientThreads.newThread(symClient.getThreadFactory(), revalidation, "UserCacheRevalidation: " + symClient.getName()).start();
+        }
+
+        return symUsers.size();
+    }
+
+
+    /**
+     * Refresh restored users from the pod in bulk.  Users that no longer exist are removed from the cache.  On
+     * failure the remaining users are left as restored.
+     *
+     * @param symUsers Users to revalidate
+     */
+    void revalidate(List<SymUser> symUsers) {
+
+        long startTime = System.currentTimeMillis();
+        int removed = 0;
+
+        try {
+
+            for (int i = 0; i < symUsers.size(); i += REVALIDATION_BATCH_SIZE) {
+
+                Map<Long, SymUser> stale = new HashMap<>();
+
+                for (SymUser symUser : symUsers.subList(i, Math.min(i + REVALIDATION_BATCH_SIZE, symUsers.size())))
+                    stale.put(symUser.getId(), symUser);
+
+                List<SymUser> fresh = new ArrayList<>(symClient.getUsersClient().getUsersFromIdList(new ArrayList<>(stale.keySet()), true));
+                fresh.forEach(user -> stale.remove(user.getId()));
+
+                if (!stale.isEmpty()) {
+                    for (SymUser user : symClient.getUsersClient().getUsersFromIdList(new ArrayList<>(stale.keySet()), false)) {
+                        fresh.add(user);
+                        stale.remove(user.getId());
+                    }
+                }
+
+                fresh.forEach(this::cacheUser);
+
+                for (SymUser symUser : stale.values()) {
+                    evictUser(symUser);
+                    removed++;
+                }
+            }
+
+        } catch (UsersClientException e) {
+            logger.warn("Failed to revalidate restored users, keeping them as restored", e);
+            return;
+        }
+
+        logger.info("Revalidated {} restored users in {} ms, {} removed", symUsers.size(), System.currentTimeMillis() - startTime, removed);
+    }
+
+
+    /**
+     * Remove a user from the id, email and name indexes.
+     *
+     * @param user User to remove
+     */
+    private void evictUser(SymUser user) {
+
+        symUserById.invalidate(user.getId());
+
+        if (user.getEmailAddress() != null)
+            symUserByEmail.invalidate(user.getEmailAddress().toLowerCase());
+
+        if (user.getUsername() != null)
+            symUserByName.invalidate(user.getUsername());
+
+    }
+
+
     /**
      * Set the SymphonyClient used for underlying calls.
      *
@@ -332,6 +689,65 @@ public class DefaultUserCache implements SymUserCache {
     }
 
 
+    /**
+     * Retrieve multiple users by UID.  All cache misses are resolved through a single bulk lookup.
+     *
+     * @param uids Ids of users
+     * @return Map of user id to Symuser.  Users that could not be found are omitted.
+     * @throws UsersClientException Exceptions from underlying API's
+     */
+    @Override
+    public Map<Long, SymUser> getUsersByIds(Collection<Long> uids) throws UsersClientException {
+
+        try {
+
+            return symUserById.getAll(uids);
+
+        } catch (CacheLoader.InvalidCacheLoadException exc) {
+
+            //Some users were not found, return the ones that were loaded.
+            return symUserById.getAllPresent(uids);
+
+        } catch (ExecutionException | UncheckedExecutionException exc) {
+
+            throw new UsersClientException("Cannot load users from cache by id", exc);
+
+        }
+    }
+
+
+    /**
+     * Retrieve multiple users by email.  All cache misses are resolved through a single bulk lookup.
+     *
+     * @param emails emails of users
+     * @return Map of lower case email to Symuser.  Users that could not be found are omitted.
+     * @throws UsersClientException Exceptions from underlying API's
+     */
+    @Override
+    public Map<String, SymUser> getUsersByEmails(Collection<String> emails) throws UsersClientException {
+
+        Set<String> keys = new LinkedHashSet<>();
+
+        for (String email : emails)
+            keys.add(email.toLowerCase());
+
+        try {
+
+            return symUserByEmail.getAll(keys);
+
+        } catch (CacheLoader.InvalidCacheLoadException exc) {
+
+            //Some users were not found, return the ones that were loaded.
+            return symUserByEmail.getAllPresent(keys);
+
+        } catch (ExecutionException | UncheckedExecutionException exc) {
+
+            throw new UsersClientException("Cannot load users from cache by email", exc);
+
+        }
+    }
+
+
     /**
      * Return cache type. This should be CacheType.USER
      *
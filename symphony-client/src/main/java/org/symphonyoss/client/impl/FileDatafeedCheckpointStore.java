@@ -0,0 +1,151 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.model.DatafeedCheckpoint;
+import org.symphonyoss.client.services.DatafeedCheckpointStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Stores the datafeed checkpoint in a local properties file.  The file is written to a temporary file first and moved
+ * into place, so a crash never leaves a partial checkpoint behind.
+ *
+ * @author Frank Tarsillo
+ */
+public class FileDatafeedCheckpointStore implements DatafeedCheckpointStore {
+
+    private static final String DATAFEED_ID = "datafeed.id";
+    private static final String EVENT_ID = "event.id";
+    private static final String EVENT_TIMESTAMP = "event.timestamp";
+    private static final String STREAM_PREFIX = "stream.";
+
+    private final Path file;
+    private final Logger logger = LoggerFactory.getLogger(FileDatafeedCheckpointStore.class);
+
+
+    /**
+     * @param file Checkpoint file, created on first save
+     */
+    public FileDatafeedCheckpointStore(Path file) {
+
+        if (file == null)
+            throw new NullPointerException("Checkpoint file was not provided..");
+
+        this.file = file;
+    }
+
+
+    @Override
+    public DatafeedCheckpoint load() {
+
+        if (!Files.exists(file))
+            return null;
+
+        Properties properties = new Properties();
+
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read datafeed checkpoint " + file, e);
+        }
+
+        DatafeedCheckpoint checkpoint = new DatafeedCheckpoint();
+        checkpoint.setDatafeedId(properties.getProperty(DATAFEED_ID));
+        checkpoint.setLastEventId(properties.getProperty(EVENT_ID));
+
+        String timestamp = properties.getProperty(EVENT_TIMESTAMP);
+
+        if (timestamp != null)
+            checkpoint.setLastEventTimestamp(Long.valueOf(timestamp));
+
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(STREAM_PREFIX))
+                checkpoint.updateStream(name.substring(STREAM_PREFIX.length()), Long.parseLong(properties.getProperty(name)));
+        }
+
+        logger.info("Loaded datafeed checkpoint {} with {} streams", file, checkpoint.getStreamTimestamps().size());
+
+        return checkpoint;
+    }
+
+
+    @Override
+    public synchronized void save(DatafeedCheckpoint checkpoint) {
+
+        Properties properties = new Properties();
+
+        if (checkpoint.getDatafeedId() != null)
+            properties.setProperty(DATAFEED_ID, checkpoint.getDatafeedId());
+
+        if (checkpoint.getLastEventId() != null)
+            properties.setProperty(EVENT_ID, checkpoint.getLastEventId());
+
+        if (checkpoint.getLastEventTimestamp() != null)
+            properties.setProperty(EVENT_TIMESTAMP, checkpoint.getLastEventTimestamp().toString());
+
+        for (Map.Entry<String, Long> entry : checkpoint.getStreamTimestamps().entrySet())
+            properties.setProperty(STREAM_PREFIX + entry.getKey(), entry.getValue().toString());
+
+        try {
+
+            Path parent = file.toAbsolutePath().getParent();
+
+            if (parent != null)
+                Files.createDirectories(parent);
+
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+            try {
+
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    properties.store(out, "Symphony datafeed checkpoint");
+                }
+
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write datafeed checkpoint " + file, e);
+        }
+    }
+
+}
@@ -35,20 +35,35 @@ import org.symphonyoss.client.exceptions.AuthenticationException;
 import org.symphonyoss.client.exceptions.InitException;
 import org.symphonyoss.client.exceptions.SymCacheException;
 import org.symphonyoss.client.exceptions.SymException;
+import org.symphonyoss.client.metrics.DefaultMetricsRegistry;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
+import org.symphonyoss.client.metrics.MetricsHttpEndpoint;
+import org.symphonyoss.client.metrics.MetricsRegistry;
+import org.symphonyoss.client.metrics.NoopMetricsRegistry;
 import org.symphonyoss.client.model.CacheType;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.client.services.*;
+import org.symphonyoss.client.util.ClientThreads;
+import org.symphonyoss.client.util.SharedWorkerScheduler;
 import org.symphonyoss.symphony.clients.*;
+import org.symphonyoss.symphony.clients.impl.StreamsClientImpl;
 import org.symphonyoss.symphony.clients.jmx.ClientCheck;
+import org.symphonyoss.symphony.clients.jmx.ClientMetrics;
 import org.symphonyoss.symphony.clients.model.ApiVersion;
 import org.symphonyoss.symphony.clients.model.SymUser;
 import org.symphonyoss.symphony.pod.invoker.JSON;
 
 import javax.management.*;
 import javax.ws.rs.client.Client;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.management.ManagementFactory;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implements a full abstraction of underlying clients and exposes services to simplify
@@ -74,6 +89,7 @@ public class SymphonyBasicClient implements SymphonyClient {
     private String agentUrl;
     private String podUrl;
     private MessagesClient messagesClient;
+    private OutboundMessageScheduler outboundMessageScheduler;
     private DataFeedClient dataFeedClient;
     private UsersClient usersClient;
     private StreamsClient streamsClient;
@@ -91,7 +107,16 @@ public class SymphonyBasicClient implements SymphonyClient {
     private SymUserCache symUserCache;
     private ApiVersion apiVersion = ApiVersion.V4;
     private String name;
-    private Timer timer;
+    private ScheduledExecutorService authRefreshExecutor;
+    private ScheduledFuture<?> authRefreshFuture;
+    private ThreadFactory threadFactory = ClientThreads.fromProperties();
+    private SharedWorkerScheduler workerScheduler;
+    private MetricsRegistry metricsRegistry;
+    private MetricsHttpEndpoint metricsHttpEndpoint;
+    private ObjectName metricsMBean;
+    private DatafeedCheckpointStore datafeedCheckpointStore;
+    private UserCacheSnapshot userCacheSnapshot;
+    private ScheduledFuture<?> userCacheSnapshotFuture;
 
 
     public SymphonyBasicClient() {
@@ -267,6 +292,8 @@ public class SymphonyBasicClient implements SymphonyClient {
         if (agentHttpClient == null)
             agentHttpClient = defaultHttpClient;
 
+        initMetrics();
+
 
         String NOT_LOGGED_IN_MESSAGE = "Currently not logged into Agent, please check certificates and tokens.";
         if (symAuth == null || symAuth.getSessionToken() == null || symAuth.getKeyToken() == null)
@@ -281,11 +308,37 @@ public class SymphonyBasicClient implements SymphonyClient {
         this.symAuth = symAuth;
         this.name = config.get(SymphonyClientConfigID.USER_EMAIL);
 
+        //Optional datafeed checkpointing
+        String checkpointFile = System.getProperty(Constants.DATAFEED_CHECKPOINT_FILE);
+
+        if (datafeedCheckpointStore == null && checkpointFile != null)
+            datafeedCheckpointStore = new FileDatafeedCheckpointStore(Paths.get(checkpointFile));
+
         //Init all clients.
         dataFeedClient = DataFeedFactory.getClient(this);
         messagesClient = MessagesFactory.getClient(this);
+
+        //Optionally rate limit all outbound messages sent through this client
+        if (Boolean.parseBoolean(System.getProperty(Constants.MESSAGES_OUTBOUND_SCHEDULER, "false"))) {
+            outboundMessageScheduler = new OutboundMessageScheduler(messagesClient, name);
+            messagesClient = outboundMessageScheduler;
+
+            metricsRegistry.gauge("messages.outbound.queued", outboundMessageScheduler::getQueueDepth);
+            metricsRegistry.gauge("messages.outbound.throttled", outboundMessageScheduler::getThrottledMessages);
+            metricsRegistry.gauge("messages.outbound.failed", outboundMessageScheduler::getFailedMessages);
+        }
+
         presenceClient = PresenceFactory.getClient(this);
         streamsClient = StreamsFactory.getClient(this);
+
+        if (streamsClient instanceof StreamsClientImpl) {
+            StreamsClientImpl streamsClientImpl = (StreamsClientImpl) streamsClient;
+
+            metricsRegistry.gauge("streams.imcache.size", streamsClientImpl::getImStreamCacheSize);
+            metricsRegistry.gauge("streams.imcache.hits", () -> streamsClientImpl.getImStreamCacheStats().hitCount());
+            metricsRegistry.gauge("streams.imcache.misses", () -> streamsClientImpl.getImStreamCacheStats().missCount());
+        }
+
         usersClient = UsersFactory.getClient(this);
         shareClient = ShareFactory.getClient(this);
         attachmentsClient = AttachmentsFactory.getClient(this);
@@ -321,13 +374,43 @@ public class SymphonyBasicClient implements SymphonyClient {
         }
 
 
-        symUserCache = new DefaultUserCache(this);
+        DefaultUserCache defaultUserCache = new DefaultUserCache(this);
+        symUserCache = defaultUserCache;
+
+        //Optionally warm the user cache from a snapshot taken by a previous run
+        String snapshotFile = System.getProperty(Constants.SYMUSERS_CACHE_SNAPSHOT_FILE);
+
+        if (snapshotFile != null) {
+            userCacheSnapshot = new UserCacheSnapshot(Paths.get(snapshotFile));
+            defaultUserCache.restore(userCacheSnapshot);
+        }
 
         //Refresh token every so often..
-        TimerTask authRefreshTask = new AuthRefreshTask(this);
-        // running timer task as daemon thread
-        timer = new Timer("AuthRefresh:" + this.getName(), true);
-        timer.scheduleAtFixedRate(authRefreshTask, SYMAUTH_REFRESH_TIME, SYMAUTH_REFRESH_TIME);
+        AuthRefreshTask authRefreshTask = new AuthRefreshTask(this);
+
+        if (workerScheduler != null) {
+            authRefreshFuture = workerScheduler.scheduleAtFixedRate(getName(), authRefreshTask,
+                    SYMAUTH_REFRESH_TIME, SYMAUTH_REFRESH_TIME, TimeUnit.MILLISECONDS);
+        } else {
+            // running refresh task on a daemon thread
+            authRefreshExecutor = Executors.newSingleThreadScheduledExecutor(
+                    ClientThreads.named(threadFactory, "AuthRefresh", this.getName(), true));
+            authRefreshFuture = authRefreshExecutor.scheduleAtFixedRate(authRefreshTask,
+                    SYMAUTH_REFRESH_TIME, SYMAUTH_REFRESH_TIME, TimeUnit.MILLISECONDS);
+        }
+
+        //Keep the user cache snapshot current in case the process is not shut down cleanly
+        if (userCacheSnapshot != null) {
+
+            long snapshotInterval = Long.parseLong(System.getProperty(Constants.SYMUSERS_CACHE_SNAPSHOT_INTERVAL, "600"));
+
+            if (workerScheduler != null)
+                userCacheSnapshotFuture = workerScheduler.scheduleAtFixedRate(getName(), this::saveUserCacheSnapshot,
+                        snapshotInterval, snapshotInterval, TimeUnit.SECONDS);
+            else
+                userCacheSnapshotFuture = authRefreshExecutor.scheduleAtFixedRate(this::saveUserCacheSnapshot,
+                        snapshotInterval, snapshotInterval, TimeUnit.SECONDS);
+        }
 
 
         //Publish MBean via JMX
@@ -336,6 +419,11 @@ public class SymphonyBasicClient implements SymphonyClient {
             logger.info("Registering JMX Health Bean...");
             this.registerHealthMBean();
         }
+
+        if (metricsRegistry != NoopMetricsRegistry.INSTANCE
+                && Boolean.parseBoolean(System.getProperty(Constants.METRICS_JMX_ENABLED, "true"))) {
+            this.registerMetricsMBean();
+        }
     }
 
 
@@ -497,6 +585,53 @@ public class SymphonyBasicClient implements SymphonyClient {
     }
 
 
+    @Override
+    public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+
+    @Override
+    public void setDatafeedCheckpointStore(DatafeedCheckpointStore datafeedCheckpointStore) {
+        this.datafeedCheckpointStore = datafeedCheckpointStore;
+    }
+
+    @Override
+    public DatafeedCheckpointStore getDatafeedCheckpointStore() {
+        return datafeedCheckpointStore;
+    }
+
+
+    @Override
+    public void setThreadFactory(ThreadFactory threadFactory) {
+
+        if (threadFactory == null)
+            throw new NullPointerException("Thread factory was not provided..");
+
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public ThreadFactory getThreadFactory() {
+        return threadFactory;
+    }
+
+    @Override
+    public void setWorkerScheduler(SharedWorkerScheduler workerScheduler) {
+        this.workerScheduler = workerScheduler;
+    }
+
+    @Override
+    public SharedWorkerScheduler getWorkerScheduler() {
+        return workerScheduler;
+    }
+
+
     @Override
     public void shutdown() {
 
@@ -507,10 +642,48 @@ public class SymphonyBasicClient implements SymphonyClient {
         if (getPresenceService() != null)
             getPresenceService().shutdown();
 
-        if (timer != null)
-            timer.cancel();
+        if (outboundMessageScheduler != null)
+            outboundMessageScheduler.shutdown();
+
+        if (authRefreshFuture != null)
+            authRefreshFuture.cancel(false);
+
+        if (userCacheSnapshotFuture != null)
+            userCacheSnapshotFuture.cancel(false);
+
+        if (authRefreshExecutor != null)
+            authRefreshExecutor.shutdownNow();
+
+        saveUserCacheSnapshot();
+
+        if (metricsHttpEndpoint != null)
+            metricsHttpEndpoint.shutdown();
+
+        if (metricsMBean != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsMBean);
+            } catch (JMException e) {
+                logger.error("Cannot unregister JMX Mbean: " + metricsMBean, e);
+            }
+        }
+
+
+    }
+
+
+    /**
+     * Save the user cache to the snapshot file, if enabled and the default user cache is in use.
+     */
+    private void saveUserCacheSnapshot() {
 
+        if (userCacheSnapshot == null || !(symUserCache instanceof DefaultUserCache))
+            return;
 
+        try {
+            ((DefaultUserCache) symUserCache).save(userCacheSnapshot);
+        } catch (UncheckedIOException e) {
+            logger.error("Failed to save user cache snapshot", e);
+        }
     }
 
 
@@ -588,6 +761,70 @@ public class SymphonyBasicClient implements SymphonyClient {
     }
 
 
+    /**
+     * Create the default metrics registry unless one was set and time all REST calls made through the pod and agent
+     * http clients.  Optionally serve the metrics on {@link Constants#METRICS_HTTP_PORT}.
+     */
+    private void initMetrics() {
+
+        if (metricsRegistry == null) {
+            metricsRegistry = Boolean.parseBoolean(System.getProperty(Constants.METRICS_ENABLED, "true")) ?
+                    new DefaultMetricsRegistry() : NoopMetricsRegistry.INSTANCE;
+        }
+
+        if (metricsRegistry == NoopMetricsRegistry.INSTANCE)
+            return;
+
+        //The session token tells this client's calls apart on http clients shared with other clients
+        MetricsClientFilter metricsClientFilter = new MetricsClientFilter(metricsRegistry,
+                () -> symAuth != null && symAuth.getSessionToken() != null ? symAuth.getSessionToken().getToken() : null,
+                Long.parseLong(System.getProperty(Constants.METRICS_INFLIGHT_EXPIRY, "300")), TimeUnit.SECONDS);
+
+        registerMetricsFilter(podHttpClient, metricsClientFilter);
+
+        if (agentHttpClient != podHttpClient)
+            registerMetricsFilter(agentHttpClient, metricsClientFilter);
+
+        String metricsPort = System.getProperty(Constants.METRICS_HTTP_PORT);
+
+        if (metricsPort != null && metricsHttpEndpoint == null) {
+            try {
+                metricsHttpEndpoint = new MetricsHttpEndpoint(metricsRegistry, Integer.parseInt(metricsPort),
+                        config.get(SymphonyClientConfigID.USER_EMAIL));
+            } catch (IOException e) {
+                logger.error("Could not start metrics endpoint on port " + metricsPort, e);
+            }
+        }
+    }
+
+
+    /**
+     * Register the metrics filter.  If the http client already has one, ex. when it is shared with another client or
+     * init(..) is called again, the filter is shared with it so calls are never counted twice.
+     */
+    private void registerMetricsFilter(Client httpClient, MetricsClientFilter metricsClientFilter) {
+
+        if (httpClient == null)
+            return;
+
+        if (!MetricsClientFilter.register(httpClient, metricsClientFilter))
+            logger.warn("Http client has a metrics filter registered by class, REST calls not recorded for this client");
+    }
+
+
+    private void registerMetricsMBean() {
+        String mBeanName = "org.symphonyoss.client:type=ClientMetrics,name=" + ObjectName.quote(String.valueOf(name));
+        try {
+            ObjectName mBean = new ObjectName(mBeanName);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new ClientMetrics(metricsRegistry), mBean);
+            metricsMBean = mBean;
+            logger.info("Registered JMX Mbean: " + mBeanName);
+        } catch (JMException e) {
+            logger.error("Cannot register JMX Mbean: " + mBeanName, e);
+        }
+    }
+
+
     private void registerHealthMBean() {
         logger.info("Exposing SymAgentHealthCheck as JMX MBean...");
         ClientCheck clientCheck = new ClientCheck(this);
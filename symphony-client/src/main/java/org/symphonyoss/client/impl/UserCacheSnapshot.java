@@ -0,0 +1,348 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.symphony.clients.model.SymAvatar;
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stores a snapshot of cached users in a compact binary file so the user cache can be warmed on startup.
+ * <p>
+ * The snapshot is read through a memory-mapped buffer.  It is written to a temporary file first and moved into place,
+ * so a crash never leaves a partial snapshot behind.  Feature lists are not stored.
+ *
+ * @author Frank Tarsillo
+ */
+public class UserCacheSnapshot {
+
+    private static final int MAGIC = 0x53594d55;
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final Logger logger = LoggerFactory.getLogger(UserCacheSnapshot.class);
+
+
+    /**
+     * @param file Snapshot file, created on first save
+     */
+    public UserCacheSnapshot(Path file) {
+
+        if (file == null)
+            throw new NullPointerException("Snapshot file was not provided..");
+
+        this.file = file;
+    }
+
+
+    /**
+     * @return Snapshot file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+
+    /**
+     * Unreadable snapshots are logged and treated as absent.
+     *
+     * @return Time the snapshot was saved in milliseconds, or null if there is no valid snapshot
+     */
+    public Long getSavedTime() {
+
+        if (!Files.exists(file))
+            return null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            if (channel.size() < 16)
+                return null;
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, 16);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return null;
+
+            return buffer.getLong();
+
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable user cache snapshot {}", file, e);
+            return null;
+        }
+    }
+
+
+    /**
+     * Load the users of the snapshot.  Unreadable or corrupt snapshots are ignored.
+     *
+     * @return Users, empty if there is no valid snapshot
+     */
+    public List<SymUser> load() {
+
+        List<SymUser> symUsers = new ArrayList<>();
+
+        if (!Files.exists(file))
+            return symUsers;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.warn("Ignoring user cache snapshot {} with unknown format", file);
+                return symUsers;
+            }
+
+            buffer.getLong();
+
+            int count = buffer.getInt();
+
+            for (int i = 0; i < count; i++)
+                symUsers.add(readUser(buffer));
+
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable user cache snapshot {}", file, e);
+            return new ArrayList<>();
+        }
+
+        logger.info("Loaded {} users from user cache snapshot {}", symUsers.size(), file);
+
+        return symUsers;
+    }
+
+
+    /**
+     * Replace the snapshot with the given users.  Users without an ID are skipped.
+     *
+     * @param users Users to store
+     */
+    public synchronized void save(Collection<SymUser> users) {
+
+        List<SymUser> symUsers = new ArrayList<>(users.size());
+
+        for (SymUser symUser : users)
+            if (symUser.getId() != null)
+                symUsers.add(symUser);
+
+        try {
+
+            Path parent = file.toAbsolutePath().getParent();
+
+            if (parent != null)
+                Files.createDirectories(parent);
+
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+            try {
+
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(System.currentTimeMillis());
+                    out.writeInt(symUsers.size());
+
+                    for (SymUser symUser : symUsers)
+                        writeUser(out, symUser);
+                }
+
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write user cache snapshot " + file, e);
+        }
+
+        logger.debug("Saved {} users to user cache snapshot {}", symUsers.size(), file);
+    }
+
+
+    private void writeUser(DataOutputStream out, SymUser symUser) throws IOException {
+
+        out.writeLong(symUser.getId());
+        writeString(out, symUser.getEmailAddress());
+        writeString(out, symUser.getFirstName());
+        writeString(out, symUser.getLastName());
+        writeString(out, symUser.getDisplayName());
+        writeString(out, symUser.getDepartment());
+        writeString(out, symUser.getTitle());
+        writeString(out, symUser.getCompany());
+        writeString(out, symUser.getUsername());
+        writeString(out, symUser.getLocation());
+        writeDate(out, symUser.getLastLoginDate());
+        writeDate(out, symUser.getCreatedDate());
+        out.writeBoolean(symUser.isActive());
+
+        Set<String> roles = symUser.getRoles();
+        out.writeInt(roles != null ? roles.size() : -1);
+
+        if (roles != null)
+            for (String role : roles)
+                writeString(out, role);
+
+        List<SymAvatar> avatars = symUser.getAvatars();
+        out.writeInt(avatars != null ? avatars.size() : -1);
+
+        if (avatars != null)
+            for (SymAvatar avatar : avatars) {
+                writeString(out, avatar.getSize());
+                writeString(out, avatar.getUrl());
+            }
+    }
+
+
+    private SymUser readUser(MappedByteBuffer buffer) {
+
+        SymUser symUser = new SymUser();
+        symUser.setId(buffer.getLong());
+        symUser.setEmailAddress(readString(buffer));
+        symUser.setFirstName(readString(buffer));
+        symUser.setLastName(readString(buffer));
+        symUser.setDisplayName(readString(buffer));
+        symUser.setDepartment(readString(buffer));
+        symUser.setTitle(readString(buffer));
+        symUser.setCompany(readString(buffer));
+        symUser.setUsername(readString(buffer));
+        symUser.setLocation(readString(buffer));
+        symUser.setLastLoginDate(readDate(buffer));
+        symUser.setCreatedDate(readDate(buffer));
+        symUser.setActive(buffer.get() != 0);
+
+        int roles = readCount(buffer);
+
+        if (roles >= 0) {
+
+            Set<String> roleSet = new HashSet<>();
+
+            for (int i = 0; i < roles; i++)
+                roleSet.add(readString(buffer));
+
+            symUser.setRoles(roleSet);
+        }
+
+        int avatars = readCount(buffer);
+
+        if (avatars >= 0) {
+
+            List<SymAvatar> avatarList = new ArrayList<>(avatars);
+
+            for (int i = 0; i < avatars; i++) {
+                SymAvatar avatar = new SymAvatar();
+                avatar.setSize(readString(buffer));
+                avatar.setUrl(readString(buffer));
+                avatarList.add(avatar);
+            }
+
+            symUser.setAvatars(avatarList);
+        }
+
+        return symUser;
+    }
+
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+
+    private static String readString(MappedByteBuffer buffer) {
+
+        int length = buffer.getInt();
+
+        if (length < 0)
+            return null;
+
+        if (length > buffer.remaining())
+            throw new IllegalArgumentException("String length " + length + " exceeds remaining snapshot size");
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Read an element count, -1 for a null collection.  Every element takes at least four bytes, so a count the
+     * remaining buffer cannot hold means the snapshot is corrupt.
+     */
+    private static int readCount(MappedByteBuffer buffer) {
+
+        int count = buffer.getInt();
+
+        if (count < -1 || count > buffer.remaining() / 4)
+            throw new IllegalArgumentException("Element count " + count + " is invalid for remaining snapshot size");
+
+        return count;
+    }
+
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeBoolean(date != null);
+
+        if (date != null)
+            out.writeLong(date.getTime());
+    }
+
+
+    private static Date readDate(MappedByteBuffer buffer) {
+        return buffer.get() != 0 ? new Date(buffer.getLong()) : null;
+    }
+
+}
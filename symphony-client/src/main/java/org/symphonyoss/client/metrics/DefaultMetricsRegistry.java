@@ -0,0 +1,126 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In memory {@link MetricsRegistry}.  Timers are backed by log-linear histograms and are cumulative from the time the
+ * registry was created, so pollers should derive rates from the count and sum values.
+ *
+ * @author Frank Tarsillo
+ */
+public class DefaultMetricsRegistry implements MetricsRegistry {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99"};
+
+    private final Map<MetricId, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final Map<MetricId, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<MetricId, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+    private final Logger logger = LoggerFactory.getLogger(DefaultMetricsRegistry.class);
+
+
+    @Override
+    public void recordTime(String name, long duration, TimeUnit unit, String... tags) {
+        timers.computeIfAbsent(new MetricId(name, tags), id -> new LatencyHistogram()).record(unit.toMicros(duration));
+    }
+
+
+    @Override
+    public void count(String name, long delta, String... tags) {
+        counters.computeIfAbsent(new MetricId(name, tags), id -> new LongAdder()).add(delta);
+    }
+
+
+    @Override
+    public void gauge(String name, Supplier<? extends Number> value, String... tags) {
+
+        if (value == null)
+            throw new NullPointerException("Gauge value was not provided..");
+
+        gauges.put(new MetricId(name, tags), value);
+    }
+
+
+    @Override
+    public SortedMap<MetricId, Number> snapshot() {
+
+        SortedMap<MetricId, Number> snapshot = new TreeMap<>();
+
+        counters.forEach((id, counter) -> snapshot.put(id, counter.sum()));
+
+        gauges.forEach((id, gauge) -> {
+            try {
+
+                Number value = gauge.get();
+
+                if (value != null)
+                    snapshot.put(id, value);
+
+            } catch (RuntimeException e) {
+                logger.warn("Failed to sample gauge {}", id, e);
+            }
+        });
+
+        timers.forEach((id, histogram) -> {
+
+            long count = histogram.getCount();
+
+            snapshot.put(id.withSuffix("count"), count);
+            snapshot.put(id.withSuffix("sum"), toMillis(histogram.getSum()));
+            snapshot.put(id.withSuffix("mean"), count > 0 ? toMillis(histogram.getSum()) / count : 0d);
+            snapshot.put(id.withSuffix("max"), toMillis(histogram.getMax()));
+
+            for (int i = 0; i < PERCENTILES.length; i++)
+                snapshot.put(id.withSuffix(PERCENTILE_NAMES[i]), toMillis(histogram.getPercentile(PERCENTILES[i])));
+
+        });
+
+        return snapshot;
+    }
+
+
+    /**
+     * Remove all timers and counters.  Gauges stay registered.
+     */
+    public void reset() {
+        timers.clear();
+        counters.clear();
+    }
+
+
+    private static double toMillis(long micros) {
+        return micros / 1000d;
+    }
+
+}
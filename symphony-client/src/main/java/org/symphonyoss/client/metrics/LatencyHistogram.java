@@ -0,0 +1,138 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free log-linear histogram of durations in microseconds.
+ * <p>
+ * Values below 16 are recorded exactly, larger values fall into 8 buckets per power of two, which bounds the error of
+ * reported percentiles to 12.5%.
+ *
+ * @author Frank Tarsillo
+ */
+class LatencyHistogram {
+
+    private static final int EXACT = 16;
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = EXACT + (63 - 4) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+
+    /**
+     * @param micros Duration in microseconds
+     */
+    void record(long micros) {
+
+        if (micros < 0)
+            micros = 0;
+
+        buckets.incrementAndGet(indexOf(micros));
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+
+    long getCount() {
+
+        long count = 0;
+
+        for (int i = 0; i < BUCKETS; i++)
+            count += buckets.get(i);
+
+        return count;
+    }
+
+
+    long getSum() {
+        return sum.sum();
+    }
+
+
+    long getMax() {
+        return max.get();
+    }
+
+
+    /**
+     * @param percentile Percentile between 0 and 1, ex. 0.99
+     * @return Upper bound in microseconds of the bucket holding the percentile, 0 if nothing was recorded
+     */
+    long getPercentile(double percentile) {
+
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+
+            if (seen >= rank)
+                return Math.min(upperBound(i), getMax());
+        }
+
+        return getMax();
+    }
+
+
+    static int indexOf(long micros) {
+
+        if (micros < EXACT)
+            return (int) micros;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+
+        return EXACT + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+
+    static long upperBound(int index) {
+
+        if (index < EXACT)
+            return index;
+
+        int exponent = (index - EXACT) / SUB_BUCKETS + 4;
+        int sub = (index - EXACT) % SUB_BUCKETS;
+        long width = 1L << (exponent - 3);
+
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+
+}
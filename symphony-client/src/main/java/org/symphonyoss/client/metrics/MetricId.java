@@ -0,0 +1,127 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Identifies a metric by name and an ordered set of tags, ex. {@code http.client.requests{endpoint=GET /pod/v2/user}}.
+ *
+ * @author Frank Tarsillo
+ */
+public final class MetricId implements Comparable<MetricId> {
+
+    private final String name;
+    private final Map<String, String> tags;
+    private final String key;
+
+
+    /**
+     * @param name Metric name
+     * @param tags Tag key/value pairs, ex. "status", "429"
+     */
+    public MetricId(String name, String... tags) {
+
+        if (name == null)
+            throw new NullPointerException("Metric name was not provided..");
+
+        if (tags.length % 2 != 0)
+            throw new IllegalArgumentException("Tags must be provided as key/value pairs");
+
+        Map<String, String> tagMap = new LinkedHashMap<>();
+
+        for (int i = 0; i < tags.length; i += 2)
+            tagMap.put(tags[i], tags[i + 1]);
+
+        this.name = name;
+        this.tags = Collections.unmodifiableMap(tagMap);
+        this.key = buildKey();
+    }
+
+
+    private MetricId(String name, Map<String, String> tags) {
+        this.name = name;
+        this.tags = tags;
+        this.key = buildKey();
+    }
+
+
+    /**
+     * @param suffix Suffix appended to the metric name, ex. "p99"
+     * @return Metric ID with the same tags
+     */
+    public MetricId withSuffix(String suffix) {
+        return new MetricId(name + "." + suffix, tags);
+    }
+
+
+    public String getName() {
+        return name;
+    }
+
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+
+    private String buildKey() {
+
+        if (tags.isEmpty())
+            return name;
+
+        StringBuilder sb = new StringBuilder(name).append('{');
+
+        tags.forEach((k, v) -> sb.append(k).append('=').append(v).append(','));
+
+        sb.setCharAt(sb.length() - 1, '}');
+
+        return sb.toString();
+    }
+
+
+    @Override
+    public int compareTo(MetricId o) {
+        return key.compareTo(o.key);
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof MetricId && key.equals(((MetricId) o).key));
+    }
+
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
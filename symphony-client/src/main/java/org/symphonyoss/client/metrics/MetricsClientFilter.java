@@ -0,0 +1,334 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.metrics;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * JAX-RS client filter timing every REST call made through the pod and agent http clients.
+ * <p>
+ * Records per endpoint latency ({@code http.client.requests}), error counts by HTTP status
+ * ({@code http.client.errors}) and in-flight gauges ({@code http.client.inflight}).  Endpoints are labelled by method
+ * and path with IDs replaced by {@code {id}}, ex. {@code POST /agent/v4/datafeed/{id}/read}.
+ * <p>
+ * Requests failing before a response is received (ex. connection refused) never reach the response filter.  The REST
+ * clients report them through {@link #transportError(Client)} where the call is made, and they are counted as
+ * {@code http.client.errors} with status {@code transport}.  Requests still without response after the given expiry
+ * are dropped from the in-flight gauges and counted as {@code http.client.abandoned}.
+ * <p>
+ * Only one filter is registered per http client.  When clients share an http client, the filter of each further
+ * client is added with {@link #share(MetricsClientFilter)} and calls are recorded on the registry of the client whose
+ * session token they carry.  Calls without a known session token (ex. on behalf of another user) are recorded on the
+ * registry of the filter registered on the http client.
+ *
+ * @author Frank Tarsillo
+ */
+public class MetricsClientFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    private static final String PROPERTY = MetricsClientFilter.class.getName();
+    private static final String SESSION_TOKEN = "sessionToken";
+    private static final String TRANSPORT = "transport";
+    private static final int PURGE_THRESHOLD = 1024;
+    private static final Pattern VERSION = Pattern.compile("v\\d+");
+    private static final Pattern WORD = Pattern.compile("[A-Za-z]{1,19}");
+
+    private final MetricsRegistry metricsRegistry;
+    private final Supplier<String> sessionToken;
+    private final long expiryNanos;
+    private final Set<InFlight> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> endpoints = ConcurrentHashMap.newKeySet();
+    private final List<MetricsClientFilter> shared = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<InFlight> current = new ThreadLocal<>();
+
+
+    /**
+     * @param metricsRegistry Registry to record on
+     * @param expiry          Time after which a request without response is no longer counted as in-flight
+     * @param unit            Unit of the expiry
+     */
+    public MetricsClientFilter(MetricsRegistry metricsRegistry, long expiry, TimeUnit unit) {
+
+        this(metricsRegistry, null, expiry, unit);
+
+    }
+
+
+    /**
+     * @param metricsRegistry Registry to record on
+     * @param sessionToken    Supplies the session token of the client owning the registry, may be null
+     * @param expiry          Time after which a request without response is no longer counted as in-flight
+     * @param unit            Unit of the expiry
+     */
+    public MetricsClientFilter(MetricsRegistry metricsRegistry, Supplier<String> sessionToken, long expiry, TimeUnit unit) {
+
+        if (metricsRegistry == null)
+            throw new NullPointerException("Metrics registry was not provided..");
+
+        this.metricsRegistry = metricsRegistry;
+        this.sessionToken = sessionToken;
+        this.expiryNanos = unit.toNanos(expiry);
+
+        metricsRegistry.gauge("http.client.inflight", this::getInFlight);
+    }
+
+
+    /**
+     * Register the filter on an http client.  If the http client already has a filter, the filter is shared with it
+     * instead, so calls are never counted twice.
+     *
+     * @param httpClient          Http client
+     * @param metricsClientFilter Filter to register
+     * @return True if the filter was registered or shared
+     */
+    public static boolean register(Client httpClient, MetricsClientFilter metricsClientFilter) {
+
+        if (!httpClient.getConfiguration().isRegistered(MetricsClientFilter.class)) {
+            httpClient.register(metricsClientFilter);
+            return true;
+        }
+
+        for (Object instance : httpClient.getConfiguration().getInstances()) {
+            if (instance instanceof MetricsClientFilter) {
+                ((MetricsClientFilter) instance).share(metricsClientFilter);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Count the call the current thread is making on the http client as a transport error, ex. after a
+     * {@link javax.ws.rs.ProcessingException}.  Must be called on the thread that made the call.
+     *
+     * @param httpClient Http client the call was made on, may be null
+     */
+    public static void transportError(Client httpClient) {
+
+        if (httpClient == null)
+            return;
+
+        for (Object instance : httpClient.getConfiguration().getInstances()) {
+            if (instance instanceof MetricsClientFilter)
+                ((MetricsClientFilter) instance).transportError();
+        }
+    }
+
+
+    /**
+     * Record the calls of another client sharing this filter's http client on that client's filter.  A filter
+     * recording on the same registry as an earlier one replaces it, ex. when init(..) is called again.
+     *
+     * @param metricsClientFilter Filter of the other client
+     */
+    public synchronized void share(MetricsClientFilter metricsClientFilter) {
+
+        if (metricsClientFilter.metricsRegistry == metricsRegistry)
+            return;
+
+        shared.removeIf(existing -> existing.metricsRegistry == metricsClientFilter.metricsRegistry);
+        shared.add(metricsClientFilter);
+    }
+
+
+    @Override
+    public void filter(ClientRequestContext requestContext) {
+
+        String endpoint = requestContext.getMethod() + " " + normalize(requestContext.getUri().getPath());
+
+        MetricsClientFilter owner = owner(requestContext.getHeaderString(SESSION_TOKEN));
+
+        if (owner.endpoints.add(endpoint))
+            owner.metricsRegistry.gauge("http.client.inflight", () -> owner.getInFlight(endpoint), "endpoint", endpoint);
+
+        if (owner.inFlight.size() > PURGE_THRESHOLD)
+            owner.purge();
+
+        InFlight request = new InFlight(owner, endpoint, System.nanoTime());
+
+        owner.inFlight.add(request);
+        current.set(request);
+        requestContext.setProperty(PROPERTY, request);
+    }
+
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+
+        Object property = requestContext.getProperty(PROPERTY);
+
+        if (!(property instanceof InFlight))
+            return;
+
+        InFlight request = (InFlight) property;
+        MetricsClientFilter owner = request.owner;
+
+        owner.inFlight.remove(request);
+
+        if (current.get() == request)
+            current.remove();
+
+        String status = String.valueOf(responseContext.getStatus());
+
+        owner.metricsRegistry.recordTime("http.client.requests", System.nanoTime() - request.start, TimeUnit.NANOSECONDS,
+                "endpoint", request.endpoint, "status", status);
+
+        if (responseContext.getStatus() >= 400)
+            owner.metricsRegistry.increment("http.client.errors", "endpoint", request.endpoint, "status", status);
+
+    }
+
+
+    /**
+     * Count the call the current thread is making as a transport error.  Calls already answered or abandoned are
+     * not counted again.
+     */
+    public void transportError() {
+
+        InFlight request = current.get();
+
+        if (request == null)
+            return;
+
+        current.remove();
+
+        if (request.owner.inFlight.remove(request))
+            request.owner.metricsRegistry.increment("http.client.errors", "endpoint", request.endpoint, "status", TRANSPORT);
+    }
+
+
+    /**
+     * @return Number of requests waiting on a response
+     */
+    public int getInFlight() {
+        purge();
+        return inFlight.size();
+    }
+
+
+    private int getInFlight(String endpoint) {
+
+        purge();
+
+        int count = 0;
+
+        for (InFlight request : inFlight) {
+            if (request.endpoint.equals(endpoint))
+                count++;
+        }
+
+        return count;
+    }
+
+
+    private void purge() {
+
+        long now = System.nanoTime();
+
+        for (InFlight request : inFlight) {
+
+            //Only the thread removing the request counts it
+            if (now - request.start >= expiryNanos && inFlight.remove(request))
+                metricsRegistry.increment("http.client.abandoned", "endpoint", request.endpoint);
+        }
+    }
+
+
+    /**
+     * @param token Session token of the request, may be null
+     * @return Filter of the client the token belongs to, this filter if none
+     */
+    private MetricsClientFilter owner(String token) {
+
+        if (token == null || shared.isEmpty())
+            return this;
+
+        for (MetricsClientFilter metricsClientFilter : shared) {
+            if (metricsClientFilter.sessionToken != null && token.equals(metricsClientFilter.sessionToken.get()))
+                return metricsClientFilter;
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Replace path segments holding IDs so each endpoint maps onto a single metric.
+     *
+     * @param path Request path
+     * @return Path with ID segments replaced by {id}
+     */
+    static String normalize(String path) {
+
+        if (path == null || path.isEmpty())
+            return "/";
+
+        StringBuilder sb = new StringBuilder();
+
+        for (String segment : path.split("/")) {
+
+            if (segment.isEmpty())
+                continue;
+
+            sb.append('/');
+
+            if (WORD.matcher(segment).matches() || VERSION.matcher(segment).matches())
+                sb.append(segment);
+            else
+                sb.append("{id}");
+        }
+
+        return sb.length() == 0 ? "/" : sb.toString();
+    }
+
+
+    /**
+     * Request waiting on a response.  Identity based so concurrent calls to the same endpoint are tracked apart.
+     */
+    private static final class InFlight {
+
+        private final MetricsClientFilter owner;
+        private final String endpoint;
+        private final long start;
+
+
+        InFlight(MetricsClientFilter owner, String endpoint, long start) {
+            this.owner = owner;
+            this.endpoint = endpoint;
+            this.start = start;
+        }
+    }
+
+}
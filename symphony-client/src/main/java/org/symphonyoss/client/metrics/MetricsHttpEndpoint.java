@@ -0,0 +1,157 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pull endpoint serving the content of a {@link MetricsRegistry} in the Prometheus text format on
+ * {@code http://host:port/metrics}.
+ * <p>
+ * Metric names are converted to Prometheus conventions, ex. {@code http.client.requests.p99{endpoint=GET /pod/v2/user}}
+ * is served as {@code http_client_requests_p99{endpoint="GET /pod/v2/user"}}.
+ *
+ * @author Frank Tarsillo
+ */
+public class MetricsHttpEndpoint {
+
+    public static final String PATH = "/metrics";
+
+    private final MetricsRegistry metricsRegistry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Logger logger = LoggerFactory.getLogger(MetricsHttpEndpoint.class);
+
+
+    /**
+     * Start serving metrics
+     *
+     * @param metricsRegistry Registry to serve
+     * @param port            Port to listen on, 0 picks a free port
+     * @param name            Name used for the endpoint thread
+     * @throws IOException If the port cannot be bound
+     */
+    public MetricsHttpEndpoint(MetricsRegistry metricsRegistry, int port, String name) throws IOException {
+
+        if (metricsRegistry == null)
+            throw new NullPointerException("Metrics registry was not provided..");
+
+        this.metricsRegistry = metricsRegistry;
+
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "MetricsHttpEndpoint: " + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        logger.info("Serving metrics on port {}{}", getPort(), PATH);
+
+    }
+
+
+    /**
+     * @return Port the endpoint is listening on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+
+    /**
+     * Stop serving metrics
+     */
+    public void shutdown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+
+    private void handle(HttpExchange exchange) throws IOException {
+
+        try {
+
+            byte[] body = format(metricsRegistry.snapshot()).getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+
+        } catch (RuntimeException e) {
+            logger.error("Failed to serve metrics", e);
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+
+    }
+
+
+    /**
+     * @param snapshot Metric values
+     * @return Metrics in Prometheus text format
+     */
+    static String format(Map<MetricId, Number> snapshot) {
+
+        StringBuilder sb = new StringBuilder();
+
+        snapshot.forEach((id, value) -> {
+
+            sb.append(id.getName().replaceAll("[^a-zA-Z0-9_:]", "_"));
+
+            if (!id.getTags().isEmpty()) {
+                sb.append('{');
+
+                id.getTags().forEach((k, v) -> sb.append(k.replaceAll("[^a-zA-Z0-9_]", "_"))
+                        .append("=\"")
+                        .append(v.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                        .append("\","));
+
+                sb.setCharAt(sb.length() - 1, '}');
+            }
+
+            sb.append(' ').append(value).append('\n');
+        });
+
+        return sb.toString();
+    }
+
+}
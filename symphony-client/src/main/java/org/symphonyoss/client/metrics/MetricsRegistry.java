@@ -0,0 +1,94 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pluggable registry receiving timings, counts and gauges from the clients and services.
+ * <p>
+ * {@link DefaultMetricsRegistry} keeps everything in memory and is exposed through JMX and
+ * {@link MetricsHttpEndpoint}.  Implement this interface to forward metrics to another system (ex. Micrometer or
+ * Dropwizard) and set it with {@link org.symphonyoss.client.SymphonyClient#setMetricsRegistry(MetricsRegistry)}
+ * before the client is initialized.
+ * <p>
+ * Tags are provided as key/value pairs, ex. {@code recordTime("http.client.requests", nanos, TimeUnit.NANOSECONDS,
+ * "endpoint", "GET /pod/v2/user")}.  Implementations must be thread safe.
+ *
+ * @author Frank Tarsillo
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Record a duration on the timer (histogram) identified by name and tags
+     *
+     * @param name     Metric name
+     * @param duration Duration
+     * @param unit     Unit of the duration
+     * @param tags     Tag key/value pairs
+     */
+    void recordTime(String name, long duration, TimeUnit unit, String... tags);
+
+
+    /**
+     * Add to the counter identified by name and tags
+     *
+     * @param name  Metric name
+     * @param delta Amount to add
+     * @param tags  Tag key/value pairs
+     */
+    void count(String name, long delta, String... tags);
+
+
+    /**
+     * Increment the counter identified by name and tags
+     *
+     * @param name Metric name
+     * @param tags Tag key/value pairs
+     */
+    default void increment(String name, String... tags) {
+        count(name, 1, tags);
+    }
+
+
+    /**
+     * Register a gauge sampled whenever metrics are read.  Registering the same name and tags again replaces it.
+     *
+     * @param name  Metric name
+     * @param value Supplies the current value
+     * @param tags  Tag key/value pairs
+     */
+    void gauge(String name, Supplier<? extends Number> value, String... tags);
+
+
+    /**
+     * Current value of every metric.  Timers are expanded into count, sum, mean, max and percentiles in
+     * milliseconds.  Registries forwarding metrics elsewhere may return an empty map.
+     *
+     * @return Metric values sorted by ID
+     */
+    Map<MetricId, Number> snapshot();
+
+}
@@ -0,0 +1,65 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Registry discarding all metrics.  Used when metrics are disabled through {@link
+ * org.symphonyoss.client.common.Constants#METRICS_ENABLED}.
+ *
+ * @author Frank Tarsillo
+ */
+public final class NoopMetricsRegistry implements MetricsRegistry {
+
+    public static final NoopMetricsRegistry INSTANCE = new NoopMetricsRegistry();
+
+
+    private NoopMetricsRegistry() {
+    }
+
+
+    @Override
+    public void recordTime(String name, long duration, TimeUnit unit, String... tags) {
+    }
+
+
+    @Override
+    public void count(String name, long delta, String... tags) {
+    }
+
+
+    @Override
+    public void gauge(String name, Supplier<? extends Number> value, String... tags) {
+    }
+
+
+    @Override
+    public Map<MetricId, Number> snapshot() {
+        return Collections.emptyMap();
+    }
+
+}
@@ -49,7 +49,7 @@ public class Chat {
 
     private final Set<ChatListener> chatListeners = ConcurrentHashMap.newKeySet();
 
-    private SymMessage lastMessage;
+    private volatile SymMessage lastMessage;
 
 
     /**
@@ -0,0 +1,84 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Progress of datafeed processing, persisted so a restarted client can resume the same datafeed or backfill the
+ * messages it missed.
+ * <p>
+ * Stream timestamps hold the timestamp of the last processed event for each stream.
+ *
+ * @author Frank Tarsillo
+ */
+public class DatafeedCheckpoint {
+
+    private volatile String datafeedId;
+    private volatile String lastEventId;
+    private volatile Long lastEventTimestamp;
+    private final Map<String, Long> streamTimestamps = new ConcurrentHashMap<>();
+
+
+    public String getDatafeedId() {
+        return datafeedId;
+    }
+
+    public void setDatafeedId(String datafeedId) {
+        this.datafeedId = datafeedId;
+    }
+
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(String lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public Long getLastEventTimestamp() {
+        return lastEventTimestamp;
+    }
+
+    public void setLastEventTimestamp(Long lastEventTimestamp) {
+        this.lastEventTimestamp = lastEventTimestamp;
+    }
+
+    /**
+     * @return Live map of stream ID to the timestamp of the last processed event on the stream
+     */
+    public Map<String, Long> getStreamTimestamps() {
+        return streamTimestamps;
+    }
+
+    /**
+     * Record the timestamp of an event processed on a stream, keeping the latest one.
+     *
+     * @param streamId  Stream ID
+     * @param timestamp Event timestamp
+     */
+    public void updateStream(String streamId, long timestamp) {
+        streamTimestamps.merge(streamId, timestamp, Math::max);
+    }
+}
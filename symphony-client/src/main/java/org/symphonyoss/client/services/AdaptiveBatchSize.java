@@ -0,0 +1,172 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.metrics.MetricsRegistry;
+import org.symphonyoss.client.metrics.NoopMetricsRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adapts the number of events requested per feed read to the traffic.
+ * <p>
+ * A full batch means more events are waiting, so the batch size doubles up to the maximum, unless the read took
+ * longer than the target latency, in which case it is halved to keep delivery latency down.  After
+ * {@link #IDLE_READS} consecutive reads returning less than a quarter of the batch size it is halved down to the
+ * minimum.
+ * <p>
+ * Published on the {@link MetricsRegistry} tagged with the feed name: {@code feed.batch.size} (current batch size),
+ * {@code feed.batch.adjustments} (tagged with direction up/down) and {@code feed.read} (read latency).
+ * <p>
+ * Instances are used by one worker at a time.
+ *
+ * @author Frank Tarsillo
+ */
+class AdaptiveBatchSize {
+
+    static final int IDLE_READS = 3;
+
+    private final String feed;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetLatency;
+    private final MetricsRegistry metricsRegistry;
+    private final Logger logger = LoggerFactory.getLogger(AdaptiveBatchSize.class);
+
+    private volatile int size;
+    private int idleReads;
+
+
+    /**
+     * @param feed            Feed name used in logs and as the metrics tag
+     * @param initialSize     Batch size for the first read
+     * @param minSize         Smallest batch size
+     * @param maxSize         Largest batch size
+     * @param targetLatency   Read latency in milliseconds above which full batches shrink the batch size
+     * @param metricsRegistry Registry to publish decisions on, may be null
+     */
+    AdaptiveBatchSize(String feed, int initialSize, int minSize, int maxSize, long targetLatency, MetricsRegistry metricsRegistry) {
+
+        if (feed == null)
+            throw new NullPointerException("Feed name was not provided..");
+
+        if (minSize < 1 || maxSize < minSize)
+            throw new IllegalArgumentException("Batch sizes must be positive and max >= min");
+
+        this.feed = feed;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetLatency = targetLatency;
+        this.size = Math.max(minSize, Math.min(maxSize, initialSize));
+        this.metricsRegistry = metricsRegistry != null ? metricsRegistry : NoopMetricsRegistry.INSTANCE;
+
+        this.metricsRegistry.gauge("feed.batch.size", () -> size, "feed", feed);
+    }
+
+
+    /**
+     * Build a controller from system properties.  The initial size is {@link Constants#DATAFEED_MAX_MESSAGES}.  If
+     * {@link Constants#DATAFEED_ADAPTIVE_BATCH} is disabled the size stays fixed at that value.
+     *
+     * @param feed            Feed name used in logs and as the metrics tag
+     * @param metricsRegistry Registry to publish decisions on, may be null
+     * @return Batch size controller
+     */
+    static AdaptiveBatchSize fromProperties(String feed, MetricsRegistry metricsRegistry) {
+
+        int initialSize = Integer.parseInt(System.getProperty(Constants.DATAFEED_MAX_MESSAGES, "100"));
+
+        if (!Boolean.parseBoolean(System.getProperty(Constants.DATAFEED_ADAPTIVE_BATCH, "true")))
+            return new AdaptiveBatchSize(feed, initialSize, initialSize, initialSize, Long.MAX_VALUE, metricsRegistry);
+
+        int minSize = Integer.parseInt(System.getProperty(Constants.DATAFEED_ADAPTIVE_MIN_MESSAGES, "10"));
+        int maxSize = Integer.parseInt(System.getProperty(Constants.DATAFEED_ADAPTIVE_MAX_MESSAGES, "500"));
+
+        return new AdaptiveBatchSize(feed,
+                initialSize,
+                Math.min(minSize, initialSize),
+                Math.max(maxSize, initialSize),
+                Long.parseLong(System.getProperty(Constants.DATAFEED_ADAPTIVE_TARGET_LATENCY, "2000")),
+                metricsRegistry);
+    }
+
+
+    /**
+     * @return Number of events to request on the next read
+     */
+    int getSize() {
+        return size;
+    }
+
+
+    /**
+     * Record a successful read and adjust the batch size.
+     *
+     * @param received Number of events returned
+     * @param latency  Read latency in nanoseconds
+     */
+    void onRead(int received, long latency) {
+
+        metricsRegistry.recordTime("feed.read", latency, TimeUnit.NANOSECONDS, "feed", feed);
+
+        int current = size;
+
+        if (received >= current) {
+
+            idleReads = 0;
+
+            if (TimeUnit.NANOSECONDS.toMillis(latency) > targetLatency)
+                resize(current / 2, "down");
+            else
+                resize(current * 2, "up");
+
+        } else if (received < current / 4) {
+
+            if (++idleReads >= IDLE_READS) {
+                idleReads = 0;
+                resize(current / 2, "down");
+            }
+
+        } else {
+            idleReads = 0;
+        }
+    }
+
+
+    private void resize(int requested, String direction) {
+
+        int resized = Math.max(minSize, Math.min(maxSize, requested));
+
+        if (resized == size)
+            return;
+
+        logger.debug("Adjusting {} batch size from {} to {}", feed, size, resized);
+
+        size = resized;
+        metricsRegistry.increment("feed.batch.adjustments", "feed", feed, "direction", direction);
+    }
+
+}
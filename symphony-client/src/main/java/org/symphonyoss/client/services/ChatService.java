@@ -25,10 +25,12 @@ package org.symphonyoss.client.services;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.exceptions.StreamsException;
 import org.symphonyoss.client.exceptions.UsersClientException;
 import org.symphonyoss.client.model.CacheType;
 import org.symphonyoss.client.model.Chat;
+import org.symphonyoss.client.util.Registries;
 import org.symphonyoss.symphony.clients.model.ApiVersion;
 import org.symphonyoss.symphony.clients.model.SymMessage;
 import org.symphonyoss.symphony.clients.model.SymStream;
@@ -38,6 +40,7 @@ import org.symphonyoss.symphony.clients.model.SymUser;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -47,6 +50,14 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>
  * NOTE: Multi-party conversations that are constructed via incoming messages are enriched over time.  Currently there
  * is no way of identifying all users of an incoming message from a given stream.
+ * <p>
+ * The chat indexes are safe for concurrent use by dispatch and caller threads.  A stream maps to at most one chat,
+ * and the chat sets returned per user are concurrent, weakly consistent views of the index.
+ * <p>
+ * The registry can be bounded with {@link Constants#CHATSERVICE_MAX_CHATS} and
+ * {@link Constants#CHATSERVICE_IDLE_EXPIRY}.  Evicted chats are published through
+ * {@link ChatServiceListener#onRemovedChat(Chat)} and lose their listeners.  A message arriving on an evicted stream
+ * creates a new chat and publishes it through {@link ChatServiceListener#onNewChat(Chat)}.
  *
  * @author Frank Tarsillo on 5/16/2016.
  */
@@ -54,7 +65,10 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ChatService implements ChatListener {
 
 
-    private final ConcurrentHashMap<String, Chat> chatsByStream = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Chat> chatsByStream = Registries.newRegistry(
+            Long.parseLong(System.getProperty(Constants.CHATSERVICE_MAX_CHATS, "0")),
+            Long.parseLong(System.getProperty(Constants.CHATSERVICE_IDLE_EXPIRY, "0")),
+            (streamId, chat) -> onEvictedChat(chat));
     private final ConcurrentHashMap<Long, Set<Chat>> chatsByUser = new ConcurrentHashMap<>();
 
     private final Set<ChatServiceListener> chatServiceListeners = ConcurrentHashMap.newKeySet();
@@ -133,22 +147,27 @@ public class ChatService implements ChatListener {
         }
 
         //If all checks out, we need to make sure the chat is added into chats by streams and linked to chats by user.
-        if (chatsByStream.get(chat.getStreamId()) == null) {
-
-            chatsByStream.put(chat.getStreamId(), chat);
+        //Only the thread winning the insert indexes the chat and publishes it.
+        if (chatsByStream.putIfAbsent(chat.getStreamId(), chat) == null) {
 
             for (SymUser user : chat.getRemoteUsers()) {
 
-                Set<Chat> userChats = chatsByUser.computeIfAbsent(user.getId(), k -> new HashSet<>());
+                chatsByUser.compute(user.getId(), (userId, userChats) -> {
 
+                    if (userChats == null)
+                        userChats = ConcurrentHashMap.newKeySet();
 
-                if (userChats != null && userChats.add(chat)) {
-                    logger.debug("Adding new chat for user {}:{}", user.getId(), user.getEmailAddress());
-                } else {
-                    logger.debug("Chat with user {}:{} already exists..ignoring", user.getId(), user.getEmailAddress());
+                    //Replace a stale chat for the same stream whose eviction is still being processed
+                    userChats.removeIf(userChat -> userChat != chat && userChat.equals(chat));
 
-                }
+                    if (userChats.add(chat)) {
+                        logger.debug("Adding new chat for user {}:{}", user.getId(), user.getEmailAddress());
+                    } else {
+                        logger.debug("Chat with user {}:{} already exists..ignoring", user.getId(), user.getEmailAddress());
+                    }
 
+                    return userChats;
+                });
 
             }
 
@@ -173,28 +192,64 @@ public class ChatService implements ChatListener {
      */
     public boolean removeChat(Chat chat) {
 
+        if (chat == null || chat.getStreamId() == null)
+            return false;
+
+        //Unlink the registered instance, which is the one held by the user index.
+        Chat removedChat = chatsByStream.remove(chat.getStreamId());
+
         //Make sure something exists..
-        if (chat != null && chat.getStreamId() != null && chatsByStream.remove(chat.getStreamId()) != null) {
+        if (removedChat != null) {
 
-            for (SymUser user : chat.getRemoteUsers()) {
+            unlinkChat(removedChat);
 
-                Set<Chat> userChats = chatsByUser.get(user.getId());
+            return true;
+        }
+
+        return false;
+
+    }
 
-                if (userChats.remove(chat)) {
+
+    /**
+     * Callback from the bounded registry when a chat is evicted for size or idle time.
+     *
+     * @param chat Evicted chat
+     */
+    private void onEvictedChat(Chat chat) {
+
+        logger.debug("Evicted idle chat on stream {}", chat.getStreamId());
+
+        unlinkChat(chat);
+    }
+
+
+    /**
+     * Remove a chat no longer registered by stream from the user index and publish its removal.
+     *
+     * @param removedChat Chat removed from the stream registry
+     */
+    private void unlinkChat(Chat removedChat) {
+
+        for (SymUser user : removedChat.getRemoteUsers()) {
+
+            //Drop the user entry atomically once its last chat is gone.  Match the instance, as a chat re-created
+            //for the same stream after an eviction is equal to the evicted one.
+            chatsByUser.computeIfPresent(user.getId(), (userId, userChats) -> {
+
+                if (userChats.removeIf(userChat -> userChat == removedChat)) {
                     logger.debug("Removed chat for user {}:{}", user.getId(), user.getEmailAddress());
                 } else {
-                    logger.debug("Could not remove chats for user {}:{} on stream {}", user.getId(), user.getEmailAddress(), chat.getStreamId());
+                    logger.debug("Could not remove chats for user {}:{} on stream {}", user.getId(), user.getEmailAddress(), removedChat.getStreamId());
                 }
 
+                return userChats.isEmpty() ? null : userChats;
+            });
 
-            }
-            for (ChatServiceListener chatServiceListener : chatServiceListeners)
-                chatServiceListener.onRemovedChat(chat);
-
-            return true;
         }
 
-        return false;
+        for (ChatServiceListener chatServiceListener : chatServiceListeners)
+            chatServiceListener.onRemovedChat(removedChat);
 
     }
 
@@ -265,7 +320,14 @@ public class ChatService implements ChatListener {
 
                     //Lets add it to the service...but don't check for streams as it could be a multi-party conversation.
                     //Currently no way to identify all remote users from a given stream. (BUG on REST API)
-                    addChat(chat, false);
+                    if (!addChat(chat, false)) {
+
+                        //Another thread registered the stream first, so the message belongs to its chat.
+                        Chat existingChat = chatsByStream.get(streamId);
+
+                        if (existingChat != null)
+                            existingChat.onChatMessage(symMessage);
+                    }
 
                 } else {
                     logger.error("Failed to add new chat from message {} {}", symMessage.getStreamId(), symMessage.getFromUserId());
@@ -52,7 +52,7 @@ public class ConnectionsService implements ConnectionsListener, ConnectionsEvent
         this.symClient = symClient;
         connectionsWorker = new ConnectionsWorker(symClient, this);
         symClient.getMessageService().addConnectionsEventListener(this);
-        new Thread(connectionsWorker,"ConnectionsWorker: "+symClient.getName()).start();
+        Workers.start(symClient, connectionsWorker, "ConnectionsWorker");
     }
 
 
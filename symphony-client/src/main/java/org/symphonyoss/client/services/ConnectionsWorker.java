@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
 import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.exceptions.ConnectionsException;
+import org.symphonyoss.client.util.WorkerTask;
 import org.symphonyoss.symphony.clients.model.SymUserConnection;
 
 import javax.ws.rs.ProcessingException;
@@ -40,12 +41,13 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Frank Tarsillo
  */
-class ConnectionsWorker implements Runnable {
+class ConnectionsWorker implements WorkerTask {
     private final SymphonyClient symClient;
     private final ConnectionsListener connectionsListener;
     private final ConcurrentHashMap<Long, SymUserConnection> pendingConnections = new ConcurrentHashMap<>();
     private final Logger logger = LoggerFactory.getLogger(ConnectionsWorker.class);
-    private boolean KILL = false;
+    private volatile boolean KILL = false;
+    private boolean started;
     private final int CONNECTIONS_POLL_SLEEP = Integer.parseInt(System.getProperty(Constants.CONNECTIONS_POLL_SLEEP, "30"));
 
 
@@ -58,91 +60,76 @@ class ConnectionsWorker implements Runnable {
 
     //Lets look for all new pending requests..
     @Override
-    public void run() {
+    public long runOnce() {
 
-        logger.info("Starting connections service worker..");
+        //Delay the first poll
+        if (!started) {
+            logger.info("Starting connections service worker..");
+            started = true;
 
-        List<SymUserConnection> symUserConnectionList;
+            return TimeUnit.SECONDS.toMillis(CONNECTIONS_POLL_SLEEP);
+        }
 
-        //Poll
-        while (true) {
+        List<SymUserConnection> symUserConnectionList;
 
-            //Delay
-            try {
-                TimeUnit.SECONDS.sleep(CONNECTIONS_POLL_SLEEP);
-            } catch (InterruptedException ie) {
-                logger.error("Interrupt failed on presence retrieval", ie);
-                Thread.currentThread().interrupt();
-            }
+        try {
 
             try {
+                symUserConnectionList = symClient.getConnectionsClient().getIncomingRequests();
 
-                try {
-                    symUserConnectionList = symClient.getConnectionsClient().getIncomingRequests();
-
-                    //logger.debug("Connections queue..{}",symUserConnectionList.size());
-
-                } catch (ConnectionsException | ProcessingException e) {
-
-                    logger.error("Pending connections request retrieval failure", e);
-
-                    continue;
-                }
-
-
-                if (symUserConnectionList != null)
-                    for (SymUserConnection symUserConnection : symUserConnectionList) {
-
-                        SymUserConnection cUserConnection = pendingConnections.get(symUserConnection.getUserId());
-
-                        if (cUserConnection == null) {
-                            pendingConnections.put(symUserConnection.getUserId(), symUserConnection);
-                            connectionsListener.onConnectionNotification(symUserConnection);
-                            logger.debug("Received new pending connection request from {}...", symUserConnection.getUserId());
-                            continue;
-                        }
-
-
-                        if (cUserConnection.getStatus() != symUserConnection.getStatus()) {
-
-                            //Sonar recommendation
-                            if (logger.isDebugEnabled()) {
-                                logger.debug("Connection status changed for {}: from: {}  to:{}", cUserConnection.getUserId(), cUserConnection.getStatus().toString(), symUserConnection.getStatus().toString());
-                            }
-                            pendingConnections.remove(symUserConnection.getUserId());
-                            connectionsListener.onConnectionNotification(symUserConnection);
-
+                //logger.debug("Connections queue..{}",symUserConnectionList.size());
 
+            } catch (ConnectionsException | ProcessingException e) {
 
+                logger.error("Pending connections request retrieval failure", e);
 
+                return TimeUnit.SECONDS.toMillis(CONNECTIONS_POLL_SLEEP);
+            }
 
 
+            if (symUserConnectionList != null)
+                for (SymUserConnection symUserConnection : symUserConnectionList) {
 
+                    SymUserConnection cUserConnection = pendingConnections.get(symUserConnection.getUserId());
 
+                    if (cUserConnection == null) {
+                        pendingConnections.put(symUserConnection.getUserId(), symUserConnection);
+                        connectionsListener.onConnectionNotification(symUserConnection);
+                        logger.debug("Received new pending connection request from {}...", symUserConnection.getUserId());
+                        continue;
+                    }
 
 
+                    if (cUserConnection.getStatus() != symUserConnection.getStatus()) {
 
+                        //Sonar recommendation
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("Connection status changed for {}: from: {}  to:{}", cUserConnection.getUserId(), cUserConnection.getStatus().toString(), symUserConnection.getStatus().toString());
                         }
-
+                        pendingConnections.remove(symUserConnection.getUserId());
+                        connectionsListener.onConnectionNotification(symUserConnection);
 
                     }
 
-                if (KILL) {
-                    logger.debug("Connections worker thread killed..");
-                    return;
-                }
 
+                }
 
-            } catch (Exception bad) {
-                logger.error("Serious failure in connections worker thread..please verify stacktrace.", bad);
+        } catch (Exception bad) {
+            logger.error("Serious failure in connections worker thread..please verify stacktrace.", bad);
 
-            }
         }
 
+        return TimeUnit.SECONDS.toMillis(CONNECTIONS_POLL_SLEEP);
 
     }
 
 
+    @Override
+    public boolean isShutdown() {
+        return KILL;
+    }
+
+
     /**
      * Shutdown running threads
      */
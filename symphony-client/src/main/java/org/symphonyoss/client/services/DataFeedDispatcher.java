@@ -0,0 +1,286 @@
+/*
+ *
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.symphonyoss.client.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.client.util.ClientThreads;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decouples datafeed polling from listener callbacks.  Events published by the {@link DataFeedWorker} are placed
+ * into bounded buffers and consumed by a pool of dispatcher threads, which publish them on the wrapped
+ * {@link DataFeedListener}.
+ * <p>
+ * Events are assigned to a dispatcher lane by stream ID, so events for the same stream are always published in the
+ * order they were read.  Events without a stream (ex. connection events) share the first lane.
+ * <p>
+ * When a lane buffer is full the configured {@link DispatchPolicy} is applied.
+ *
+ * @author Frank Tarsillo
+ */
+class DataFeedDispatcher implements DataFeedListener {
+
+    private static final long POLL_WAIT_MILLIS = 100;
+
+    private final DataFeedListener dataFeedListener;
+    private final DispatchPolicy dispatchPolicy;
+    private final Consumer<SymEvent> onDropped;
+    private final Lane[] lanes;
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final Logger logger = LoggerFactory.getLogger(DataFeedDispatcher.class);
+
+
+    /**
+     * Constructor.  Dispatcher threads are started immediately.
+     *
+     * @param dataFeedListener Listener to publish events on from the dispatcher threads
+     * @param threads          Number of dispatcher threads (lanes)
+     * @param bufferSize       Capacity of each lane buffer
+     * @param dispatchPolicy   Policy applied when a lane buffer is full
+     * @param name             Name used for dispatcher threads
+     * @param threadFactory    Factory creating the dispatcher threads, null for platform threads
+     */
+    DataFeedDispatcher(DataFeedListener dataFeedListener, int threads, int bufferSize, DispatchPolicy dispatchPolicy,
+                       String name, ThreadFactory threadFactory) {
+
+        this(dataFeedListener, threads, bufferSize, dispatchPolicy, name, threadFactory, null);
+
+    }
+
+
+    /**
+     * Constructor.  Dispatcher threads are started immediately.
+     *
+     * @param dataFeedListener Listener to publish events on from the dispatcher threads
+     * @param threads          Number of dispatcher threads (lanes)
+     * @param bufferSize       Capacity of each lane buffer
+     * @param dispatchPolicy   Policy applied when a lane buffer is full
+     * @param name             Name used for dispatcher threads
+     * @param threadFactory    Factory creating the dispatcher threads, null for platform threads
+     * @param onDropped        Callback receiving events discarded by {@link DispatchPolicy#DROP_OLDEST}, may be null
+     */
+    DataFeedDispatcher(DataFeedListener dataFeedListener, int threads, int bufferSize, DispatchPolicy dispatchPolicy,
+                       String name, ThreadFactory threadFactory, Consumer<SymEvent> onDropped) {
+
+        if (threads < 1 || bufferSize < 1)
+            throw new IllegalArgumentException("Dispatcher threads and buffer size must be greater than zero");
+
+        this.dataFeedListener = dataFeedListener;
+        this.dispatchPolicy = dispatchPolicy;
+        this.onDropped = onDropped;
+
+        lanes = new Lane[threads];
+
+        for (int i = 0; i < threads; i++) {
+            lanes[i] = new Lane(bufferSize);
+            ClientThreads.newThread(threadFactory, lanes[i], "DataFeedDispatcher-" + i + ": " + name).start();
+        }
+
+        logger.info("Started datafeed dispatcher with {} lanes of {} events [{}]", threads, bufferSize, dispatchPolicy);
+
+    }
+
+
+    /**
+     * Buffer the event on the lane associated with its stream.  Depending on the {@link DispatchPolicy} this may
+     * block the calling (polling) thread.
+     *
+     * @param symEvent Event read from the datafeed
+     */
+    @Override
+    public void onEvent(SymEvent symEvent) {
+
+        if (symEvent == null)
+            return;
+
+        laneFor(symEvent).offer(symEvent);
+
+    }
+
+
+    /**
+     * @return Total number of events discarded by the {@link DispatchPolicy#DROP_OLDEST} policy
+     */
+    long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+
+    /**
+     * @return Number of events currently waiting to be dispatched across all lanes
+     */
+    int getPendingEvents() {
+
+        int pending = 0;
+
+        for (Lane lane : lanes)
+            pending += lane.size();
+
+        return pending;
+    }
+
+
+    /**
+     * Stop all dispatcher threads.  Events still buffered are discarded.
+     */
+    void shutdown() {
+
+        for (Lane lane : lanes)
+            lane.shutdown();
+
+        logger.info("Datafeed dispatcher stopped with {} undelivered events", getPendingEvents());
+
+    }
+
+
+    private Lane laneFor(SymEvent symEvent) {
+
+        String streamId = symEvent.getPayload() != null ? symEvent.getPayload().getStreamId() : null;
+
+        if (streamId == null)
+            return lanes[0];
+
+        return lanes[(streamId.hashCode() & Integer.MAX_VALUE) % lanes.length];
+    }
+
+
+    /**
+     * Single consumer lane backed by a fixed size ring buffer.
+     */
+    private class Lane implements Runnable {
+
+        private final ArrayBlockingQueue<SymEvent> buffer;
+        private final Queue<SymEvent> overflow = new ConcurrentLinkedQueue<>();
+        private volatile boolean shutdown;
+
+
+        Lane(int bufferSize) {
+            buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+
+        void offer(SymEvent symEvent) {
+
+            switch (dispatchPolicy) {
+                case DROP_OLDEST:
+
+                    while (!buffer.offer(symEvent)) {
+                        SymEvent dropped = buffer.poll();
+
+                        if (dropped != null) {
+                            droppedEvents.incrementAndGet();
+                            logger.warn("Dispatcher buffer full, dropped event {} of type {}", dropped.getId(), dropped.getType());
+
+                            if (onDropped != null)
+                                onDropped.accept(dropped);
+                        }
+                    }
+                    break;
+
+                case SPILL:
+
+                    //Once spilling, everything goes to overflow until it drains to keep the stream ordering.
+                    if (!overflow.isEmpty() || !buffer.offer(symEvent)) {
+                        overflow.add(symEvent);
+                        logger.debug("Dispatcher buffer full, spilled event {}", symEvent.getId());
+                    }
+                    break;
+
+                default:
+
+                    try {
+                        while (!shutdown && !buffer.offer(symEvent, POLL_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                            logger.debug("Dispatcher buffer full, waiting for listeners to catch up...");
+                        }
+                    } catch (InterruptedException e) {
+                        logger.error("Interrupt.. ", e);
+                        Thread.currentThread().interrupt();
+                    }
+            }
+
+        }
+
+
+        int size() {
+            return buffer.size() + overflow.size();
+        }
+
+
+        void shutdown() {
+            shutdown = true;
+        }
+
+
+        @Override
+        public void run() {
+
+            while (!shutdown) {
+
+                try {
+
+                    SymEvent symEvent = buffer.poll();
+
+                    if (symEvent == null)
+                        symEvent = overflow.poll();
+
+                    if (symEvent == null)
+                        symEvent = buffer.poll(POLL_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+                    if (symEvent != null)
+                        dispatch(symEvent);
+
+                } catch (InterruptedException e) {
+                    logger.error("Interrupt.. ", e);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+            }
+
+        }
+
+
+        private void dispatch(SymEvent symEvent) {
+
+            try {
+
+                dataFeedListener.onEvent(symEvent);
+
+            } catch (Exception e) {
+                logger.error("Listener failed to process event {} of type {}", symEvent.getId(), symEvent.getType(), e);
+            }
+        }
+    }
+
+}
@@ -42,6 +42,23 @@ interface DataFeedListener {
     void onEvent(SymEvent symEvent);
 
 
+    /**
+     * Listen to an event and signal once it has been fully handled.  Listeners which hand events to other threads
+     * run the callback when that processing completes, so progress is only recorded for handled events.
+     *
+     * @param symEvent  Event received from datafeed polling
+     * @param onHandled Callback to run once the event has been handled, whether or not listeners failed
+     */
+    default void onEvent(SymEvent symEvent, Runnable onHandled) {
+
+        try {
+            onEvent(symEvent);
+        } finally {
+            onHandled.run();
+        }
+    }
+
+
 
 
 }
@@ -29,12 +29,16 @@ import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
 import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.client.metrics.MetricsRegistry;
+import org.symphonyoss.client.metrics.NoopMetricsRegistry;
+import org.symphonyoss.client.util.WorkerTask;
 import org.symphonyoss.symphony.agent.model.Datafeed;
 import org.symphonyoss.symphony.clients.model.ApiVersion;
 import org.symphonyoss.symphony.clients.model.SymDatafeed;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * This thread will long-poll for Symphony base messages based on a specific BOT user identified through the
@@ -43,123 +47,258 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Frank Tarsillo
  */
-class DataFeedWorker implements Runnable {
+class DataFeedWorker implements WorkerTask {
 
     private final DataFeedListener dataFeedListener;
+    private final DataFeedDispatcher dataFeedDispatcher;
     private final SymphonyClient symClient;
+    private final MetricsRegistry metricsRegistry;
+    private final DatafeedCheckpointer checkpointer;
+    private final FeedRecoveryPolicy recoveryPolicy;
+    private final AdaptiveBatchSize batchSize;
     private final Logger logger = LoggerFactory.getLogger(DataFeedWorker.class);
     private SymDatafeed datafeed;
-    private boolean shutdown;
+    private boolean resumed;
+    private volatile boolean shutdown;
 
 
     /**
      * Constructor
+     * <p>
+     * If {@link Constants#DATAFEED_DISPATCH_PIPELINED} is enabled, events are handed to a {@link DataFeedDispatcher}
+     * so slow listeners do not hold up the next datafeed read.
+     * <p>
+     * Listener processing time is recorded as {@code datafeed.listener} and the delay between an event being created
+     * and read as {@code datafeed.lag}.
+     * <p>
+     * If the client provides a {@link DatafeedCheckpointStore}, progress is checkpointed and missed messages are
+     * backfilled whenever the checkpointed datafeed is resumed or a new datafeed is created.
+     * <p>
+     * Failures to create or read the datafeed are retried according to a {@link FeedRecoveryPolicy}.
+     * <p>
+     * The number of events requested per read is tuned by an {@link AdaptiveBatchSize}.
      *
      * @param symClient        Identifies the BOT user and exposes client APIs
      * @param dataFeedListener Callback listener to publish new base messages on.
      */
     public DataFeedWorker(SymphonyClient symClient, DataFeedListener dataFeedListener) {
         this.symClient = symClient;
-        this.dataFeedListener = dataFeedListener;
+
+        MetricsRegistry registry = symClient.getMetricsRegistry();
+        metricsRegistry = registry != null ? registry : NoopMetricsRegistry.INSTANCE;
+
+        recoveryPolicy = FeedRecoveryPolicy.fromProperties("datafeed", Constants.DATAFEED_RECOVERY_WAIT_TIME, metricsRegistry);
+        batchSize = AdaptiveBatchSize.fromProperties("datafeed", metricsRegistry);
+
+        DatafeedCheckpointStore checkpointStore = symClient.getDatafeedCheckpointStore();
+
+        if (checkpointStore != null) {
+            checkpointer = new DatafeedCheckpointer(symClient, checkpointStore, metricsRegistry);
+            datafeed = checkpointer.getResumableDatafeed();
+            resumed = datafeed != null;
+        } else {
+            checkpointer = null;
+        }
+
+        DataFeedListener timedListener = symEvent -> {
+            long start = System.nanoTime();
+            try {
+
+                //Listeners dispatching on other threads signal when the event has actually been handled
+                if (checkpointer != null)
+                    dataFeedListener.onEvent(symEvent, () -> checkpointer.onProcessed(symEvent));
+                else
+                    dataFeedListener.onEvent(symEvent);
+
+            } finally {
+                metricsRegistry.recordTime("datafeed.listener", System.nanoTime() - start, TimeUnit.NANOSECONDS,
+                        "type", String.valueOf(symEvent.getType()));
+            }
+        };
+
+        if (Boolean.parseBoolean(System.getProperty(Constants.DATAFEED_DISPATCH_PIPELINED, "false"))) {
+
+            dataFeedDispatcher = new DataFeedDispatcher(timedListener,
+                    Integer.parseInt(System.getProperty(Constants.DATAFEED_DISPATCH_THREADS, "4")),
+                    Integer.parseInt(System.getProperty(Constants.DATAFEED_DISPATCH_BUFFER_SIZE, "1000")),
+                    DispatchPolicy.fromValue(System.getProperty(Constants.DATAFEED_DISPATCH_POLICY, "BLOCK")),
+                    symClient.getName(),
+                    symClient.getThreadFactory(),
+                    checkpointer != null ? checkpointer::onProcessed : null);
+
+            metricsRegistry.gauge("datafeed.dispatch.pending", dataFeedDispatcher::getPendingEvents);
+            metricsRegistry.gauge("datafeed.dispatch.dropped", dataFeedDispatcher::getDroppedEvents);
+
+            this.dataFeedListener = dataFeedDispatcher;
+
+        } else {
+
+            dataFeedDispatcher = null;
+            this.dataFeedListener = timedListener;
+        }
 
 
     }
 
     @Override
-    public void run() {
+    public long runOnce() {
 
+        //Make sure its active
+        if (datafeed == null) {
 
-        //noinspection InfiniteLoopStatement
-        while (!shutdown) {
+            long wait = initDatafeed();
 
-                //Make sure its active
-                initDatafeed();
+            if (wait > 0)
+                return wait;
+        }
 
-                //Poll it
-                readDatafeed();
+        //Events read but never handled by the previous process are no longer held by the resumed datafeed
+        if (resumed) {
+            resumed = false;
+            checkpointer.onDatafeedResumed(System.currentTimeMillis(), dataFeedListener);
+        }
 
+        //Poll it
+        return readDatafeed();
 
-        }
+    }
 
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
     }
 
 
     /**
      * Create or restore an instance of the {@link Datafeed}
+     *
+     * @return Milliseconds to wait before retrying, 0 if the datafeed was created
      */
-    private void initDatafeed() {
+    private long initDatafeed() {
 
+        try {
+            logger.info("Creating datafeed with pod...");
 
-        while (datafeed == null) {
-            try {
-                logger.info("Creating datafeed with pod...");
-
-                datafeed = symClient.getDataFeedClient().createDatafeed(ApiVersion.V4);
-
-                break;
-            } catch (Exception e) {
-
-        	/*
-             * TODO:
-        	 * This seems wrong to me, if the result of this is 404
-        	 * or some other non-transient error then there is hardly
-        	 * any point re-trying and a fault should be propagated
-        	 * to the application code.
-        	 * 
-        	 * It's not clear how best to do this though.....
-        	 * -Bruce.
-        	 */
-                logger.error("Failed to create datafeed with pod, please check connection..", e);
-                datafeed = null;
-
-                //Can use properties to override default time wait
-                try {
-
-                    TimeUnit.SECONDS.sleep(
-                            Long.valueOf(System.getProperty(Constants.DATAFEED_RECOVERY_WAIT_TIME, "5"))
-                    );
-                } catch (InterruptedException e1) {
-                    logger.error("Interrupt.. ", e1);
-                    Thread.currentThread().interrupt();
-                }
+            long createdAt = System.currentTimeMillis();
 
-            }
+            datafeed = symClient.getDataFeedClient().createDatafeed(ApiVersion.V4);
 
-        }
+            if (checkpointer != null && datafeed != null)
+                checkpointer.onDatafeedCreated(datafeed, createdAt, dataFeedListener);
+
+            return 0;
+        } catch (Exception e) {
 
+    	/*
+         * TODO:
+    	 * This seems wrong to me, if the result of this is 404
+    	 * or some other non-transient error then there is hardly
+    	 * any point re-trying and a fault should be propagated
+    	 * to the application code.
+    	 * 
+    	 * It's not clear how best to do this though.....
+    	 * -Bruce.
+    	 */
+            logger.error("Failed to create datafeed with pod, please check connection..", e);
+            datafeed = null;
+
+            return recoveryPolicy.onFailure();
+
+        }
 
     }
 
     /**
      * Reads in raw messages from {@link org.symphonyoss.symphony.clients.DataFeedClient} and publishes out through
      * {@link DataFeedListener}
+     *
+     * @return Milliseconds to wait before the next read
      */
-    private void readDatafeed() {
+    private long readDatafeed() {
 
-        try {
+        List<SymEvent> symEvents;
 
+        try {
 
-            List<SymEvent> symEvents = symClient.getDataFeedClient().getEventsFromDatafeed(datafeed);
 
-            if (symEvents != null) {
+            long start = System.nanoTime();
 
-                symEvents.forEach(dataFeedListener::onEvent);
+            symEvents = symClient.getDataFeedClient().getEventsFromDatafeed(datafeed, batchSize.getSize());
 
-            }
+            recoveryPolicy.onSuccess();
+            batchSize.onRead(symEvents != null ? symEvents.size() : 0, System.nanoTime() - start);
 
 
         } catch (Exception e) {
             logger.error("Failed to create read datafeed from pod, please check connection..resetting.", e);
+            metricsRegistry.increment("datafeed.resets");
             datafeed = null;
 
+            return recoveryPolicy.onFailure();
+
+        }
+
+        //Listener failures are handled per event, they are not datafeed failures
+        if (symEvents != null) {
+
+            recordLag(symEvents);
+
+            if (checkpointer != null) {
+
+                //Drop messages the catch-up of a resumed datafeed already published
+                symEvents = symEvents.stream().filter(symEvent -> !checkpointer.isCaughtUp(symEvent)).collect(Collectors.toList());
+                symEvents.forEach(checkpointer::onRead);
+            }
+
+            symEvents.forEach(this::publish);
+
+        }
+
+        if (checkpointer != null)
+            checkpointer.saveIfDue();
+
+        return 0;
 
+    }
+
+    /**
+     * Publish an event to the listener.  Listener failures are logged per event and do not affect the datafeed.
+     *
+     * @param symEvent Event read from the datafeed
+     */
+    private void publish(SymEvent symEvent) {
+
+        try {
+
+            dataFeedListener.onEvent(symEvent);
 
+        } catch (RuntimeException e) {
+            logger.error("Listener failed to process event {} of type {}", symEvent.getId(), symEvent.getType(), e);
+            metricsRegistry.increment("datafeed.listener.errors", "type", String.valueOf(symEvent.getType()));
         }
+    }
+
+
+    private void recordLag(List<SymEvent> symEvents) {
+
+        long now = System.currentTimeMillis();
 
+        metricsRegistry.count("datafeed.events", symEvents.size());
+
+        for (SymEvent symEvent : symEvents) {
+            if (symEvent.getTimestamp() != null)
+                metricsRegistry.recordTime("datafeed.lag", now - symEvent.getTimestamp(), TimeUnit.MILLISECONDS);
+        }
     }
 
     public void shutdown() {
         shutdown = true;
+
+        if (dataFeedDispatcher != null)
+            dataFeedDispatcher.shutdown();
+
+        if (checkpointer != null)
+            checkpointer.save();
     }
 
 
@@ -0,0 +1,468 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.client.events.SymEventPayload;
+import org.symphonyoss.client.events.SymEventTypes;
+import org.symphonyoss.client.exceptions.MessagesException;
+import org.symphonyoss.client.metrics.MetricsRegistry;
+import org.symphonyoss.client.model.DatafeedCheckpoint;
+import org.symphonyoss.client.util.ClientThreads;
+import org.symphonyoss.symphony.clients.model.SymDatafeed;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymStream;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks datafeed progress for the {@link DataFeedWorker} and persists it through a {@link DatafeedCheckpointStore}.
+ * <p>
+ * On restart the worker first tries to resume the checkpointed datafeed.  Whenever a datafeed is resumed or a new one
+ * has to be created, the messages missed on each recently active stream since its checkpoint are fetched in parallel
+ * through {@link org.symphonyoss.symphony.clients.MessagesClient#getMessagesFromStream(SymStream, Long, Integer, Integer)}
+ * and published in order before live events are read.
+ * <p>
+ * Events are registered in read order and progress only advances over the oldest events once all of them have been
+ * handled, so events still buffered or processed on other threads by pipelined or parallel dispatch are fetched
+ * again after a restart, and the checkpoint never moves backwards.  A stream is tracked from the first event read on
+ * it.  Messages read by this process and still pending are not published again by a catch-up, and messages published
+ * by the catch-up of a resumed datafeed are dropped when the datafeed delivers them as well.  Messages handled but
+ * not yet checkpointed before a restart may be delivered twice.
+ *
+ * @author Frank Tarsillo
+ */
+class DatafeedCheckpointer {
+
+    private static final int CATCHUP_PAGE_SIZE = 100;
+
+    private final SymphonyClient symClient;
+    private final DatafeedCheckpointStore checkpointStore;
+    private final MetricsRegistry metricsRegistry;
+    private final DatafeedCheckpoint checkpoint;
+    private final long saveInterval = Long.parseLong(System.getProperty(Constants.DATAFEED_CHECKPOINT_INTERVAL, "5000"));
+    private final int catchUpThreads = Integer.parseInt(System.getProperty(Constants.DATAFEED_CATCHUP_THREADS, "4"));
+    private final int catchUpMaxMessages = Integer.parseInt(System.getProperty(Constants.DATAFEED_CATCHUP_MAX_MESSAGES, "1000"));
+    private final long catchUpMaxAge = TimeUnit.SECONDS.toMillis(Long.parseLong(System.getProperty(Constants.DATAFEED_CATCHUP_MAX_AGE, "86400")));
+    private final ArrayDeque<PendingEvent> pendingEvents = new ArrayDeque<>();
+    private final Map<SymEvent, PendingEvent> pendingByEvent = new IdentityHashMap<>();
+    private final Set<String> caughtUp = new HashSet<>();
+    private long caughtUpUntil;
+    private final Logger logger = LoggerFactory.getLogger(DatafeedCheckpointer.class);
+    private volatile long lastSave = System.currentTimeMillis();
+
+
+    /**
+     * @param symClient       Client used to backfill messages
+     * @param checkpointStore Store holding the checkpoint
+     * @param metricsRegistry Registry for catch-up metrics
+     */
+    DatafeedCheckpointer(SymphonyClient symClient, DatafeedCheckpointStore checkpointStore, MetricsRegistry metricsRegistry) {
+
+        this.symClient = symClient;
+        this.checkpointStore = checkpointStore;
+        this.metricsRegistry = metricsRegistry;
+
+        DatafeedCheckpoint loaded = null;
+
+        try {
+            loaded = checkpointStore.load();
+        } catch (RuntimeException e) {
+            logger.error("Failed to load datafeed checkpoint, starting without one..", e);
+        }
+
+        checkpoint = loaded != null ? loaded : new DatafeedCheckpoint();
+
+    }
+
+
+    /**
+     * @return Datafeed recorded by the checkpoint, null if there is none to resume
+     */
+    SymDatafeed getResumableDatafeed() {
+
+        if (checkpoint.getDatafeedId() == null)
+            return null;
+
+        SymDatafeed datafeed = new SymDatafeed();
+        datafeed.setId(checkpoint.getDatafeedId());
+
+        logger.info("Resuming datafeed {} from checkpoint", datafeed.getId());
+
+        return datafeed;
+    }
+
+
+    /**
+     * Register an event before it is published to the listeners.  Must be called in read order.
+     *
+     * @param symEvent Event read
+     */
+    synchronized void onRead(SymEvent symEvent) {
+
+        PendingEvent pendingEvent = new PendingEvent(symEvent);
+
+        pendingEvents.add(pendingEvent);
+        pendingByEvent.put(symEvent, pendingEvent);
+
+        //Track new streams from just before their first event, so they are caught up even if it is never handled
+        String streamId = streamIdOf(symEvent);
+
+        if (streamId != null && symEvent.getTimestamp() != null)
+            checkpoint.getStreamTimestamps().putIfAbsent(streamId, symEvent.getTimestamp() - 1);
+
+    }
+
+
+    /**
+     * Check an event read from a resumed datafeed against the messages already published by its catch-up.
+     *
+     * @param symEvent Event read
+     * @return True if the event is a message already published by the catch-up and must be dropped
+     */
+    synchronized boolean isCaughtUp(SymEvent symEvent) {
+
+        if (caughtUp.isEmpty())
+            return false;
+
+        //The datafeed is past the catch-up, nothing more to drop
+        if (symEvent.getTimestamp() != null && symEvent.getTimestamp() >= caughtUpUntil) {
+            caughtUp.clear();
+            return false;
+        }
+
+        String messageId = messageIdOf(symEvent);
+
+        return messageId != null && caughtUp.contains(messageId);
+    }
+
+
+    /**
+     * Record an event fully handled by the listeners, or discarded by the dispatch policy.  The checkpoint advances
+     * over all leading events which have been handled.
+     *
+     * @param symEvent Handled event
+     */
+    synchronized void onProcessed(SymEvent symEvent) {
+
+        PendingEvent pendingEvent = pendingByEvent.remove(symEvent);
+
+        if (pendingEvent == null)
+            return;
+
+        pendingEvent.handled = true;
+
+        while (!pendingEvents.isEmpty() && pendingEvents.peek().handled)
+            advance(pendingEvents.poll().symEvent);
+
+    }
+
+
+    /**
+     * @return Number of events read but not yet handled
+     */
+    synchronized int getPendingEvents() {
+        return pendingEvents.size();
+    }
+
+
+    private void advance(SymEvent symEvent) {
+
+        if (symEvent.getTimestamp() == null)
+            return;
+
+        Long lastTimestamp = checkpoint.getLastEventTimestamp();
+
+        if (lastTimestamp == null || symEvent.getTimestamp() >= lastTimestamp) {
+            checkpoint.setLastEventId(symEvent.getId());
+            checkpoint.setLastEventTimestamp(symEvent.getTimestamp());
+        }
+
+        String streamId = streamIdOf(symEvent);
+
+        if (streamId != null)
+            checkpoint.updateStream(streamId, symEvent.getTimestamp());
+
+    }
+
+
+    /**
+     * Backfill messages missed before the datafeed was created and record the new datafeed.
+     *
+     * @param datafeed         Newly created datafeed
+     * @param createdAt        Time just before the datafeed was created.  Later messages are delivered by the datafeed.
+     * @param dataFeedListener Listener to publish missed messages on
+     */
+    void onDatafeedCreated(SymDatafeed datafeed, long createdAt, DataFeedListener dataFeedListener) {
+
+        catchUp(createdAt, dataFeedListener, false);
+
+        checkpoint.setDatafeedId(datafeed.getId());
+        save();
+
+    }
+
+
+    /**
+     * Backfill messages read by a previous process but never handled.  The resumed datafeed no longer holds them, but
+     * may still deliver messages sent since the previous process stopped reading, which are dropped through
+     * {@link #isCaughtUp(SymEvent)} if the catch-up already published them.
+     *
+     * @param resumedAt        Time the datafeed was resumed
+     * @param dataFeedListener Listener to publish missed messages on
+     */
+    void onDatafeedResumed(long resumedAt, DataFeedListener dataFeedListener) {
+
+        catchUp(resumedAt, dataFeedListener, true);
+
+    }
+
+
+    /**
+     * Save the checkpoint if the save interval has elapsed
+     */
+    void saveIfDue() {
+
+        if (System.currentTimeMillis() - lastSave >= saveInterval)
+            save();
+
+    }
+
+
+    /**
+     * Save the checkpoint, dropping streams too old to be caught up
+     */
+    void save() {
+
+        lastSave = System.currentTimeMillis();
+
+        long oldest = lastSave - catchUpMaxAge;
+        checkpoint.getStreamTimestamps().values().removeIf(timestamp -> timestamp < oldest);
+
+        try {
+            checkpointStore.save(checkpoint);
+        } catch (RuntimeException e) {
+            logger.error("Failed to save datafeed checkpoint..", e);
+        }
+
+    }
+
+
+    /**
+     * @param until            Messages from this time on are delivered by the datafeed
+     * @param dataFeedListener Listener to publish missed messages on
+     * @param remember         Remember the published messages so the datafeed does not deliver them again
+     */
+    private void catchUp(long until, DataFeedListener dataFeedListener, boolean remember) {
+
+        long oldest = until - catchUpMaxAge;
+        Map<String, Long> streams = new LinkedHashMap<>();
+        Set<String> published = new HashSet<>();
+
+        synchronized (this) {
+
+            checkpoint.getStreamTimestamps().forEach((streamId, timestamp) -> {
+                if (timestamp >= oldest)
+                    streams.put(streamId, timestamp);
+            });
+
+            //Messages read by this process and still buffered or being handled must not be published again
+            for (PendingEvent pendingEvent : pendingEvents) {
+
+                String messageId = messageIdOf(pendingEvent.symEvent);
+
+                if (messageId != null)
+                    published.add(messageId);
+            }
+
+            caughtUp.clear();
+        }
+
+        if (streams.isEmpty())
+            return;
+
+        logger.info("Catching up on {} streams before reading the datafeed...", streams.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(catchUpThreads, streams.size()),
+                ClientThreads.named(symClient.getThreadFactory(), "DataFeedCatchUp", symClient.getName(), true));
+
+        Map<String, Future<List<SymMessage>>> missedByStream = new LinkedHashMap<>();
+        int count = 0;
+
+        try {
+
+            //Fetch in parallel, but publish each stream in order from this thread.
+            streams.forEach((streamId, since) ->
+                    missedByStream.put(streamId, executor.submit(() -> getMissedMessages(streamId, since, until))));
+
+            for (Map.Entry<String, Future<List<SymMessage>>> entry : missedByStream.entrySet()) {
+
+                try {
+
+                    for (SymMessage symMessage : entry.getValue().get()) {
+
+                        if (symMessage.getId() != null && !published.add(symMessage.getId()))
+                            continue;
+
+                        try {
+                            SymEvent symEvent = toSymEvent(symMessage);
+
+                            onRead(symEvent);
+                            dataFeedListener.onEvent(symEvent);
+                            count++;
+                        } catch (RuntimeException e) {
+                            logger.error("Listener failed to process missed message {}", symMessage.getId(), e);
+                        }
+                    }
+
+                } catch (ExecutionException e) {
+                    logger.error("Failed to catch up on stream {}", entry.getKey(), e.getCause());
+                }
+            }
+
+        } catch (InterruptedException e) {
+            logger.error("Interrupt.. ", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (remember) {
+            synchronized (this) {
+                caughtUp.addAll(published);
+                caughtUpUntil = until;
+            }
+        }
+
+        metricsRegistry.count("datafeed.catchup.messages", count);
+        logger.info("Published {} missed messages from {} streams", count, streams.size());
+
+    }
+
+
+    private List<SymMessage> getMissedMessages(String streamId, long since, long until) throws MessagesException {
+
+        SymStream symStream = new SymStream();
+        symStream.setStreamId(streamId);
+
+        List<SymMessage> missed = new ArrayList<>();
+        int offset = 0;
+
+        while (offset < catchUpMaxMessages) {
+
+            int pageSize = Math.min(CATCHUP_PAGE_SIZE, catchUpMaxMessages - offset);
+            List<SymMessage> symMessages = symClient.getMessagesClient().getMessagesFromStream(symStream, since + 1, offset, pageSize);
+
+            if (symMessages == null || symMessages.isEmpty())
+                break;
+
+            for (SymMessage symMessage : symMessages) {
+                Long timestamp = timestampOf(symMessage);
+
+                if (timestamp != null && timestamp > since && timestamp < until)
+                    missed.add(symMessage);
+            }
+
+            if (symMessages.size() < pageSize)
+                break;
+
+            offset += symMessages.size();
+        }
+
+        missed.sort(Comparator.comparing(DatafeedCheckpointer::timestampOf));
+
+        return missed;
+    }
+
+
+    private static SymEvent toSymEvent(SymMessage symMessage) {
+
+        SymEventPayload symEventPayload = new SymEventPayload();
+        symEventPayload.setMessageSent(symMessage);
+
+        SymEvent symEvent = new SymEvent();
+        symEvent.setId(symMessage.getId());
+        symEvent.setType(SymEventTypes.Type.MESSAGESENT.toString());
+        symEvent.setTimestamp(timestampOf(symMessage));
+        symEvent.setInitiator(symMessage.getSymUser());
+        symEvent.setPayload(symEventPayload);
+
+        return symEvent;
+    }
+
+
+    private static String streamIdOf(SymEvent symEvent) {
+        return symEvent.getPayload() != null ? symEvent.getPayload().getStreamId() : null;
+    }
+
+
+    private static String messageIdOf(SymEvent symEvent) {
+
+        SymEventPayload payload = symEvent.getPayload();
+
+        return payload != null && payload.getMessageSent() != null ? payload.getMessageSent().getId() : null;
+    }
+
+
+    private static Long timestampOf(SymMessage symMessage) {
+
+        try {
+            return symMessage.getTimestamp() != null ? Long.valueOf(symMessage.getTimestamp()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+
+    /**
+     * Event read and waiting to be handled
+     */
+    private static final class PendingEvent {
+
+        private final SymEvent symEvent;
+        private boolean handled;
+
+
+        PendingEvent(SymEvent symEvent) {
+            this.symEvent = symEvent;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ *
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.symphonyoss.client.services;
+
+/**
+ * Backpressure policy applied when a dispatch buffer is full.
+ * <p>
+ * BLOCK - The reader waits until space is available, which throttles polling of the feed.
+ * DROP_OLDEST - The oldest buffered event is discarded to make room for the new one.
+ * SPILL - The event is kept in an unbounded overflow queue until the buffer drains.
+ *
+ * @author Frank Tarsillo
+ */
+public enum DispatchPolicy {
+
+    BLOCK,
+    DROP_OLDEST,
+    SPILL;
+
+
+    /**
+     * Resolve a policy by name, falling back to {@link #BLOCK}
+     *
+     * @param value Name of the policy (case insensitive)
+     * @return Matching policy or BLOCK if not recognized
+     */
+    public static DispatchPolicy fromValue(String value) {
+
+        if (value != null) {
+            for (DispatchPolicy policy : DispatchPolicy.values()) {
+                if (policy.name().equalsIgnoreCase(value.trim()))
+                    return policy;
+            }
+        }
+
+        return BLOCK;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.symphonyoss.client.events.SymEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the most recent event IDs to drop events delivered more than once, ex. by concurrent firehose readers.
+ * Events without an ID are always treated as new.
+ *
+ * @author Frank Tarsillo
+ */
+class EventDeduplicator {
+
+    private final Map<String, Boolean> seen;
+
+
+    /**
+     * @param capacity Number of recent event IDs to remember
+     */
+    EventDeduplicator(int capacity) {
+
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+
+        seen = new LinkedHashMap<String, Boolean>(capacity * 4 / 3 + 1) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+
+    /**
+     * @param symEvent Event received
+     * @return True if the event has not been seen before
+     */
+    boolean isNew(SymEvent symEvent) {
+
+        String id = symEvent.getId();
+
+        if (id == null)
+            return true;
+
+        synchronized (seen) {
+            return seen.put(id, Boolean.TRUE) == null;
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.metrics.MetricsRegistry;
+import org.symphonyoss.client.metrics.NoopMetricsRegistry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovery policy shared by the feed workers (datafeed, firehose and presence feed).
+ * <p>
+ * Consecutive failures back off exponentially from the initial wait up to a maximum wait.  Every wait is jittered
+ * (between half and all of the computed delay) so a fleet of clients recovering from the same outage does not
+ * reconnect in lock step.  Once the number of consecutive failures reaches the threshold the circuit opens and the
+ * worker waits for the open time before a single half-open attempt.  A failed half-open attempt re-opens the circuit,
+ * a successful read closes it and resets the backoff.
+ * <p>
+ * State is published on the {@link MetricsRegistry} tagged with the feed name: {@code feed.recovery.state}
+ * (0=closed, 1=half-open, 2=open), {@code feed.recovery.failures} (consecutive failures),
+ * {@code feed.recovery.retries} and {@code feed.recovery.opened}.
+ * <p>
+ * Instances are used by one worker at a time.
+ *
+ * @author Frank Tarsillo
+ */
+class FeedRecoveryPolicy {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String feed;
+    private final long initialWait;
+    private final long maxWait;
+    private final int failureThreshold;
+    private final long openTime;
+    private final MetricsRegistry metricsRegistry;
+    private final Logger logger = LoggerFactory.getLogger(FeedRecoveryPolicy.class);
+
+    private volatile State state = State.CLOSED;
+    private volatile int failures;
+    private volatile long openUntil;
+
+
+    /**
+     * @param feed             Feed name used in logs and as the metrics tag
+     * @param initialWait      Wait after the first failure in milliseconds
+     * @param maxWait          Upper bound of the backoff in milliseconds
+     * @param failureThreshold Consecutive failures before the circuit opens
+     * @param openTime         Time the circuit stays open in milliseconds
+     * @param metricsRegistry  Registry to publish state on, may be null
+     */
+    FeedRecoveryPolicy(String feed, long initialWait, long maxWait, int failureThreshold, long openTime,
+                       MetricsRegistry metricsRegistry) {
+
+        if (feed == null)
+            throw new NullPointerException("Feed name was not provided..");
+
+        if (initialWait < 1 || maxWait < initialWait)
+            throw new IllegalArgumentException("Recovery wait times must be positive and max >= initial");
+
+        if (failureThreshold < 1)
+            throw new IllegalArgumentException("Failure threshold must be greater than zero");
+
+        this.feed = feed;
+        this.initialWait = initialWait;
+        this.maxWait = maxWait;
+        this.failureThreshold = failureThreshold;
+        this.openTime = openTime;
+        this.metricsRegistry = metricsRegistry != null ? metricsRegistry : NoopMetricsRegistry.INSTANCE;
+
+        this.metricsRegistry.gauge("feed.recovery.state", () -> getState().ordinal(), "feed", feed);
+        this.metricsRegistry.gauge("feed.recovery.failures", () -> failures, "feed", feed);
+
+    }
+
+
+    /**
+     * Build a policy from system properties.
+     *
+     * @param feed             Feed name used in logs and as the metrics tag
+     * @param waitTimeProperty Property holding the initial wait in seconds (ex. {@link Constants#DATAFEED_RECOVERY_WAIT_TIME})
+     * @param metricsRegistry  Registry to publish state on, may be null
+     * @return Recovery policy
+     */
+    static FeedRecoveryPolicy fromProperties(String feed, String waitTimeProperty, MetricsRegistry metricsRegistry) {
+
+        long initialWait = TimeUnit.SECONDS.toMillis(Long.parseLong(System.getProperty(waitTimeProperty, "1")));
+        long maxWait = TimeUnit.SECONDS.toMillis(Long.parseLong(System.getProperty(Constants.FEED_RECOVERY_MAX_WAIT_TIME, "60")));
+
+        return new FeedRecoveryPolicy(feed,
+                initialWait,
+                Math.max(initialWait, maxWait),
+                Integer.parseInt(System.getProperty(Constants.FEED_RECOVERY_FAILURE_THRESHOLD, "10")),
+                TimeUnit.SECONDS.toMillis(Long.parseLong(System.getProperty(Constants.FEED_RECOVERY_OPEN_TIME, "120"))),
+                metricsRegistry);
+    }
+
+
+    /**
+     * Record a successful call, closing the circuit and resetting the backoff.
+     */
+    void onSuccess() {
+
+        if (state != State.CLOSED)
+            logger.info("Recovered {} after {} failures, closing circuit", feed, failures);
+
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+
+    /**
+     * Record a failed call.
+     *
+     * @return Time to wait before the next attempt in milliseconds
+     */
+    long onFailure() {
+
+        int failed = ++failures;
+
+        metricsRegistry.increment("feed.recovery.retries", "feed", feed);
+
+        if (failed >= failureThreshold) {
+
+            if (getState() != State.OPEN) {
+                logger.warn("Opening {} circuit after {} consecutive failures", feed, failed);
+                metricsRegistry.increment("feed.recovery.opened", "feed", feed);
+            }
+
+            long wait = jitter(openTime);
+
+            openUntil = System.currentTimeMillis() + wait;
+            state = State.OPEN;
+
+            logger.info("Retrying {} in {} ms (consecutive failures: {})", feed, wait, failed);
+
+            return wait;
+        }
+
+        //Cap the shift so the doubling cannot overflow
+        long wait = jitter(Math.min(maxWait, initialWait << Math.min(failed - 1, 30)));
+
+        logger.info("Retrying {} in {} ms (consecutive failures: {})", feed, wait, failed);
+
+        return wait;
+    }
+
+
+    /**
+     * @return Current state.  An open circuit reports half-open once its open time has elapsed.
+     */
+    State getState() {
+
+        State current = state;
+
+        if (current == State.OPEN && System.currentTimeMillis() >= openUntil)
+            return State.HALF_OPEN;
+
+        return current;
+    }
+
+
+    /**
+     * @return Number of consecutive failures
+     */
+    int getFailures() {
+        return failures;
+    }
+
+
+    private static long jitter(long delay) {
+
+        long half = delay / 2;
+
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+}
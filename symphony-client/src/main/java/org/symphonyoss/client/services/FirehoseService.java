@@ -27,15 +27,22 @@ package org.symphonyoss.client.services;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.events.SymEvent;
 import org.symphonyoss.client.exceptions.DataFeedException;
 import org.symphonyoss.client.exceptions.SystemException;
+import org.symphonyoss.client.metrics.MetricsRegistry;
+import org.symphonyoss.client.metrics.NoopMetricsRegistry;
+import org.symphonyoss.client.util.FeedPublisher;
 import org.symphonyoss.symphony.clients.AgentSystemClient;
 import org.symphonyoss.symphony.clients.AgentSystemClientFactory;
+import org.symphonyoss.symphony.clients.FirehoseClient;
 import org.symphonyoss.symphony.clients.FirehoseClientFactory;
 import org.symphonyoss.symphony.clients.model.RestApiVersion;
 import org.symphonyoss.symphony.clients.model.SymAgentHealthCheck;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -52,8 +59,11 @@ public class FirehoseService implements FirehoseListener {
     private org.symphonyoss.symphony.agent.invoker.ApiClient agentClient;
     private final Logger logger = LoggerFactory.getLogger(FirehoseService.class);
     private final Set<FirehoseListener> firehoseListeners = ConcurrentHashMap.newKeySet();
+    private final FeedPublisher<SymEvent> eventPublisher =
+            new FeedPublisher<>(Integer.parseInt(System.getProperty(Constants.FEED_PUBLISHER_BUFFER_SIZE, "256")));
 
-    private FirehoseWorker firehoseWorker;
+    private final List<FirehoseWorker> firehoseWorkers = new ArrayList<>();
+    private DataFeedDispatcher firehoseDispatcher;
 
 
     /**
@@ -89,20 +99,77 @@ public class FirehoseService implements FirehoseListener {
         }
 
 
-        //Lets startup the worker thread to listen for raw datafeed messages
-        firehoseWorker = new FirehoseWorker(FirehoseClientFactory.getClient(symClient), this);
+        FirehoseClient firehoseClient = FirehoseClientFactory.getClient(symClient);
+        SharedFirehose sharedFirehose = new SharedFirehose(firehoseClient);
+        MetricsRegistry registry = symClient.getMetricsRegistry();
+        MetricsRegistry metricsRegistry = registry != null ? registry : NoopMetricsRegistry.INSTANCE;
 
-        new Thread(firehoseWorker, "FirehoseWorker: " + symClient.getName()).start();
+        int readers = Integer.parseInt(System.getProperty(Constants.FIREHOSE_READERS, "1"));
 
+        if (readers > 1) {
+
+            //Concurrent readers may return the same events, so merge through a deduplicating bounded dispatcher
+            EventDeduplicator eventDeduplicator = new EventDeduplicator(
+                    Integer.parseInt(System.getProperty(Constants.FIREHOSE_DEDUP_SIZE, "100000")));
+
+            DataFeedDispatcher dispatcher = new DataFeedDispatcher(this::onEvent,
+                    Integer.parseInt(System.getProperty(Constants.FIREHOSE_DISPATCH_THREADS, "4")),
+                    Integer.parseInt(System.getProperty(Constants.FIREHOSE_DISPATCH_BUFFER_SIZE, "1000")),
+                    DispatchPolicy.BLOCK,
+                    "Firehose " + symClient.getName(),
+                    symClient.getThreadFactory());
+
+            metricsRegistry.gauge("firehose.dispatch.pending", dispatcher::getPendingEvents);
+
+            firehoseDispatcher = dispatcher;
+
+            FirehoseListener mergingListener = symEvent -> {
+
+                if (eventDeduplicator.isNew(symEvent)) {
+                    dispatcher.onEvent(symEvent);
+                } else {
+                    metricsRegistry.increment("firehose.duplicates");
+                }
+            };
+
+            for (int i = 0; i < readers; i++)
+                startWorker(new FirehoseWorker(firehoseClient, sharedFirehose, mergingListener, "firehose-" + i, metricsRegistry),
+                        "FirehoseWorker-" + i);
+
+            logger.info("Started {} concurrent firehose readers", readers);
+
+        } else {
+
+            //Lets startup the worker thread to listen for raw datafeed messages
+            startWorker(new FirehoseWorker(firehoseClient, sharedFirehose, this, "firehose", metricsRegistry), "FirehoseWorker");
+        }
+
+    }
+
+
+    private void startWorker(FirehoseWorker firehoseWorker, String name) {
+
+        firehoseWorkers.add(firehoseWorker);
+
+        Workers.start(symClient, firehoseWorker, name);
     }
 
 
+    /**
+     * Publish an event to all registered listeners.  With more than one reader ({@link Constants#FIREHOSE_READERS})
+     * this is called concurrently from the dispatcher threads and events are only ordered within a stream.
+     *
+     * @param symEvent Event read from the firehose
+     */
     @Override
     public void onEvent(SymEvent symEvent) {
 
 
         logger.debug("{} event type received...", symEvent.getType());
 
+        //Blocks the firehose while subscribers have no room
+        if (eventPublisher.hasSubscribers())
+            eventPublisher.offer(symEvent);
 
         //Publish all messages to registered Message Listeners...
         for (FirehoseListener firehoseListener : firehoseListeners) {
@@ -137,16 +204,32 @@ public class FirehoseService implements FirehoseListener {
     }
 
 
+    /**
+     * Publisher of all firehose events with Reactive Streams backpressure.  Subscribers that stop requesting events
+     * throttle firehose reads once their buffer ({@link Constants#FEED_PUBLISHER_BUFFER_SIZE}) is full.
+     *
+     * @return Firehose event publisher
+     */
+    public FeedPublisher<SymEvent> getEventPublisher() {
+        return eventPublisher;
+    }
+
+
     /**
      * Shutdown the underlying threads and workers.
      */
     public void shutdown() {
 
-        if (firehoseWorker != null) {
-            firehoseWorker.shutdown();
-            firehoseWorker = null;
+        firehoseWorkers.forEach(FirehoseWorker::shutdown);
+        firehoseWorkers.clear();
+
+        if (firehoseDispatcher != null) {
+            firehoseDispatcher.shutdown();
+            firehoseDispatcher = null;
         }
 
+        eventPublisher.close();
+
 
     }
 
@@ -29,13 +29,14 @@ import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
 import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.client.metrics.MetricsRegistry;
+import org.symphonyoss.client.util.WorkerTask;
 import org.symphonyoss.symphony.clients.FirehoseClient;
 import org.symphonyoss.symphony.clients.model.ApiVersion;
 import org.symphonyoss.symphony.clients.model.SymFirehose;
 import org.symphonyoss.symphony.clients.model.SymFirehoseRequest;
 
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 /**
  * This thread will long-poll for all symphony messages related to the POD itself.
@@ -45,114 +46,119 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Frank Tarsillo
  */
-class FirehoseWorker implements Runnable {
+class FirehoseWorker implements WorkerTask {
 
     private final FirehoseListener firehoseListener;
 
     private final FirehoseClient firehoseClient;
+    private final SharedFirehose sharedFirehose;
+    private final FeedRecoveryPolicy recoveryPolicy;
+    private final AdaptiveBatchSize batchSize;
+    private final int waitTime;
     private final Logger logger = LoggerFactory.getLogger(FirehoseWorker.class);
-    private SymFirehose symFirehose;
-    private boolean shutdown;
+    private volatile boolean shutdown;
 
 
     /**
      * Constructor
+     * <p>
+     * The number of events requested per read is tuned by an {@link AdaptiveBatchSize}.  The long-poll timeout is
+     * read once from {@link Constants#DATAFEED_WAIT_TIME}.
      *
-     * @param firehoseClient  Firehose client
+     * @param firehoseClient   Firehose client
+     * @param sharedFirehose   Firehose to read, possibly shared with other readers
      * @param firehoseListener Callback listener to publish new base messages on.
+     * @param name             Reader name used for recovery metrics
+     * @param metricsRegistry  Registry to publish recovery state on, may be null
      */
-    public FirehoseWorker(FirehoseClient firehoseClient, FirehoseListener firehoseListener) {
+    public FirehoseWorker(FirehoseClient firehoseClient, SharedFirehose sharedFirehose, FirehoseListener firehoseListener,
+                          String name, MetricsRegistry metricsRegistry) {
         this.firehoseClient = firehoseClient;
+        this.sharedFirehose = sharedFirehose;
         this.firehoseListener = firehoseListener;
+        this.recoveryPolicy = FeedRecoveryPolicy.fromProperties(name, Constants.DATAFEED_RECOVERY_WAIT_TIME, metricsRegistry);
+        this.batchSize = AdaptiveBatchSize.fromProperties(name, metricsRegistry);
+        this.waitTime = Integer.parseInt(System.getProperty(Constants.DATAFEED_WAIT_TIME, "5000"));
 
 
     }
 
     @Override
-    public void run() {
+    public long runOnce() {
 
+        SymFirehose symFirehose;
 
-        //noinspection InfiniteLoopStatement
-        while (!shutdown) {
+        //Make sure its active
+        try {
 
-                //Make sure its active
-                initFirehose();
+            symFirehose = sharedFirehose.get();
 
-                //Poll it
-                readFirehose();
+        } catch (Exception e) {
 
+            logger.error("Failed to create firehose with agent server, please check connection..", e);
 
+            return recoveryPolicy.onFailure();
         }
 
-    }
-
-
-    /**
-     * Create or restore an instance of the {@link org.symphonyoss.symphony.clients.model.SymFirehose}
-     */
-    private void initFirehose() {
-
-
-        while (symFirehose == null) {
-            try {
-                logger.info("Creating symFirehose with pod...");
-
-                symFirehose = firehoseClient.createFirehose();
-
-                break;
-            } catch (Exception e) {
-
-                logger.error("Failed to create firehose with agent server, please check connection..", e);
-                symFirehose = null;
-
-                //Can use properties to override default time wait
-                try {
-
-                    TimeUnit.SECONDS.sleep(
-                            Long.valueOf(System.getProperty(Constants.DATAFEED_RECOVERY_WAIT_TIME, "5"))
-                    );
-                } catch (InterruptedException e1) {
-                    logger.error("Interrupt.. ", e1);
-                    Thread.currentThread().interrupt();
-                }
-
-            }
-
-        }
+        //Poll it
+        return readFirehose(symFirehose);
 
+    }
 
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
     }
 
+
     /**
      * Reads in raw messages from {@link org.symphonyoss.symphony.clients.DataFeedClient} and publishes out through
      * {@link DataFeedListener}
+     *
+     * @param symFirehose Firehose to read
+     * @return Milliseconds to wait before the next read
      */
-    private void readFirehose() {
+    private long readFirehose(SymFirehose symFirehose) {
+
+        List<SymEvent> symEvents;
 
         try {
 
             SymFirehoseRequest symFirehoseRequest = new SymFirehoseRequest();
-            symFirehoseRequest.setMaxMsgs(Integer.valueOf(System.getProperty(Constants.DATAFEED_MAX_MESSAGES,"100")));
-            symFirehoseRequest.setTimeout(Integer.valueOf(System.getProperty(Constants.DATAFEED_WAIT_TIME,"5000")));
+            symFirehoseRequest.setMaxMsgs(batchSize.getSize());
+            symFirehoseRequest.setTimeout(waitTime);
 
+            long start = System.nanoTime();
 
-            List<SymEvent> symEvents = firehoseClient.getEventsFromFirehose(symFirehose,symFirehoseRequest);
+            symEvents = firehoseClient.getEventsFromFirehose(symFirehose,symFirehoseRequest);
 
-            if (symEvents != null) {
-
-                symEvents.forEach(firehoseListener::onEvent);
-
-            }
+            recoveryPolicy.onSuccess();
+            batchSize.onRead(symEvents != null ? symEvents.size() : 0, System.nanoTime() - start);
 
 
         } catch (Exception e) {
             logger.error("Failed to create read firehose from pod, please check connection..resetting.", e);
-            symFirehose = null;
+            sharedFirehose.reset(symFirehose);
+
+            return recoveryPolicy.onFailure();
+
+        }
 
+        //Listener failures are handled per event, they are not firehose failures
+        if (symEvents != null) {
 
+            for (SymEvent symEvent : symEvents) {
+                try {
+                    firehoseListener.onEvent(symEvent);
+                } catch (RuntimeException e) {
+                    logger.error("Listener failed to process event {} of type {}", symEvent.getId(), symEvent.getType(), e);
+                }
+            }
 
         }
 
+        return 0;
+
     }
 
     public void shutdown() {
@@ -25,6 +25,7 @@ package org.symphonyoss.client.services;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.events.*;
 import org.symphonyoss.client.exceptions.MessagesException;
 import org.symphonyoss.client.exceptions.StreamsException;
@@ -32,11 +33,17 @@ import org.symphonyoss.client.exceptions.UsersClientException;
 import org.symphonyoss.client.model.CacheType;
 import org.symphonyoss.client.model.Chat;
 import org.symphonyoss.client.model.Room;
+import org.symphonyoss.client.util.ClientThreads;
+import org.symphonyoss.client.util.FeedPublisher;
+import org.symphonyoss.client.util.StripedExecutor;
 import org.symphonyoss.symphony.clients.model.*;
 
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * MessageService listens for all messages for a given BOT identity, identifies the type (Message, Chat, Room) of
@@ -53,6 +60,10 @@ import java.util.concurrent.ConcurrentHashMap;
  * MessageListener - Listen for all messages
  * ChatListener - Listen for chat conversations (1:1 or multi-party)
  * RoomServiceListener - Listen for all Room related events.
+ * <p>
+ * By default listeners are called on the datafeed thread.  Setting {@link Constants#MESSAGESERVICE_DISPATCH_THREADS}
+ * or calling {@link #setDispatchExecutor(Executor, int)} enables parallel dispatch, where events are sharded by
+ * stream ID onto serial lanes.  Events for a given stream are still published in order.
  *
  * @author Frank Tarsillo on 5/15/2016.
  */
@@ -69,6 +80,10 @@ public class MessageService implements DataFeedListener {
     private final Set<ConnectionsEventListener> connectionsEventListeners = ConcurrentHashMap.newKeySet();
     private final Set<String> roomStreamCache = ConcurrentHashMap.newKeySet();
     private final Set<String> chatStreamCache = ConcurrentHashMap.newKeySet();
+    private final FeedPublisher<SymEvent> eventPublisher =
+            new FeedPublisher<>(Integer.parseInt(System.getProperty(Constants.FEED_PUBLISHER_BUFFER_SIZE, "256")));
+    private volatile StripedExecutor dispatchExecutor;
+    private ExecutorService dispatchThreadPool;
     DataFeedWorker dataFeedWorker;
 
 
@@ -84,11 +99,23 @@ public class MessageService implements DataFeedListener {
 
         this.symClient = symClient;
 
+        //Optional parallel dispatch of events to listeners
+        int dispatchThreads = Integer.parseInt(System.getProperty(Constants.MESSAGESERVICE_DISPATCH_THREADS, "0"));
+
+        if (dispatchThreads > 0) {
+
+            dispatchThreadPool = Executors.newFixedThreadPool(dispatchThreads,
+                    ClientThreads.named(symClient.getThreadFactory(), "MessageDispatcher", symClient.getName(), false));
+
+            dispatchExecutor = newDispatchExecutor(dispatchThreadPool,
+                    Integer.parseInt(System.getProperty(Constants.MESSAGESERVICE_DISPATCH_LANES, "64")));
+        }
+
 
         //Lets startup the worker thread to listen for raw datafeed messages
         dataFeedWorker = new DataFeedWorker(symClient, this);
 
-        new Thread(dataFeedWorker, "DataFeedWorker: "+ symClient.getName()).start();
+        Workers.start(symClient, dataFeedWorker, "DataFeedWorker");
 
     }
 
@@ -250,9 +277,86 @@ public class MessageService implements DataFeedListener {
     }
 
 
+    /**
+     * Set the executor used to publish events to listeners.  Events are sharded by stream ID onto the given number
+     * of serial lanes, so events from one stream are published in order while different streams are processed in
+     * parallel.  Each lane buffers up to {@link Constants#MESSAGESERVICE_DISPATCH_BUFFER_SIZE} events, after which
+     * {@link Constants#MESSAGESERVICE_DISPATCH_POLICY} is applied to the datafeed thread.
+     *
+     * @param executor Executor providing dispatch threads.  If null, events are published on the datafeed thread.
+     * @param lanes    Number of serial lanes to shard streams onto
+     */
+    public void setDispatchExecutor(Executor executor, int lanes) {
+
+        if (dispatchThreadPool != null && dispatchThreadPool != executor) {
+            dispatchThreadPool.shutdown();
+            dispatchThreadPool = null;
+        }
+
+        dispatchExecutor = (executor != null) ? newDispatchExecutor(executor, lanes) : null;
+
+    }
+
+
+    private StripedExecutor newDispatchExecutor(Executor executor, int lanes) {
+
+        //Events dropped by the lane policy will never be handled, so release their progress callbacks
+        return new StripedExecutor(executor, lanes,
+                Integer.parseInt(System.getProperty(Constants.MESSAGESERVICE_DISPATCH_BUFFER_SIZE, "1024")),
+                DispatchPolicy.fromValue(System.getProperty(Constants.MESSAGESERVICE_DISPATCH_POLICY, "BLOCK")),
+                task -> {
+                    if (task instanceof DispatchTask)
+                        ((DispatchTask) task).onHandled.run();
+                });
+
+    }
+
+
     @Override
     public void onEvent(SymEvent symEvent) {
 
+        onEvent(symEvent, null);
+
+    }
+
+
+    /**
+     * Publish the event to listeners and run the callback once all listeners have been called, which with parallel
+     * dispatch happens on the dispatch thread.
+     *
+     * @param symEvent  Event received from the datafeed
+     * @param onHandled Callback to run once the event has been handled, may be null
+     */
+    @Override
+    public void onEvent(SymEvent symEvent, Runnable onHandled) {
+
+        //Blocks the datafeed while subscribers have no room
+        if (symEvent != null && eventPublisher.hasSubscribers())
+            eventPublisher.offer(symEvent);
+
+        StripedExecutor executor = dispatchExecutor;
+
+        if (executor != null && symEvent != null) {
+
+            String streamId = (symEvent.getPayload() != null) ? symEvent.getPayload().getStreamId() : null;
+
+            executor.execute(streamId, new DispatchTask(symEvent, onHandled));
+
+        } else {
+
+            new DispatchTask(symEvent, onHandled).run();
+        }
+
+    }
+
+
+    /**
+     * Identify the event type and publish it to the registered listeners of that type.
+     *
+     * @param symEvent Event received from the datafeed
+     */
+    private void dispatchEvent(SymEvent symEvent) {
+
 
         logger.debug("{} event type received...", symEvent.getType());
 
@@ -552,6 +656,17 @@ public class MessageService implements DataFeedListener {
 
     }
 
+    /**
+     * Publisher of all raw datafeed events with Reactive Streams backpressure.  Subscribers that stop requesting
+     * events throttle datafeed reads once their buffer ({@link Constants#FEED_PUBLISHER_BUFFER_SIZE}) is full.
+     *
+     * @return Datafeed event publisher
+     */
+    public FeedPublisher<SymEvent> getEventPublisher() {
+        return eventPublisher;
+    }
+
+
     /**
      * Shutdown the underlying threads and workers.
      */
@@ -562,7 +677,42 @@ public class MessageService implements DataFeedListener {
             dataFeedWorker = null;
         }
 
+        eventPublisher.close();
 
+        if (dispatchThreadPool != null) {
+            dispatchThreadPool.shutdown();
+            dispatchThreadPool = null;
+        }
+
+
+    }
+
+
+    /**
+     * Publishes an event to the listeners, then signals the event as handled.
+     */
+    private class DispatchTask implements Runnable {
+
+        private final SymEvent symEvent;
+        private final Runnable onHandled;
+
+
+        DispatchTask(SymEvent symEvent, Runnable onHandled) {
+            this.symEvent = symEvent;
+            this.onHandled = (onHandled != null) ? onHandled : () -> {
+            };
+        }
+
+
+        @Override
+        public void run() {
+
+            try {
+                dispatchEvent(symEvent);
+            } finally {
+                onHandled.run();
+            }
+        }
     }
 
 }
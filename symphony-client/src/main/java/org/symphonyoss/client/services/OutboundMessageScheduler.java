@@ -0,0 +1,597 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.exceptions.MessagesException;
+import org.symphonyoss.client.exceptions.RestException;
+import org.symphonyoss.client.model.SymAuth;
+import org.symphonyoss.client.util.TokenBucket;
+import org.symphonyoss.symphony.agent.invoker.ApiException;
+import org.symphonyoss.symphony.clients.MessagesClient;
+import org.symphonyoss.symphony.clients.model.ApiVersion;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymStream;
+import org.symphonyoss.symphony.pod.model.Stream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound message scheduler sitting in front of a {@link MessagesClient}.
+ * <p>
+ * Messages are queued per stream and released under two token bucket limits: a global rate for the client and a
+ * rate per stream.  Streams with pending messages are served round robin, so a single busy stream cannot starve the
+ * others, and a stream never has more than one message in flight, which keeps the send order per stream.
+ * <p>
+ * When the agent throttles a send (HTTP 429) the scheduler pauses all sending for the Retry-After period (or
+ * {@link Constants#MESSAGES_OUTBOUND_RETRY_WAIT} if not provided) and retries the message ahead of the rest of its
+ * stream queue.
+ * <p>
+ * The scheduler implements {@link MessagesClient}, so it can be used in place of the client it wraps.  The blocking
+ * send methods wait until the scheduled message has been sent.
+ *
+ * @author Frank Tarsillo
+ */
+public class OutboundMessageScheduler implements MessagesClient {
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final long IDLE_WAIT_MILLIS = 1000;
+
+    private final MessagesClient messagesClient;
+    private final TokenBucket globalBucket;
+    private final double streamRate;
+    private final int streamBurst;
+    private final int maxRetries;
+    private final long retryWait;
+    private final ExecutorService sender;
+
+    private final Object lock = new Object();
+    private final Map<String, StreamQueue> streamQueues = new HashMap<>();
+    private final Deque<StreamQueue> readyStreams = new ArrayDeque<>();
+
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong throttledMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    private final Logger logger = LoggerFactory.getLogger(OutboundMessageScheduler.class);
+
+
+    /**
+     * Create a scheduler using the limits provided by system properties.
+     *
+     * @param messagesClient Client used to send messages
+     * @param name           Name used for scheduler threads
+     */
+    public OutboundMessageScheduler(MessagesClient messagesClient, String name) {
+
+        this(messagesClient,
+                Double.parseDouble(System.getProperty(Constants.MESSAGES_OUTBOUND_RATE, "20")),
+                Integer.parseInt(System.getProperty(Constants.MESSAGES_OUTBOUND_BURST, "20")),
+                Double.parseDouble(System.getProperty(Constants.MESSAGES_OUTBOUND_STREAM_RATE, "2")),
+                Integer.parseInt(System.getProperty(Constants.MESSAGES_OUTBOUND_STREAM_BURST, "5")),
+                Integer.parseInt(System.getProperty(Constants.MESSAGES_OUTBOUND_THREADS, "4")),
+                name);
+
+    }
+
+
+    /**
+     * @param messagesClient Client used to send messages
+     * @param globalRate     Messages per second across all streams
+     * @param globalBurst    Maximum burst across all streams
+     * @param streamRate     Messages per second for a single stream
+     * @param streamBurst    Maximum burst for a single stream
+     * @param threads        Number of threads sending messages (maximum messages in flight)
+     * @param name           Name used for scheduler threads
+     */
+    public OutboundMessageScheduler(MessagesClient messagesClient, double globalRate, int globalBurst,
+                                    double streamRate, int streamBurst, int threads, String name) {
+
+        if (messagesClient == null)
+            throw new NullPointerException("MessagesClient was not provided..");
+
+        this.messagesClient = messagesClient;
+        this.globalBucket = new TokenBucket(globalRate, globalBurst);
+        this.streamRate = streamRate;
+        this.streamBurst = streamBurst;
+        this.maxRetries = Integer.parseInt(System.getProperty(Constants.MESSAGES_OUTBOUND_RETRIES, "3"));
+        this.retryWait = Long.parseLong(System.getProperty(Constants.MESSAGES_OUTBOUND_RETRY_WAIT, "1000"));
+
+        //Validate the stream limits up front rather than on first use.
+        new TokenBucket(streamRate, streamBurst);
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        sender = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "OutboundMessageSender-" + threadCount.incrementAndGet() + ": " + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Thread scheduler = new Thread(this::schedule, "OutboundMessageScheduler: " + name);
+        scheduler.setDaemon(true);
+        scheduler.start();
+
+        logger.info("Started outbound message scheduler at {}/s (stream {}/s) with {} senders", globalRate, streamRate, threads);
+
+    }
+
+
+    /**
+     * Queue a message for sending
+     *
+     * @param stream  Stream to send message to
+     * @param message Message to send
+     * @return Future of the message sent
+     */
+    public CompletableFuture<SymMessage> submit(SymStream stream, SymMessage message) {
+        return submit(stream, message, null);
+    }
+
+
+    /**
+     * Queue a message for sending with alternate session token (OBO)
+     *
+     * @param stream  Stream to send message to
+     * @param message Message to send
+     * @param symAuth Alternate authorization containing session token to use, or null for the client session.
+     * @return Future of the message sent
+     */
+    public CompletableFuture<SymMessage> submit(SymStream stream, SymMessage message, SymAuth symAuth) {
+
+        if (stream == null || stream.getStreamId() == null)
+            throw new NullPointerException("Stream was not provided..");
+
+        if (message == null)
+            throw new NullPointerException("Message was not provided..");
+
+        OutboundMessage outboundMessage = new OutboundMessage(stream, message, symAuth);
+
+        if (shutdown) {
+            outboundMessage.future.completeExceptionally(new MessagesException("Outbound message scheduler is shut down"));
+            return outboundMessage.future;
+        }
+
+        synchronized (lock) {
+
+            StreamQueue streamQueue = streamQueues.computeIfAbsent(stream.getStreamId(), StreamQueue::new);
+            streamQueue.messages.add(outboundMessage);
+            queuedMessages.incrementAndGet();
+
+            markReady(streamQueue);
+
+            lock.notifyAll();
+        }
+
+        return outboundMessage.future;
+    }
+
+
+    @Override
+    @Deprecated
+    public SymMessage sendMessage(Stream stream, SymMessage message) throws MessagesException {
+        return sendMessage(SymStream.toSymStream(stream), message);
+    }
+
+
+    @Override
+    public SymMessage sendMessage(SymStream stream, SymMessage message, SymAuth symAuth) throws MessagesException {
+        return await(submit(stream, message, symAuth));
+    }
+
+
+    @Override
+    public SymMessage sendMessage(SymStream stream, SymMessage message) throws MessagesException {
+        return await(submit(stream, message));
+    }
+
+
+    @Override
+    public List<SymMessage> getMessagesFromStream(SymStream symStream, Long since, Integer offset, Integer maxMessages, ApiVersion apiVersion1) throws MessagesException {
+        return messagesClient.getMessagesFromStream(symStream, since, offset, maxMessages, apiVersion1);
+    }
+
+
+    @Override
+    public List<SymMessage> getMessagesFromStream(SymStream symStream, Long since, Integer offset, Integer maxMessages) throws MessagesException {
+        return messagesClient.getMessagesFromStream(symStream, since, offset, maxMessages);
+    }
+
+
+    @Override
+    public List<SymMessage> getMessagesFromStream(Stream stream, Long since, Integer offset, Integer maxMessages) throws MessagesException {
+        return messagesClient.getMessagesFromStream(stream, since, offset, maxMessages);
+    }
+
+
+    /**
+     * @return Number of messages waiting to be sent across all streams
+     */
+    public int getQueueDepth() {
+        return queuedMessages.get();
+    }
+
+
+    /**
+     * @param streamId Stream ID
+     * @return Number of messages waiting to be sent to the stream
+     */
+    public int getQueueDepth(String streamId) {
+
+        synchronized (lock) {
+            StreamQueue streamQueue = streamQueues.get(streamId);
+
+            return streamQueue != null ? streamQueue.messages.size() : 0;
+        }
+    }
+
+
+    /**
+     * @return Number of streams currently tracked by the scheduler
+     */
+    public int getStreamCount() {
+
+        synchronized (lock) {
+            return streamQueues.size();
+        }
+    }
+
+
+    /**
+     * @return Total number of messages sent
+     */
+    public long getSentMessages() {
+        return sentMessages.get();
+    }
+
+
+    /**
+     * @return Total number of sends throttled by the agent and retried
+     */
+    public long getThrottledMessages() {
+        return throttledMessages.get();
+    }
+
+
+    /**
+     * @return Total number of messages that could not be sent
+     */
+    public long getFailedMessages() {
+        return failedMessages.get();
+    }
+
+
+    /**
+     * Stop the scheduler.  Messages still queued are failed.
+     */
+    public void shutdown() {
+
+        shutdown = true;
+
+        synchronized (lock) {
+
+            for (StreamQueue streamQueue : streamQueues.values()) {
+                for (OutboundMessage outboundMessage : streamQueue.messages)
+                    outboundMessage.future.completeExceptionally(new MessagesException("Outbound message scheduler is shut down"));
+            }
+
+            streamQueues.clear();
+            readyStreams.clear();
+            queuedMessages.set(0);
+
+            lock.notifyAll();
+        }
+
+        sender.shutdown();
+
+        logger.info("Outbound message scheduler stopped");
+
+    }
+
+
+    private void schedule() {
+
+        long lastEviction = System.currentTimeMillis();
+
+        while (!shutdown) {
+
+            try {
+
+                synchronized (lock) {
+
+                    if (System.currentTimeMillis() - lastEviction > IDLE_WAIT_MILLIS) {
+                        evictIdleStreams();
+                        lastEviction = System.currentTimeMillis();
+                    }
+
+                    long waitNanos = nextMessage();
+
+                    if (waitNanos > 0)
+                        TimeUnit.NANOSECONDS.timedWait(lock, waitNanos);
+                }
+
+            } catch (InterruptedException e) {
+                logger.error("Interrupt.. ", e);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Outbound message scheduler failed", e);
+            }
+        }
+    }
+
+
+    /**
+     * Dispatch the next message allowed by the limits.  Must be called holding the lock.
+     *
+     * @return 0 if a message was dispatched, otherwise nanoseconds to wait before trying again
+     */
+    private long nextMessage() {
+
+        if (readyStreams.isEmpty())
+            return TimeUnit.MILLISECONDS.toNanos(IDLE_WAIT_MILLIS);
+
+        long waitNanos = globalBucket.nanosUntilAvailable();
+
+        if (waitNanos > 0)
+            return waitNanos;
+
+        waitNanos = TimeUnit.MILLISECONDS.toNanos(IDLE_WAIT_MILLIS);
+
+        //Round robin over the ready streams, skipping those out of tokens.
+        for (int i = readyStreams.size(); i > 0; i--) {
+
+            StreamQueue streamQueue = readyStreams.poll();
+
+            //Only consume the stream token once the global limit has allowed the send
+            if (streamQueue.bucket.nanosUntilAvailable() == 0 && globalBucket.tryAcquire()) {
+
+                streamQueue.bucket.tryAcquire();
+                streamQueue.ready = false;
+                streamQueue.inFlight = true;
+
+                dispatch(streamQueue, streamQueue.messages.poll());
+                return 0;
+            }
+
+            waitNanos = Math.min(waitNanos, streamQueue.bucket.nanosUntilAvailable());
+            readyStreams.add(streamQueue);
+        }
+
+        return waitNanos;
+    }
+
+
+    /**
+     * Forget streams which have been idle long enough to refill their bucket.  Must be called holding the lock.
+     */
+    private void evictIdleStreams() {
+
+        Iterator<StreamQueue> iterator = streamQueues.values().iterator();
+
+        while (iterator.hasNext()) {
+            StreamQueue streamQueue = iterator.next();
+
+            if (streamQueue.messages.isEmpty() && !streamQueue.inFlight && streamQueue.bucket.isFull())
+                iterator.remove();
+        }
+    }
+
+
+    private void dispatch(StreamQueue streamQueue, OutboundMessage outboundMessage) {
+
+        queuedMessages.decrementAndGet();
+
+        try {
+
+            sender.execute(() -> send(streamQueue, outboundMessage));
+
+        } catch (RejectedExecutionException e) {
+
+            failedMessages.incrementAndGet();
+            outboundMessage.future.completeExceptionally(new MessagesException("Outbound message sender rejected message", e));
+            release(streamQueue);
+        }
+    }
+
+
+    private void send(StreamQueue streamQueue, OutboundMessage outboundMessage) {
+
+        try {
+
+            SymMessage symMessage = outboundMessage.symAuth != null
+                    ? messagesClient.sendMessage(outboundMessage.stream, outboundMessage.message, outboundMessage.symAuth)
+                    : messagesClient.sendMessage(outboundMessage.stream, outboundMessage.message);
+
+            sentMessages.incrementAndGet();
+            outboundMessage.future.complete(symMessage);
+
+        } catch (MessagesException e) {
+
+            long retryAfter = retryAfter(e);
+
+            if (retryAfter >= 0 && outboundMessage.attempts++ < maxRetries) {
+
+                throttledMessages.incrementAndGet();
+                logger.warn("Agent throttled message to stream {}, pausing outbound messages for {} ms", streamQueue.streamId, retryAfter);
+
+                globalBucket.pauseFor(retryAfter);
+
+                synchronized (lock) {
+
+                    if (shutdown) {
+                        outboundMessage.future.completeExceptionally(e);
+                    } else {
+                        streamQueue.messages.addFirst(outboundMessage);
+                        queuedMessages.incrementAndGet();
+                    }
+                }
+
+            } else {
+
+                failedMessages.incrementAndGet();
+                outboundMessage.future.completeExceptionally(e);
+            }
+
+        } catch (RuntimeException e) {
+
+            failedMessages.incrementAndGet();
+            outboundMessage.future.completeExceptionally(e);
+
+        } finally {
+            release(streamQueue);
+        }
+    }
+
+
+    /**
+     * Message sent (or requeued), allow the next message on the stream.
+     */
+    private void release(StreamQueue streamQueue) {
+
+        synchronized (lock) {
+
+            streamQueue.inFlight = false;
+
+            if (shutdown)
+                return;
+
+            if (!streamQueue.messages.isEmpty())
+                markReady(streamQueue);
+
+            lock.notifyAll();
+        }
+    }
+
+
+    private void markReady(StreamQueue streamQueue) {
+
+        if (!streamQueue.inFlight && !streamQueue.ready) {
+            streamQueue.ready = true;
+            readyStreams.add(streamQueue);
+        }
+    }
+
+
+    /**
+     * @return Milliseconds to wait if the failure was caused by throttling, otherwise -1
+     */
+    private long retryAfter(Throwable e) {
+
+        boolean throttled = false;
+
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+
+            if (cause instanceof RestException && ((RestException) cause).getHttpStatus() == HTTP_TOO_MANY_REQUESTS)
+                throttled = true;
+
+            if (cause instanceof ApiException && ((ApiException) cause).getCode() == HTTP_TOO_MANY_REQUESTS) {
+
+                throttled = true;
+
+                Map<String, List<String>> headers = ((ApiException) cause).getResponseHeaders();
+
+                if (headers != null) {
+                    for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+
+                        if ("Retry-After".equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                            try {
+                                return TimeUnit.SECONDS.toMillis(Long.parseLong(header.getValue().get(0).trim()));
+                            } catch (NumberFormatException ex) {
+                                logger.debug("Unsupported Retry-After value {}", header.getValue().get(0));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return throttled ? retryWait : -1;
+    }
+
+
+    private SymMessage await(CompletableFuture<SymMessage> future) throws MessagesException {
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagesException("Interrupted waiting for outbound message", e);
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof MessagesException)
+                throw (MessagesException) e.getCause();
+
+            throw new MessagesException("Failed to send outbound message", e.getCause());
+        }
+    }
+
+
+    private class StreamQueue {
+
+        private final String streamId;
+        private final Deque<OutboundMessage> messages = new ArrayDeque<>();
+        private final TokenBucket bucket = new TokenBucket(streamRate, streamBurst);
+        private boolean inFlight;
+        private boolean ready;
+
+        StreamQueue(String streamId) {
+            this.streamId = streamId;
+        }
+    }
+
+
+    private static class OutboundMessage {
+
+        private final SymStream stream;
+        private final SymMessage message;
+        private final SymAuth symAuth;
+        private final CompletableFuture<SymMessage> future = new CompletableFuture<>();
+        private int attempts;
+
+        OutboundMessage(SymStream stream, SymMessage message, SymAuth symAuth) {
+            this.stream = stream;
+            this.message = message;
+            this.symAuth = symAuth;
+        }
+    }
+
+}
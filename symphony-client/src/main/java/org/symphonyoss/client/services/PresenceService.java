@@ -25,9 +25,11 @@ package org.symphonyoss.client.services;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.exceptions.PresenceException;
 import org.symphonyoss.client.exceptions.UsersClientException;
 import org.symphonyoss.client.model.CacheType;
+import org.symphonyoss.client.util.FeedPublisher;
 import org.symphonyoss.symphony.clients.model.SymPresence;
 import org.symphonyoss.symphony.clients.model.SymUser;
 
@@ -48,6 +50,8 @@ public class PresenceService implements PresenceFeedListener {
     private final SymphonyClient symClient;
     private PresenceWorker presenceWorker;
     private final Set<PresenceListener> presenceListeners = ConcurrentHashMap.newKeySet();
+    private final FeedPublisher<SymPresence> presencePublisher =
+            new FeedPublisher<>(Integer.parseInt(System.getProperty(Constants.FEED_PUBLISHER_BUFFER_SIZE, "256")));
     private final Logger logger = LoggerFactory.getLogger(PresenceService.class);
 
 
@@ -108,18 +112,39 @@ public class PresenceService implements PresenceFeedListener {
      */
     public void addPresenceListener(PresenceListener presenceListener) {
 
+        startPresenceWorker();
+
+        presenceListeners.add(presenceListener);
+
+    }
+
+
+    /**
+     * Publisher of presence events with Reactive Streams backpressure.  This will start the presence worker thread.
+     * Subscribers that stop requesting events throttle presence feed reads once their buffer
+     * ({@link Constants#FEED_PUBLISHER_BUFFER_SIZE}) is full.
+     *
+     * @return Presence event publisher
+     */
+    public FeedPublisher<SymPresence> getPresencePublisher() {
+
+        startPresenceWorker();
+
+        return presencePublisher;
+    }
+
+
+    private synchronized void startPresenceWorker() {
+
         if (presenceWorker == null) {
             logger.debug("Starting presence worker thread..");
 
             //Lets startup the worker thread to listen for raw datafeed messages
             presenceWorker = new PresenceWorker(symClient, this);
 
-            new Thread(presenceWorker, "PresenceWorker: " + symClient.getName()).start();
+            Workers.start(symClient, presenceWorker, "PresenceWorker");
 
         }
-
-        presenceListeners.add(presenceListener);
-
     }
 
     @SuppressWarnings("unused")
@@ -127,7 +152,7 @@ public class PresenceService implements PresenceFeedListener {
 
         presenceListeners.remove(presenceListener);
 
-        if (presenceListeners.isEmpty()) {
+        if (presenceListeners.isEmpty() && !presencePublisher.hasSubscribers() && presenceWorker != null) {
             presenceWorker.shutdown();
             presenceWorker = null;
 
@@ -140,6 +165,10 @@ public class PresenceService implements PresenceFeedListener {
     @Override
     public void onEvent(SymPresence symPresence) {
 
+        //Blocks the presence feed while subscribers have no room
+        if (presencePublisher.hasSubscribers())
+            presencePublisher.offer(symPresence);
+
         for (PresenceListener listener : presenceListeners) {
             listener.onEvent(symPresence);
 
@@ -158,6 +187,8 @@ public class PresenceService implements PresenceFeedListener {
             presenceWorker.shutdown();
             presenceWorker = null;
         }
+
+        presencePublisher.close();
     }
 
 
@@ -30,6 +30,7 @@ import org.symphonyoss.client.SymphonyClient;
 import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.events.SymEvent;
 import org.symphonyoss.client.exceptions.PresenceException;
+import org.symphonyoss.client.util.WorkerTask;
 import org.symphonyoss.symphony.agent.model.Datafeed;
 import org.symphonyoss.symphony.clients.model.ApiVersion;
 import org.symphonyoss.symphony.clients.model.SymPresence;
@@ -37,7 +38,6 @@ import org.symphonyoss.symphony.clients.model.SymPresenceFeed;
 import org.symphonyoss.symphony.clients.model.SymUserPresence;
 
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 /**
  * This thread will long-poll for Symphony base messages based on a specific BOT user identified through the
@@ -46,13 +46,14 @@ import java.util.concurrent.TimeUnit;
  *
  * @author Frank Tarsillo
  */
-class PresenceWorker implements Runnable {
+class PresenceWorker implements WorkerTask {
 
     private final PresenceFeedListener presenceFeedListener;
     private final SymphonyClient symClient;
+    private final FeedRecoveryPolicy recoveryPolicy;
     private final Logger logger = LoggerFactory.getLogger(PresenceWorker.class);
     private SymPresenceFeed symPresenceFeed;
-    private boolean shutdown;
+    private volatile boolean shutdown;
 
 
     /**
@@ -64,81 +65,75 @@ class PresenceWorker implements Runnable {
     public PresenceWorker(SymphonyClient symClient, PresenceFeedListener presenceFeedListener) {
         this.symClient = symClient;
         this.presenceFeedListener = presenceFeedListener;
+        this.recoveryPolicy = FeedRecoveryPolicy.fromProperties("presencefeed", Constants.PRESENCEFEED_RECOVERY_WAIT_TIME,
+                symClient.getMetricsRegistry());
 
 
     }
 
     @Override
-    public void run() {
+    public long runOnce() {
 
+        //Make sure its active
+        if (symPresenceFeed == null) {
 
+            long wait = initDatafeed();
 
-        while (!shutdown) {
-
-            //Make sure its active
-            initDatafeed();
-
-            //Poll it
-            readPresenceFeed();
+            if (wait > 0)
+                return wait;
+        }
 
+        //Poll it
+        return readPresenceFeed();
 
-        }
+    }
 
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
     }
 
 
     /**
      * Create or restore an instance of the {@link Datafeed}
+     *
+     * @return Milliseconds to wait before retrying, 0 if the presence feed was created
      */
-    private void initDatafeed() {
-
+    private long initDatafeed() {
 
-        while (symPresenceFeed == null) {
-            try {
-                logger.info("Creating datafeed with pod...");
-
-                symPresenceFeed = symClient.getPresenceClient().createPresenceFeed();
-
-                break;
-            } catch (Exception e) {
+        try {
+            logger.info("Creating datafeed with pod...");
 
+            symPresenceFeed = symClient.getPresenceClient().createPresenceFeed();
 
-                logger.error("Failed to create presence feed with pod, please check connection..", e);
-                symPresenceFeed = null;
+            return 0;
+        } catch (Exception e) {
 
-                //Can use properties to override default time wait
-                try {
 
-                    TimeUnit.SECONDS.sleep(
-                            Long.valueOf(System.getProperty(Constants.PRESENCEFEED_RECOVERY_WAIT_TIME, "5"))
-                    );
-                } catch (InterruptedException e1) {
-                    logger.error("Interrupt.. ", e1);
-                    Thread.currentThread().interrupt();
-                }
+            logger.error("Failed to create presence feed with pod, please check connection..", e);
+            symPresenceFeed = null;
 
-            }
+            return recoveryPolicy.onFailure();
 
         }
 
-
     }
 
     /**
+     * Reads presence updates and publishes them through {@link PresenceFeedListener}
      *
+     * @return Milliseconds to wait before the next read
      */
-    private void readPresenceFeed() {
+    private long readPresenceFeed() {
 
-        try {
+        List<SymPresence> symPresences;
 
+        try {
 
-            List<SymPresence> symPresences = symClient.getPresenceClient().getPresenceFeedUpdates(symPresenceFeed);
-
-            if (symPresences != null) {
 
-                symPresences.forEach(presenceFeedListener::onEvent);
+            symPresences = symClient.getPresenceClient().getPresenceFeedUpdates(symPresenceFeed);
 
-            }
+            recoveryPolicy.onSuccess();
 
 
         } catch (Exception e) {
@@ -152,21 +147,25 @@ class PresenceWorker implements Runnable {
             }
             symPresenceFeed = null;
 
-            //Can use properties to override default time wait
-            try {
+            return recoveryPolicy.onFailure();
 
-                TimeUnit.SECONDS.sleep(
-                        Long.valueOf(System.getProperty(Constants.PRESENCEFEED_RECOVERY_WAIT_TIME, "5"))
-                );
-            } catch (InterruptedException e1) {
-                logger.error("Interrupt.. ", e1);
-                Thread.currentThread().interrupt();
-            }
+        }
 
+        //Listener failures are handled per update, they are not presence feed failures
+        if (symPresences != null) {
 
+            for (SymPresence symPresence : symPresences) {
+                try {
+                    presenceFeedListener.onEvent(symPresence);
+                } catch (RuntimeException e) {
+                    logger.error("Listener failed to process presence update", e);
+                }
+            }
 
         }
 
+        return 0;
+
     }
 
     public void shutdown() {
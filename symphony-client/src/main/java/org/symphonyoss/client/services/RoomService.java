@@ -25,20 +25,23 @@ package org.symphonyoss.client.services;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.events.*;
 import org.symphonyoss.client.exceptions.RoomException;
 import org.symphonyoss.client.exceptions.StreamsException;
 import org.symphonyoss.client.exceptions.SymException;
 import org.symphonyoss.client.model.Room;
+import org.symphonyoss.client.util.Registries;
 import org.symphonyoss.symphony.clients.model.SymMessage;
 import org.symphonyoss.symphony.clients.model.SymRoomAttributes;
 import org.symphonyoss.symphony.clients.model.SymRoomDetail;
 import org.symphonyoss.symphony.clients.model.SymStream;
 import org.symphonyoss.symphony.pod.model.Stream;
 
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 /**
  * The room service provides capabilities that support room access and events.  The running service will construct
@@ -49,17 +52,31 @@ import java.util.concurrent.ConcurrentHashMap;
  * creation of the room object, but not the monitoring of it by the service.  You must explicitly join a room (register
  * with the RoomService) in order to receive individual room events.
  * <p>
+ * Room events are routed by stream ID to the listeners of the matching registered room only.  Listeners added through
+ * {@link #addGlobalRoomEventListener(RoomEventListener)} receive the events of every room, registered or not.
+ * <p>
+ * Rooms detected from messages can be bounded with {@link Constants#ROOMSERVICE_MAX_ROOMS} and
+ * {@link Constants#ROOMSERVICE_IDLE_EXPIRY}.  Evicted rooms are published through
+ * {@link RoomServiceEventListener#onRemovedRoom(Room)} and a message arriving on an evicted stream registers a new
+ * room.  Rooms registered with {@link #joinRoom(Room)}, and detected rooms which have event listeners when they would
+ * be evicted, are kept until the client is shut down so their listeners keep receiving events.
+ * <p>
  *
  * @author Frank Tarsillo
  */
 public class RoomService implements RoomServiceEventListener {
 
 
-    private final ConcurrentHashMap<String, Room> roomsByStream = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Room> roomsByStream = Registries.newRegistry(
+            Long.parseLong(System.getProperty(Constants.ROOMSERVICE_MAX_ROOMS, "0")),
+            Long.parseLong(System.getProperty(Constants.ROOMSERVICE_IDLE_EXPIRY, "0")),
+            (streamId, room) -> onEvictedRoom(room));
+    private final ConcurrentMap<String, Room> joinedRooms = new ConcurrentHashMap<>();
 
     private final SymphonyClient symClient;
     private final Logger logger = LoggerFactory.getLogger(RoomService.class);
     private final Set<RoomServiceEventListener> roomServiceEventListeners = ConcurrentHashMap.newKeySet();
+    private final Set<RoomEventListener> globalRoomEventListeners = ConcurrentHashMap.newKeySet();
 
 
     /**
@@ -131,7 +148,7 @@ public class RoomService implements RoomServiceEventListener {
      */
     public Room getRoom(String streamId) {
 
-        return roomsByStream.get(streamId);
+        return registeredRoom(streamId);
     }
 
 
@@ -144,7 +161,7 @@ public class RoomService implements RoomServiceEventListener {
      */
     public Room getRoom(SymStream symStream) {
 
-        return roomsByStream.get(symStream.getStreamId());
+        return registeredRoom(symStream.getStreamId());
     }
 
     /**
@@ -157,6 +174,20 @@ public class RoomService implements RoomServiceEventListener {
      */
     public void joinRoom(Room room) throws RoomException {
 
+        registerRoom(room, true);
+
+    }
+
+
+    /**
+     * Refresh the room details and register the room.
+     *
+     * @param room   Room to register
+     * @param joined True if explicitly joined, which exempts the room from eviction
+     * @throws RoomException Caused by room details that prevent logical monitoring of the room object
+     */
+    private void registerRoom(Room room, boolean joined) throws RoomException {
+
         if (room.getStream() == null || room.getStreamId() == null || room.getId() == null)
             throw new RoomException("Room is not fully defined.  Check ID and stream ID");
 
@@ -166,7 +197,12 @@ public class RoomService implements RoomServiceEventListener {
             room.setRoomDetail(symClient.getStreamsClient().getRoomDetail(room.getStreamId()));
 
             //Register room object to internal cache
-            roomsByStream.put(room.getStreamId(), room);
+            if (joined) {
+                joinedRooms.put(room.getStreamId(), room);
+                roomsByStream.remove(room.getStreamId());
+            } else {
+                roomsByStream.put(room.getStreamId(), room);
+            }
 
 
         } catch (StreamsException e) {
@@ -193,7 +229,7 @@ public class RoomService implements RoomServiceEventListener {
         try {
 
             //Automatically register new room events
-            if (roomsByStream.get(symMessage.getStreamId()) == null) {
+            if (registeredRoom(symMessage.getStreamId()) == null) {
                 addRoom(symMessage.getStreamId());
             }
 
@@ -205,12 +241,15 @@ public class RoomService implements RoomServiceEventListener {
 
             }
 
-            Room room = roomsByStream.get(symMessage.getStreamId());
+            Room room = registeredRoom(symMessage.getStreamId());
 
             //Publish a message event to a room
             if (room != null)
                 room.onRoomMessage(symMessage);
 
+            for (RoomEventListener roomEventListener : globalRoomEventListeners)
+                roomEventListener.onRoomMessage(symMessage);
+
 
         } catch (RoomException e) {
             logger.error("Unable to add new room from message: ", e);
@@ -220,87 +259,56 @@ public class RoomService implements RoomServiceEventListener {
     @Override
     public void onSymRoomDeactivated(SymRoomDeactivated symRoomDeactivated) {
 
-        for (Map.Entry<String, Room> entry : roomsByStream.entrySet()) {
-
-            for (RoomEventListener roomEventListener : entry.getValue().getRoomEventListeners())
-                roomEventListener.onSymRoomDeactivated(symRoomDeactivated);
-
-        }
+        publish(symRoomDeactivated.getStream(),
+                roomEventListener -> roomEventListener.onSymRoomDeactivated(symRoomDeactivated));
 
     }
 
     @Override
     public void onSymRoomMemberDemotedFromOwner(SymRoomMemberDemotedFromOwner symRoomMemberDemotedFromOwner) {
 
-        for (Map.Entry<String, Room> entry : roomsByStream.entrySet()) {
-
-            for (RoomEventListener roomEventListener : entry.getValue().getRoomEventListeners())
-                roomEventListener.onSymRoomMemberDemotedFromOwner(symRoomMemberDemotedFromOwner);
-
-
-        }
+        publish(symRoomMemberDemotedFromOwner.getStream(),
+                roomEventListener -> roomEventListener.onSymRoomMemberDemotedFromOwner(symRoomMemberDemotedFromOwner));
 
     }
 
     @Override
     public void onSymRoomMemberPromotedToOwner(SymRoomMemberPromotedToOwner symRoomMemberPromotedToOwner) {
-        for (Map.Entry<String, Room> entry : roomsByStream.entrySet()) {
 
-            for (RoomEventListener roomEventListener : entry.getValue().getRoomEventListeners())
-                roomEventListener.onSymRoomMemberPromotedToOwner(symRoomMemberPromotedToOwner);
+        publish(symRoomMemberPromotedToOwner.getStream(),
+                roomEventListener -> roomEventListener.onSymRoomMemberPromotedToOwner(symRoomMemberPromotedToOwner));
 
-
-        }
     }
 
     @Override
     public void onSymRoomReactivated(SymRoomReactivated symRoomReactivated) {
 
-        for (Map.Entry<String, Room> entry : roomsByStream.entrySet()) {
-
-            for (RoomEventListener roomEventListener : entry.getValue().getRoomEventListeners())
-                roomEventListener.onSymRoomReactivated(symRoomReactivated);
-
-
-        }
+        publish(symRoomReactivated.getStream(),
+                roomEventListener -> roomEventListener.onSymRoomReactivated(symRoomReactivated));
 
     }
 
     @Override
     public void onSymRoomUpdated(SymRoomUpdated symRoomUpdated) {
 
-        for (Map.Entry<String, Room> entry : roomsByStream.entrySet()) {
-
-            for (RoomEventListener roomEventListener : entry.getValue().getRoomEventListeners())
-                roomEventListener.onSymRoomUpdated(symRoomUpdated);
-
-
-        }
+        publish(symRoomUpdated.getStream(),
+                roomEventListener -> roomEventListener.onSymRoomUpdated(symRoomUpdated));
 
     }
 
     @Override
     public void onSymUserJoinedRoom(SymUserJoinedRoom symUserJoinedRoom) {
 
-        for (Map.Entry<String, Room> entry : roomsByStream.entrySet()) {
-            for (RoomEventListener roomEventListener : entry.getValue().getRoomEventListeners())
-                roomEventListener.onSymUserJoinedRoom(symUserJoinedRoom);
-
-
-        }
+        publish(symUserJoinedRoom.getStream(),
+                roomEventListener -> roomEventListener.onSymUserJoinedRoom(symUserJoinedRoom));
 
     }
 
     @Override
     public void onSymUserLeftRoom(SymUserLeftRoom symUserLeftRoom) {
 
-        for (Map.Entry<String, Room> entry : roomsByStream.entrySet()) {
-
-            for (RoomEventListener roomEventListener : entry.getValue().getRoomEventListeners())
-                roomEventListener.onSymUserLeftRoom(symUserLeftRoom);
-
-
-        }
+        publish(symUserLeftRoom.getStream(),
+                roomEventListener -> roomEventListener.onSymUserLeftRoom(symUserLeftRoom));
 
     }
 
@@ -315,6 +323,30 @@ public class RoomService implements RoomServiceEventListener {
     }
 
 
+    /**
+     * Publish a room event to the listeners of the room registered for the stream and to all global listeners.
+     *
+     * @param symStream Stream of the event
+     * @param event     Callback to invoke on each listener
+     */
+    private void publish(SymStream symStream, Consumer<RoomEventListener> event) {
+
+        Room room = null;
+
+        if (symStream != null && symStream.getStreamId() != null)
+            room = registeredRoom(symStream.getStreamId());
+
+        if (room != null) {
+            for (RoomEventListener roomEventListener : room.getRoomEventListeners())
+                event.accept(roomEventListener);
+        }
+
+        for (RoomEventListener roomEventListener : globalRoomEventListeners)
+            event.accept(roomEventListener);
+
+    }
+
+
     /**
      * Add a room to the service
      *
@@ -331,11 +363,44 @@ public class RoomService implements RoomServiceEventListener {
         room.setStream(stream);
         room.setId(stream.getId());
 
-        joinRoom(room);
+        registerRoom(room, false);
 
         onNewRoom(room);
     }
 
+
+    /**
+     * @param streamId Stream ID of the room
+     * @return Joined or detected room registered for the stream, null if none
+     */
+    private Room registeredRoom(String streamId) {
+
+        if (streamId == null)
+            return null;
+
+        Room room = joinedRooms.get(streamId);
+
+        return (room != null) ? room : roomsByStream.get(streamId);
+    }
+
+
+    /**
+     * Callback from the bounded registry when a detected room is evicted for size or idle time.  Rooms the
+     * application added listeners to are moved to the joined rooms instead of being dropped.
+     *
+     * @param room Evicted room
+     */
+    private void onEvictedRoom(Room room) {
+
+        if (!room.getRoomEventListeners().isEmpty()) {
+            logger.debug("Keeping evicted room with listeners on stream {}", room.getStreamId());
+            joinedRooms.putIfAbsent(room.getStreamId(), room);
+            return;
+        }
+
+        onRemovedRoom(room);
+    }
+
     /**
      * Publish new room objects based on detection and/or registration to the service
      *
@@ -350,6 +415,21 @@ public class RoomService implements RoomServiceEventListener {
     }
 
 
+    /**
+     * Publish rooms evicted from the service registry
+     *
+     * @param room Room object no longer registered
+     */
+    @Override
+    public void onRemovedRoom(Room room) {
+
+        logger.debug("Evicted idle room on stream {}", room.getStreamId());
+
+        for (RoomServiceEventListener roomServiceEventListener : roomServiceEventListeners)
+            roomServiceEventListener.onRemovedRoom(room);
+    }
+
+
     public void addRoomServiceEventListener(RoomServiceEventListener roomServiceEventListener) {
         roomServiceEventListeners.add(roomServiceEventListener);
     }
@@ -358,4 +438,20 @@ public class RoomService implements RoomServiceEventListener {
     public void removeRoomServiceEventListener(RoomServiceEventListener roomServiceEventListener) {
         roomServiceEventListeners.remove(roomServiceEventListener);
     }
+
+
+    /**
+     * Register a listener receiving messages and events of every room, including rooms not registered with the
+     * service.
+     *
+     * @param roomEventListener Listener to add
+     */
+    public void addGlobalRoomEventListener(RoomEventListener roomEventListener) {
+        globalRoomEventListeners.add(roomEventListener);
+    }
+
+
+    public void removeGlobalRoomEventListener(RoomEventListener roomEventListener) {
+        globalRoomEventListeners.remove(roomEventListener);
+    }
 }
@@ -53,4 +53,12 @@ public interface RoomServiceEventListener {
     void onSymUserLeftRoom(SymUserLeftRoom symUserLeftRoom);
 
     void onSymRoomCreated(SymRoomCreated symRoomCreated);
+
+    /**
+     * Called when a room is evicted from a bounded {@link RoomService} registry
+     *
+     * @param room Room no longer registered with the service
+     */
+    default void onRemovedRoom(Room room) {
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.exceptions.DataFeedException;
+import org.symphonyoss.symphony.clients.FirehoseClient;
+import org.symphonyoss.symphony.clients.model.SymFirehose;
+
+/**
+ * Firehose shared by one or more {@link FirehoseWorker} readers.  The firehose is created on first use and recreated
+ * after a reader reports it as failed.
+ *
+ * @author Frank Tarsillo
+ */
+class SharedFirehose {
+
+    private final FirehoseClient firehoseClient;
+    private final Logger logger = LoggerFactory.getLogger(SharedFirehose.class);
+    private SymFirehose symFirehose;
+
+
+    /**
+     * @param firehoseClient Firehose client
+     */
+    SharedFirehose(FirehoseClient firehoseClient) {
+        this.firehoseClient = firehoseClient;
+    }
+
+
+    /**
+     * @return Current firehose, created if required
+     * @throws DataFeedException Failure to create the firehose
+     */
+    synchronized SymFirehose get() throws DataFeedException {
+
+        if (symFirehose == null) {
+            logger.info("Creating symFirehose with pod...");
+
+            symFirehose = firehoseClient.createFirehose();
+        }
+
+        return symFirehose;
+    }
+
+
+    /**
+     * Drop the firehose after a read failure so the next reader creates a new one.  Ignored if another reader has
+     * already replaced it.
+     *
+     * @param failed Firehose the read failed on
+     */
+    synchronized void reset(SymFirehose failed) {
+
+        if (symFirehose == failed)
+            symFirehose = null;
+    }
+
+}
@@ -29,6 +29,9 @@ import org.symphonyoss.client.SymphonyClient;
 import org.symphonyoss.client.exceptions.UsersClientException;
 import org.symphonyoss.symphony.clients.model.SymUser;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -80,6 +83,54 @@ public interface SymUserCache extends SymCache {
     Set<SymUser> getUsersByStream(String streamId) throws UsersClientException;
 
 
+    /**
+     * Get multiple SymUsers by user ID through cache.  Users that cannot be found are omitted.
+     * <p>
+     * Implementations should resolve cache misses in bulk.  The default implementation looks up users one by one.
+     *
+     * @param ids UserIDs of users
+     * @return Map of user ID to {@link SymUser }
+     * @throws UsersClientException Exception from underlying API
+     */
+    default Map<Long, SymUser> getUsersByIds(Collection<Long> ids) throws UsersClientException {
+
+        Map<Long, SymUser> symUsers = new LinkedHashMap<>();
+
+        for (Long id : ids) {
+            SymUser symUser = getUserById(id);
+
+            if (symUser != null)
+                symUsers.put(id, symUser);
+        }
+
+        return symUsers;
+    }
+
+
+    /**
+     * Get multiple SymUsers by email address through cache.  Users that cannot be found are omitted.
+     * <p>
+     * Implementations should resolve cache misses in bulk.  The default implementation looks up users one by one.
+     *
+     * @param emails Email addresses of users
+     * @return Map of lower case email address to {@link SymUser }
+     * @throws UsersClientException Exception from underlying API
+     */
+    default Map<String, SymUser> getUsersByEmails(Collection<String> emails) throws UsersClientException {
+
+        Map<String, SymUser> symUsers = new LinkedHashMap<>();
+
+        for (String email : emails) {
+            SymUser symUser = getUserByEmail(email);
+
+            if (symUser != null)
+                symUsers.put(email.toLowerCase(), symUser);
+        }
+
+        return symUsers;
+    }
+
+
     void setSymphonyClient(SymphonyClient symphonyClient);
 
 
@@ -0,0 +1,58 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.util.ClientThreads;
+import org.symphonyoss.client.util.SharedWorkerScheduler;
+import org.symphonyoss.client.util.WorkerTask;
+
+/**
+ * Starts service workers on the client's {@link SharedWorkerScheduler} if one is set, otherwise on a dedicated thread
+ * from the client thread factory.
+ *
+ * @author Frank Tarsillo
+ */
+final class Workers {
+
+    private Workers() {
+    }
+
+
+    /**
+     * @param symClient  Client owning the worker
+     * @param workerTask Worker to start
+     * @param name       Worker name, used for the dedicated thread name
+     */
+    static void start(SymphonyClient symClient, WorkerTask workerTask, String name) {
+
+        SharedWorkerScheduler workerScheduler = symClient.getWorkerScheduler();
+
+        if (workerScheduler != null) {
+            workerScheduler.schedule(symClient.getName(), workerTask);
+        } else {
+            ClientThreads.newThread(symClient.getThreadFactory(), workerTask, name + ": " + symClient.getName()).start();
+        }
+    }
+
+}
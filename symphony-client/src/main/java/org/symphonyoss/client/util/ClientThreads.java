@@ -0,0 +1,170 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.common.Constants;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories used by the client for feed workers, listener dispatch and REST call pools.
+ * <p>
+ * {@link Constants#CLIENT_THREAD_MODE} selects {@code platform} (default) or {@code virtual} threads.  Virtual threads
+ * are created through reflection so the library still runs on Java 8; if the running JDK does not support them the
+ * client falls back to platform threads.  Custom factories can be provided through
+ * {@link org.symphonyoss.client.SymphonyClient#setThreadFactory(ThreadFactory)}.
+ *
+ * @author Frank Tarsillo
+ */
+public final class ClientThreads {
+
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientThreads.class);
+
+    private ClientThreads() {
+    }
+
+
+    /**
+     * @return Thread factory selected by {@link Constants#CLIENT_THREAD_MODE}
+     */
+    public static ThreadFactory fromProperties() {
+
+        String mode = System.getProperty(Constants.CLIENT_THREAD_MODE, PLATFORM);
+
+        if (VIRTUAL.equalsIgnoreCase(mode)) {
+
+            if (isVirtualThreadSupported())
+                return virtualThreadFactory();
+
+            logger.warn("Virtual threads are not supported by this JVM ({}), using platform threads",
+                    System.getProperty("java.version"));
+
+        } else if (!PLATFORM.equalsIgnoreCase(mode)) {
+            logger.warn("Unknown thread mode [{}], using platform threads", mode);
+        }
+
+        return platformThreadFactory();
+    }
+
+
+    /**
+     * @return Factory creating platform threads
+     */
+    public static ThreadFactory platformThreadFactory() {
+        return Executors.defaultThreadFactory();
+    }
+
+
+    /**
+     * @return True if the running JVM can create virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * @return Factory creating virtual threads
+     * @throws UnsupportedOperationException If the running JVM does not support virtual threads
+     */
+    public static ThreadFactory virtualThreadFactory() {
+
+        try {
+
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Method factory = ofVirtual.getReturnType().getMethod("factory");
+
+            return (ThreadFactory) factory.invoke(builder);
+
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM", e);
+        }
+    }
+
+
+    /**
+     * Create an unstarted thread with the given name.
+     *
+     * @param threadFactory Factory creating the thread, null for platform threads
+     * @param task          Task to run
+     * @param name          Thread name
+     * @return New thread
+     */
+    public static Thread newThread(ThreadFactory threadFactory, Runnable task, String name) {
+
+        Thread thread = threadFactory != null ? threadFactory.newThread(task) : new Thread(task);
+        thread.setName(name);
+
+        return thread;
+    }
+
+
+    /**
+     * Wrap a factory so threads are named {@code prefix-n: suffix} and optionally marked as daemon.  Virtual threads
+     * are always daemon threads.
+     *
+     * @param threadFactory Factory creating the threads, null for platform threads
+     * @param prefix        Name prefix
+     * @param suffix        Name suffix, usually the client name
+     * @param daemon        True to create daemon threads
+     * @return Naming thread factory
+     */
+    public static ThreadFactory named(ThreadFactory threadFactory, String prefix, String suffix, boolean daemon) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        return task -> {
+
+            Thread thread = newThread(threadFactory, task, prefix + "-" + threadCount.incrementAndGet() + ": " + suffix);
+
+            if (thread.isDaemon() != daemon && !isVirtual(thread))
+                thread.setDaemon(daemon);
+
+            return thread;
+        };
+    }
+
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,290 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reactive Streams {@link Publisher} for feed events (datafeed, firehose, presence).
+ * <p>
+ * Each subscriber gets its own bounded buffer.  Items are delivered while the subscriber has outstanding demand, on
+ * the feed thread or on the thread calling {@link Subscription#request(long)}.  When a subscriber's buffer is full,
+ * {@link #offer(Object)} blocks the feed until the subscriber requests more or cancels, so a slow consumer throttles
+ * polling instead of piling up events.  A subscriber that never requests will therefore stall the feed until the
+ * publisher is closed.
+ * <p>
+ * On JDK 9+ use {@code org.reactivestreams.FlowAdapters} to obtain a {@code java.util.concurrent.Flow.Publisher}.
+ *
+ * @param <T> Item type
+ * @author Frank Tarsillo
+ */
+public class FeedPublisher<T> implements Publisher<T> {
+
+    private final int bufferSize;
+    private final Set<FeedSubscription> subscriptions = new CopyOnWriteArraySet<>();
+    private final Logger logger = LoggerFactory.getLogger(FeedPublisher.class);
+    private volatile boolean closed;
+
+
+    /**
+     * @param bufferSize Items buffered per subscriber before the feed is blocked
+     */
+    public FeedPublisher(int bufferSize) {
+
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Buffer size must be greater than zero");
+
+        this.bufferSize = bufferSize;
+    }
+
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+
+        if (subscriber == null)
+            throw new NullPointerException("Subscriber was not provided..");
+
+        FeedSubscription subscription = new FeedSubscription(subscriber);
+
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+
+        if (closed)
+            subscription.complete();
+
+    }
+
+
+    /**
+     * Publish an item to all subscribers, blocking while any subscriber's buffer is full.  If interrupted the item is
+     * not delivered to the remaining subscribers and the interrupt flag is restored.  Items offered once the
+     * publisher is closed are dropped.
+     *
+     * @param item Item to publish
+     */
+    public void offer(T item) {
+
+        if (item == null)
+            throw new NullPointerException("Item was not provided..");
+
+        if (closed)
+            return;
+
+        try {
+
+            for (FeedSubscription subscription : subscriptions)
+                subscription.offer(item);
+
+        } catch (InterruptedException e) {
+            logger.error("Interrupted while waiting for subscriber demand", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * @return True if there is at least one active subscriber
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+
+    /**
+     * @return Number of active subscribers
+     */
+    public int getSubscribers() {
+        return subscriptions.size();
+    }
+
+
+    /**
+     * @return Number of items buffered across all subscribers
+     */
+    public int getBufferedItems() {
+
+        int buffered = 0;
+
+        for (FeedSubscription subscription : subscriptions)
+            buffered += subscription.size();
+
+        return buffered;
+    }
+
+
+    /**
+     * Complete all subscribers once their buffered items are delivered.  Later subscribers are completed immediately.
+     * A feed thread blocked in {@link #offer(Object)} is released and its item dropped.
+     */
+    public void close() {
+
+        closed = true;
+
+        for (FeedSubscription subscription : subscriptions)
+            subscription.complete();
+    }
+
+
+    private class FeedSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+        private final Queue<T> buffer = new ArrayDeque<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile boolean done;
+
+
+        FeedSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+
+        @Override
+        public void request(long n) {
+
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested items must be positive (rule 3.9): " + n));
+                return;
+            }
+
+            //Demand is capped at Long.MAX_VALUE, which means unbounded
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+
+        @Override
+        public void cancel() {
+
+            cancelled = true;
+            subscriptions.remove(this);
+
+            synchronized (this) {
+                buffer.clear();
+                notifyAll();
+            }
+        }
+
+
+        void offer(T item) throws InterruptedException {
+
+            synchronized (this) {
+
+                while (buffer.size() >= bufferSize && !cancelled && !done)
+                    wait();
+
+                if (cancelled || done)
+                    return;
+
+                buffer.add(item);
+            }
+
+            drain();
+        }
+
+
+        void complete() {
+
+            synchronized (this) {
+                done = true;
+
+                //Release a feed thread waiting for buffer space
+                notifyAll();
+            }
+
+            drain();
+        }
+
+
+        synchronized int size() {
+            return buffer.size();
+        }
+
+
+        private synchronized T poll() {
+
+            T item = buffer.poll();
+
+            if (item != null)
+                notifyAll();
+
+            return item;
+        }
+
+
+        /**
+         * Only one thread delivers at a time.  Calls made while delivering (ex. request(n) from onNext) are picked up
+         * by the delivering thread instead of recursing.
+         */
+        private void drain() {
+
+            if (wip.getAndIncrement() != 0)
+                return;
+
+            int missed = 1;
+
+            do {
+
+                while (!cancelled && demand.get() > 0) {
+
+                    T item = poll();
+
+                    if (item == null)
+                        break;
+
+                    demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+
+                    try {
+                        subscriber.onNext(item);
+                    } catch (RuntimeException e) {
+                        logger.error("Subscriber failed processing feed item, cancelling subscription", e);
+                        cancel();
+                    }
+                }
+
+                if (!cancelled && done && size() == 0) {
+                    cancelled = true;
+                    subscriptions.remove(this);
+                    subscriber.onComplete();
+                }
+
+                missed = wip.addAndGet(-missed);
+
+            } while (missed != 0);
+        }
+    }
+
+}
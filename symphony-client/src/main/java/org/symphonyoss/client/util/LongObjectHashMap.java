@@ -0,0 +1,260 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Hash map from primitive {@code long} keys to objects, using open addressing with linear probing.
+ * <p>
+ * Keys are stored in a {@code long[]} and values in a parallel array, so there is no boxed key or entry object per
+ * mapping.  Removal shifts following entries back, so there are no tombstones.  Null values are not supported.
+ * <p>
+ * Not thread safe.
+ *
+ * @param <V> Value type
+ * @author Frank Tarsillo
+ */
+public class LongObjectHashMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int resizeAt;
+
+
+    public LongObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+
+    /**
+     * @param expectedSize Number of mappings to size the map for
+     */
+    public LongObjectHashMap(int expectedSize) {
+
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Expected size must not be negative");
+
+        allocate(capacityFor(expectedSize));
+    }
+
+
+    /**
+     * @param key Key
+     * @return Value mapped to the key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+
+        int mask = keys.length - 1;
+
+        for (int i = index(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return (V) values[i];
+        }
+
+        return null;
+    }
+
+
+    /**
+     * @param key Key
+     * @return True if the key is mapped
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+
+    /**
+     * @param key   Key
+     * @param value Value, not null
+     * @return Value previously mapped to the key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+
+        if (value == null)
+            throw new NullPointerException("Value was not provided..");
+
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+
+        for (; values[i] != null; i = (i + 1) & mask) {
+
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+
+        if (++size > resizeAt)
+            rehash(keys.length << 1);
+
+        return null;
+    }
+
+
+    /**
+     * @param key Key
+     * @return Value previously mapped to the key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+
+        int mask = keys.length - 1;
+
+        for (int i = index(key, mask); values[i] != null; i = (i + 1) & mask) {
+
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                shiftBack(i, mask);
+                size--;
+                return previous;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * @return Number of mappings
+     */
+    public int size() {
+        return size;
+    }
+
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * Remove all mappings, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+
+    /**
+     * @param action Action called for every value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+
+        for (Object value : values) {
+            if (value != null)
+                action.accept((V) value);
+        }
+    }
+
+
+    /**
+     * @return Number of slots, for memory accounting
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+
+    /**
+     * Close the gap left at a removed slot by moving back entries of the same probe sequence.
+     */
+    private void shiftBack(int gap, int mask) {
+
+        for (int i = (gap + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+
+            int home = index(keys[i], mask);
+
+            //Move the entry if its home slot is not between the gap and its current slot (cyclically)
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+
+        values[gap] = null;
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity) {
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        allocate(capacity);
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null)
+                put(oldKeys[i], (V) oldValues[i]);
+        }
+    }
+
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        resizeAt = capacity / 4 * 3;
+    }
+
+
+    private static int capacityFor(int expectedSize) {
+
+        long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / 0.75) + 1);
+
+        if (needed > 1 << 30)
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+
+    private static int index(long key, int mask) {
+
+        //Murmur3 finalizer, spreads sequential user IDs across the table
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+
+        return (int) h & mask;
+    }
+
+}
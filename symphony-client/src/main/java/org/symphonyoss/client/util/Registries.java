@@ -0,0 +1,76 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Builds the stream keyed registries used by the services.
+ * <p>
+ * Without limits the registry is a plain {@link ConcurrentHashMap} and grows for the life of the client.  With a
+ * maximum size or idle expiry the registry is backed by a Guava cache, which evicts the least recently used entries
+ * and notifies the eviction callback.  Explicit removals do not trigger the callback.
+ *
+ * @author Frank Tarsillo
+ */
+public final class Registries {
+
+    private Registries() {
+    }
+
+
+    /**
+     * @param maxSize    Maximum number of entries, 0 for no limit
+     * @param idleExpiry Seconds an entry may go unused before it is evicted, 0 for no expiry
+     * @param onEvicted  Callback receiving evicted entries, invoked on the thread that triggered the eviction
+     * @param <K>        Key type
+     * @param <V>        Value type
+     * @return Concurrent registry
+     */
+    public static <K, V> ConcurrentMap<K, V> newRegistry(long maxSize, long idleExpiry, BiConsumer<K, V> onEvicted) {
+
+        if (maxSize <= 0 && idleExpiry <= 0)
+            return new ConcurrentHashMap<>();
+
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+
+        if (maxSize > 0)
+            cacheBuilder.maximumSize(maxSize);
+
+        if (idleExpiry > 0)
+            cacheBuilder.expireAfterAccess(idleExpiry, TimeUnit.SECONDS);
+
+        return cacheBuilder.<K, V>removalListener(notification -> {
+
+            if (notification.wasEvicted() && onEvicted != null)
+                onEvicted.accept(notification.getKey(), notification.getValue());
+
+        }).build().asMap();
+    }
+
+}
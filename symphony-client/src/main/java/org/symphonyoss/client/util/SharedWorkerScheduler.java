@@ -0,0 +1,294 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.common.Constants;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiplexes the workers of many clients (feed long-polls, connection polls, auth refreshes) onto a small shared pool.
+ * <p>
+ * Tasks are queued per owner (the client name) and the pool serves owners round-robin, one task at a time, so a busy
+ * client cannot starve the others.  Waits between worker iterations and periodic tasks are tracked by a single timer
+ * thread and do not hold a pool thread.
+ * <p>
+ * A long-poll holds a pool thread while it waits on the server.  Size the pool for the number of feeds that should
+ * be polled at the same time, or use virtual threads ({@link Constants#CLIENT_THREAD_MODE}) where a blocked poll
+ * costs almost nothing.
+ * <p>
+ * Share one instance across clients with {@link org.symphonyoss.client.SymphonyClient#setWorkerScheduler(SharedWorkerScheduler)}
+ * before they are initialized.  The scheduler is not shutdown by the clients.
+ *
+ * @author Frank Tarsillo
+ */
+public class SharedWorkerScheduler {
+
+    private static final long FAILED_TASK_WAIT = 1000;
+
+    private final Object lock = new Object();
+    private final Map<String, Queue<Runnable>> queues = new HashMap<>();
+    private final Queue<String> ready = new ArrayDeque<>();
+    private final ScheduledExecutorService timer;
+    private final Thread[] threads;
+    private final Logger logger = LoggerFactory.getLogger(SharedWorkerScheduler.class);
+    private volatile boolean shutdown;
+
+
+    /**
+     * Scheduler with {@link Constants#WORKER_SCHEDULER_THREADS} threads created by the factory selected through
+     * {@link Constants#CLIENT_THREAD_MODE}
+     *
+     * @param name Name used for scheduler threads
+     */
+    public SharedWorkerScheduler(String name) {
+        this(Integer.parseInt(System.getProperty(Constants.WORKER_SCHEDULER_THREADS, "16")), ClientThreads.fromProperties(), name);
+    }
+
+
+    /**
+     * Constructor.  Scheduler threads are started immediately.
+     *
+     * @param threads       Number of threads running worker iterations
+     * @param threadFactory Factory creating the threads, null for platform threads
+     * @param name          Name used for scheduler threads
+     */
+    public SharedWorkerScheduler(int threads, ThreadFactory threadFactory, String name) {
+
+        if (threads < 1)
+            throw new IllegalArgumentException("Number of threads must be greater than zero");
+
+        timer = Executors.newSingleThreadScheduledExecutor(
+                ClientThreads.named(null, "SharedWorkerTimer", name, true));
+
+        ThreadFactory workerThreadFactory = ClientThreads.named(threadFactory, "SharedWorker", name, true);
+
+        this.threads = new Thread[threads];
+
+        for (int i = 0; i < threads; i++) {
+            this.threads[i] = workerThreadFactory.newThread(this::work);
+            this.threads[i].start();
+        }
+
+        logger.info("Started shared worker scheduler with {} threads", threads);
+
+    }
+
+
+    /**
+     * Run a worker until it is shutdown.  Each iteration is queued for the owner and the next one is queued once the
+     * wait returned by {@link WorkerTask#runOnce()} has elapsed.
+     *
+     * @param owner      Owner used for fairness, usually the client name
+     * @param workerTask Worker to run
+     */
+    public void schedule(String owner, WorkerTask workerTask) {
+
+        if (workerTask == null)
+            throw new NullPointerException("Worker task was not provided..");
+
+        execute(owner, new Runnable() {
+            @Override
+            public void run() {
+
+                if (workerTask.isShutdown())
+                    return;
+
+                long wait;
+
+                try {
+                    wait = workerTask.runOnce();
+                } catch (RuntimeException e) {
+                    logger.error("Worker task failed for {}", owner, e);
+                    wait = FAILED_TASK_WAIT;
+                }
+
+                if (workerTask.isShutdown())
+                    return;
+
+                if (wait > 0)
+                    scheduleLater(owner, this, wait, TimeUnit.MILLISECONDS);
+                else
+                    execute(owner, this);
+            }
+        });
+
+    }
+
+
+    /**
+     * Run a task periodically on the shared pool.
+     *
+     * @param owner        Owner used for fairness, usually the client name
+     * @param task         Task to run
+     * @param initialDelay Delay before the first run
+     * @param period       Period between runs
+     * @param unit         Time unit of the delay and period
+     * @return Future used to cancel the task
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(String owner, Runnable task, long initialDelay, long period, TimeUnit unit) {
+
+        if (task == null)
+            throw new NullPointerException("Task was not provided..");
+
+        return timer.scheduleAtFixedRate(() -> execute(owner, task), initialDelay, period, unit);
+    }
+
+
+    /**
+     * Queue a task for the owner
+     *
+     * @param owner Owner used for fairness, usually the client name
+     * @param task  Task to run
+     * @throws RejectedExecutionException If the scheduler is shutdown
+     */
+    public void execute(String owner, Runnable task) {
+
+        if (task == null)
+            throw new NullPointerException("Task was not provided..");
+
+        synchronized (lock) {
+
+            if (shutdown)
+                throw new RejectedExecutionException("Shared worker scheduler is shutdown");
+
+            Queue<Runnable> queue = queues.computeIfAbsent(owner, key -> new ArrayDeque<>());
+
+            if (queue.isEmpty())
+                ready.add(owner);
+
+            queue.add(task);
+            lock.notify();
+        }
+    }
+
+
+    /**
+     * @return Number of tasks waiting for a thread
+     */
+    public int getQueuedTasks() {
+
+        synchronized (lock) {
+
+            int queued = 0;
+
+            for (Queue<Runnable> queue : queues.values())
+                queued += queue.size();
+
+            return queued;
+        }
+    }
+
+
+    /**
+     * Stop the scheduler.  Iterations already running are allowed to complete.
+     */
+    public void shutdown() {
+
+        shutdown = true;
+        timer.shutdownNow();
+
+        synchronized (lock) {
+            queues.clear();
+            ready.clear();
+            lock.notifyAll();
+        }
+
+    }
+
+
+    private void scheduleLater(String owner, Runnable task, long delay, TimeUnit unit) {
+
+        try {
+            timer.schedule(() -> execute(owner, task), delay, unit);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Scheduler is shutdown, dropping task for {}", owner);
+        }
+    }
+
+
+    private Runnable take() throws InterruptedException {
+
+        synchronized (lock) {
+
+            while (ready.isEmpty()) {
+
+                if (shutdown)
+                    return null;
+
+                lock.wait();
+            }
+
+            String owner = ready.poll();
+            Queue<Runnable> queue = queues.get(owner);
+            Runnable task = queue.poll();
+
+            //Owner goes to the back of the line if it has more work
+            if (queue.isEmpty())
+                queues.remove(owner);
+            else
+                ready.add(owner);
+
+            return task;
+        }
+    }
+
+
+    private void work() {
+
+        while (!shutdown) {
+
+            Runnable task;
+
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (task == null)
+                return;
+
+            try {
+                task.run();
+            } catch (RejectedExecutionException e) {
+                logger.debug("Scheduler is shutdown, dropping task");
+            } catch (RuntimeException e) {
+                logger.error("Task failed on shared worker scheduler", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collapses concurrent requests for the same key into a single call.
+ * <p>
+ * The first caller for a key runs the call.  Callers arriving while it is in flight wait for and share its result or
+ * failure.  Nothing is retained once the call completes, so this is meant to sit in front of a cache loader.
+ * <p>
+ * Bulk callers can {@link #claim(Collection, Map) claim} the keys nobody else is loading, resolve them together,
+ * then {@link #complete(Object, Object) complete} or {@link #fail(Collection, Throwable) fail} them.
+ * <p>
+ * Callers waiting on a call in flight give up after the await timeout, if one is set.
+ *
+ * @param <K> Key type
+ * @param <V> Result type, null results are allowed
+ * @author Frank Tarsillo
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long awaitTimeoutNanos;
+
+
+    /**
+     * Create without an await timeout
+     */
+    public SingleFlight() {
+
+        this(0, TimeUnit.NANOSECONDS);
+
+    }
+
+
+    /**
+     * @param awaitTimeout Maximum time to wait on a call in flight, 0 for no limit
+     * @param unit         Unit of the timeout
+     */
+    public SingleFlight(long awaitTimeout, TimeUnit unit) {
+
+        this.awaitTimeoutNanos = unit.toNanos(awaitTimeout);
+
+    }
+
+
+    /**
+     * Run the call for the key, or wait for the call already in flight for it.
+     *
+     * @param key  Key
+     * @param call Call resolving the key
+     * @return Result of the call
+     * @throws Exception Exception thrown by the call, or {@link java.util.concurrent.TimeoutException} if the call in
+     *                   flight did not complete within the await timeout
+     */
+    public V execute(K key, Callable<V> call) throws Exception {
+
+        if (key == null)
+            throw new NullPointerException("Key was not provided..");
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null)
+            return join(existing);
+
+        try {
+
+            V value = call.call();
+            future.complete(value);
+            return value;
+
+        } catch (Exception | Error e) {
+
+            future.completeExceptionally(e);
+            throw e;
+
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+
+    /**
+     * Claim the keys that are not in flight.  The caller must {@link #complete(Object, Object)} or
+     * {@link #fail(Collection, Throwable)} every claimed key.
+     *
+     * @param keys    Keys to resolve
+     * @param pending Filled with the in-flight calls for keys claimed by other callers
+     * @return Keys claimed by the caller
+     */
+    public List<K> claim(Collection<? extends K> keys, Map<K, CompletableFuture<V>> pending) {
+
+        List<K> claimed = new ArrayList<>();
+
+        for (K key : keys) {
+
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+            if (existing != null)
+                pending.put(key, existing);
+            else
+                claimed.add(key);
+        }
+
+        return claimed;
+    }
+
+
+    /**
+     * Complete a claimed key.
+     *
+     * @param key   Claimed key
+     * @param value Result, may be null
+     */
+    public void complete(K key, V value) {
+
+        CompletableFuture<V> future = inFlight.remove(key);
+
+        if (future != null)
+            future.complete(value);
+    }
+
+
+    /**
+     * Fail claimed keys that have not been completed.
+     *
+     * @param keys  Claimed keys
+     * @param cause Failure shared with waiting callers
+     */
+    public void fail(Collection<? extends K> keys, Throwable cause) {
+
+        for (K key : keys) {
+
+            CompletableFuture<V> future = inFlight.remove(key);
+
+            if (future != null)
+                future.completeExceptionally(cause);
+        }
+    }
+
+
+    /**
+     * @return Number of keys in flight
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+
+    /**
+     * Wait for the result of a call claimed by another caller, up to the await timeout.
+     *
+     * @param future In-flight call
+     * @return Result of the call
+     * @throws Exception Exception thrown by the call, or {@link java.util.concurrent.TimeoutException} on timeout
+     */
+    public V join(CompletableFuture<V> future) throws Exception {
+
+        return await(future, awaitTimeoutNanos, TimeUnit.NANOSECONDS);
+
+    }
+
+
+    /**
+     * Wait for the result of a call in flight.
+     *
+     * @param future In-flight call
+     * @param <V>    Result type
+     * @return Result of the call
+     * @throws Exception Exception thrown by the call
+     */
+    public static <V> V await(CompletableFuture<V> future) throws Exception {
+
+        return await(future, 0, TimeUnit.NANOSECONDS);
+
+    }
+
+
+    /**
+     * Wait for the result of a call in flight.
+     *
+     * @param future  In-flight call
+     * @param timeout Maximum time to wait, 0 for no limit
+     * @param unit    Unit of the timeout
+     * @param <V>     Result type
+     * @return Result of the call
+     * @throws Exception Exception thrown by the call, or {@link java.util.concurrent.TimeoutException} on timeout
+     */
+    public static <V> V await(CompletableFuture<V> future, long timeout, TimeUnit unit) throws Exception {
+
+        try {
+
+            return (timeout > 0) ? future.get(timeout, unit) : future.get();
+
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,321 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.services.DispatchPolicy;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs tasks on a shared {@link Executor} while guaranteeing that tasks submitted with the same key are executed
+ * one at a time and in submission order.
+ * <p>
+ * Keys are hashed onto a fixed number of serial lanes.  Tasks on different lanes run in parallel, limited only by
+ * the underlying executor.  A lane never occupies more than one executor thread at a time and yields its thread
+ * after a small batch of tasks so busy lanes cannot starve the others.
+ * <p>
+ * Each lane holds at most a configured number of pending tasks.  When a lane is full the {@link DispatchPolicy} is
+ * applied to the submitting thread: BLOCK waits for the lane to drain, DROP_OLDEST discards the oldest pending task
+ * and SPILL accepts the task beyond the capacity.
+ *
+ * @author Frank Tarsillo
+ */
+public class StripedExecutor {
+
+    private static final int LANE_BATCH_SIZE = 32;
+
+    private final Executor executor;
+    private final Lane[] lanes;
+    private final int capacity;
+    private final DispatchPolicy dispatchPolicy;
+    private final Consumer<Runnable> onDropped;
+    private final AtomicLong droppedTasks = new AtomicLong();
+    private final Logger logger = LoggerFactory.getLogger(StripedExecutor.class);
+
+
+    /**
+     * Create a striped executor with unbounded lanes
+     *
+     * @param executor Executor providing the threads for all lanes
+     * @param lanes    Number of serial lanes to shard keys onto
+     */
+    public StripedExecutor(Executor executor, int lanes) {
+
+        this(executor, lanes, Integer.MAX_VALUE, DispatchPolicy.BLOCK);
+
+    }
+
+
+    /**
+     * @param executor       Executor providing the threads for all lanes
+     * @param lanes          Number of serial lanes to shard keys onto
+     * @param capacity       Maximum number of pending tasks per lane
+     * @param dispatchPolicy Policy applied when a lane is full.  BLOCK must not be used if tasks submit to this executor.
+     */
+    public StripedExecutor(Executor executor, int lanes, int capacity, DispatchPolicy dispatchPolicy) {
+
+        this(executor, lanes, capacity, dispatchPolicy, null);
+
+    }
+
+
+    /**
+     * @param executor       Executor providing the threads for all lanes
+     * @param lanes          Number of serial lanes to shard keys onto
+     * @param capacity       Maximum number of pending tasks per lane
+     * @param dispatchPolicy Policy applied when a lane is full.  BLOCK must not be used if tasks submit to this executor.
+     * @param onDropped      Callback receiving tasks discarded by {@link DispatchPolicy#DROP_OLDEST}, may be null
+     */
+    public StripedExecutor(Executor executor, int lanes, int capacity, DispatchPolicy dispatchPolicy,
+                           Consumer<Runnable> onDropped) {
+
+        if (executor == null)
+            throw new NullPointerException("Executor was not provided..");
+
+        if (dispatchPolicy == null)
+            throw new NullPointerException("Dispatch policy was not provided..");
+
+        if (lanes < 1 || capacity < 1)
+            throw new IllegalArgumentException("Number of lanes and lane capacity must be greater than zero");
+
+        this.executor = executor;
+        this.capacity = capacity;
+        this.dispatchPolicy = dispatchPolicy;
+        this.onDropped = onDropped;
+        this.lanes = new Lane[lanes];
+
+        for (int i = 0; i < lanes; i++)
+            this.lanes[i] = new Lane();
+
+    }
+
+
+    /**
+     * Submit a task on the lane associated with the key.
+     *
+     * @param key  Ordering key (ex. stream ID).  Null keys share a single lane.
+     * @param task Task to run
+     * @throws RejectedExecutionException If the underlying executor rejects the lane
+     * @see DispatchPolicy
+     */
+    public void execute(Object key, Runnable task) {
+
+        if (task == null)
+            throw new NullPointerException("Task was not provided..");
+
+        lanes[laneIndex(key)].execute(task);
+
+    }
+
+
+    /**
+     * @return Number of lanes
+     */
+    public int getLanes() {
+        return lanes.length;
+    }
+
+
+    /**
+     * @return Number of tasks waiting to run across all lanes
+     */
+    public int getPendingTasks() {
+
+        int pending = 0;
+
+        for (Lane lane : lanes)
+            pending += lane.size();
+
+        return pending;
+    }
+
+
+    /**
+     * @return Total number of tasks discarded by the {@link DispatchPolicy#DROP_OLDEST} policy
+     */
+    public long getDroppedTasks() {
+        return droppedTasks.get();
+    }
+
+
+    private int laneIndex(Object key) {
+
+        if (key == null)
+            return 0;
+
+        return (key.hashCode() & Integer.MAX_VALUE) % lanes.length;
+    }
+
+
+    /**
+     * Serial executor backed by the shared executor.
+     */
+    private class Lane implements Runnable {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean scheduled;
+
+
+        void execute(Runnable task) {
+
+            Runnable dropped = null;
+            boolean schedule = false;
+
+            synchronized (this) {
+
+                if (tasks.size() >= capacity)
+                    dropped = applyPolicy();
+
+                tasks.add(task);
+
+                if (!scheduled) {
+                    scheduled = true;
+                    schedule = true;
+                }
+            }
+
+            if (dropped != null && onDropped != null)
+                onDropped.accept(dropped);
+
+            if (schedule)
+                schedule();
+        }
+
+
+        synchronized int size() {
+            return tasks.size();
+        }
+
+
+        /**
+         * Make room for a task on a full lane.  Called holding the lane lock.
+         *
+         * @return Task dropped to make room, null if none
+         */
+        private Runnable applyPolicy() {
+
+            switch (dispatchPolicy) {
+                case DROP_OLDEST:
+
+                    Runnable dropped = tasks.poll();
+                    droppedTasks.incrementAndGet();
+
+                    logger.warn("Striped executor lane full, dropped oldest task");
+                    return dropped;
+
+                case SPILL:
+
+                    logger.debug("Striped executor lane full, spilling task beyond capacity");
+                    break;
+
+                default:
+
+                    try {
+                        while (tasks.size() >= capacity)
+                            wait();
+                    } catch (InterruptedException e) {
+                        logger.error("Interrupted waiting for lane capacity, task accepted beyond capacity", e);
+                        Thread.currentThread().interrupt();
+                    }
+            }
+
+            return null;
+        }
+
+
+        private void schedule() {
+
+            try {
+
+                executor.execute(this);
+
+            } catch (RejectedExecutionException e) {
+
+                int dropped;
+
+                synchronized (this) {
+                    dropped = tasks.size();
+                    tasks.clear();
+                    scheduled = false;
+                    notifyAll();
+                }
+
+                logger.error("Executor rejected lane, {} pending tasks discarded", dropped);
+                throw e;
+            }
+        }
+
+
+        @Override
+        public void run() {
+
+            for (int i = 0; i < LANE_BATCH_SIZE; i++) {
+
+                Runnable task;
+
+                synchronized (this) {
+                    task = tasks.poll();
+
+                    //Wake producers blocked on a full lane
+                    if (task != null && dispatchPolicy == DispatchPolicy.BLOCK)
+                        notifyAll();
+
+                    if (task == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.error("Task failed on striped executor lane", e);
+                } catch (Error e) {
+
+                    //Keep the lane scheduled so its remaining tasks still run once the error unwinds this thread
+                    logger.error("Task failed with an error on striped executor lane", e);
+
+                    try {
+                        schedule();
+                    } catch (RejectedExecutionException e1) {
+                        e.addSuppressed(e1);
+                    }
+
+                    throw e;
+                }
+            }
+
+            //Yield the thread to other lanes and continue later.
+            schedule();
+        }
+    }
+
+
+}
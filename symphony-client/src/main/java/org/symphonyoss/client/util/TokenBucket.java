@@ -0,0 +1,139 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+/**
+ * Thread safe token bucket rate limiter.
+ * <p>
+ * Tokens are added continuously at the configured rate up to the bucket capacity, which sets the largest burst
+ * allowed after a quiet period.  The bucket can also be paused, ex. when the server asks callers to back off.
+ *
+ * @author Frank Tarsillo
+ */
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final int capacity;
+
+    private double tokens;
+    private long lastRefill;
+    private long pausedUntil;
+
+
+    /**
+     * @param ratePerSecond Tokens added per second
+     * @param capacity      Maximum number of tokens held by the bucket
+     */
+    public TokenBucket(double ratePerSecond, int capacity) {
+
+        if (ratePerSecond <= 0 || capacity < 1)
+            throw new IllegalArgumentException("Rate and capacity must be greater than zero");
+
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+        this.pausedUntil = lastRefill;
+
+    }
+
+
+    /**
+     * Take a token if one is available
+     *
+     * @return True if a token was taken
+     */
+    public synchronized boolean tryAcquire() {
+
+        if (nanosUntilAvailable() > 0)
+            return false;
+
+        tokens -= 1;
+        return true;
+    }
+
+
+    /**
+     * @return Nanoseconds until a token will be available, 0 if one is available now
+     */
+    public synchronized long nanosUntilAvailable() {
+
+        long now = System.nanoTime();
+
+        if (now - pausedUntil < 0)
+            return pausedUntil - now;
+
+        refill(now);
+
+        if (tokens >= 1)
+            return 0;
+
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+
+    /**
+     * Stop handing out tokens for the given time.  The bucket starts empty once the pause ends, so the
+     * pause is not followed by a burst.
+     *
+     * @param millis Time to pause in milliseconds
+     */
+    public synchronized void pauseFor(long millis) {
+
+        long until = System.nanoTime() + millis * 1_000_000L;
+
+        if (until - pausedUntil > 0)
+            pausedUntil = until;
+
+        tokens = 0;
+        lastRefill = pausedUntil;
+
+    }
+
+
+    /**
+     * @return True if the bucket holds its full capacity, meaning it has been idle long enough to forget it
+     */
+    public synchronized boolean isFull() {
+
+        long now = System.nanoTime();
+
+        if (now - pausedUntil < 0)
+            return false;
+
+        refill(now);
+
+        return tokens >= capacity;
+    }
+
+
+    private void refill(long now) {
+
+        if (now - lastRefill <= 0)
+            return;
+
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+
+}
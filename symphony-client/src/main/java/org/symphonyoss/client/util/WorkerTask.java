@@ -0,0 +1,74 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A polling worker that runs one iteration at a time, such as a feed long-poll or a periodic check.
+ * <p>
+ * Run as a {@link Runnable} the worker loops on its own thread, sleeping between iterations.  Submitted to a
+ * {@link SharedWorkerScheduler} each iteration is queued on a shared pool and waits are handled by the scheduler, so
+ * the worker does not hold a thread between iterations.
+ *
+ * @author Frank Tarsillo
+ */
+public interface WorkerTask extends Runnable {
+
+
+    /**
+     * Run a single iteration.
+     *
+     * @return Milliseconds to wait before the next iteration, 0 to run again immediately
+     */
+    long runOnce();
+
+
+    /**
+     * @return True once the worker has been shutdown and should not be run again
+     */
+    boolean isShutdown();
+
+
+    /**
+     * Loop on the current thread until shutdown or interrupted.
+     */
+    @Override
+    default void run() {
+
+        while (!isShutdown()) {
+
+            long wait = runOnce();
+
+            if (wait > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.symphony.clients;
+
+import org.symphonyoss.client.model.SymAuth;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymStream;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * Non-blocking variant of {@link MessagesClient}.  Calls return immediately with a future that completes with the
+ * API result, or exceptionally with the {@link org.symphonyoss.client.exceptions.MessagesException} raised by the
+ * underlying call.
+ * <p>
+ * Implementations bound the number of calls in flight.  When the limit is reached, calls are queued and started as
+ * earlier calls complete.
+ *
+ * @author Frank Tarsillo
+ */
+public interface AsyncMessagesClient {
+
+    /**
+     * Send message to SymStream
+     *
+     * @param stream  Stream to send message to
+     * @param message Message to send
+     * @return Future of the message sent
+     */
+    CompletableFuture<SymMessage> sendMessageAsync(SymStream stream, SymMessage message);
+
+
+    /**
+     * Send message to SymStream with alternate session token (OBO)
+     *
+     * @param stream  Stream to send message to
+     * @param message Message to send
+     * @param symAuth Alternate authorization containing session token to use.
+     * @return Future of the message sent
+     */
+    CompletableFuture<SymMessage> sendMessageAsync(SymStream stream, SymMessage message, SymAuth symAuth);
+
+
+    /**
+     * Retrieve historical messages from a given SymStream.
+     *
+     * @param symStream   Stream to retrieve messages from
+     * @param since       Date (long) from point in time
+     * @param offset      Offset
+     * @param maxMessages Maximum number of messages to retrieve from the specified time (since)
+     * @return Future of the list of messages
+     */
+    CompletableFuture<List<SymMessage>> getMessagesFromStreamAsync(SymStream symStream, Long since, Integer offset, Integer maxMessages);
+
+
+    /**
+     * @return Number of calls currently in flight
+     */
+    int getInFlight();
+
+
+    /**
+     * Release any threads owned by the client.  Calls already submitted are allowed to complete.
+     */
+    void shutdown();
+
+}
@@ -25,6 +25,7 @@ package org.symphonyoss.symphony.clients;
 import org.symphonyoss.client.SymphonyClient;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.model.SymAuth;
+import org.symphonyoss.symphony.clients.impl.AsyncMessagesClientImpl;
 import org.symphonyoss.symphony.clients.impl.MessagesClientImpl;
 
 import javax.ws.rs.client.Client;
@@ -47,4 +48,16 @@ public class MessagesFactory {
 
     }
 
+    /**
+     * Async client running on the messages client of the given SymphonyClient.  Call
+     * {@link AsyncMessagesClient#shutdown()} when it is no longer required.
+     *
+     * @param symClient Symphony client
+     * @return Async messages client
+     */
+    public static AsyncMessagesClient getAsyncClient(SymphonyClient symClient) {
+
+        return new AsyncMessagesClientImpl(symClient.getMessagesClient());
+    }
+
 }
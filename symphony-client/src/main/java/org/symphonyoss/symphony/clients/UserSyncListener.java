@@ -0,0 +1,57 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.symphony.clients;
+
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+/**
+ * Callback listener used by {@link UsersClient#getAllUsers(UserSyncListener)} and
+ * {@link UsersClient#getAllUsersWithDetails(UserSyncListener)} to stream users as they are retrieved, so a full
+ * directory sync or report does not have to hold every user in memory.
+ * <p>
+ * Callbacks are made on the calling thread, one at a time.
+ *
+ * @author Frank Tarsillo
+ */
+@FunctionalInterface
+public interface UserSyncListener {
+
+
+    /**
+     * Called once for every user retrieved.
+     *
+     * @param symUser User
+     */
+    void onUser(SymUser symUser);
+
+
+    /**
+     * Called after each batch of users has been delivered.
+     *
+     * @param completed Number of user IDs processed so far
+     * @param total     Total number of user IDs
+     */
+    default void onProgress(int completed, int total) {
+    }
+
+}
@@ -22,8 +22,11 @@
 
 package org.symphonyoss.symphony.clients;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
+import org.symphonyoss.client.exceptions.UserNotFoundException;
 import org.symphonyoss.client.exceptions.UsersClientException;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.clients.model.SymUser;
@@ -42,18 +45,132 @@ public interface UsersClient {
 
     SymUser getUserFromName(String userName) throws UsersClientException;
 
+    /**
+     * Retrieve multiple users by ID using as few calls to the pod as possible.  Users that cannot be found are
+     * omitted from the result.
+     * <p>
+     * The default implementation looks up users one at a time with {@link #getUserFromId(Long)} and ignores the
+     * local flag.
+     *
+     * @param userIds User IDs to look up
+     * @param local   If true, only search users of the local pod
+     * @return Users found
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
+    default List<SymUser> getUsersFromIdList(List<Long> userIds, Boolean local) throws UsersClientException {
+
+        List<SymUser> symUsers = new ArrayList<>();
+
+        for (Long userId : userIds) {
+            try {
+                symUsers.add(getUserFromId(userId));
+            } catch (UserNotFoundException e) {
+                //Omitted from the result
+            }
+        }
+
+        return symUsers;
+    }
+
+    /**
+     * Retrieve multiple users by email address using as few calls to the pod as possible.  Users that cannot be
+     * found are omitted from the result.
+     * <p>
+     * The default implementation looks up users one at a time with {@link #getUserFromEmail(String)} and ignores
+     * the local flag.
+     *
+     * @param emails Email addresses to look up
+     * @param local  If true, only search users of the local pod
+     * @return Users found
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
+    default List<SymUser> getUsersFromEmailList(List<String> emails, Boolean local) throws UsersClientException {
+
+        List<SymUser> symUsers = new ArrayList<>();
+
+        for (String email : emails) {
+            try {
+                symUsers.add(getUserFromEmail(email));
+            } catch (UserNotFoundException e) {
+                //Omitted from the result
+            }
+        }
+
+        return symUsers;
+    }
+
     Set<SymUser> getUsersFromStream(String streamId) throws UsersClientException;
 
+    /**
+     * Retrieve all users of the pod.  Holds every user in memory, use {@link #getAllUsers(UserSyncListener)} on
+     * large pods.
+     *
+     * @return All users
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
     Set<SymUser> getAllUsers() throws UsersClientException;
 
+    /**
+     * Stream all users of the pod to a listener.  Users are looked up in batches with bounded concurrency and
+     * failed batches are retried.  Returns once every user has been delivered.
+     * This method could require elevated privileges
+     * <p>
+     * The default implementation delivers the users returned by {@link #getAllUsers()}.
+     *
+     * @param listener Listener receiving users and progress
+     * @return Number of users delivered
+     * @throws UsersClientException If the user list or a batch could not be retrieved after retries
+     */
+    default int getAllUsers(UserSyncListener listener) throws UsersClientException {
+
+        Set<SymUser> symUsers = getAllUsers();
+
+        for (SymUser symUser : symUsers)
+            listener.onUser(symUser);
+
+        listener.onProgress(symUsers.size(), symUsers.size());
+
+        return symUsers.size();
+    }
+
     void setUserStatus(long userId, UserStatus userStatus) throws UsersClientException;
 
     SymUser updateUser(long userId, SymUser symUser) throws UsersClientException;
 
     SymUser createUser(UserCreate userCreate) throws UsersClientException;
 
+    /**
+     * Retrieve all users of the pod with details of features and roles.  Holds every user in memory, use
+     * {@link #getAllUsersWithDetails(UserSyncListener)} on large pods.
+     *
+     * @return All users including details of features and roles
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
     Set<SymUser> getAllUsersWithDetails() throws UsersClientException;
 
+    /**
+     * Stream all users of the pod with details of features and roles to a listener.  Users and their details are
+     * retrieved with bounded concurrency and failed calls are retried.  Returns once every user has been delivered.
+     * This method could require elevated privileges
+     * <p>
+     * The default implementation delivers the users returned by {@link #getAllUsersWithDetails()}.
+     *
+     * @param listener Listener receiving users and progress
+     * @return Number of users delivered
+     * @throws UsersClientException If a call failed after retries
+     */
+    default int getAllUsersWithDetails(UserSyncListener listener) throws UsersClientException {
+
+        Set<SymUser> symUsers = getAllUsersWithDetails();
+
+        for (SymUser symUser : symUsers)
+            listener.onUser(symUser);
+
+        listener.onProgress(symUsers.size(), symUsers.size());
+
+        return symUsers.size();
+    }
+
     SymUser getUserBySession(SymAuth symAuth) throws UsersClientException;
 
     void updateUserAvatar(long userId, byte[] avatar) throws UsersClientException;
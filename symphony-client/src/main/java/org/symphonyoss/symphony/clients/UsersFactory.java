@@ -40,7 +40,8 @@ public class UsersFactory {
 
     public static UsersClient getClient(SymphonyClient symClient){
 
-            return new UsersClientImpl(symClient.getSymAuth(), symClient.getConfig(), symClient.getPodHttpClient());
+            return new UsersClientImpl(symClient.getSymAuth(), symClient.getConfig(), symClient.getPodHttpClient(),
+                    symClient.getThreadFactory());
 
     }
 
@@ -30,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.exceptions.SystemException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.agent.api.SystemApi;
 import org.symphonyoss.symphony.agent.invoker.ApiClient;
@@ -38,6 +39,7 @@ import org.symphonyoss.symphony.clients.AgentSystemClient;
 import org.symphonyoss.symphony.clients.model.RestApiVersion;
 import org.symphonyoss.symphony.clients.model.SymAgentHealthCheck;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 
 /**
@@ -102,6 +104,9 @@ public class AgentSystemClientImpl implements AgentSystemClient {
 
         try {
             return SymAgentHealthCheck.toSymAgentHealthCheck(systemApi.v2HealthCheckGet(symAuth.getSessionToken().getToken(), symAuth.getKeyToken().getToken()));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new SystemException("Could not execute health check on agent server", e);
         }
@@ -0,0 +1,236 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.symphony.clients.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.exceptions.MessagesException;
+import org.symphonyoss.client.model.SymAuth;
+import org.symphonyoss.symphony.clients.AsyncMessagesClient;
+import org.symphonyoss.symphony.clients.MessagesClient;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymStream;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * {@link AsyncMessagesClient} running the calls of a blocking {@link MessagesClient} on an executor.
+ * <p>
+ * A semaphore bounds the calls in flight, so a broadcast to many streams is throttled to the configured limit.
+ * Calls submitted while the limit is reached are queued and started as slots free up, so submit methods never block.
+ * A slot is released before the returned future is completed, so dependent stages may safely submit further calls.
+ *
+ * @author Frank Tarsillo
+ */
+public class AsyncMessagesClientImpl implements AsyncMessagesClient {
+
+    private final MessagesClient messagesClient;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Semaphore inFlight;
+    private final Queue<PendingCall<?>> pending = new ConcurrentLinkedQueue<>();
+    private final int maxInFlight;
+
+    private final Logger logger = LoggerFactory.getLogger(AsyncMessagesClientImpl.class);
+
+
+    /**
+     * Create an async client with its own thread pool, sized by {@link Constants#MESSAGESCLIENT_ASYNC_MAXINFLIGHT}
+     *
+     * @param messagesClient Blocking client to run calls on
+     */
+    public AsyncMessagesClientImpl(MessagesClient messagesClient) {
+
+        this(messagesClient, null, Integer.parseInt(System.getProperty(Constants.MESSAGESCLIENT_ASYNC_MAXINFLIGHT, "32")));
+
+    }
+
+
+    /**
+     * Create an async client on a provided executor.
+     *
+     * @param messagesClient Blocking client to run calls on
+     * @param executor       Executor to run calls on.  If null a pool of maxInFlight threads is created and owned by this client.
+     * @param maxInFlight    Maximum number of calls in flight
+     */
+    public AsyncMessagesClientImpl(MessagesClient messagesClient, Executor executor, int maxInFlight) {
+
+        if (messagesClient == null)
+            throw new NullPointerException("MessagesClient was not provided..");
+
+        if (maxInFlight < 1)
+            throw new IllegalArgumentException("Maximum in flight calls must be greater than zero");
+
+        this.messagesClient = messagesClient;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+
+        if (executor == null) {
+
+            AtomicInteger threadCount = new AtomicInteger();
+
+            ownedExecutor = Executors.newFixedThreadPool(maxInFlight, r -> {
+                Thread thread = new Thread(r, "AsyncMessagesClient-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            this.executor = ownedExecutor;
+
+        } else {
+
+            ownedExecutor = null;
+            this.executor = executor;
+        }
+
+    }
+
+
+    @Override
+    public CompletableFuture<SymMessage> sendMessageAsync(SymStream stream, SymMessage message) {
+
+        return submit(() -> messagesClient.sendMessage(stream, message));
+
+    }
+
+
+    @Override
+    public CompletableFuture<SymMessage> sendMessageAsync(SymStream stream, SymMessage message, SymAuth symAuth) {
+
+        return submit(() -> messagesClient.sendMessage(stream, message, symAuth));
+
+    }
+
+
+    @Override
+    public CompletableFuture<List<SymMessage>> getMessagesFromStreamAsync(SymStream symStream, Long since, Integer offset, Integer maxMessages) {
+
+        return submit(() -> messagesClient.getMessagesFromStream(symStream, since, offset, maxMessages));
+
+    }
+
+
+    @Override
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+
+    @Override
+    public void shutdown() {
+
+        if (ownedExecutor != null)
+            ownedExecutor.shutdown();
+
+    }
+
+
+    private <T> CompletableFuture<T> submit(Callable<T> call) {
+
+        PendingCall<T> pendingCall = new PendingCall<>(call);
+
+        pending.add(pendingCall);
+        drain();
+
+        return pendingCall.future;
+    }
+
+
+    /**
+     * Start queued calls while slots are available.  Called on submit and whenever a call releases its slot.
+     */
+    private void drain() {
+
+        while (!pending.isEmpty() && inFlight.tryAcquire()) {
+
+            PendingCall<?> pendingCall = pending.poll();
+
+            if (pendingCall == null) {
+                inFlight.release();
+                continue;
+            }
+
+            try {
+
+                executor.execute(pendingCall);
+
+            } catch (RejectedExecutionException e) {
+
+                inFlight.release();
+                logger.error("Executor rejected messages call", e);
+                pendingCall.future.completeExceptionally(new MessagesException("Executor rejected messages call", e));
+            }
+        }
+    }
+
+
+    /**
+     * Queued call holding the future returned to the caller
+     */
+    private class PendingCall<T> implements Runnable {
+
+        private final Callable<T> call;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+
+        PendingCall(Callable<T> call) {
+            this.call = call;
+        }
+
+
+        @Override
+        public void run() {
+
+            T result = null;
+            Throwable failure = null;
+
+            try {
+                result = call.call();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                inFlight.release();
+                drain();
+            }
+
+            //Complete outside of the slot, dependent stages run on this thread
+            if (failure != null)
+                future.completeExceptionally(failure);
+            else
+                future.complete(result);
+        }
+    }
+
+}
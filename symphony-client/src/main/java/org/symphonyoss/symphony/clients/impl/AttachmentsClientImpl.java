@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.exceptions.AttachmentsException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.agent.api.AttachmentsApi;
 import org.symphonyoss.symphony.agent.invoker.ApiClient;
@@ -36,6 +37,7 @@ import org.symphonyoss.symphony.clients.AttachmentsClient;
 import org.symphonyoss.symphony.clients.model.SymAttachmentInfo;
 import org.symphonyoss.symphony.clients.model.SymMessage;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import java.io.File;
 import java.util.Base64;
@@ -104,6 +106,9 @@ public class AttachmentsClientImpl implements AttachmentsClient {
                     symMessage.getId(),
                     symAuth.getSessionToken().getToken(),
                     symAuth.getKeyToken().getToken()));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new AttachmentsException("Could not retrieve or decode attachment from POD..", e);
         }
@@ -127,6 +132,9 @@ public class AttachmentsClientImpl implements AttachmentsClient {
                     attachment,
                     symAuth.getKeyToken().getToken()
             );
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new AttachmentsException("Failed to post attachment for file " + attachment.getName(), e);
         }
@@ -26,6 +26,7 @@ package org.symphonyoss.symphony.clients.impl;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.exceptions.ConnectionsException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.clients.ConnectionsClient;
 import org.symphonyoss.symphony.clients.model.SymUser;
@@ -36,6 +37,7 @@ import org.symphonyoss.symphony.pod.invoker.ApiClient;
 import org.symphonyoss.symphony.pod.invoker.ApiException;
 import org.symphonyoss.symphony.pod.model.UserConnectionList;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -145,6 +147,9 @@ public class ConnectionsClientImpl implements ConnectionsClient {
 
         try {
             connectionApi.v1ConnectionUserUidRemovePost(symAuth.getSessionToken().getToken(), symUser.getId());
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new ConnectionsException("Error removing connected user: " + symUser.getId(), e);
         }
@@ -161,6 +166,9 @@ public class ConnectionsClientImpl implements ConnectionsClient {
 
         try {
             return SymUserConnection.toSymUserConnection(connectionApi.v1ConnectionCreatePost(symAuth.getSessionToken().getToken(), symUserConnectionRequest));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new ConnectionsException("Error sending connection request to ID: " + symUserConnectionRequest.getUserId(), e);
         }
@@ -176,6 +184,9 @@ public class ConnectionsClientImpl implements ConnectionsClient {
 
         try {
             return SymUserConnection.toSymUserConnection(connectionApi.v1ConnectionAcceptPost(symAuth.getSessionToken().getToken(), symUserConnectionRequest));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new ConnectionsException("Failed to accept connection request from ID: " + symUserConnectionRequest.getUserId(), e);
         }
@@ -193,6 +204,9 @@ public class ConnectionsClientImpl implements ConnectionsClient {
 
         try {
             return SymUserConnection.toSymUserConnection(connectionApi.v1ConnectionAcceptPost(symAuth.getSessionToken().getToken(), new SymUserConnectionRequest(symUserConnection)));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new ConnectionsException("Failed to accept connection request from ID: " + symUserConnection.getUserId(), e);
         }
@@ -210,6 +224,9 @@ public class ConnectionsClientImpl implements ConnectionsClient {
 
         try {
             return SymUserConnection.toSymUserConnection(connectionApi.v1ConnectionRejectPost(symAuth.getSessionToken().getToken(), symUserConnectionRequest));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new ConnectionsException("Failed to reject connection request from ID: " + symUserConnectionRequest.getUserId(), e);
         }
@@ -251,6 +268,9 @@ public class ConnectionsClientImpl implements ConnectionsClient {
 
         try {
             return SymUserConnection.toSymUserConnection(connectionApi.v1ConnectionUserUserIdInfoGet(symAuth.getSessionToken().getToken(), symUser.getId().toString()));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new ConnectionsException("Unable to retrieve connection information for ID: " + symUser.getId(), e);
         }
@@ -271,6 +291,9 @@ public class ConnectionsClientImpl implements ConnectionsClient {
         UserConnectionList userConnectionList;
         try {
             userConnectionList = connectionApi.v1ConnectionListGet(symAuth.getSessionToken().getToken(), theStatus.toString(), userIds);
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new ConnectionsException("Unable to retrieve all known connections..", e);
         }
@@ -29,6 +29,7 @@ import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.events.SymEvent;
 import org.symphonyoss.client.exceptions.DataFeedException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.agent.api.DatafeedApi;
 import org.symphonyoss.symphony.agent.invoker.ApiClient;
@@ -39,6 +40,7 @@ import org.symphonyoss.symphony.clients.DataFeedClient;
 import org.symphonyoss.symphony.clients.model.ApiVersion;
 import org.symphonyoss.symphony.clients.model.SymDatafeed;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import java.util.List;
 
@@ -105,6 +107,9 @@ public class DataFeedClientImpl implements DataFeedClient {
             throw new DataFeedException("Could not start datafeed..",
                     datafeedApi.getApiClient().getBasePath(), e.getCode(), e);
         } catch (RuntimeException ef) {
+            if (ef instanceof ProcessingException)
+                MetricsClientFilter.transportError(apiClient.getHttpClient());
+
             throw new DataFeedException("Could not start datafeed due to network issue..",
                     datafeedApi.getApiClient().getBasePath(), 500, ef);
         }
@@ -131,6 +136,9 @@ public class DataFeedClientImpl implements DataFeedClient {
             throw new DataFeedException("Failed to retrieve messages from datafeed...",
                     datafeedApi.getApiClient().getBasePath(), e.getCode(), e);
         } catch (RuntimeException ef) {
+            if (ef instanceof ProcessingException)
+                MetricsClientFilter.transportError(apiClient.getHttpClient());
+
             throw new DataFeedException("Failed to retrieve messages due to network issue..",
                     datafeedApi.getApiClient().getBasePath(), 500, ef);
         }
@@ -31,6 +31,7 @@ import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.events.SymEvent;
 import org.symphonyoss.client.exceptions.DataFeedException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.agent.api.DatafeedApi;
 import org.symphonyoss.symphony.agent.api.FirehoseApi;
@@ -46,6 +47,7 @@ import org.symphonyoss.symphony.clients.model.ApiVersion;
 import org.symphonyoss.symphony.clients.model.SymFirehose;
 import org.symphonyoss.symphony.clients.model.SymFirehoseRequest;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import java.util.List;
 
@@ -114,6 +116,9 @@ public class FirehoseClientImpl implements FirehoseClient {
             throw new DataFeedException("Could not start firehose..",
                     firehoseApi.getApiClient().getBasePath(), e.getCode(), e);
         } catch (RuntimeException ef) {
+            if (ef instanceof ProcessingException)
+                MetricsClientFilter.transportError(apiClient.getHttpClient());
+
             throw new DataFeedException("Could not start firehose due to network issue..",
                     firehoseApi.getApiClient().getBasePath(), 500, ef);
         }
@@ -139,6 +144,9 @@ public class FirehoseClientImpl implements FirehoseClient {
             throw new DataFeedException("Failed to retrieve messages from firehose...",
                     firehoseApi.getApiClient().getBasePath(), e.getCode(), e);
         } catch (RuntimeException ef) {
+            if (ef instanceof ProcessingException)
+                MetricsClientFilter.transportError(apiClient.getHttpClient());
+
             throw new DataFeedException("Failed to retrieve messages due to network issue..",
                     firehoseApi.getApiClient().getBasePath(), 500, ef);
         }
@@ -29,6 +29,7 @@ import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.exceptions.MessagesException;
 import org.symphonyoss.client.exceptions.RestException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.agent.api.MessagesApi;
 import org.symphonyoss.symphony.agent.invoker.ApiClient;
@@ -40,6 +41,7 @@ import org.symphonyoss.symphony.clients.model.SymMessage;
 import org.symphonyoss.symphony.clients.model.SymStream;
 import org.symphonyoss.symphony.pod.model.Stream;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import java.util.ArrayList;
 import java.util.List;
@@ -233,6 +235,9 @@ public class MessagesClientImpl implements org.symphonyoss.symphony.clients.Mess
         V4MessageList v4MessageList;
         try {
             v4MessageList = messagesApi.v4StreamSidMessageGet(stream.getStreamId(), since, symAuth.getSessionToken().getToken(), symAuth.getKeyToken().getToken(), offset, maxMessages);
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new MessagesException("Failed to retrieve messages from SymStream: " + stream,
                     new RestException(messagesApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -271,6 +276,9 @@ public class MessagesClientImpl implements org.symphonyoss.symphony.clients.Mess
         V2MessageList v2MessageList;
         try {
             v2MessageList = messagesApi.v2StreamSidMessageGet(stream.getStreamId(), since, symAuth.getSessionToken().getToken(), symAuth.getKeyToken().getToken(), offset, maxMessages);
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new MessagesException("Failed to retrieve messages from stream: " + stream,
                     new RestException(messagesApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -339,6 +347,9 @@ public class MessagesClientImpl implements org.symphonyoss.symphony.clients.Mess
 
             );
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new MessagesException("Failed to send message to stream: " + stream.getStreamId(),
                     new RestException(messagesApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -375,6 +386,9 @@ public class MessagesClientImpl implements org.symphonyoss.symphony.clients.Mess
 
         try {
             return SymMessage.toSymMessage(messagesApi.v2StreamSidMessageCreatePost(stream.getStreamId(), symAuth.getSessionToken().getToken(), symAuth.getKeyToken().getToken(), messageSubmission));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new MessagesException("Failed to send message to stream: " + stream.getStreamId() + ": " + message.getMessage(),
                     new RestException(messagesApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -402,6 +416,9 @@ public class MessagesClientImpl implements org.symphonyoss.symphony.clients.Mess
 
         try {
             return SymMessage.toSymMessage(messagesApi.v3StreamSidMessageCreatePost(stream.getStreamId(), symAuth.getSessionToken().getToken(), messageSubmission, symAuth.getKeyToken().getToken()));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new MessagesException("Failed to send message to stream: " + stream.getStreamId() + ": " + message.getMessage(),
                     new RestException(messagesApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.exceptions.PresenceException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.clients.model.SymPresence;
 import org.symphonyoss.symphony.clients.model.SymPresenceFeed;
@@ -36,6 +37,7 @@ import org.symphonyoss.symphony.pod.invoker.ApiClient;
 import org.symphonyoss.symphony.pod.invoker.ApiException;
 import org.symphonyoss.symphony.pod.model.V2PresenceStatus;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import java.util.List;
 
@@ -108,6 +110,9 @@ public class PresenceClientImpl implements org.symphonyoss.symphony.clients.Pres
 
             //This should return V2Presence..but returning Presence instead..need to contact LLC.
             return SymPresence.toSymPresence(presenceApi.v2UserUidPresenceGet(symUser.getId(),symAuth.getSessionToken().getToken(), local));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new PresenceException("Failed to retrieve user presence for ID: " + symUser.getId(), e);
         }
@@ -126,6 +131,9 @@ public class PresenceClientImpl implements org.symphonyoss.symphony.clients.Pres
 
             return SymPresenceFeed.toSymPresenceFeed(presenceApi.v1PresenceFeedCreatePost(symAuth.getSessionToken().getToken()));
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new PresenceException("Failed to retrieve presence ID..", e);
         }
@@ -152,6 +160,9 @@ public class PresenceClientImpl implements org.symphonyoss.symphony.clients.Pres
 
             presenceApi.v1PresenceFeedFeedIdDeletePost(symAuth.getSessionToken().getToken(), symPresenceFeed.getId());
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new PresenceException("Failed to remove presence ID..", e);
         }
@@ -179,6 +190,9 @@ public class PresenceClientImpl implements org.symphonyoss.symphony.clients.Pres
             return SymPresence.toSymPresence(presenceApi.v1PresenceFeedFeedIdReadGet(symAuth.getSessionToken().getToken(), symPresenceFeed.getId()));
 
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new PresenceException("Failed to remove presence ID..", e);
         }
@@ -203,6 +217,9 @@ public class PresenceClientImpl implements org.symphonyoss.symphony.clients.Pres
 
             return SymPresence.toSymPresence(presenceApi.v2UserPresencePost(symAuth.getSessionToken().getToken(), v2PresenceStatus));
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new PresenceException("Failed to set presence for user.", e);
         }
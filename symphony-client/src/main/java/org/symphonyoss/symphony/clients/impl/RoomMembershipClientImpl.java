@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.exceptions.SymException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.clients.RoomMembershipClient;
 import org.symphonyoss.symphony.pod.api.RoomMembershipApi;
@@ -36,6 +37,7 @@ import org.symphonyoss.symphony.pod.invoker.ApiException;
 import org.symphonyoss.symphony.pod.model.MembershipList;
 import org.symphonyoss.symphony.pod.model.UserId;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 
 
@@ -102,6 +104,9 @@ public class RoomMembershipClientImpl implements RoomMembershipClient {
 
         try {
             return roomMembershipApi.v1RoomIdMembershipListGet(roomStreamId, symAuth.getSessionToken().getToken());
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new SymException("Failed to retrieve room membership for room ID: " + roomStreamId, e);
         }
@@ -131,6 +136,9 @@ public class RoomMembershipClientImpl implements RoomMembershipClient {
             } else {
                 throw new IllegalStateException("Invalid session token. It must not be null or empty");
             }
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new SymException("Symphony API exception adding member to room.", e);
         }
@@ -161,6 +169,9 @@ public class RoomMembershipClientImpl implements RoomMembershipClient {
             } else {
                 throw new IllegalStateException("Invalid session token. It must not be null or empty");
             }
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new SymException("Symphony API exception removing member from room.", e);
         }
@@ -28,6 +28,7 @@ package org.symphonyoss.symphony.clients.impl;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.exceptions.ShareException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.client.model.SymShareArticle;
 import org.symphonyoss.symphony.agent.api.ShareApi;
@@ -36,6 +37,7 @@ import org.symphonyoss.symphony.agent.invoker.ApiException;
 import org.symphonyoss.symphony.agent.model.ShareContent;
 import org.symphonyoss.symphony.clients.ShareClient;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 
 
@@ -96,6 +98,9 @@ public class ShareClientImpl implements ShareClient {
         try {
 
             shareApi.v3StreamSidSharePost(streamId, symAuth.getSessionToken().getToken(), shareContent, symAuth.getKeyToken().getToken());
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new ShareException(e);
         }
@@ -22,12 +22,17 @@
 
 package org.symphonyoss.symphony.clients.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
+import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.exceptions.StreamsException;
 import org.symphonyoss.client.exceptions.UsersClientException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.clients.UsersClient;
 import org.symphonyoss.symphony.clients.UsersFactory;
@@ -37,8 +42,10 @@ import org.symphonyoss.symphony.pod.invoker.ApiClient;
 import org.symphonyoss.symphony.pod.invoker.ApiException;
 import org.symphonyoss.symphony.pod.model.*;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -54,6 +61,10 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
     private final SymphonyClientConfig config;
     private final ApiClient apiClient;
 
+    //IM/MIM streams never change for a given set of participants, so they are only created once per session.
+    private final Cache<List<Long>, Stream> imStreamCache;
+    private final Cache<String, Long> userIdByEmail;
+
 
     private final Logger logger = LoggerFactory.getLogger(StreamsClientImpl.class);
 
@@ -92,6 +103,10 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
 
         apiClient.setBasePath(config.get(SymphonyClientConfigID.POD_URL));
 
+        long cacheSize = Long.parseLong(System.getProperty(Constants.STREAMSCLIENT_IMCACHE_SIZE, "10000"));
+
+        imStreamCache = CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build();
+        userIdByEmail = CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build();
 
     }
 
@@ -153,7 +168,8 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
 
 
     /**
-     * Get stream by list of user IDs.
+     * Get stream by list of user IDs.  Streams are cached by the set of user IDs, so the pod is only called the
+     * first time a conversation with the given participants is requested.
      *
      * @param userIdList A arraylist of user IDs
      * @return {@link Stream}
@@ -165,13 +181,61 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
             throw new NullPointerException("UsersIds were not provided...");
         }
 
-        StreamsApi streamsApi = new StreamsApi(apiClient);
-        try {
-            return SymStream.toSymStream(streamsApi.v1ImCreatePost(userIdList, symAuth.getSessionToken().getToken()));
-        } catch (ApiException e) {
-            throw new StreamsException("Failed to retrieve stream for given user ids...", e);
+        List<Long> key = new ArrayList<>();
+
+        for (Long userId : userIdList) {
+            if (userId != null && !key.contains(userId))
+                key.add(userId);
+        }
+
+        Collections.sort(key);
+
+        Stream stream = imStreamCache.getIfPresent(key);
+
+        if (stream == null) {
+
+            StreamsApi streamsApi = new StreamsApi(apiClient);
+            try {
+                stream = streamsApi.v1ImCreatePost(userIdList, symAuth.getSessionToken().getToken());
+            } catch (ProcessingException e) {
+                MetricsClientFilter.transportError(apiClient.getHttpClient());
+                throw e;
+            } catch (ApiException e) {
+                throw new StreamsException("Failed to retrieve stream for given user ids...", e);
+            }
+
+            if (stream != null)
+                imStreamCache.put(key, stream);
+
         }
 
+        return SymStream.toSymStream(stream);
+
+    }
+
+
+    /**
+     * @return Hit/miss statistics of the IM stream cache
+     */
+    public CacheStats getImStreamCacheStats() {
+        return imStreamCache.stats();
+    }
+
+
+    /**
+     * @return Number of IM streams currently cached
+     */
+    public long getImStreamCacheSize() {
+        return imStreamCache.size();
+    }
+
+
+    /**
+     * Remove all cached IM streams and email lookups
+     */
+    public void clearImStreamCache() {
+        imStreamCache.invalidateAll();
+        userIdByEmail.invalidateAll();
     }
 
 
@@ -200,6 +264,9 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
             return SymAdminStreamList.toSymStreamList(adminStreamList);
 
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new StreamsException("Failed to retrieve stream for given user ids...", e);
         }
@@ -241,6 +308,9 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
             return symStreamAttributes;
 
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new StreamsException("Failed to retrieve stream for given user ids...", e);
         }
@@ -263,16 +333,30 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
             throw new NullPointerException("Email was not provided...");
         }
 
-        UsersClient usersClient;
+        Long userId = userIdByEmail.getIfPresent(email.toLowerCase());
 
-        usersClient = UsersFactory.getClient(symAuth, config, apiClient.getHttpClient());
+        if (userId == null) {
 
+            UsersClient usersClient;
 
-        try {
-            return getStream(usersClient.getUserFromEmail(email));
-        } catch (UsersClientException e) {
-            throw new StreamsException("Failed to find user from email : " + email, e);
+            usersClient = UsersFactory.getClient(symAuth, config, apiClient.getHttpClient());
+
+
+            try {
+                SymUser symUser = usersClient.getUserFromEmail(email);
+
+                userIdByEmail.put(email.toLowerCase(), symUser.getId());
+
+                return getStream(symUser);
+            } catch (UsersClientException e) {
+                throw new StreamsException("Failed to find user from email : " + email, e);
+            }
         }
+
+        UserIdList userIdList = new UserIdList();
+        userIdList.add(userId);
+
+        return getStream(userIdList);
     }
 
 
@@ -295,6 +379,9 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
 
             return SymRoomDetail.toSymRoomDetail(streamsApi.v3RoomIdInfoGet(roomId, symAuth.getSessionToken().getToken()));
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new StreamsException("Failed to obtain room information from ID: " + roomId, e);
         }
@@ -320,6 +407,9 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
             return SymRoomDetail.toSymRoomDetail(streamsApi.v3RoomCreatePost(
                     SymRoomAttributes.toV3RoomAttributes(roomAttributes), symAuth.getSessionToken().getToken()));
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new StreamsException("Failed to obtain room information while creating room: " + roomAttributes.getName(), e);
         }
@@ -345,6 +435,9 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
 
             return SymRoomDetail.toSymRoomDetail(streamsApi.v3RoomIdUpdatePost(streamId,
                     SymRoomAttributes.toV3RoomAttributes(roomAttributes), symAuth.getSessionToken().getToken()));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new StreamsException("Failed to obtain room information while updating attributes on room: " + roomAttributes.getName(), e);
         }
@@ -372,6 +465,9 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
 
             return SymRoomSearchResults.toSymRoomSearchResults(streamsApi.v3RoomSearchPost(symAuth.getSessionToken().getToken(), SymRoomSearchCriteria.toRoomSearchCriteria(searchCriteria), skip, limit));
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new StreamsException("Failed room search...", e);
         }
@@ -393,6 +489,9 @@ public class StreamsClientImpl implements org.symphonyoss.symphony.clients.Strea
 
         try {
             return SymStreamAttributes.toStreamAttributes(streamsApi.v1StreamsSidInfoGet(streamId, symAuth.getSessionToken().getToken()));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new StreamsException("Failed to obtain stream attributes while updating attributes on stream: {}" + streamId, e);
         }
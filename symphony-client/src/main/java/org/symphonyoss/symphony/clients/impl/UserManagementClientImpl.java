@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClientConfig;
 import org.symphonyoss.client.SymphonyClientConfigID;
 import org.symphonyoss.client.exceptions.UserManagementClientException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.authenticator.model.Token;
 import org.symphonyoss.symphony.clients.UserManagementClient;
@@ -38,6 +39,7 @@ import org.symphonyoss.symphony.pod.invoker.ApiClient;
 import org.symphonyoss.symphony.pod.invoker.ApiException;
 import org.symphonyoss.symphony.pod.invoker.Configuration;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 
 /**
@@ -93,6 +95,9 @@ public class UserManagementClientImpl implements UserManagementClient {
 
         try {
             symFeatureList = SymFeatureList.toSymFeatureList(userApi.v1AdminUserUidFeaturesGet(getSessionToken(), userId));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             String errorMessage = "API Error communicating with POD while retrieving user features for user id " + userId;
             LOG.error(errorMessage, e);
@@ -118,6 +123,9 @@ public class UserManagementClientImpl implements UserManagementClient {
         if (!changedSymFeatureList.isEmpty()) {
             try {
                 userApi.v1AdminUserUidFeaturesUpdatePost(getSessionToken(), userId, SymFeatureList.toFeatureList(changedSymFeatureList));
+            } catch (ProcessingException e) {
+                MetricsClientFilter.transportError(apiClient.getHttpClient());
+                throw e;
             } catch (ApiException e) {
                 String errorMessage = "API Error communicating with POD while updating user features for user id " + userId;
                 LOG.error(errorMessage, e);
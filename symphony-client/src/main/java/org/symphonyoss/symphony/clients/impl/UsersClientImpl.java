@@ -31,7 +31,10 @@ import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.exceptions.RestException;
 import org.symphonyoss.client.exceptions.UserNotFoundException;
 import org.symphonyoss.client.exceptions.UsersClientException;
+import org.symphonyoss.client.metrics.MetricsClientFilter;
 import org.symphonyoss.client.model.SymAuth;
+import org.symphonyoss.client.util.ClientThreads;
+import org.symphonyoss.symphony.clients.UserSyncListener;
 import org.symphonyoss.symphony.clients.model.SymUser;
 import org.symphonyoss.symphony.pod.api.RoomMembershipApi;
 import org.symphonyoss.symphony.pod.api.SessionApi;
@@ -41,23 +44,39 @@ import org.symphonyoss.symphony.pod.invoker.ApiClient;
 import org.symphonyoss.symphony.pod.invoker.ApiException;
 import org.symphonyoss.symphony.pod.model.*;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 
 /**
  * @author Frank Tarsillo
  */
 public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersClient {
+    private static final long RETRY_WAIT_TIME = 250;
+
     private final SymAuth symAuth;
     private final ApiClient apiClient;
+    private final ExecutorService lookupExecutor;
+    private final ThreadPoolExecutor getAllUsersExecutor;
 
     private final Logger logger = LoggerFactory.getLogger(UsersClientImpl.class);
 
@@ -82,6 +101,20 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
      * @param httpClient Custom HTTP client
      */
     public UsersClientImpl(SymAuth symAuth, SymphonyClientConfig config, Client httpClient) {
+
+        this(symAuth, config, httpClient, null);
+
+    }
+
+    /**
+     * If you need to override HttpClient and the threads used for concurrent lookups.
+     *
+     * @param symAuth       Authorization model containing session and key tokens
+     * @param config        Symphony Client config
+     * @param httpClient    Custom HTTP client
+     * @param threadFactory Factory creating lookup threads, null for platform threads
+     */
+    public UsersClientImpl(SymAuth symAuth, SymphonyClientConfig config, Client httpClient, ThreadFactory threadFactory) {
         this.symAuth = symAuth;
 
 
@@ -93,6 +126,23 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
 
         apiClient.setBasePath(config.get(SymphonyClientConfigID.POD_URL));
 
+        String userEmail = config.get(SymphonyClientConfigID.USER_EMAIL);
+
+        //Bounds the number of concurrent batch lookups.  Threads are released when idle.
+        int lookupThreads = Integer.parseInt(System.getProperty(Constants.USERSCLIENT_LOOKUP_THREADS, "4"));
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(lookupThreads, lookupThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), ClientThreads.named(threadFactory, "UsersClientLookup", userEmail, true));
+        executor.allowCoreThreadTimeOut(true);
+
+        lookupExecutor = executor;
+
+        //Bounds the number of concurrent batch lookups when retrieving all users.
+        int getAllUsersThreads = Integer.parseInt(System.getProperty(Constants.USERSCLIENT_GETALLUSERS_THREADPOOL, "8"));
+
+        getAllUsersExecutor = new ThreadPoolExecutor(getAllUsersThreads, getAllUsersThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), ClientThreads.named(threadFactory, "UsersClientGetAll", userEmail, true));
+        getAllUsersExecutor.allowCoreThreadTimeOut(true);
 
     }
 
@@ -114,6 +164,9 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
             if (user == null)
                 user = usersApi.v2UserGet(symAuth.getSessionToken().getToken(), null, email, null, false);
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new UsersClientException("API Error communicating with POD, while retrieving user details for " + email,
                     new RestException(usersApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -151,6 +204,9 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
                 user = usersApi.v2UserGet(symAuth.getSessionToken().getToken(), userId, null, null, false);
             }
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new UsersClientException("API Error communicating with POD, while retrieving user details for " + userId,
                     new RestException(usersApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -181,6 +237,9 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
         UserV2 user;
         try {
             user = usersApi.v2UserGet(symAuth.getSessionToken().getToken(), null, null, userName, true);
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new UsersClientException("API Error communicating with POD, while retrieving user details for " + userName,
                     new RestException(usersApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -196,6 +255,134 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
         throw new UserNotFoundException("Could not find user from user name: " + userName);
     }
 
+    @Override
+    public List<SymUser> getUsersFromIdList(List<Long> userIds, Boolean local) throws UsersClientException {
+
+        if (userIds == null)
+            throw new NullPointerException("UserIds were not provided...");
+
+        List<String> uids = userIds.stream().map(String::valueOf).collect(Collectors.toList());
+
+        return getUsersInBatches(uids, true, local);
+    }
+
+
+    @Override
+    public List<SymUser> getUsersFromEmailList(List<String> emails, Boolean local) throws UsersClientException {
+
+        if (emails == null)
+            throw new NullPointerException("Emails were not provided...");
+
+        return getUsersInBatches(emails, false, local);
+    }
+
+
+    /**
+     * @return Number of users requested per call, from {@link Constants#USERSCLIENT_BATCH_SIZE}
+     */
+    private static int batchSize() {
+
+        int batchSize = Integer.parseInt(System.getProperty(Constants.USERSCLIENT_BATCH_SIZE, "100"));
+
+        if (batchSize < 1)
+            throw new IllegalArgumentException(Constants.USERSCLIENT_BATCH_SIZE + " must be greater than zero");
+
+        return batchSize;
+    }
+
+
+    /**
+     * Split the lookup keys into batches and resolve them against the pod.  When more than one batch is required
+     * the batches are requested concurrently on the lookup executor.
+     *
+     * @param keys  User IDs or email addresses
+     * @param byId  True if the keys are user IDs, false if email addresses
+     * @param local Search local pod only
+     * @return Users found
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
+    private List<SymUser> getUsersInBatches(List<String> keys, boolean byId, Boolean local) throws UsersClientException {
+
+        int batchSize = batchSize();
+
+        List<String> batches = new ArrayList<>();
+
+        for (int i = 0; i < keys.size(); i += batchSize)
+            batches.add(String.join(",", keys.subList(i, Math.min(i + batchSize, keys.size()))));
+
+        if (batches.isEmpty())
+            return new ArrayList<>();
+
+        if (batches.size() == 1)
+            return getUsersFromList(byId ? batches.get(0) : null, byId ? null : batches.get(0), local);
+
+        List<Future<List<SymUser>>> futures = new ArrayList<>();
+
+        for (String batch : batches)
+            futures.add(lookupExecutor.submit(() -> getUsersFromList(byId ? batch : null, byId ? null : batch, local)));
+
+        List<SymUser> symUsers = new ArrayList<>();
+
+        try {
+            for (Future<List<SymUser>> future : futures)
+                symUsers.addAll(future.get());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UsersClientException("Interrupted while retrieving user details", e);
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof UsersClientException)
+                throw (UsersClientException) e.getCause();
+
+            throw new UsersClientException("Failed to retrieve user details", e.getCause());
+        } finally {
+            for (Future<List<SymUser>> future : futures)
+                future.cancel(true);
+        }
+
+        return symUsers;
+    }
+
+
+    /**
+     * Single multi-user lookup against the pod.
+     *
+     * @param uids   Comma separated user IDs (or null)
+     * @param emails Comma separated email addresses (or null)
+     * @param local  Search local pod only
+     * @return Users found
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
+    private List<SymUser> getUsersFromList(String uids, String emails, Boolean local) throws UsersClientException {
+
+        UsersApi usersApi = new UsersApi(apiClient);
+
+        V2UserList userList;
+        try {
+            userList = usersApi.v3UsersGet(symAuth.getSessionToken().getToken(), uids, emails, null, local);
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
+        } catch (ApiException e) {
+            throw new UsersClientException("API Error communicating with POD, while retrieving user details for " + (uids != null ? uids : emails),
+                    new RestException(usersApi.getApiClient().getBasePath(), e.getCode(), e));
+        }
+
+        List<SymUser> symUsers = new ArrayList<>();
+
+        if (userList != null && userList.getUsers() != null) {
+
+            for (UserV2 user : userList.getUsers())
+                symUsers.add(SymUser.toSymUser(user));
+
+        }
+
+        logger.debug("Found {} users from list lookup", symUsers.size());
+
+        return symUsers;
+    }
+
     @Override
     public Set<SymUser> getUsersFromStream(String streamId) throws UsersClientException {
 
@@ -209,15 +396,30 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
         try {
             MembershipList memberInfos = roomMembershipApi.v1RoomIdMembershipListGet(streamId, symAuth.getSessionToken().getToken());
 
-            Set<SymUser> users = new HashSet<>();
-            for (MemberInfo memberInfo : memberInfos) {
+            List<Long> userIds = new ArrayList<>();
+            for (MemberInfo memberInfo : memberInfos)
+                userIds.add(memberInfo.getId());
+
+            //Resolve members in bulk instead of one request per member
+            Set<SymUser> users = new HashSet<>(getUsersFromIdList(userIds, true));
+
+            if (users.size() < userIds.size()) {
+
+                Set<Long> found = users.stream().map(SymUser::getId).collect(Collectors.toSet());
 
-                users.add(getUserFromId(memberInfo.getId()));
+                List<Long> missing = userIds.stream().filter(id -> !found.contains(id)).collect(Collectors.toList());
 
+                users.addAll(getUsersFromIdList(missing, false));
 
+                if (users.size() < userIds.size())
+                    logger.warn("Could not resolve {} of {} members in stream {}", userIds.size() - users.size(), userIds.size(), streamId);
             }
+
             return users;
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new UsersClientException("Failed to retrieve room membership for room ID: " + streamId,
                     new RestException(roomMembershipApi.getApiClient().getBasePath(), e.getCode(), e));
@@ -234,85 +436,235 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
      * @return All users as part of a set (returns a simple user without any details)
      * @throws UsersClientException Exceptions thrown from Symphony API's
      */
-    @SuppressWarnings("unused")
     @Override
     public Set<SymUser> getAllUsers() throws UsersClientException {
 
+        Set<SymUser> symUsers = new HashSet<>();
+
+        getAllUsers(symUsers::add);
+
+        return symUsers;
+
+    }
+
+
+    /**
+     * Stream all users without any details.  User IDs are looked up in batches of
+     * {@link Constants#USERSCLIENT_BATCH_SIZE} with at most twice {@link Constants#USERSCLIENT_GETALLUSERS_THREADPOOL}
+     * batches in flight, so only those batches are held in memory.  Failed batches are retried
+     * {@link Constants#USERSCLIENT_GETALLUSERS_RETRIES} times with exponential backoff.
+     *
+     * @param listener Listener receiving users and progress
+     * @return Number of users delivered
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
+    @Override
+    public int getAllUsers(UserSyncListener listener) throws UsersClientException {
+
+        return getAllUsers(listener, false);
+
+    }
+
+
+    /**
+     * Stream all users, optionally retrieving details of features and roles for each user within the batch task so
+     * detail calls for different batches overlap.
+     *
+     * @param listener    Listener receiving users and progress
+     * @param withDetails True to retrieve features and roles of every user
+     * @return Number of users delivered
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
+    private int getAllUsers(UserSyncListener listener, boolean withDetails) throws UsersClientException {
+
+        if (listener == null)
+            throw new NullPointerException("Listener was not provided..");
+
         UserApi userApi = new UserApi(apiClient);
 
-        Set<SymUser> symUsers = ConcurrentHashMap.newKeySet();
+        UserIdList userIdList;
+        try {
+            userIdList = userApi.v1AdminUserListGet(symAuth.getSessionToken().getToken());
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
+        } catch (ApiException e) {
+            throw new UsersClientException("API Error communicating with POD, while retrieving all user details",
+                    new RestException(userApi.getApiClient().getBasePath(), e.getCode(), e));
+        }
 
+        if (userIdList == null)
+            return 0;
+
+        List<String> uids = userIdList.stream().filter(Objects::nonNull).map(String::valueOf).collect(Collectors.toList());
+
+        int batchSize = batchSize();
+        int retries = Integer.parseInt(System.getProperty(Constants.USERSCLIENT_GETALLUSERS_RETRIES, "3"));
+        int window = getAllUsersExecutor.getMaximumPoolSize() * 2;
+
+        CompletionService<List<SymUser>> completionService = new ExecutorCompletionService<>(getAllUsersExecutor);
+        Map<Future<List<SymUser>>, Integer> pending = new HashMap<>();
+
+        long startTime = System.currentTimeMillis();
+        logger.debug("Started to retrieve {} users..", uids.size());
+
+        int next = 0;
+        int completed = 0;
+        int found = 0;
 
-        UserV2 user;
         try {
-            UserIdList userIdList = userApi.v1AdminUserListGet(symAuth.getSessionToken().getToken());
 
-            int nThreads = Integer.parseInt(System.getProperty(Constants.USERSCLIENT_GETALLUSERS_THREADPOOL, "8"));
+            while (completed < uids.size()) {
+
+                //Keep a bounded number of batches in flight
+                while (next < uids.size() && pending.size() < window) {
+
+                    List<String> batch = uids.subList(next, Math.min(next + batchSize, uids.size()));
+                    String batchUids = String.join(",", batch);
+                    next += batch.size();
+
+                    pending.put(completionService.submit(() -> getUsers(batchUids, withDetails, retries)), batch.size());
+                }
+
+                Future<List<SymUser>> future = completionService.take();
+                int batchIds = pending.remove(future);
 
-            ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+                List<SymUser> symUsers = future.get();
 
-            long startTime = System.currentTimeMillis();
-            logger.debug("Started to retrieve all users..");
+                symUsers.forEach(listener::onUser);
 
-            for (Long userId : userIdList) {
+                found += symUsers.size();
+                completed += batchIds;
 
+                listener.onProgress(completed, uids.size());
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UsersClientException("Interrupted while retrieving all users", e);
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof UsersClientException)
+                throw (UsersClientException) e.getCause();
+
+            throw new UsersClientException("Failed to retrieve all users", e.getCause());
+        } finally {
+            for (Future<List<SymUser>> future : pending.keySet())
+                future.cancel(true);
+        }
 
-                executor.execute((new Thread(() -> {
+        logger.debug("Retrieved {} of {} users in {} sec", found, uids.size(), (System.currentTimeMillis() - startTime) / 1000);
+
+        return found;
+
+    }
+
+
+    /**
+     * Multi-user lookup of local pod users by ID.  Every call to the pod is retried with exponential backoff.
+     *
+     * @param uids        Comma separated user IDs
+     * @param withDetails True to retrieve features and roles of every user
+     * @param retries     Number of retries after the first attempt
+     * @return Users found
+     * @throws UsersClientException If the last attempt of a call failed
+     * @throws InterruptedException If interrupted while waiting to retry
+     */
+    private List<SymUser> getUsers(String uids, boolean withDetails, int retries) throws UsersClientException, InterruptedException {
+
+        List<SymUser> symUsers = withRetry(() -> getUsersFromList(uids, null, true), retries);
+
+        if (withDetails) {
+            for (SymUser symUser : symUsers)
+                withRetry(() -> setUserDetails(symUser), retries);
+        }
 
-                    UsersApi usersApi2 = new UsersApi(apiClient);
-                    SymUser symUser;
+        return symUsers;
+    }
 
-                    if (userId == null)
-                        throw new NullPointerException("UserId was null...");
 
-                    UserV2 user1;
-                    try {
-                        user1 = usersApi2.v2UserGet(symAuth.getSessionToken().getToken(), userId, null, null, true);
+    /**
+     * Run a call to the pod, retrying with exponential backoff.
+     *
+     * @param call    Call to run
+     * @param retries Number of retries after the first attempt
+     * @param <T>     Result type
+     * @return Result of the call
+     * @throws UsersClientException If the last attempt failed
+     * @throws InterruptedException If interrupted while waiting to retry
+     */
+    private <T> T withRetry(PodCall<T> call, int retries) throws UsersClientException, InterruptedException {
 
-                        if (user1 == null) {
-                            user1 = usersApi2.v2UserGet(symAuth.getSessionToken().getToken(), userId, null, null, false);
-                        }
+        for (int attempt = 0; ; attempt++) {
 
+            try {
 
-                    } catch (ApiException e) {
-                        logger.error("API Error while communicating with POD while retrieving user details", e);
-                        return;
-                    }
+                return call.call();
 
-                    if (user1 != null) {
+            } catch (UsersClientException e) {
 
-                        //logger.debug("Found User: {}:{}", user.getDisplayName(), user.getId());
-                        symUser = SymUser.toSymUser(user1);
-                        symUsers.add(symUser);
-                    }
+                if (attempt >= retries)
+                    throw e;
 
-                })));
+                logger.warn("Call to POD failed, retry {} of {}", attempt + 1, retries, e);
 
+                TimeUnit.MILLISECONDS.sleep(RETRY_WAIT_TIME << attempt);
             }
+        }
+    }
 
 
-            executor.shutdown();
+    /**
+     * Retrieve features, roles, created and last login dates of a user.
+     *
+     * @param symUser User to update
+     * @return The updated user
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
+    private SymUser setUserDetails(SymUser symUser) throws UsersClientException {
 
+        String sessionToken = symAuth.getSessionToken().getToken();
+        UserApi userApi = new UserApi(apiClient);
+        Long uid = symUser.getId();
+
+        logger.debug("Obtaining user details for {}", symUser.getDisplayName());
 
-            executor.awaitTermination(5, TimeUnit.SECONDS);
+        try {
+
+            symUser.setFeatures(userApi.v1AdminUserUidFeaturesGet(sessionToken, uid));
 
+            UserDetail userDetail = userApi.v1AdminUserUidGet(sessionToken, uid);
+            symUser.setRoles(new HashSet<>(userDetail.getRoles()));
 
-            logger.debug("Finished all threads. Total time retrieving users: {} sec", (System.currentTimeMillis() - startTime) / 1000);
+            if (userDetail.getUserSystemInfo().getLastLoginDate() != null)
+                symUser.setLastLoginDate(new Date(userDetail.getUserSystemInfo().getLastLoginDate()));
 
+            if (userDetail.getUserSystemInfo().getCreatedDate() != null)
+                symUser.setCreatedDate(new Date(userDetail.getUserSystemInfo().getCreatedDate()));
 
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
-            throw new UsersClientException("API Error communicating with POD, while retrieving all user details",
+            throw new UsersClientException("API Error communicating with POD, while retrieving user details for " + uid,
                     new RestException(userApi.getApiClient().getBasePath(), e.getCode(), e));
-        } catch (InterruptedException e) {
-            logger.error("Executor failed to terminate after retrieving all users.", e);
-            throw new UsersClientException("Interrupt waiting for search executor to finish", e);
         }
 
+        return symUser;
+    }
 
-        return symUsers;
 
+    /**
+     * Call to the pod that can be retried.
+     *
+     * @param <T> Result type
+     */
+    @FunctionalInterface
+    private interface PodCall<T> {
+        T call() throws UsersClientException;
     }
 
+
     /**
      * Retrieve all symphony users with details of features and roles
      *
@@ -321,33 +673,31 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
      */
     @Override
     public Set<SymUser> getAllUsersWithDetails() throws UsersClientException {
-        Set<SymUser> symUsers = getAllUsers();
-        String sessionToken = symAuth.getSessionToken().getToken();
-        UserApi userApi = new UserApi(apiClient);
-        FeatureList featureList;
-        UserDetail userDetail;
-        try {
-            for (SymUser symUser : symUsers) {
-                logger.debug("Obtaining user details for {}", symUser.getDisplayName());
-                Long uid = symUser.getId();
-                featureList = userApi.v1AdminUserUidFeaturesGet(sessionToken, uid);
-                symUser.setFeatures(featureList);
-                userDetail = userApi.v1AdminUserUidGet(sessionToken, uid);
-                symUser.setRoles(new HashSet<>(userDetail.getRoles()));
-                if (userDetail.getUserSystemInfo().getLastLoginDate() != null)
-                    symUser.setLastLoginDate(new Date(userDetail.getUserSystemInfo().getLastLoginDate()));
-
-                if (userDetail.getUserSystemInfo().getCreatedDate() != null)
-                    symUser.setCreatedDate(new Date(userDetail.getUserSystemInfo().getCreatedDate()));
 
-            }
-        } catch (ApiException e) {
-            throw new UsersClientException("API Error communicating with POD, while retrieving all user details",
-                    new RestException(userApi.getApiClient().getBasePath(), e.getCode(), e));
-        }
+        Set<SymUser> symUsers = new HashSet<>();
+
+        getAllUsersWithDetails(symUsers::add);
+
         return symUsers;
     }
 
+
+    /**
+     * Stream all symphony users with details of features and roles.  Detail calls run concurrently on
+     * {@link Constants#USERSCLIENT_GETALLUSERS_THREADPOOL} threads, overlapping with the retrieval of further
+     * users, and enriched users are delivered batch by batch as they complete.
+     *
+     * @param listener Listener receiving users and progress
+     * @return Number of users delivered
+     * @throws UsersClientException Exceptions thrown from Symphony API's
+     */
+    @Override
+    public int getAllUsersWithDetails(UserSyncListener listener) throws UsersClientException {
+
+        return getAllUsers(listener, true);
+
+    }
+
     @Override
     public void setUserStatus(long userId, UserStatus userStatus) throws UsersClientException {
         if (userStatus == null) {
@@ -364,6 +714,9 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
             if (successResponse == null) {
                 throw new IllegalStateException("Update user status response must not be null");
             }
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             String message = "API error communicating with POD, while settIng status " + userStatus.getStatus() + " for user id: " + userId;
             logger.error(message, e);
@@ -392,6 +745,9 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
             } else {
                 throw new IllegalStateException("Update user response must not be null");
             }
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             String message = "API error communicating with POD, while updating user";
             logger.error(message, e);
@@ -418,6 +774,9 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
             if (userDetail == null) {
                 throw new IllegalStateException("User Detail must not be null");
             }
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             String message = "API error communicating with POD, while creating user";
             logger.error(message, e);
@@ -453,6 +812,9 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
 
         try {
             return SymUser.toSymUser(sessionApi.v2SessioninfoGet(symAuth.getSessionToken().getToken()));
+        } catch (ProcessingException e) {
+            MetricsClientFilter.transportError(apiClient.getHttpClient());
+            throw e;
         } catch (ApiException e) {
             throw new UsersClientException("Unable to obtain user by session token", e);
         }
@@ -485,6 +847,9 @@ public class UsersClientImpl implements org.symphonyoss.symphony.clients.UsersCl
                             "The message differs from expected OK message. Response message: " + response.getMessage());
                 }
 
+            } catch (ProcessingException e) {
+                MetricsClientFilter.transportError(apiClient.getHttpClient());
+                throw e;
             } catch (ApiException e) {
                 String message = "API error communicating with POD, while updating avatar";
                 logger.error(message, e);
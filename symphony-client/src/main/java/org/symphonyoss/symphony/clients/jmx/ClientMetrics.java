@@ -0,0 +1,97 @@
+package org.symphonyoss.symphony.clients.jmx;
+
+import org.symphonyoss.client.metrics.DefaultMetricsRegistry;
+import org.symphonyoss.client.metrics.MetricId;
+import org.symphonyoss.client.metrics.MetricsRegistry;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes every metric of a {@link MetricsRegistry} as a read-only JMX attribute named after the metric ID, ex.
+ * {@code http.client.requests.p99{endpoint=GET /pod/v2/user,status=200}}.
+ * The attribute list follows the registry, so new endpoints show up as they are called.
+ */
+public class ClientMetrics implements DynamicMBean {
+
+    private final MetricsRegistry metricsRegistry;
+
+    public ClientMetrics(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+
+        for (Map.Entry<MetricId, Number> entry : metricsRegistry.snapshot().entrySet()) {
+            if (entry.getKey().toString().equals(attribute))
+                return entry.getValue();
+        }
+
+        throw new AttributeNotFoundException("No metric named " + attribute);
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+
+        Map<MetricId, Number> snapshot = metricsRegistry.snapshot();
+        AttributeList list = new AttributeList();
+
+        for (String attribute : attributes) {
+            for (Map.Entry<MetricId, Number> entry : snapshot.entrySet()) {
+                if (entry.getKey().toString().equals(attribute))
+                    list.add(new Attribute(attribute, entry.getValue()));
+            }
+        }
+
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+
+        if ("reset".equals(actionName) && metricsRegistry instanceof DefaultMetricsRegistry) {
+            ((DefaultMetricsRegistry) metricsRegistry).reset();
+            return null;
+        }
+
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+
+        metricsRegistry.snapshot().forEach((id, value) -> attributes.add(new MBeanAttributeInfo(id.toString(),
+                value.getClass().getName(), id.getName(), true, false, false)));
+
+        MBeanOperationInfo[] operations = metricsRegistry instanceof DefaultMetricsRegistry ?
+                new MBeanOperationInfo[]{new MBeanOperationInfo("reset", "Clear all timers and counters",
+                        new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION)} :
+                new MBeanOperationInfo[0];
+
+        return new MBeanInfo(ClientMetrics.class.getName(), "Symphony java client metrics",
+                attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null, operations, null);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.symphony.clients.UsersClient;
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CompactUserCacheTest {
+
+    private SymphonyClient symClient;
+    private UsersClient usersClient;
+
+    @Before
+    public void before() throws Exception {
+
+        symClient = mock(SymphonyClient.class);
+        usersClient = mock(UsersClient.class);
+
+        when(symClient.getUsersClient()).thenReturn(usersClient);
+        when(usersClient.getUserFromId(1L)).thenReturn(user(1L));
+    }
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.SYMUSERS_CACHE_COMPACT_SLIM);
+    }
+
+    @Test
+    public void userIndexedByIdEmailAndName() throws Exception {
+
+        CompactUserCache userCache = new CompactUserCache(symClient);
+
+        SymUser symUser = userCache.getUserById(1L);
+
+        assertSame(symUser, userCache.getUserById(1L));
+        assertSame(symUser, userCache.getUserByEmail("User1@Symphony.com"));
+        assertSame(symUser, userCache.getUserByName("user1"));
+        assertEquals(Collections.singleton("INDIVIDUAL"), symUser.getRoles());
+
+        verify(usersClient, times(1)).getUserFromId(1L);
+        verify(usersClient, never()).getUserFromEmail("user1@symphony.com");
+
+        userCache.invalidate(1L);
+
+        assertEquals(0, userCache.size());
+    }
+
+    @Test
+    public void slimProjectionAndBulkLookups() throws Exception {
+
+        System.setProperty(Constants.SYMUSERS_CACHE_COMPACT_SLIM, "true");
+
+        when(usersClient.getUsersFromIdList(anyList(), anyBoolean())).thenReturn(Collections.emptyList());
+        when(usersClient.getUsersFromIdList(Arrays.asList(2L, 3L, 4L), true)).thenReturn(Arrays.asList(user(2L), user(3L)));
+
+        CompactUserCache userCache = new CompactUserCache(symClient);
+
+        assertNull(userCache.getUserById(1L).getRoles());
+
+        Map<Long, SymUser> symUsers = userCache.getUsersByIds(Arrays.asList(1L, 2L, 3L, 4L));
+
+        assertEquals(3, symUsers.size());
+        assertEquals("User 2", symUsers.get(2L).getDisplayName());
+        assertEquals(3, userCache.size());
+
+        //Missing user is remembered
+        userCache.getUsersByIds(Collections.singletonList(4L));
+        verify(usersClient, times(1)).getUsersFromIdList(Collections.singletonList(4L), false);
+    }
+
+    private SymUser user(Long userId) {
+        SymUser symUser = new SymUser();
+        symUser.setId(userId);
+        symUser.setEmailAddress("user" + userId + "@symphony.com");
+        symUser.setUsername("user" + userId);
+        symUser.setDisplayName("User " + userId);
+        symUser.setRoles(Collections.singleton("INDIVIDUAL"));
+        return symUser;
+    }
+}
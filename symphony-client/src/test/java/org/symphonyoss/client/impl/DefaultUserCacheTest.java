@@ -0,0 +1,113 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.exceptions.UserNotFoundException;
+import org.symphonyoss.client.exceptions.UsersClientException;
+import org.symphonyoss.symphony.clients.UsersClient;
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DefaultUserCacheTest {
+
+    private DefaultUserCache userCache;
+    private UsersClient usersClient;
+
+    @Before
+    public void before() throws Exception {
+
+        SymphonyClient symClient = mock(SymphonyClient.class);
+        usersClient = mock(UsersClient.class);
+
+        when(symClient.getUsersClient()).thenReturn(usersClient);
+
+        userCache = new DefaultUserCache(symClient);
+    }
+
+    @Test
+    public void missingUsersAreNegativelyCached() throws Exception {
+
+        when(usersClient.getUserFromEmail("missing@domain.com")).thenThrow(new UserNotFoundException("not found"));
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                userCache.getUserByEmail("missing@domain.com");
+                fail("Expected user not to be found");
+            } catch (UsersClientException e) {
+                //expected
+            }
+        }
+
+        verify(usersClient, times(1)).getUserFromEmail("missing@domain.com");
+
+        //Bulk lookups skip keys known to be missing
+        Map<String, SymUser> symUsers = userCache.getUsersByEmails(Collections.singletonList("MISSING@domain.com"));
+
+        assertEquals(0, symUsers.size());
+        verify(usersClient, never()).getUsersFromEmailList(eq(Collections.singletonList("missing@domain.com")), anyBoolean());
+    }
+
+    @Test
+    public void bulkMissesAreRemembered() throws Exception {
+
+        when(usersClient.getUsersFromIdList(anyList(), anyBoolean())).thenReturn(Collections.emptyList());
+        when(usersClient.getUsersFromIdList(eq(Arrays.asList(1L, 2L)), eq(true))).thenReturn(Collections.singletonList(user(1L)));
+
+        assertEquals(1, userCache.getUsersByIds(Arrays.asList(1L, 2L)).size());
+        assertEquals(1, userCache.getUsersByIds(Arrays.asList(1L, 2L)).size());
+
+        verify(usersClient, times(1)).getUsersFromIdList(Arrays.asList(2L), false);
+
+        try {
+            userCache.getUserById(2L);
+            fail("Expected user not to be found");
+        } catch (UsersClientException e) {
+            //expected
+        }
+
+        verify(usersClient, never()).getUserFromId(2L);
+    }
+
+    private SymUser user(Long userId) {
+        SymUser symUser = new SymUser();
+        symUser.setId(userId);
+        return symUser;
+    }
+}
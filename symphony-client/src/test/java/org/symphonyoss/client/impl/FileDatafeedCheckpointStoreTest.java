@@ -0,0 +1,73 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.impl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.symphonyoss.client.model.DatafeedCheckpoint;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FileDatafeedCheckpointStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void missingFileHasNoCheckpoint() {
+
+        assertNull(new FileDatafeedCheckpointStore(folder.getRoot().toPath().resolve("none")).load());
+    }
+
+    @Test
+    public void checkpointSurvivesRestart() throws Exception {
+
+        Path file = folder.getRoot().toPath().resolve("checkpoint/datafeed.properties");
+
+        DatafeedCheckpoint checkpoint = new DatafeedCheckpoint();
+        checkpoint.setDatafeedId("feedId");
+        checkpoint.setLastEventId("eventId");
+        checkpoint.setLastEventTimestamp(1000L);
+        checkpoint.updateStream("stream1", 900L);
+        checkpoint.updateStream("stream2", 1000L);
+        checkpoint.updateStream("stream2", 950L);
+
+        new FileDatafeedCheckpointStore(file).save(checkpoint);
+
+        DatafeedCheckpoint loaded = new FileDatafeedCheckpointStore(file).load();
+
+        assertEquals("feedId", loaded.getDatafeedId());
+        assertEquals("eventId", loaded.getLastEventId());
+        assertEquals(Long.valueOf(1000L), loaded.getLastEventTimestamp());
+        assertEquals(Long.valueOf(900L), loaded.getStreamTimestamps().get("stream1"));
+        assertEquals(Long.valueOf(1000L), loaded.getStreamTimestamps().get("stream2"));
+
+        //No temporary files are left behind
+        assertEquals(1, Files.list(file.getParent()).count());
+    }
+}
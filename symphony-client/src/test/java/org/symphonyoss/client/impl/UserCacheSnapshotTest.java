@@ -0,0 +1,142 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.impl;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.symphonyoss.symphony.clients.model.SymAvatar;
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UserCacheSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void usersSurviveRestart() throws Exception {
+
+        Path file = folder.getRoot().toPath().resolve("cache/users.snapshot");
+
+        SymAvatar avatar = new SymAvatar();
+        avatar.setSize("small");
+        avatar.setUrl("https://avatar");
+
+        SymUser first = new SymUser();
+        first.setId(1L);
+        first.setEmailAddress("first@domain.com");
+        first.setUsername("first");
+        first.setDisplayName("F\u00efrst \u00dcser");
+        first.setCreatedDate(new Date(1000L));
+        first.setActive(true);
+        first.setRoles(Collections.singleton("INDIVIDUAL"));
+        first.setAvatars(Collections.singletonList(avatar));
+
+        SymUser second = new SymUser();
+        second.setId(2L);
+
+        long before = System.currentTimeMillis();
+
+        new UserCacheSnapshot(file).save(Arrays.asList(first, second, new SymUser()));
+
+        UserCacheSnapshot snapshot = new UserCacheSnapshot(file);
+        List<SymUser> symUsers = snapshot.load();
+
+        assertEquals(2, symUsers.size());
+        assertTrue(snapshot.getSavedTime() >= before);
+
+        SymUser loaded = symUsers.get(0);
+
+        assertEquals(Long.valueOf(1L), loaded.getId());
+        assertEquals("first@domain.com", loaded.getEmailAddress());
+        assertEquals("F\u00efrst \u00dcser", loaded.getDisplayName());
+        assertEquals(new Date(1000L), loaded.getCreatedDate());
+        assertNull(loaded.getLastLoginDate());
+        assertTrue(loaded.isActive());
+        assertEquals(Collections.singleton("INDIVIDUAL"), loaded.getRoles());
+        assertEquals("https://avatar", loaded.getAvatars().get(0).getUrl());
+
+        assertEquals(Long.valueOf(2L), symUsers.get(1).getId());
+        assertNull(symUsers.get(1).getEmailAddress());
+
+        //No temporary files are left behind
+        assertEquals(1, Files.list(file.getParent()).count());
+    }
+
+    @Test
+    public void corruptSnapshotIsIgnored() throws Exception {
+
+        Path file = folder.getRoot().toPath().resolve("users.snapshot");
+
+        new UserCacheSnapshot(file).save(Collections.singletonList(user()));
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertTrue(new UserCacheSnapshot(file).load().isEmpty());
+        assertNull(new UserCacheSnapshot(folder.getRoot().toPath().resolve("none")).getSavedTime());
+    }
+
+    @Test
+    public void corruptLengthIsIgnored() throws Exception {
+
+        Path file = folder.getRoot().toPath().resolve("users.snapshot");
+
+        new UserCacheSnapshot(file).save(Collections.singletonList(user()));
+
+        //Header is 20 bytes followed by the user ID, then the email length prefix
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(28, Integer.MAX_VALUE);
+        Files.write(file, bytes);
+
+        assertTrue(new UserCacheSnapshot(file).load().isEmpty());
+    }
+
+    @Test
+    public void unreadableSnapshotIsAbsent() throws Exception {
+
+        UserCacheSnapshot snapshot = new UserCacheSnapshot(folder.newFolder("users.snapshot").toPath());
+
+        assertNull(snapshot.getSavedTime());
+        assertTrue(snapshot.load().isEmpty());
+    }
+
+    private SymUser user() {
+        SymUser symUser = new SymUser();
+        symUser.setId(1L);
+        symUser.setEmailAddress("user@domain.com");
+        return symUser;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.metrics;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultMetricsRegistryTest {
+
+    @Test
+    public void timerReportsPercentilesInMillis() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+
+        for (int i = 1; i <= 100; i++)
+            registry.recordTime("http.client.requests", i, TimeUnit.MILLISECONDS, "endpoint", "GET /pod/v2/user");
+
+        Map<MetricId, Number> snapshot = registry.snapshot();
+        MetricId id = new MetricId("http.client.requests", "endpoint", "GET /pod/v2/user");
+
+        assertEquals(100L, snapshot.get(id.withSuffix("count")));
+        assertEquals(5050d, snapshot.get(id.withSuffix("sum")));
+        assertEquals(100d, snapshot.get(id.withSuffix("max")));
+
+        //Log-linear buckets are accurate to 12.5%
+        assertEquals(50d, snapshot.get(id.withSuffix("p50")).doubleValue(), 50 * 0.125);
+        assertEquals(99d, snapshot.get(id.withSuffix("p99")).doubleValue(), 99 * 0.125);
+    }
+
+    @Test
+    public void countersAreKeyedByTags() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+
+        registry.increment("http.client.errors", "status", "429");
+        registry.increment("http.client.errors", "status", "429");
+        registry.count("http.client.errors", 3, "status", "500");
+
+        Map<MetricId, Number> snapshot = registry.snapshot();
+
+        assertEquals(2L, snapshot.get(new MetricId("http.client.errors", "status", "429")));
+        assertEquals(3L, snapshot.get(new MetricId("http.client.errors", "status", "500")));
+
+        registry.reset();
+        assertTrue(registry.snapshot().isEmpty());
+    }
+
+    @Test
+    public void gaugesAreSampledOnSnapshot() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        registry.gauge("http.client.inflight", inFlight::get);
+        inFlight.set(7);
+
+        assertEquals(7, registry.snapshot().get(new MetricId("http.client.inflight")));
+    }
+
+    @Test
+    public void idsAreNormalizedAndFormatted() {
+
+        assertEquals("/agent/v4/datafeed/{id}/read",
+                MetricsClientFilter.normalize("/agent/v4/datafeed/3d7d2f1a-19b2-4c3f-b1d1-0d1f8a6c5e21/read"));
+        assertEquals("/pod/v1/user/{id}/presence", MetricsClientFilter.normalize("/pod/v1/user/71811853189212/presence"));
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+        registry.increment("http.client.errors", "endpoint", "GET /pod/v2/user", "status", "429");
+
+        assertEquals("http_client_errors{endpoint=\"GET /pod/v2/user\",status=\"429\"} 1\n",
+                MetricsHttpEndpoint.format(registry.snapshot()));
+    }
+}
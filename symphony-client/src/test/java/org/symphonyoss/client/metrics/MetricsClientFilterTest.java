@@ -0,0 +1,130 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.symphonyoss.client.metrics;
+
+import org.junit.Test;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MetricsClientFilterTest {
+
+    private static final MetricId TRANSPORT_ERRORS =
+            new MetricId("http.client.errors", "endpoint", "GET /pod/v2/user", "status", "transport");
+
+    private static final MetricId REQUESTS =
+            new MetricId("http.client.requests", "endpoint", "GET /pod/v2/user", "status", "200").withSuffix("count");
+
+    @Test
+    public void failedCallCountedWhereItFails() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+        MetricsClientFilter filter = new MetricsClientFilter(registry, 300, TimeUnit.SECONDS);
+
+        //No response, ex. connection refused
+        filter.filter(request("/pod/v2/user", null));
+        assertEquals(1, filter.getInFlight());
+
+        filter.transportError();
+        filter.transportError();
+
+        assertEquals(1L, registry.snapshot().get(TRANSPORT_ERRORS));
+        assertEquals(0, filter.getInFlight());
+    }
+
+    @Test
+    public void answeredCallsAreNotTransportErrors() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+        MetricsClientFilter filter = new MetricsClientFilter(registry, 300, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 3; i++) {
+            ClientRequestContext request = request("/pod/v2/user", null);
+            filter.filter(request);
+            filter.filter(request, response(200));
+        }
+
+        filter.transportError();
+
+        assertNull(registry.snapshot().get(TRANSPORT_ERRORS));
+    }
+
+    @Test
+    public void sharedHttpClientRecordsOnRegistryOfEachClient() {
+
+        DefaultMetricsRegistry first = new DefaultMetricsRegistry();
+        DefaultMetricsRegistry second = new DefaultMetricsRegistry();
+
+        MetricsClientFilter filter = new MetricsClientFilter(first, () -> "first", 300, TimeUnit.SECONDS);
+        filter.share(new MetricsClientFilter(second, () -> "second", 300, TimeUnit.SECONDS));
+
+        ClientRequestContext request = request("/pod/v2/user", "second");
+        filter.filter(request);
+        filter.filter(request, response(200));
+
+        assertNull(first.snapshot().get(REQUESTS));
+        assertEquals(1L, second.snapshot().get(REQUESTS));
+
+        request = request("/pod/v2/user", "first");
+        filter.filter(request);
+        filter.transportError();
+
+        assertEquals(1L, first.snapshot().get(TRANSPORT_ERRORS));
+        assertNull(second.snapshot().get(TRANSPORT_ERRORS));
+    }
+
+    private ClientRequestContext request(String path, String sessionToken) {
+
+        Map<String, Object> properties = new HashMap<>();
+
+        ClientRequestContext requestContext = mock(ClientRequestContext.class);
+        when(requestContext.getMethod()).thenReturn("GET");
+        when(requestContext.getHeaderString("sessionToken")).thenReturn(sessionToken);
+        when(requestContext.getUri()).thenReturn(URI.create("https://pod" + path));
+        when(requestContext.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.getArgument(0)));
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(requestContext).setProperty(anyString(), any());
+
+        return requestContext;
+    }
+
+    private ClientResponseContext response(int status) {
+
+        ClientResponseContext responseContext = mock(ClientResponseContext.class);
+        when(responseContext.getStatus()).thenReturn(status);
+
+        return responseContext;
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.junit.Test;
+import org.symphonyoss.client.metrics.DefaultMetricsRegistry;
+import org.symphonyoss.client.metrics.MetricId;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveBatchSizeTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+    @Test
+    public void fullBatchesGrowUntilMaxOrSlow() {
+
+        DefaultMetricsRegistry metricsRegistry = new DefaultMetricsRegistry();
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize("datafeed", 100, 10, 500, 2000, metricsRegistry);
+
+        batchSize.onRead(100, FAST);
+        assertEquals(200, batchSize.getSize());
+
+        batchSize.onRead(200, FAST);
+        batchSize.onRead(400, FAST);
+        assertEquals(500, batchSize.getSize());
+
+        batchSize.onRead(500, SLOW);
+        assertEquals(250, batchSize.getSize());
+
+        assertEquals(250, metric(metricsRegistry, new MetricId("feed.batch.size", "feed", "datafeed")));
+        assertEquals(3, metric(metricsRegistry, new MetricId("feed.batch.adjustments", "feed", "datafeed", "direction", "up")));
+    }
+
+    @Test
+    public void idleReadsShrinkToMin() {
+
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize("firehose", 40, 10, 500, 2000, null);
+
+        batchSize.onRead(1, FAST);
+        batchSize.onRead(1, FAST);
+        assertEquals(40, batchSize.getSize());
+
+        //A moderately busy read resets the idle count
+        batchSize.onRead(20, FAST);
+        batchSize.onRead(0, FAST);
+        batchSize.onRead(0, FAST);
+        assertEquals(40, batchSize.getSize());
+
+        batchSize.onRead(0, FAST);
+        assertEquals(20, batchSize.getSize());
+
+        for (int i = 0; i < AdaptiveBatchSize.IDLE_READS * 4; i++)
+            batchSize.onRead(0, FAST);
+
+        assertEquals(10, batchSize.getSize());
+    }
+
+    private long metric(DefaultMetricsRegistry metricsRegistry, MetricId id) {
+        return metricsRegistry.snapshot().get(id).longValue();
+    }
+}
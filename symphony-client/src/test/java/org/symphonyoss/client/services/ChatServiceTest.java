@@ -25,7 +25,32 @@
 
 package org.symphonyoss.client.services;
 
+import org.junit.Before;
+import org.junit.Test;
 import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.model.CacheType;
+import org.symphonyoss.client.model.Chat;
+import org.symphonyoss.symphony.clients.StreamsClient;
+import org.symphonyoss.symphony.clients.model.SymStream;
+import org.symphonyoss.symphony.clients.model.SymUser;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Created by Frank Tarsillo on 6/19/2016.
@@ -34,6 +59,85 @@ public class ChatServiceTest {
     ChatService chatService;
     SymphonyClient symClient;
 
+    @Before
+    public void before() throws Exception {
+
+        symClient = mock(SymphonyClient.class);
+        SymUserCache symUserCache = mock(SymUserCache.class);
+        StreamsClient streamsClient = mock(StreamsClient.class);
+
+        SymStream symStream = new SymStream();
+        symStream.setStreamId("streamId");
+
+        when(symClient.getMessageService()).thenReturn(mock(MessageService.class));
+        when(symClient.getCache(CacheType.USER)).thenReturn(symUserCache);
+        when(symClient.getStreamsClient()).thenReturn(streamsClient);
+        when(symUserCache.getUserById(anyLong())).thenAnswer(invocation -> user(invocation.getArgument(0)));
+        when(streamsClient.getStream(anySet())).thenReturn(symStream);
+
+        chatService = new ChatService(symClient);
+    }
+
+    @Test
+    public void concurrentAddsRegisterChatOnce() throws Exception {
+
+        ChatServiceListener chatServiceListener = mock(ChatServiceListener.class);
+        chatService.addListener(chatServiceListener);
+
+        int threads = 8;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+
+        for (int i = 0; i < threads; i++) {
+            executorService.execute(() -> {
+                try {
+                    start.await();
+
+                    if (chatService.addChat(chat()))
+                        accepted.incrementAndGet();
+
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, accepted.get());
+        assertEquals(1, chatService.getChats(user(1L)).size());
+        verify(chatServiceListener, times(1)).onNewChat(any(Chat.class));
+    }
+
+    @Test
+    public void removeChatDropsUserIndex() throws Exception {
+
+        assertTrue(chatService.addChat(chat()));
+        assertTrue(chatService.removeChat(chatService.getChatByStream("streamId")));
+
+        assertNull(chatService.getChatByStream("streamId"));
+        assertNull(chatService.getChats(user(1L)));
+    }
+
+    private Chat chat() {
+
+        Chat chat = new Chat();
+        chat.setRemoteUsers(Collections.singleton(user(1L)));
+
+        return chat;
+    }
+
+    private SymUser user(Long id) {
+
+        SymUser symUser = new SymUser();
+        symUser.setId(id);
+
+        return symUser;
+    }
+
 //    @Before
 //    public void beforeTest() {
 //
@@ -0,0 +1,150 @@
+/*
+ *
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *
+ */
+
+package org.symphonyoss.client.services;
+
+import org.junit.Test;
+import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.client.events.SymEventPayload;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DataFeedDispatcherTest {
+
+    private static final int STREAMS = 8;
+    private static final int EVENTS_PER_STREAM = 200;
+
+    @Test
+    public void preservesOrderingPerStream() throws Exception {
+
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(STREAMS * EVENTS_PER_STREAM);
+
+        DataFeedDispatcher dispatcher = new DataFeedDispatcher(symEvent -> {
+            received.computeIfAbsent(symEvent.getPayload().getStreamId(), k -> new ArrayList<>())
+                    .add(Integer.valueOf(symEvent.getId()));
+            latch.countDown();
+        }, 4, 16, DispatchPolicy.BLOCK, "test", null);
+
+        for (int i = 0; i < EVENTS_PER_STREAM; i++) {
+            for (int s = 0; s < STREAMS; s++) {
+                dispatcher.onEvent(newEvent("stream" + s, i));
+            }
+        }
+
+        assertTrue("Not all events were dispatched", latch.await(10, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+
+        assertEquals(STREAMS, received.size());
+
+        for (List<Integer> ids : received.values()) {
+            assertEquals(EVENTS_PER_STREAM, ids.size());
+
+            for (int i = 0; i < ids.size(); i++)
+                assertEquals(Integer.valueOf(i), ids.get(i));
+        }
+    }
+
+    @Test
+    public void dropOldestWhenFull() throws Exception {
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        DataFeedDispatcher dispatcher = new DataFeedDispatcher(symEvent -> {
+            blocked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1, 2, DispatchPolicy.DROP_OLDEST, "test", null);
+
+        dispatcher.onEvent(newEvent("stream", 0));
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+
+        for (int i = 1; i <= 5; i++)
+            dispatcher.onEvent(newEvent("stream", i));
+
+        assertEquals(3, dispatcher.getDroppedEvents());
+        assertEquals(2, dispatcher.getPendingEvents());
+
+        release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void spillKeepsAllEvents() throws Exception {
+
+        List<Integer> received = new ArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+
+        DataFeedDispatcher dispatcher = new DataFeedDispatcher(symEvent -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(Integer.valueOf(symEvent.getId()));
+            done.countDown();
+        }, 1, 2, DispatchPolicy.SPILL, "test", null);
+
+        for (int i = 0; i < 10; i++)
+            dispatcher.onEvent(newEvent("stream", i));
+
+        release.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+
+        for (int i = 0; i < 10; i++)
+            assertEquals(Integer.valueOf(i), received.get(i));
+    }
+
+    private SymEvent newEvent(String streamId, int id) {
+
+        SymMessage symMessage = new SymMessage();
+        symMessage.setStreamId(streamId);
+
+        SymEventPayload payload = new SymEventPayload();
+        payload.setMessageSent(symMessage);
+
+        SymEvent symEvent = new SymEvent();
+        symEvent.setId(String.valueOf(id));
+        symEvent.setPayload(payload);
+
+        return symEvent;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.symphonyoss.client.services;
+
+import org.junit.Test;
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.events.SymEvent;
+import org.symphonyoss.client.events.SymEventPayload;
+import org.symphonyoss.client.metrics.NoopMetricsRegistry;
+import org.symphonyoss.client.model.DatafeedCheckpoint;
+import org.symphonyoss.symphony.clients.MessagesClient;
+import org.symphonyoss.symphony.clients.model.SymDatafeed;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DatafeedCheckpointerTest {
+
+    @Test
+    public void checkpointOnlyAdvancesOverHandledPrefix() {
+
+        AtomicReference<DatafeedCheckpoint> saved = new AtomicReference<>();
+
+        DatafeedCheckpointer checkpointer = new DatafeedCheckpointer(mock(SymphonyClient.class), new DatafeedCheckpointStore() {
+            @Override
+            public DatafeedCheckpoint load() {
+                return null;
+            }
+
+            @Override
+            public void save(DatafeedCheckpoint checkpoint) {
+                saved.set(checkpoint);
+            }
+        }, NoopMetricsRegistry.INSTANCE);
+
+        SymEvent first = event("1", 1000L);
+        SymEvent second = event("2", 2000L);
+        SymEvent third = event("3", 3000L);
+
+        checkpointer.onRead(first);
+        checkpointer.onRead(second);
+        checkpointer.onRead(third);
+
+        //Later events handled first on other lanes do not move the checkpoint past the first one
+        checkpointer.onProcessed(third);
+        checkpointer.onProcessed(second);
+        checkpointer.save();
+
+        assertNull(saved.get().getLastEventTimestamp());
+        assertEquals(3, checkpointer.getPendingEvents());
+
+        checkpointer.onProcessed(first);
+        checkpointer.save();
+
+        assertEquals("3", saved.get().getLastEventId());
+        assertEquals(Long.valueOf(3000L), saved.get().getLastEventTimestamp());
+        assertEquals(0, checkpointer.getPendingEvents());
+    }
+
+    @Test
+    public void catchUpPagesAndKeepsMessagesBetweenCheckpointAndDatafeed() throws Exception {
+
+        DatafeedCheckpoint checkpoint = new DatafeedCheckpoint();
+        checkpoint.updateStream("stream", 1000L);
+
+        MessagesClient messagesClient = mock(MessagesClient.class);
+        DatafeedCheckpointer checkpointer = new DatafeedCheckpointer(client(messagesClient), store(checkpoint), NoopMetricsRegistry.INSTANCE);
+
+        //A full first page, then a page with messages outside the catch-up window
+        List<SymMessage> firstPage = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            firstPage.add(message("m" + i, 1001L + i));
+
+        when(messagesClient.getMessagesFromStream(any(SymStream.class), eq(1001L), eq(0), anyInt())).thenReturn(firstPage);
+        when(messagesClient.getMessagesFromStream(any(SymStream.class), eq(1001L), eq(100), anyInt()))
+                .thenReturn(Arrays.asList(message("m100", 1101L), message("late", 2000L), message("early", 1000L)));
+
+        List<SymEvent> published = new ArrayList<>();
+        checkpointer.onDatafeedCreated(datafeed(), 2000L, published::add);
+
+        assertEquals(101, published.size());
+        assertEquals("m0", published.get(0).getId());
+        assertEquals("m100", published.get(100).getId());
+        verify(messagesClient).getMessagesFromStream(any(SymStream.class), eq(1001L), eq(100), anyInt());
+    }
+
+    @Test
+    public void catchUpSkipsPendingMessagesOnNewStreams() throws Exception {
+
+        MessagesClient messagesClient = mock(MessagesClient.class);
+        DatafeedCheckpointer checkpointer = new DatafeedCheckpointer(client(messagesClient), store(null), NoopMetricsRegistry.INSTANCE);
+
+        //Read from the failed datafeed and still being handled, the stream never advanced
+        checkpointer.onRead(messageEvent("event1", message("m1", 1500L)));
+
+        when(messagesClient.getMessagesFromStream(any(SymStream.class), eq(1500L), eq(0), anyInt()))
+                .thenReturn(Arrays.asList(message("m1", 1500L), message("m2", 1600L)));
+
+        List<SymEvent> published = new ArrayList<>();
+        checkpointer.onDatafeedCreated(datafeed(), 2000L, published::add);
+
+        assertEquals(1, published.size());
+        assertEquals("m2", published.get(0).getId());
+        assertEquals(2, checkpointer.getPendingEvents());
+    }
+
+    @Test
+    public void resumedDatafeedIsCaughtUpWithoutDuplicates() throws Exception {
+
+        DatafeedCheckpoint checkpoint = new DatafeedCheckpoint();
+        checkpoint.setDatafeedId("datafeed");
+        checkpoint.updateStream("stream", 1000L);
+
+        MessagesClient messagesClient = mock(MessagesClient.class);
+        DatafeedCheckpointer checkpointer = new DatafeedCheckpointer(client(messagesClient), store(checkpoint), NoopMetricsRegistry.INSTANCE);
+
+        assertNotNull(checkpointer.getResumableDatafeed());
+
+        //Read by the previous process but never handled
+        when(messagesClient.getMessagesFromStream(any(SymStream.class), eq(1001L), eq(0), anyInt()))
+                .thenReturn(Arrays.asList(message("m1", 1500L), message("m2", 1600L)));
+
+        List<SymEvent> published = new ArrayList<>();
+        checkpointer.onDatafeedResumed(2000L, published::add);
+
+        assertEquals(2, published.size());
+
+        //Sent after the previous process stopped reading, so also delivered by the resumed datafeed
+        assertTrue(checkpointer.isCaughtUp(messageEvent("event2", message("m2", 1600L))));
+        assertFalse(checkpointer.isCaughtUp(messageEvent("event3", message("m3", 1700L))));
+
+        //Past the catch-up nothing is dropped
+        assertFalse(checkpointer.isCaughtUp(messageEvent("event4", message("m4", 2100L))));
+        assertFalse(checkpointer.isCaughtUp(messageEvent("event2", message("m2", 1600L))));
+    }
+
+    private SymphonyClient client(MessagesClient messagesClient) {
+
+        SymphonyClient symClient = mock(SymphonyClient.class);
+        when(symClient.getMessagesClient()).thenReturn(messagesClient);
+
+        return symClient;
+    }
+
+    private DatafeedCheckpointStore store(DatafeedCheckpoint checkpoint) {
+
+        return new DatafeedCheckpointStore() {
+            @Override
+            public DatafeedCheckpoint load() {
+                return checkpoint;
+            }
+
+            @Override
+            public void save(DatafeedCheckpoint checkpoint) {
+            }
+        };
+    }
+
+    private SymDatafeed datafeed() {
+
+        SymDatafeed datafeed = new SymDatafeed();
+        datafeed.setId("datafeed");
+
+        return datafeed;
+    }
+
+    private SymMessage message(String id, long timestamp) {
+
+        SymMessage symMessage = new SymMessage();
+        symMessage.setId(id);
+        symMessage.setTimestamp(String.valueOf(timestamp));
+        symMessage.setStreamId("stream");
+
+        return symMessage;
+    }
+
+    private SymEvent messageEvent(String id, SymMessage symMessage) {
+
+        SymEventPayload payload = new SymEventPayload();
+        payload.setMessageSent(symMessage);
+
+        SymEvent symEvent = event(id, Long.valueOf(symMessage.getTimestamp()));
+        symEvent.setPayload(payload);
+
+        return symEvent;
+    }
+
+    private SymEvent event(String id, long timestamp) {
+
+        SymEvent symEvent = new SymEvent();
+        symEvent.setId(id);
+        symEvent.setTimestamp(timestamp);
+
+        return symEvent;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.junit.Test;
+import org.symphonyoss.client.events.SymEvent;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventDeduplicatorTest {
+
+    @Test
+    public void duplicatesAreDroppedWithinCapacity() {
+
+        EventDeduplicator eventDeduplicator = new EventDeduplicator(2);
+
+        assertTrue(eventDeduplicator.isNew(event("1")));
+        assertFalse(eventDeduplicator.isNew(event("1")));
+        assertTrue(eventDeduplicator.isNew(event("2")));
+        assertTrue(eventDeduplicator.isNew(event("3")));
+
+        //Oldest ID has been forgotten
+        assertTrue(eventDeduplicator.isNew(event("1")));
+        assertFalse(eventDeduplicator.isNew(event("3")));
+    }
+
+    @Test
+    public void eventsWithoutIdAreAlwaysNew() {
+
+        EventDeduplicator eventDeduplicator = new EventDeduplicator(2);
+
+        assertTrue(eventDeduplicator.isNew(event(null)));
+        assertTrue(eventDeduplicator.isNew(event(null)));
+    }
+
+    private SymEvent event(String id) {
+        SymEvent symEvent = new SymEvent();
+        symEvent.setId(id);
+        return symEvent;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.junit.Test;
+import org.symphonyoss.client.metrics.DefaultMetricsRegistry;
+import org.symphonyoss.client.metrics.MetricId;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FeedRecoveryPolicyTest {
+
+    @Test
+    public void backoffGrowsWithJitterUpToMaxWait() {
+
+        FeedRecoveryPolicy policy = new FeedRecoveryPolicy("datafeed", 100, 1000, 100, 5000, null);
+
+        long[] expected = {100, 200, 400, 800, 1000, 1000};
+
+        for (long delay : expected) {
+            long wait = policy.onFailure();
+
+            assertTrue("wait " + wait + " below " + delay / 2, wait >= delay / 2);
+            assertTrue("wait " + wait + " above " + delay, wait <= delay);
+        }
+
+        assertEquals(FeedRecoveryPolicy.State.CLOSED, policy.getState());
+
+        policy.onSuccess();
+
+        assertEquals(0, policy.getFailures());
+        assertTrue(policy.onFailure() <= 100);
+    }
+
+    @Test
+    public void circuitOpensThenHalfOpensAndCloses() throws Exception {
+
+        DefaultMetricsRegistry metricsRegistry = new DefaultMetricsRegistry();
+        FeedRecoveryPolicy policy = new FeedRecoveryPolicy("firehose", 10, 20, 3, 50, metricsRegistry);
+
+        policy.onFailure();
+        policy.onFailure();
+        long wait = policy.onFailure();
+
+        assertTrue(wait >= 25 && wait <= 50);
+        assertEquals(FeedRecoveryPolicy.State.OPEN, policy.getState());
+        assertEquals(2, gauge(metricsRegistry, "feed.recovery.state"));
+
+        Thread.sleep(wait + 10);
+
+        assertEquals(FeedRecoveryPolicy.State.HALF_OPEN, policy.getState());
+
+        //Failed half-open attempt re-opens the circuit
+        policy.onFailure();
+        assertEquals(FeedRecoveryPolicy.State.OPEN, policy.getState());
+        assertEquals(2, gauge(metricsRegistry, "feed.recovery.opened"));
+
+        policy.onSuccess();
+
+        assertEquals(FeedRecoveryPolicy.State.CLOSED, policy.getState());
+        assertEquals(0, gauge(metricsRegistry, "feed.recovery.failures"));
+        assertEquals(4, gauge(metricsRegistry, "feed.recovery.retries"));
+    }
+
+    private int gauge(DefaultMetricsRegistry metricsRegistry, String name) {
+        return metricsRegistry.snapshot().get(new MetricId(name, "feed", "firehose")).intValue();
+    }
+}
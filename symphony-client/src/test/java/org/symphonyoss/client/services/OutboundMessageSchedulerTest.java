@@ -0,0 +1,151 @@
+/*
+ *
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ *
+ */
+
+package org.symphonyoss.client.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.exceptions.MessagesException;
+import org.symphonyoss.client.exceptions.RestException;
+import org.symphonyoss.symphony.clients.MessagesClient;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OutboundMessageSchedulerTest {
+
+    private MessagesClient messagesClientMock;
+    private OutboundMessageScheduler scheduler;
+    private final List<String> sent = new ArrayList<>();
+
+    @Before
+    public void before() throws Exception {
+
+        System.setProperty(Constants.MESSAGES_OUTBOUND_RETRY_WAIT, "10");
+
+        messagesClientMock = mock(MessagesClient.class);
+
+        when(messagesClientMock.sendMessage(any(SymStream.class), any(SymMessage.class))).thenAnswer(invocation -> {
+            SymStream stream = invocation.getArgument(0);
+            SymMessage message = invocation.getArgument(1);
+
+            synchronized (sent) {
+                sent.add(stream.getStreamId() + ":" + message.getMessage());
+            }
+            return message;
+        });
+    }
+
+    @After
+    public void after() {
+        scheduler.shutdown();
+        System.clearProperty(Constants.MESSAGES_OUTBOUND_RETRY_WAIT);
+    }
+
+    @Test
+    public void streamsAreServedRoundRobin() throws Exception {
+
+        //Single sender and a per stream limit, so a busy stream must share with a new one.
+        scheduler = new OutboundMessageScheduler(messagesClientMock, 1000, 1000, 50, 1, 1, "test");
+
+        List<CompletableFuture<SymMessage>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++)
+            futures.add(scheduler.submit(stream("busy"), message(i)));
+
+        futures.add(scheduler.submit(stream("quiet"), message(0)));
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(11, scheduler.getSentMessages());
+        assertTrue("Quiet stream waited for the busy stream", sent.indexOf("quiet:0") < 5);
+
+        List<String> busy = new ArrayList<>();
+        for (String entry : sent)
+            if (entry.startsWith("busy"))
+                busy.add(entry);
+
+        for (int i = 0; i < 10; i++)
+            assertEquals("busy:" + i, busy.get(i));
+
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    public void throttledMessageIsRetried() throws Exception {
+
+        SymMessage sentMessage = new SymMessage();
+
+        when(messagesClientMock.sendMessage(any(SymStream.class), any(SymMessage.class)))
+                .thenThrow(new MessagesException("throttled", new RestException("endpoint", 429, null)))
+                .thenReturn(sentMessage);
+
+        scheduler = new OutboundMessageScheduler(messagesClientMock, 1000, 1000, 1000, 10, 1, "test");
+
+        assertEquals(sentMessage, scheduler.submit(stream("stream"), message(0)).get(10, TimeUnit.SECONDS));
+        assertEquals(1, scheduler.getThrottledMessages());
+        assertEquals(1, scheduler.getSentMessages());
+    }
+
+    @Test(expected = MessagesException.class)
+    public void otherFailuresAreNotRetried() throws Exception {
+
+        when(messagesClientMock.sendMessage(any(SymStream.class), any(SymMessage.class)))
+                .thenThrow(new MessagesException("failed", new RestException("endpoint", 400, null)));
+
+        scheduler = new OutboundMessageScheduler(messagesClientMock, 1000, 1000, 1000, 10, 1, "test");
+
+        try {
+            scheduler.sendMessage(stream("stream"), message(0));
+        } finally {
+            assertEquals(1, scheduler.getFailedMessages());
+            assertEquals(0, scheduler.getThrottledMessages());
+        }
+    }
+
+    private SymStream stream(String streamId) {
+        SymStream symStream = new SymStream();
+        symStream.setStreamId(streamId);
+        return symStream;
+    }
+
+    private SymMessage message(int id) {
+        SymMessage symMessage = new SymMessage();
+        symMessage.setMessage(String.valueOf(id));
+        return symMessage;
+    }
+}
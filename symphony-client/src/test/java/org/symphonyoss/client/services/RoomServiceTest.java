@@ -0,0 +1,153 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.services;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.symphonyoss.client.SymphonyClient;
+import org.symphonyoss.client.common.Constants;
+import org.symphonyoss.client.events.SymUserJoinedRoom;
+import org.symphonyoss.client.model.Room;
+import org.symphonyoss.symphony.clients.StreamsClient;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymRoomDetail;
+import org.symphonyoss.symphony.clients.model.SymStream;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RoomServiceTest {
+
+    private RoomService roomService;
+    private SymphonyClient symClient;
+
+    @Before
+    public void before() throws Exception {
+
+        symClient = mock(SymphonyClient.class);
+        StreamsClient streamsClient = mock(StreamsClient.class);
+
+        when(symClient.getStreamsClient()).thenReturn(streamsClient);
+        when(streamsClient.getRoomDetail(any())).thenReturn(new SymRoomDetail());
+
+        roomService = new RoomService(symClient);
+    }
+
+    @Test
+    public void eventsAreRoutedToMatchingRoomOnly() throws Exception {
+
+        RoomEventListener firstListener = mock(RoomEventListener.class);
+        RoomEventListener secondListener = mock(RoomEventListener.class);
+        RoomEventListener globalListener = mock(RoomEventListener.class);
+
+        roomService.joinRoom(room("stream1", firstListener));
+        roomService.joinRoom(room("stream2", secondListener));
+        roomService.addGlobalRoomEventListener(globalListener);
+
+        SymUserJoinedRoom joined = userJoined("stream1");
+        roomService.onSymUserJoinedRoom(joined);
+
+        verify(firstListener, times(1)).onSymUserJoinedRoom(joined);
+        verify(secondListener, never()).onSymUserJoinedRoom(any());
+        verify(globalListener, times(1)).onSymUserJoinedRoom(joined);
+    }
+
+    @Test
+    public void unknownStreamsOnlyReachGlobalListeners() throws Exception {
+
+        RoomEventListener roomListener = mock(RoomEventListener.class);
+        RoomEventListener globalListener = mock(RoomEventListener.class);
+
+        roomService.joinRoom(room("stream1", roomListener));
+        roomService.addGlobalRoomEventListener(globalListener);
+
+        SymUserJoinedRoom joined = userJoined("unknown");
+        roomService.onSymUserJoinedRoom(joined);
+
+        verify(roomListener, never()).onSymUserJoinedRoom(any());
+        verify(globalListener, times(1)).onSymUserJoinedRoom(joined);
+    }
+
+    @Test
+    public void joinedRoomsAreNotEvicted() throws Exception {
+
+        System.setProperty(Constants.ROOMSERVICE_MAX_ROOMS, "1");
+
+        try {
+
+            RoomService boundedRoomService = new RoomService(symClient);
+            RoomEventListener roomListener = mock(RoomEventListener.class);
+            RoomServiceEventListener roomServiceListener = mock(RoomServiceEventListener.class);
+
+            boundedRoomService.addRoomServiceEventListener(roomServiceListener);
+            boundedRoomService.joinRoom(room("stream1", roomListener));
+
+            //Detected rooms exceed the limit and evict each other, but not the joined room
+            boundedRoomService.onMessage(message("stream2"));
+            boundedRoomService.onMessage(message("stream3"));
+
+            verify(roomServiceListener, times(1)).onRemovedRoom(any());
+
+            SymUserJoinedRoom joined = userJoined("stream1");
+            boundedRoomService.onSymUserJoinedRoom(joined);
+
+            verify(roomListener, times(1)).onSymUserJoinedRoom(joined);
+
+        } finally {
+            System.clearProperty(Constants.ROOMSERVICE_MAX_ROOMS);
+        }
+    }
+
+    private SymMessage message(String streamId) {
+
+        SymMessage symMessage = new SymMessage();
+        symMessage.setStreamId(streamId);
+
+        return symMessage;
+    }
+
+    private Room room(String streamId, RoomEventListener roomEventListener) {
+
+        Room room = new Room();
+        room.setId(streamId);
+        room.setStreamId(streamId);
+        room.addEventListener(roomEventListener);
+
+        return room;
+    }
+
+    private SymUserJoinedRoom userJoined(String streamId) {
+
+        SymStream symStream = new SymStream();
+        symStream.setStreamId(streamId);
+
+        SymUserJoinedRoom symUserJoinedRoom = new SymUserJoinedRoom();
+        symUserJoinedRoom.setStream(symStream);
+
+        return symUserJoinedRoom;
+    }
+}
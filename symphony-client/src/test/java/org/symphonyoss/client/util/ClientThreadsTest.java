@@ -0,0 +1,89 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.symphonyoss.client.common.Constants;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ClientThreadsTest {
+
+    @After
+    public void after() {
+        System.clearProperty(Constants.CLIENT_THREAD_MODE);
+    }
+
+    @Test
+    public void namedFactoryNamesAndMarksDaemonThreads() {
+
+        ThreadFactory threadFactory = ClientThreads.named(null, "Worker", "bot@test.com", true);
+
+        Thread first = threadFactory.newThread(() -> {
+        });
+        Thread second = threadFactory.newThread(() -> {
+        });
+
+        assertEquals("Worker-1: bot@test.com", first.getName());
+        assertEquals("Worker-2: bot@test.com", second.getName());
+        assertTrue(first.isDaemon());
+
+        Thread worker = ClientThreads.newThread(ClientThreads.platformThreadFactory(), () -> {
+        }, "DataFeedWorker: bot@test.com");
+
+        assertEquals("DataFeedWorker: bot@test.com", worker.getName());
+        assertFalse(worker.isDaemon());
+    }
+
+    @Test
+    public void virtualModeRunsTasksOnAnyJvm() throws Exception {
+
+        System.setProperty(Constants.CLIENT_THREAD_MODE, ClientThreads.VIRTUAL);
+
+        ThreadFactory threadFactory = ClientThreads.fromProperties();
+        assertNotNull(threadFactory);
+
+        boolean[] ran = new boolean[1];
+        Thread thread = ClientThreads.newThread(threadFactory, () -> ran[0] = true, "VirtualTest");
+        thread.start();
+        thread.join(5000);
+
+        assertTrue(ran[0]);
+        assertEquals("VirtualTest", thread.getName());
+
+        if (!ClientThreads.isVirtualThreadSupported()) {
+            try {
+                ClientThreads.virtualThreadFactory();
+            } catch (UnsupportedOperationException e) {
+                return;
+            }
+            throw new AssertionError("Expected virtual threads to be unsupported");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FeedPublisherTest {
+
+    @Test
+    public void slowSubscriberBlocksProducer() throws Exception {
+
+        FeedPublisher<Integer> publisher = new FeedPublisher<>(2);
+        TestSubscriber subscriber = new TestSubscriber();
+
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        AtomicInteger offered = new AtomicInteger();
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                publisher.offer(i);
+                offered.incrementAndGet();
+            }
+        });
+        producer.start();
+
+        //One delivered, two buffered, the fourth offer waits for demand
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertEquals(3, offered.get());
+        assertEquals(1, subscriber.items.size());
+        assertEquals(2, publisher.getBufferedItems());
+        assertTrue(producer.isAlive());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        producer.join(5000);
+
+        assertFalse(producer.isAlive());
+        assertEquals(5, subscriber.items.size());
+        assertEquals(Integer.valueOf(4), subscriber.items.get(4));
+    }
+
+    @Test
+    public void closeCompletesAfterBufferedItems() {
+
+        FeedPublisher<Integer> publisher = new FeedPublisher<>(4);
+        TestSubscriber subscriber = new TestSubscriber();
+
+        publisher.subscribe(subscriber);
+        publisher.offer(1);
+        publisher.offer(2);
+        publisher.close();
+
+        assertFalse(subscriber.completed.get());
+
+        subscriber.subscription.request(2);
+
+        assertEquals(2, subscriber.items.size());
+        assertTrue(subscriber.completed.get());
+        assertFalse(publisher.hasSubscribers());
+    }
+
+    @Test
+    public void closeReleasesBlockedProducer() throws Exception {
+
+        FeedPublisher<Integer> publisher = new FeedPublisher<>(1);
+        TestSubscriber subscriber = new TestSubscriber();
+
+        publisher.subscribe(subscriber);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 3; i++)
+                publisher.offer(i);
+        });
+        producer.start();
+
+        //The second offer waits for demand that never comes
+        producer.join(200);
+        assertTrue(producer.isAlive());
+
+        publisher.close();
+        producer.join(5000);
+
+        assertFalse(producer.isAlive());
+        assertEquals(1, publisher.getBufferedItems());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(1, subscriber.items.size());
+        assertTrue(subscriber.completed.get());
+    }
+
+    @Test
+    public void invalidRequestSignalsError() {
+
+        FeedPublisher<Integer> publisher = new FeedPublisher<>(4);
+        TestSubscriber subscriber = new TestSubscriber();
+
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error.get() instanceof IllegalArgumentException);
+        assertFalse(publisher.hasSubscribers());
+
+        //Cancelled subscribers no longer block the producer
+        publisher.offer(1);
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+
+    private static class TestSubscriber implements Subscriber<Integer> {
+
+        private final List<Integer> items = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private volatile Subscription subscription;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.set(true);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void behavesLikeHashMap() {
+
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200000; i++) {
+
+            //Small key range so puts, replaces and removes collide often
+            long key = random.nextInt(5000) - 100;
+
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            }
+
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (long key = -100; key < 4900; key++)
+            assertEquals(expected.get(key), map.get(key));
+
+        Map<String, Boolean> values = new HashMap<>();
+        map.forEachValue(value -> values.put(value, Boolean.TRUE));
+        assertEquals(expected.size(), values.size());
+    }
+
+    @Test
+    public void growsAndClears() {
+
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>(10);
+
+        for (long key = 0; key < 100000; key++)
+            map.put(key * 1000003L, key);
+
+        assertEquals(100000, map.size());
+        assertEquals(Long.valueOf(500L), map.get(500 * 1000003L));
+        assertEquals(262144, map.capacity());
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(500 * 1000003L));
+    }
+}
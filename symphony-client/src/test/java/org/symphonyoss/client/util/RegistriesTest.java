@@ -0,0 +1,59 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RegistriesTest {
+
+    @Test
+    public void unboundedRegistryIsPlainMap() {
+
+        assertTrue(Registries.newRegistry(0, 0, null) instanceof ConcurrentHashMap);
+    }
+
+    @Test
+    public void evictionsAreReportedButRemovalsAreNot() {
+
+        List<String> evicted = new ArrayList<>();
+        ConcurrentMap<String, String> registry = Registries.newRegistry(2, 0, (key, value) -> evicted.add(key));
+
+        registry.put("stream1", "chat1");
+        registry.put("stream2", "chat2");
+        registry.remove("stream2");
+        registry.put("stream3", "chat3");
+        registry.put("stream4", "chat4");
+
+        assertEquals(2, registry.size());
+        assertEquals(1, evicted.size());
+        assertEquals("stream1", evicted.get(0));
+    }
+}
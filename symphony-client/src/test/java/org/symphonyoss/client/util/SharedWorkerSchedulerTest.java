@@ -0,0 +1,121 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SharedWorkerSchedulerTest {
+
+    private SharedWorkerScheduler scheduler;
+
+    @Before
+    public void before() {
+        scheduler = new SharedWorkerScheduler(1, null, "test");
+    }
+
+    @After
+    public void after() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void ownersAreServedRoundRobin() throws Exception {
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(6);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        //Hold the only thread while tasks queue up
+        scheduler.execute("x", () -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        for (int i = 0; i < 4; i++) {
+            String task = "a" + i;
+            scheduler.execute("a", () -> {
+                order.add(task);
+                done.countDown();
+            });
+        }
+
+        for (int i = 0; i < 2; i++) {
+            String task = "b" + i;
+            scheduler.execute("b", () -> {
+                order.add(task);
+                done.countDown();
+            });
+        }
+
+        blocked.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("a0", "b0", "a1", "b1", "a2", "a3"), order);
+    }
+
+    @Test
+    public void workerRunsUntilShutdown() throws Exception {
+
+        AtomicInteger iterations = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        scheduler.schedule("a", new WorkerTask() {
+
+            @Override
+            public long runOnce() {
+
+                if (iterations.incrementAndGet() == 5)
+                    done.countDown();
+
+                return 10;
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return iterations.get() >= 5;
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        assertEquals(5, iterations.get());
+        assertEquals(0, scheduler.getQueuedTasks());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    @Test
+    public void concurrentCallsShareOneResult() throws Exception {
+
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+
+            Future<String> first = executorService.submit(() -> singleFlight.execute("key", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                return "value";
+            }));
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<String> second = executorService.submit(() -> singleFlight.execute("key", () -> {
+                calls.incrementAndGet();
+                return "other";
+            }));
+
+            //Wait for the second caller to join the call in flight
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals("value", first.get(5, TimeUnit.SECONDS));
+            assertEquals("value", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(0, singleFlight.getInFlight());
+
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void claimedKeysAreSharedWithLaterCallers() throws Exception {
+
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        Map<String, CompletableFuture<String>> pending = new HashMap<>();
+        List<String> claimed = singleFlight.claim(Arrays.asList("a", "b"), pending);
+
+        assertEquals(Arrays.asList("a", "b"), claimed);
+        assertTrue(pending.isEmpty());
+
+        List<String> others = singleFlight.claim(Arrays.asList("b", "c"), pending);
+
+        assertEquals(Arrays.asList("c"), others);
+        assertEquals(1, pending.size());
+
+        singleFlight.complete("b", null);
+        singleFlight.complete("c", "c");
+        singleFlight.fail(Arrays.asList("a"), new IllegalStateException("boom"));
+
+        assertEquals(null, SingleFlight.await(pending.get("b")));
+        assertEquals(0, singleFlight.getInFlight());
+
+        try {
+            singleFlight.execute("a", () -> {
+                throw new IllegalStateException("again");
+            });
+            fail("Expected failure");
+        } catch (IllegalStateException e) {
+            assertEquals("again", e.getMessage());
+        }
+    }
+
+    @Test
+    public void waitersGiveUpAfterAwaitTimeout() throws Exception {
+
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(50, TimeUnit.MILLISECONDS);
+
+        Map<String, CompletableFuture<String>> pending = new HashMap<>();
+        singleFlight.claim(Arrays.asList("a"), pending);
+        singleFlight.claim(Arrays.asList("a"), pending);
+
+        try {
+            singleFlight.join(pending.get("a"));
+            fail("Expected timeout");
+        } catch (TimeoutException e) {
+            assertEquals(1, singleFlight.getInFlight());
+        }
+
+        try {
+            singleFlight.execute("a", () -> "value");
+            fail("Expected timeout");
+        } catch (TimeoutException e) {
+            singleFlight.complete("a", "value");
+        }
+
+        assertEquals("value", singleFlight.execute("a", () -> "value"));
+    }
+}
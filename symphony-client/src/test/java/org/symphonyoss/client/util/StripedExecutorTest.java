@@ -0,0 +1,211 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.symphonyoss.client.services.DispatchPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StripedExecutorTest {
+
+    private ExecutorService executorService;
+
+    @Before
+    public void before() {
+        executorService = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void after() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void tasksWithSameKeyRunInOrder() throws Exception {
+
+        StripedExecutor stripedExecutor = new StripedExecutor(executorService, 16);
+
+        int keys = 50;
+        int tasksPerKey = 100;
+
+        Map<String, List<Integer>> results = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(keys * tasksPerKey);
+
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int k = 0; k < keys; k++) {
+                String key = "stream" + k;
+                int sequence = i;
+
+                stripedExecutor.execute(key, () -> {
+                    results.computeIfAbsent(key, x -> new ArrayList<>()).add(sequence);
+                    latch.countDown();
+                });
+            }
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        for (List<Integer> sequences : results.values()) {
+            for (int i = 0; i < tasksPerKey; i++)
+                assertEquals(Integer.valueOf(i), sequences.get(i));
+        }
+    }
+
+    @Test
+    public void laneNeverRunsConcurrently() throws Exception {
+
+        StripedExecutor stripedExecutor = new StripedExecutor(executorService, 1);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(200);
+
+        for (int i = 0; i < 200; i++) {
+            stripedExecutor.execute("key" + i, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                running.decrementAndGet();
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void failingTaskDoesNotStopLane() throws Exception {
+
+        StripedExecutor stripedExecutor = new StripedExecutor(executorService, 4);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        stripedExecutor.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        });
+        stripedExecutor.execute("key", latch::countDown);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, stripedExecutor.getPendingTasks());
+    }
+
+    @Test
+    public void errorInTaskDoesNotStallLane() throws Exception {
+
+        StripedExecutor stripedExecutor = new StripedExecutor(executorService, 1, 2, DispatchPolicy.BLOCK);
+        CountDownLatch latch = new CountDownLatch(3);
+
+        stripedExecutor.execute("key", () -> {
+            throw new AssertionError("boom");
+        });
+
+        for (int i = 0; i < 3; i++)
+            stripedExecutor.execute("key", latch::countDown);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0, stripedExecutor.getPendingTasks());
+    }
+
+    @Test
+    public void fullLaneBlocksProducer() throws Exception {
+
+        StripedExecutor stripedExecutor = new StripedExecutor(executorService, 1, 2, DispatchPolicy.BLOCK);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+        AtomicInteger maxPending = new AtomicInteger();
+
+        stripedExecutor.execute("key", () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 9; i++) {
+                stripedExecutor.execute("key", done::countDown);
+                maxPending.accumulateAndGet(stripedExecutor.getPendingTasks(), Math::max);
+            }
+        });
+        producer.start();
+
+        //Producer fills the lane and waits for it to drain
+        producer.join(500);
+        assertTrue(producer.isAlive());
+        assertEquals(2, stripedExecutor.getPendingTasks());
+
+        release.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(maxPending.get() <= 2);
+    }
+
+    @Test
+    public void fullLaneDropsOldestTask() throws Exception {
+
+        StripedExecutor stripedExecutor = new StripedExecutor(executorService, 1, 2, DispatchPolicy.DROP_OLDEST);
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> executed = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        stripedExecutor.execute("key", () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+
+        for (int i = 0; i < 5; i++) {
+            int sequence = i;
+            stripedExecutor.execute("key", () -> {
+                executed.add(sequence);
+                done.countDown();
+            });
+        }
+
+        release.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(3, stripedExecutor.getDroppedTasks());
+        assertEquals(Integer.valueOf(3), executed.get(0));
+        assertEquals(Integer.valueOf(4), executed.get(1));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *
+ * Copyright 2016 The Symphony Software Foundation
+ *
+ * Licensed to The Symphony Software Foundation (SSF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.symphonyoss.client.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    public void allowsBurstUpToCapacity() {
+
+        TokenBucket tokenBucket = new TokenBucket(1, 5);
+
+        for (int i = 0; i < 5; i++)
+            assertTrue(tokenBucket.tryAcquire());
+
+        assertFalse(tokenBucket.tryAcquire());
+        assertTrue(tokenBucket.nanosUntilAvailable() > 0);
+    }
+
+    @Test
+    public void refillsAtRate() throws Exception {
+
+        TokenBucket tokenBucket = new TokenBucket(100, 1);
+
+        assertTrue(tokenBucket.tryAcquire());
+        assertFalse(tokenBucket.tryAcquire());
+
+        Thread.sleep(50);
+
+        assertTrue(tokenBucket.tryAcquire());
+    }
+
+    @Test
+    public void pauseEmptiesBucket() throws Exception {
+
+        TokenBucket tokenBucket = new TokenBucket(1000, 10);
+
+        tokenBucket.pauseFor(50);
+
+        assertFalse(tokenBucket.tryAcquire());
+        assertFalse(tokenBucket.isFull());
+
+        Thread.sleep(100);
+
+        assertTrue(tokenBucket.tryAcquire());
+        assertEquals(0, tokenBucket.nanosUntilAvailable());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidRate() {
+        new TokenBucket(0, 1);
+    }
+}
@@ -0,0 +1,121 @@
+package org.symphonyoss.symphony.clients.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.symphonyoss.client.exceptions.MessagesException;
+import org.symphonyoss.symphony.clients.MessagesClient;
+import org.symphonyoss.symphony.clients.model.SymMessage;
+import org.symphonyoss.symphony.clients.model.SymStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AsyncMessagesClientImplTest {
+
+    private static final int MAX_IN_FLIGHT = 4;
+
+    private MessagesClient messagesClientMock;
+    private AsyncMessagesClientImpl asyncMessagesClient;
+
+    @Before
+    public void before() {
+        messagesClientMock = mock(MessagesClient.class);
+        asyncMessagesClient = new AsyncMessagesClientImpl(messagesClientMock, null, MAX_IN_FLIGHT);
+    }
+
+    @After
+    public void after() {
+        asyncMessagesClient.shutdown();
+    }
+
+    @Test
+    public void completesWithSentMessage() throws Exception {
+
+        SymMessage sent = new SymMessage();
+        when(messagesClientMock.sendMessage(any(SymStream.class), any(SymMessage.class))).thenReturn(sent);
+
+        assertSame(sent, asyncMessagesClient.sendMessageAsync(new SymStream(), new SymMessage()).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void completesExceptionallyOnApiError() throws Exception {
+
+        when(messagesClientMock.sendMessage(any(SymStream.class), any(SymMessage.class)))
+                .thenThrow(new MessagesException("failed"));
+
+        try {
+            asyncMessagesClient.sendMessageAsync(new SymStream(), new SymMessage()).get(10, TimeUnit.SECONDS);
+            fail("Expected failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof MessagesException);
+        }
+
+        assertEquals(0, asyncMessagesClient.getInFlight());
+    }
+
+    @Test
+    public void inFlightCallsAreBounded() throws Exception {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(messagesClientMock.sendMessage(any(SymStream.class), any(SymMessage.class))).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            release.await(10, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return new SymMessage();
+        });
+
+        List<CompletableFuture<SymMessage>> futures = new ArrayList<>();
+
+        //Submits beyond the limit are queued without blocking the caller
+        for (int i = 0; i < MAX_IN_FLIGHT * 5; i++)
+            futures.add(asyncMessagesClient.sendMessageAsync(new SymStream(), new SymMessage()));
+
+        assertEquals(MAX_IN_FLIGHT, asyncMessagesClient.getInFlight());
+
+        release.countDown();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertTrue(maxRunning.get() <= MAX_IN_FLIGHT);
+        assertEquals(0, asyncMessagesClient.getInFlight());
+    }
+
+    @Test
+    public void dependentStagesCanSubmitCalls() throws Exception {
+
+        AsyncMessagesClientImpl singleSlotClient = new AsyncMessagesClientImpl(messagesClientMock, null, 1);
+
+        SymMessage sent = new SymMessage();
+        when(messagesClientMock.sendMessage(any(SymStream.class), any(SymMessage.class))).thenReturn(sent);
+
+        try {
+
+            SymMessage reply = singleSlotClient.sendMessageAsync(new SymStream(), new SymMessage())
+                    .thenCompose(message -> singleSlotClient.sendMessageAsync(new SymStream(), new SymMessage()))
+                    .get(10, TimeUnit.SECONDS);
+
+            assertSame(sent, reply);
+
+        } finally {
+            singleSlotClient.shutdown();
+        }
+    }
+
+}
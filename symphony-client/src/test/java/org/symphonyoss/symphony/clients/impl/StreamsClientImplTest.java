@@ -0,0 +1,104 @@
+package org.symphonyoss.symphony.clients.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.symphonyoss.client.SymphonyClientConfig;
+import org.symphonyoss.client.model.SymAuth;
+import org.symphonyoss.symphony.authenticator.model.Token;
+import org.symphonyoss.symphony.clients.model.SymStream;
+import org.symphonyoss.symphony.pod.api.StreamsApi;
+import org.symphonyoss.symphony.pod.invoker.ApiClient;
+import org.symphonyoss.symphony.pod.invoker.Configuration;
+import org.symphonyoss.symphony.pod.model.Stream;
+import org.symphonyoss.symphony.pod.model.UserIdList;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.powermock.api.mockito.PowerMockito.whenNew;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ Configuration.class, StreamsClientImpl.class })
+public class StreamsClientImplTest {
+
+    private static final String TOKEN_STRING = "tokenString";
+    private static final String STREAM_ID = "streamId";
+
+    private StreamsClientImpl streamsClient;
+
+    @Mock
+    private ApiClient apiClientMock;
+
+    @Mock
+    private SymAuth symAuthMock;
+
+    @Mock
+    private StreamsApi streamsApiMock;
+
+    @Mock
+    private SymphonyClientConfig configMock;
+
+    @Before
+    public void before() throws Exception {
+        mockStatic(Configuration.class);
+        when(Configuration.getDefaultApiClient()).thenReturn(apiClientMock);
+
+        whenNew(StreamsApi.class).withArguments(apiClientMock).thenReturn(streamsApiMock);
+
+        Token token = new Token();
+        token.setToken(TOKEN_STRING);
+        when(symAuthMock.getSessionToken()).thenReturn(token);
+
+        Stream stream = new Stream();
+        stream.setId(STREAM_ID);
+        when(streamsApiMock.v1ImCreatePost(any(UserIdList.class), eq(TOKEN_STRING))).thenReturn(stream);
+
+        streamsClient = new StreamsClientImpl(symAuthMock, configMock);
+    }
+
+    @Test
+    public void imStreamCreatedOncePerUserSet() throws Exception {
+
+        SymStream first = streamsClient.getStream(userIdList(2L, 1L));
+        SymStream second = streamsClient.getStream(userIdList(1L, 2L));
+
+        assertEquals(STREAM_ID, first.getStreamId());
+        assertEquals(STREAM_ID, second.getStreamId());
+
+        verify(streamsApiMock, times(1)).v1ImCreatePost(any(UserIdList.class), eq(TOKEN_STRING));
+        assertEquals(1, streamsClient.getImStreamCacheStats().hitCount());
+        assertEquals(1, streamsClient.getImStreamCacheSize());
+    }
+
+    @Test
+    public void differentUserSetsAreNotShared() throws Exception {
+
+        streamsClient.getStream(userIdList(1L));
+        streamsClient.getStream(userIdList(1L, 2L));
+
+        verify(streamsApiMock, times(2)).v1ImCreatePost(any(UserIdList.class), eq(TOKEN_STRING));
+
+        streamsClient.clearImStreamCache();
+        streamsClient.getStream(userIdList(1L));
+
+        verify(streamsApiMock, times(3)).v1ImCreatePost(any(UserIdList.class), eq(TOKEN_STRING));
+    }
+
+    private UserIdList userIdList(Long... userIds) {
+        UserIdList userIdList = new UserIdList();
+
+        for (Long userId : userIds)
+            userIdList.add(userId);
+
+        return userIdList;
+    }
+
+}
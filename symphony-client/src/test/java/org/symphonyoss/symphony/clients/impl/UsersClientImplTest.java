@@ -11,23 +11,48 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.symphonyoss.client.SymphonyClientConfig;
+import org.symphonyoss.client.common.Constants;
 import org.symphonyoss.client.exceptions.UsersClientException;
 import org.symphonyoss.client.model.SymAuth;
 import org.symphonyoss.symphony.authenticator.model.Token;
+import org.symphonyoss.symphony.clients.UserSyncListener;
+import org.symphonyoss.symphony.clients.model.SymUser;
+import org.symphonyoss.symphony.pod.api.RoomMembershipApi;
 import org.symphonyoss.symphony.pod.api.UserApi;
+import org.symphonyoss.symphony.pod.api.UsersApi;
 import org.symphonyoss.symphony.pod.invoker.ApiClient;
 import org.symphonyoss.symphony.pod.invoker.ApiException;
 import org.symphonyoss.symphony.pod.invoker.Configuration;
 import org.symphonyoss.symphony.pod.model.AvatarUpdate;
+import org.symphonyoss.symphony.pod.model.FeatureList;
+import org.symphonyoss.symphony.pod.model.MemberInfo;
+import org.symphonyoss.symphony.pod.model.MembershipList;
+import org.symphonyoss.symphony.pod.model.StringList;
 import org.symphonyoss.symphony.pod.model.SuccessResponse;
-
+import org.symphonyoss.symphony.pod.model.UserDetail;
+import org.symphonyoss.symphony.pod.model.UserIdList;
+import org.symphonyoss.symphony.pod.model.UserSystemInfo;
+import org.symphonyoss.symphony.pod.model.UserV2;
+import org.symphonyoss.symphony.pod.model.V2UserList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.isNull;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.verifyNew;
 import static org.powermock.api.mockito.PowerMockito.when;
@@ -45,6 +70,7 @@ public class UsersClientImplTest {
     private static final String API_ERROR_COMMUNICATING_WITH_POD_WHILE_UPDATING_AVATAR = "API error communicating with POD, while updating avatar";
     private static final String AVATAR_UPDATE_FAILED = "Avatar update failed";
     private static final String POD_URL = "podUrl";
+    private static final String STREAM_ID = "streamId";
 
     private static Logger LOG;
 
@@ -59,6 +85,12 @@ public class UsersClientImplTest {
     @Mock
     private UserApi userApiMock;
 
+    @Mock
+    private UsersApi usersApiMock;
+
+    @Mock
+    private RoomMembershipApi roomMembershipApiMock;
+
     @Mock
     private AvatarUpdate avatarUpdateMock;
 
@@ -75,6 +107,10 @@ public class UsersClientImplTest {
 
         whenNew(UserApi.class).withArguments(apiClientMock).thenReturn(userApiMock);
 
+        whenNew(UsersApi.class).withArguments(apiClientMock).thenReturn(usersApiMock);
+
+        whenNew(RoomMembershipApi.class).withArguments(apiClientMock).thenReturn(roomMembershipApiMock);
+
         whenNew(AvatarUpdate.class).withNoArguments().thenReturn(avatarUpdateMock);
 
         usersClient = new UsersClientImpl(symAuthMock, configMock, apiClientMock.getHttpClient());
@@ -118,6 +154,127 @@ public class UsersClientImplTest {
                 any(ApiException.class));
     }
 
+    @Test
+    public void streamMembersResolvedInBulk() throws Exception {
+        mockSessionToken();
+
+        MembershipList membershipList = new MembershipList();
+        for (long userId = 1; userId <= 3; userId++) {
+            MemberInfo memberInfo = new MemberInfo();
+            memberInfo.setId(userId);
+            membershipList.add(memberInfo);
+        }
+
+        when(roomMembershipApiMock.v1RoomIdMembershipListGet(STREAM_ID, TOKEN_STRING)).thenReturn(membershipList);
+        when(usersApiMock.v3UsersGet(TOKEN_STRING, "1,2,3", null, null, true)).thenReturn(userList(1L, 2L));
+        when(usersApiMock.v3UsersGet(TOKEN_STRING, "3", null, null, false)).thenReturn(userList(3L));
+
+        Set<SymUser> symUsers = usersClient.getUsersFromStream(STREAM_ID);
+
+        assertEquals(3, symUsers.size());
+        assertEquals(3, symUsers.stream().map(SymUser::getId).collect(Collectors.toSet()).size());
+        verify(usersApiMock, never()).v2UserGet(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void allUsersStreamedInRetriedBatches() throws Exception {
+        mockSessionToken();
+
+        UserIdList userIdList = new UserIdList();
+        for (long userId = 1; userId <= 250; userId++)
+            userIdList.add(userId);
+
+        when(userApiMock.v1AdminUserListGet(TOKEN_STRING)).thenReturn(userIdList);
+        when(usersApiMock.getApiClient()).thenReturn(apiClientMock);
+        when(usersApiMock.v3UsersGet(eq(TOKEN_STRING), anyString(), isNull(), isNull(), eq(true)))
+                .thenThrow(new ApiException(503, "Unavailable"))
+                .thenAnswer(invocation -> userList(Arrays.stream(invocation.<String>getArgument(1).split(","))
+                        .map(Long::valueOf).toArray(Long[]::new)));
+
+        Set<Long> userIds = new HashSet<>();
+        List<Integer> progress = new ArrayList<>();
+
+        int found = usersClient.getAllUsers(new UserSyncListener() {
+            @Override
+            public void onUser(SymUser symUser) {
+                userIds.add(symUser.getId());
+            }
+
+            @Override
+            public void onProgress(int completed, int total) {
+                assertEquals(250, total);
+                progress.add(completed);
+            }
+        });
+
+        assertEquals(250, found);
+        assertEquals(250, userIds.size());
+        assertEquals(3, progress.size());
+        assertEquals(Integer.valueOf(250), progress.get(2));
+        verify(usersApiMock, times(4)).v3UsersGet(eq(TOKEN_STRING), anyString(), isNull(), isNull(), eq(true));
+        verify(usersApiMock, never()).v2UserGet(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void allUsersWithDetailsStreamedEnriched() throws Exception {
+        mockSessionToken();
+
+        UserIdList userIdList = new UserIdList();
+        userIdList.add(1L);
+        userIdList.add(2L);
+
+        UserSystemInfo userSystemInfo = new UserSystemInfo();
+        userSystemInfo.setCreatedDate(1000L);
+
+        StringList roles = new StringList();
+        roles.add("INDIVIDUAL");
+
+        UserDetail userDetail = new UserDetail();
+        userDetail.setRoles(roles);
+        userDetail.setUserSystemInfo(userSystemInfo);
+
+        when(userApiMock.v1AdminUserListGet(TOKEN_STRING)).thenReturn(userIdList);
+        when(usersApiMock.v3UsersGet(TOKEN_STRING, "1,2", null, null, true)).thenReturn(userList(1L, 2L));
+        when(userApiMock.v1AdminUserUidFeaturesGet(eq(TOKEN_STRING), anyLong())).thenReturn(new FeatureList());
+        when(userApiMock.v1AdminUserUidGet(eq(TOKEN_STRING), anyLong())).thenReturn(userDetail);
+
+        List<SymUser> symUsers = new ArrayList<>();
+
+        assertEquals(2, usersClient.getAllUsersWithDetails(symUsers::add));
+
+        for (SymUser symUser : symUsers) {
+            assertEquals(Collections.singleton("INDIVIDUAL"), symUser.getRoles());
+            assertEquals(1000L, symUser.getCreatedDate().getTime());
+        }
+
+        verify(userApiMock, times(2)).v1AdminUserUidGet(eq(TOKEN_STRING), anyLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchSizeBelowOneIsRejected() throws Exception {
+        System.setProperty(Constants.USERSCLIENT_BATCH_SIZE, "0");
+
+        try {
+            usersClient.getUsersFromIdList(Arrays.asList(1L, 2L), true);
+        } finally {
+            System.clearProperty(Constants.USERSCLIENT_BATCH_SIZE);
+        }
+    }
+
+    private V2UserList userList(Long... userIds) {
+        List<UserV2> users = new ArrayList<>();
+
+        for (Long userId : userIds) {
+            UserV2 user = new UserV2();
+            user.setId(userId);
+            users.add(user);
+        }
+
+        V2UserList userList = new V2UserList();
+        userList.setUsers(users);
+        return userList;
+    }
+
     private void mockUserApi(String response) throws ApiException {
         when(userApiMock.v1AdminUserUidAvatarUpdatePost(TOKEN_STRING, USER_ID, avatarUpdateMock))
                 .thenReturn(successResponseMock);